@@ -7,15 +7,19 @@
  */
 package de.ii.ldproxy.ogcapi.collections.queryables.app;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import de.ii.ldproxy.ogcapi.collections.queryables.domain.ImmutableQueryable;
+import de.ii.ldproxy.ogcapi.collections.queryables.domain.Queryable;
 import de.ii.ldproxy.ogcapi.domain.DefaultLinksGenerator;
 import de.ii.ldproxy.ogcapi.domain.*;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCollectionQueryables;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ldproxy.ogcapi.features.geojson.domain.SchemaGeneratorFeature;
+import de.ii.xtraplatform.dropwizard.domain.Dropwizard;
 import de.ii.xtraplatform.features.domain.FeatureProvider2;
 import de.ii.xtraplatform.features.domain.FeatureSchema;
 import org.apache.felix.ipojo.annotations.Component;
@@ -26,10 +30,17 @@ import org.immutables.value.Value;
 
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
 import java.util.*;
 
+/**
+ * The queryables of a collection are derived from the feature schema once per revision of the API
+ * configuration. The JSON documents are serialized once per request URI, media type and language and are
+ * served from memory afterwards.
+ */
 @Component
 @Instantiate
 @Provides(specifications = {QueryablesQueriesHandler.class})
@@ -37,6 +48,9 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
 
     public enum Query implements QueryIdentifier {QUERYABLES}
 
+    // per API, the request URIs are controlled by the client
+    private static final int MAX_CACHED_DOCUMENTS = 1000;
+
     @Value.Immutable
     public interface QueryInputQueryables extends QueryInput {
         String getCollectionId();
@@ -49,12 +63,20 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
 
     private final I18n i18n;
     private final FeaturesCoreProviders providers;
+    private final ObjectMapper objectMapper;
+    private final ApiRevisionCache<String, List<Queryable>> queryablesCache;
+    private final ApiRevisionCache<List<Object>, PrecompressedEntity> serializedQueryables;
     private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
 
     public QueryablesQueriesHandler(@Requires I18n i18n,
-                                    @Requires FeaturesCoreProviders providers) {
+                                    @Requires FeaturesCoreProviders providers,
+                                    @Requires Dropwizard dropwizard) {
         this.i18n = i18n;
         this.providers = providers;
+        this.objectMapper = dropwizard.getEnvironment()
+                                      .getObjectMapper();
+        this.queryablesCache = new ApiRevisionCache<>(Integer.MAX_VALUE);
+        this.serializedQueryables = new ApiRevisionCache<>(MAX_CACHED_DOCUMENTS);
         this.queryHandlers = ImmutableMap.of(
                 Query.QUERYABLES, QueryHandler.with(QueryInputQueryables.class, this::getQueryablesResponse)
         );
@@ -93,7 +115,31 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
         List<Link> links =
                 new DefaultLinksGenerator().generateLinks(requestContext.getUriCustomizer(), requestContext.getMediaType(), alternateMediaTypes, i18n, requestContext.getLanguage());
 
-        ImmutableQueryables.Builder queryables = ImmutableQueryables.builder();
+        // the queryables only depend on the API configuration, the request specific links are added
+        Queryables queryables = ImmutableQueryables.builder()
+                                                   .queryables(queryablesCache.computeIfAbsent(apiData, collectionId, ignore -> getQueryables(apiData, collectionId)))
+                                                   .links(links)
+                                                   .build();
+
+        Object entity;
+        // HTML pages are cached when they are rendered
+        if (outputFormat.getMediaType()
+                        .type()
+                        .isCompatible(MediaType.TEXT_HTML_TYPE)) {
+            entity = outputFormat.getEntity(queryables, collectionId, api, requestContext);
+        } else {
+            List<Object> cacheKey = ImmutableList.of(collectionId, requestContext.getUriCustomizer()
+                                                                                 .toString(), requestContext.getMediaType(), alternateMediaTypes, requestContext.getLanguage());
+            entity = serializedQueryables.computeIfAbsent(apiData, cacheKey, ignore -> serialize(outputFormat.getEntity(queryables, collectionId, api, requestContext)));
+        }
+
+        return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? links : null)
+                .entity(entity)
+                .build();
+    }
+
+    private List<Queryable> getQueryables(OgcApiDataV2 apiData, String collectionId) {
+        ImmutableList.Builder<Queryable> queryables = ImmutableList.builder();
 
         FeatureTypeConfigurationOgcApi collectionData = apiData.getCollections()
                 .get(collectionId);
@@ -177,7 +223,7 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
                                            return;
                                    }
 
-                                   queryables.addQueryables(ImmutableQueryable.builder()
+                                   queryables.add(ImmutableQueryable.builder()
                                                                               .id(nameInFilters)
                                                                               .type(type)
                                                                               .title(featureProperty.getLabel())
@@ -191,7 +237,7 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
                                                                               .build());
                                    visitedProperties.add(nameInFilters);
                                } else if (temporalQueryables.contains(nameInFilters)) {
-                                   queryables.addQueryables(ImmutableQueryable.builder()
+                                   queryables.add(ImmutableQueryable.builder()
                                                                               .id(nameInFilters)
                                                                               .type("dateTime")
                                                                               .title(featureProperty.getLabel())
@@ -201,7 +247,7 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
                                                                               .build());
                                    visitedProperties.add(nameInFilters);
                                } else if (spatialQueryables.contains(nameInFilters)) {
-                                   queryables.addQueryables(ImmutableQueryable.builder()
+                                   queryables.add(ImmutableQueryable.builder()
                                                                               .id(nameInFilters)
                                                                               .type("geometry")
                                                                               .title(featureProperty.getLabel())
@@ -215,10 +261,14 @@ public class QueryablesQueriesHandler implements QueriesHandler<QueryablesQuerie
             }
         });
 
-        queryables.links(links);
+        return queryables.build();
+    }
 
-        return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? links : null)
-                .entity(outputFormat.getEntity(queryables.build(), collectionId, api, requestContext))
-                .build();
+    private PrecompressedEntity serialize(Object entity) {
+        try {
+            return PrecompressedEntity.of(objectMapper.writeValueAsBytes(entity));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Queryables could not be serialized", e);
+        }
     }
 }
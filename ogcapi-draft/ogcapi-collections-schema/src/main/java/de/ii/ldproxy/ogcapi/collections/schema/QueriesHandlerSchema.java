@@ -7,11 +7,15 @@
  */
 package de.ii.ldproxy.ogcapi.collections.schema;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import de.ii.ldproxy.ogcapi.domain.DefaultLinksGenerator;
 import de.ii.ldproxy.ogcapi.domain.I18n;
 import de.ii.ldproxy.ogcapi.domain.*;
 import de.ii.ldproxy.ogcapi.features.geojson.domain.SchemaGeneratorFeature;
+import de.ii.xtraplatform.dropwizard.domain.Dropwizard;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
@@ -20,12 +24,18 @@ import org.immutables.value.Value;
 
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.UncheckedIOException;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+/**
+ * The schemas are serialized once per revision of the API configuration, collection, request URI, media type
+ * and language and are served from memory afterwards.
+ */
 @Component
 @Instantiate
 @Provides(specifications = {QueriesHandlerSchema.class})
@@ -33,6 +43,9 @@ public class QueriesHandlerSchema implements QueriesHandler<QueriesHandlerSchema
 
     public enum Query implements QueryIdentifier {SCHEMA}
 
+    // per API, the request URIs are controlled by the client
+    private static final int MAX_CACHED_DOCUMENTS = 1000;
+
     @Value.Immutable
     public interface QueryInputQueryables extends QueryInput {
         String getCollectionId();
@@ -44,10 +57,15 @@ public class QueriesHandlerSchema implements QueriesHandler<QueriesHandlerSchema
     SchemaGeneratorFeature schemaGeneratorFeature;
 
     private final I18n i18n;
+    private final ObjectMapper objectMapper;
+    private final ApiRevisionCache<List<Object>, PrecompressedEntity> serializedSchemas;
     private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
 
-    public QueriesHandlerSchema(@Requires I18n i18n) {
+    public QueriesHandlerSchema(@Requires I18n i18n, @Requires Dropwizard dropwizard) {
         this.i18n = i18n;
+        this.objectMapper = dropwizard.getEnvironment()
+                                      .getObjectMapper();
+        this.serializedSchemas = new ApiRevisionCache<>(MAX_CACHED_DOCUMENTS);
         this.queryHandlers = ImmutableMap.of(
                 Query.SCHEMA, QueryHandler.with(QueryInputQueryables.class, this::getSchemaResponse)
         );
@@ -85,13 +103,35 @@ public class QueriesHandlerSchema implements QueriesHandler<QueriesHandlerSchema
         List<Link> links =
                 new DefaultLinksGenerator().generateLinks(requestContext.getUriCustomizer(), requestContext.getMediaType(), alternateMediaTypes, i18n, requestContext.getLanguage());
 
-        Map<String,Object> jsonSchema = schemaGeneratorFeature.getSchemaJson(apiData, collectionId, links.stream()
+        Object entity;
+        // HTML pages are cached when they are rendered
+        if (outputFormat.getMediaType()
+                        .type()
+                        .isCompatible(MediaType.TEXT_HTML_TYPE)) {
+            entity = outputFormat.getEntity(getSchemaJson(apiData, collectionId, links), collectionId, api, requestContext);
+        } else {
+            List<Object> cacheKey = ImmutableList.of(collectionId, requestContext.getUriCustomizer()
+                                                                                 .toString(), requestContext.getMediaType(), alternateMediaTypes, requestContext.getLanguage());
+            entity = serializedSchemas.computeIfAbsent(apiData, cacheKey, ignore -> serialize(outputFormat.getEntity(getSchemaJson(apiData, collectionId, links), collectionId, api, requestContext)));
+        }
+
+        return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? links : null)
+                .entity(entity)
+                .build();
+    }
+
+    private Map<String, Object> getSchemaJson(OgcApiDataV2 apiData, String collectionId, List<Link> links) {
+        return schemaGeneratorFeature.getSchemaJson(apiData, collectionId, links.stream()
                 .filter(link -> link.getRel().equals("self"))
                 .map(link -> link.getHref())
                 .findAny());
+    }
 
-        return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? links : null)
-                .entity(outputFormat.getEntity(jsonSchema, collectionId, api, requestContext))
-                .build();
+    private PrecompressedEntity serialize(Object entity) {
+        try {
+            return PrecompressedEntity.of(objectMapper.writeValueAsBytes(entity));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Schema could not be serialized", e);
+        }
     }
 }
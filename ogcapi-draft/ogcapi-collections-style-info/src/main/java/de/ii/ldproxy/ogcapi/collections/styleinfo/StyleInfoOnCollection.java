@@ -14,6 +14,7 @@ import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.collect.ImmutableList;
 import de.ii.ldproxy.ogcapi.collections.domain.CollectionExtension;
 import de.ii.ldproxy.ogcapi.collections.domain.ImmutableOgcApiCollection;
+import de.ii.ldproxy.ogcapi.domain.ApiDirectoryWatcher;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
 import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
 import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
@@ -25,8 +26,10 @@ import de.ii.ldproxy.ogcapi.domain.URICustomizer;
 import de.ii.ldproxy.ogcapi.styles.domain.StylesConfiguration;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Invalidate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.Validate;
 import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,15 +42,19 @@ import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
 import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
 
 /**
- * add style links to the collection information
+ * add style links to the collection information, the style infos directory of an API is watched for changes,
+ * a change increments the content version of the collections of the API
  */
 @Component
 @Provides
@@ -60,11 +67,29 @@ public class StyleInfoOnCollection implements CollectionExtension {
     private static final Logger LOGGER = LoggerFactory.getLogger(StyleInfoOnCollection.class);
 
     private final Path styleInfosStore;
+    private final Map<String, Long> apiVersions;
+    private final AtomicLong versions;
+    private ApiDirectoryWatcher watcher;
 
     public StyleInfoOnCollection(@org.apache.felix.ipojo.annotations.Context BundleContext bundleContext) throws IOException {
         this.styleInfosStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
                                     .resolve("style-infos");
         Files.createDirectories(styleInfosStore);
+        this.apiVersions = new ConcurrentHashMap<>();
+        this.versions = new AtomicLong();
+    }
+
+    // the watcher is created on every start of the component, it is closed when the component is stopped
+    @Validate
+    private void onStart() throws IOException {
+        // the next request of the API gets a new version
+        this.watcher = new ApiDirectoryWatcher("style-infos-watcher", apiVersions::remove);
+    }
+
+    @Invalidate
+    private void onStop() {
+        watcher.close();
+        apiVersions.clear();
     }
 
     @Override
@@ -98,6 +123,29 @@ public class StyleInfoOnCollection implements CollectionExtension {
         return StylesConfiguration.class;
     }
 
+    // the style infos are changed independently of the API configuration
+    @Override
+    public long getContentVersion(OgcApiDataV2 apiData, String collectionId, boolean isNested) {
+        if (isNested || !isEnabledForApi(apiData, collectionId)) {
+            return 0L;
+        }
+
+        return apiVersions.computeIfAbsent(apiData.getId(), this::register);
+    }
+
+    private long register(String apiId) {
+        Path apiDir = styleInfosStore.resolve(apiId);
+        try {
+            Files.createDirectories(apiDir);
+            watcher.register(apiId, apiDir);
+        } catch (IOException e) {
+            LOGGER.error("Style infos of API '{}' cannot be watched: {}", apiId, e.getMessage());
+        }
+
+        // the version is assigned after the directory is watched, so no change is missed
+        return versions.incrementAndGet();
+    }
+
     @Override
     public ImmutableOgcApiCollection.Builder process(ImmutableOgcApiCollection.Builder collection,
                                                      FeatureTypeConfigurationOgcApi featureTypeConfiguration,
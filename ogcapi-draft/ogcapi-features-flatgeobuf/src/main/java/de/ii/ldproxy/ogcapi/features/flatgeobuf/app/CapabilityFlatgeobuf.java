@@ -0,0 +1,35 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.flatgeobuf.app;
+
+import de.ii.ldproxy.ogcapi.domain.ApiBuildingBlock;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.features.flatgeobuf.domain.ImmutableFlatgeobufConfiguration;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+
+@Component
+@Provides
+@Instantiate
+public class CapabilityFlatgeobuf implements ApiBuildingBlock {
+
+    @Override
+    public ExtensionConfiguration.Builder getConfigurationBuilder() {
+        return new ImmutableFlatgeobufConfiguration.Builder();
+    }
+
+    @Override
+    public ExtensionConfiguration getDefaultConfiguration() {
+        return new ImmutableFlatgeobufConfiguration.Builder().enabled(false)
+                                                             .maxFeaturesForSpatialIndex(1000)
+                                                             .build();
+    }
+
+}
@@ -0,0 +1,841 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.flatgeobuf.app;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.flatbuffers.FlatBufferBuilder;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureTransformationContext;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureTransformerBase;
+import de.ii.ldproxy.ogcapi.features.flatgeobuf.domain.FlatgeobufConfiguration;
+import de.ii.xtraplatform.crs.domain.CrsTransformer;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import de.ii.xtraplatform.features.domain.FeatureProperty;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+import de.ii.xtraplatform.features.domain.FeatureType;
+import de.ii.xtraplatform.features.domain.transform.FeaturePropertySchemaTransformer;
+import de.ii.xtraplatform.features.domain.transform.FeaturePropertyValueTransformer;
+import de.ii.xtraplatform.geometries.domain.SimpleFeatureGeometry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+
+/**
+ * Writes features as FlatGeobuf. The FlatBuffers tables are built directly with the
+ * {@link FlatBufferBuilder}, the table layout follows the FlatGeobuf schema version 3.
+ *
+ * <p>By default the header and the features are streamed without a spatial index. If the page
+ * size does not exceed {@code maxFeaturesForSpatialIndex}, the features are buffered, sorted by
+ * the Hilbert value of their bounding box and written after a packed Hilbert R-tree.</p>
+ *
+ * <p>Whether the geometries have z values is declared in the header. For buffered features, it
+ * is derived from all geometries. Streamed features use the dimension of the first geometry,
+ * z values of later geometries are dropped, if the first geometry has no z values.</p>
+ *
+ * <p>The geometry type is always written for each feature. The header only declares a geometry type,
+ * if all buffered features have a geometry of that type, otherwise it declares {@code Unknown}. The
+ * schema of the provider does not guarantee the type, e.g. a polygon column may also contain multi
+ * polygons.</p>
+ */
+public class FeatureTransformerFlatgeobuf extends FeatureTransformerBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeatureTransformerFlatgeobuf.class);
+
+    static final byte[] MAGIC_BYTES = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x00};
+    static final int INDEX_NODE_SIZE = 16;
+    static final int NODE_ITEM_BYTES = 40;
+    private static final int HILBERT_MAX = (1 << 16) - 1;
+    private static final int FLUSH_INTERVAL = 100;
+
+    // enum GeometryType
+    static final byte GEOMETRY_TYPE_UNKNOWN = 0;
+    static final byte GEOMETRY_TYPE_POINT = 1;
+    static final byte GEOMETRY_TYPE_LINE_STRING = 2;
+    static final byte GEOMETRY_TYPE_POLYGON = 3;
+    static final byte GEOMETRY_TYPE_MULTI_POINT = 4;
+    static final byte GEOMETRY_TYPE_MULTI_LINE_STRING = 5;
+    static final byte GEOMETRY_TYPE_MULTI_POLYGON = 6;
+
+    // enum ColumnType
+    static final byte COLUMN_TYPE_BOOL = 2;
+    static final byte COLUMN_TYPE_LONG = 7;
+    static final byte COLUMN_TYPE_DOUBLE = 10;
+    static final byte COLUMN_TYPE_STRING = 11;
+    static final byte COLUMN_TYPE_DATETIME = 13;
+
+    private static final Map<SimpleFeatureGeometry, Byte> GEOMETRY_TYPES = new ImmutableMap.Builder<SimpleFeatureGeometry, Byte>()
+            .put(SimpleFeatureGeometry.POINT, GEOMETRY_TYPE_POINT)
+            .put(SimpleFeatureGeometry.LINE_STRING, GEOMETRY_TYPE_LINE_STRING)
+            .put(SimpleFeatureGeometry.POLYGON, GEOMETRY_TYPE_POLYGON)
+            .put(SimpleFeatureGeometry.MULTI_POINT, GEOMETRY_TYPE_MULTI_POINT)
+            .put(SimpleFeatureGeometry.MULTI_LINE_STRING, GEOMETRY_TYPE_MULTI_LINE_STRING)
+            .put(SimpleFeatureGeometry.MULTI_POLYGON, GEOMETRY_TYPE_MULTI_POLYGON)
+            .build();
+
+    private final OutputStream outputStream;
+    private final String collectionId;
+    private final Optional<FeatureSchema> featureSchema;
+    private final Optional<CrsTransformer> crsTransformer;
+    private final boolean swapCoordinates;
+    private final EpsgCrs targetCrs;
+    private final List<Column> columns;
+    private final Map<String, Integer> columnIndex;
+    private final boolean withSpatialIndex;
+    private final Splitter coordinateSplitter;
+    private final FlatBufferBuilder builder;
+    private final ByteArrayOutputStream propertyBuffer;
+    private final ByteBuffer scratch;
+    private final BitSet writtenColumns;
+    private final List<EncodedFeature> encodedFeatures;
+
+    private boolean headerWritten;
+    private Boolean hasZ;
+    private long featureCount;
+
+    private int currentColumn = -1;
+    private FeatureProperty currentProperty;
+    private final StringBuilder currentValueBuilder = new StringBuilder();
+
+    private SimpleFeatureGeometry currentGeometryType;
+    private int currentDimension;
+    private int currentGeometryNestingChange;
+    private boolean hasGeometry;
+    private final List<GeometryPart> currentParts = new ArrayList<>();
+    private final double[] currentBbox = new double[4];
+
+    public FeatureTransformerFlatgeobuf(FeatureTransformationContext transformationContext) {
+        super(FlatgeobufConfiguration.class,
+              transformationContext.getApiData(), transformationContext.getCollectionId(),
+              transformationContext.getCodelists(), transformationContext.getServiceUrl(),
+              transformationContext.isFeatureCollection());
+        this.outputStream = transformationContext.getOutputStream();
+        this.collectionId = transformationContext.getCollectionId();
+        this.featureSchema = transformationContext.getFeatureSchema();
+        this.crsTransformer = transformationContext.getCrsTransformer();
+        this.swapCoordinates = transformationContext.shouldSwapCoordinates();
+        this.targetCrs = crsTransformer.map(CrsTransformer::getTargetCrs)
+                                       .orElse(transformationContext.getDefaultCrs());
+        this.columns = getColumns(featureSchema);
+        ImmutableMap.Builder<String, Integer> columnIndexBuilder = ImmutableMap.builder();
+        for (int i = 0; i < columns.size(); i++) {
+            columnIndexBuilder.put(columns.get(i).name, i);
+        }
+        this.columnIndex = columnIndexBuilder.build();
+
+        int maxFeaturesForSpatialIndex = transformationContext.getApiData()
+                                                              .getCollections()
+                                                              .get(collectionId)
+                                                              .getExtension(FlatgeobufConfiguration.class)
+                                                              .map(FlatgeobufConfiguration::getMaxFeaturesForSpatialIndex)
+                                                              .orElse(0);
+        this.withSpatialIndex = transformationContext.isFeatureCollection() &&
+                transformationContext.getLimit() > 0 &&
+                transformationContext.getLimit() <= maxFeaturesForSpatialIndex;
+
+        this.coordinateSplitter = Splitter.on(Pattern.compile("\\s+|\\,"))
+                                          .omitEmptyStrings();
+        this.builder = new FlatBufferBuilder(1024);
+        this.propertyBuffer = new ByteArrayOutputStream(256);
+        this.scratch = ByteBuffer.allocate(8)
+                                 .order(ByteOrder.LITTLE_ENDIAN);
+        this.writtenColumns = new BitSet(columns.size());
+        this.encodedFeatures = withSpatialIndex ? new ArrayList<>(transformationContext.getLimit()) : ImmutableList.of();
+    }
+
+    @Override
+    public String getTargetFormat() {
+        return FeaturesFormatFlatgeobuf.MEDIA_TYPE.toString();
+    }
+
+    @Override
+    public void onStart(OptionalLong numberReturned, OptionalLong numberMatched) {
+
+        LOGGER.trace("START");
+
+        if (numberReturned.isPresent()) {
+            LOGGER.trace("numberMatched {}", numberMatched.orElse(-1));
+            LOGGER.trace("numberReturned {}", numberReturned.getAsLong());
+        }
+    }
+
+    @Override
+    public void onEnd() throws Exception {
+        if (withSpatialIndex) {
+            writeIndexedFeatures();
+        } else if (!headerWritten) {
+            // empty response
+            writeHeader(GEOMETRY_TYPE_UNKNOWN, 0, 0, null);
+        }
+
+        outputStream.flush();
+
+        LOGGER.trace("Response written.");
+    }
+
+    @Override
+    public void onFeatureStart(FeatureType featureType) {
+        propertyBuffer.reset();
+        writtenColumns.clear();
+        currentParts.clear();
+        hasGeometry = false;
+        currentBbox[0] = Double.POSITIVE_INFINITY;
+        currentBbox[1] = Double.POSITIVE_INFINITY;
+        currentBbox[2] = Double.NEGATIVE_INFINITY;
+        currentBbox[3] = Double.NEGATIVE_INFINITY;
+    }
+
+    @Override
+    public void onFeatureEnd() throws Exception {
+        // the features are encoded when all geometries are known
+        if (withSpatialIndex) {
+            encodedFeatures.add(new EncodedFeature(propertyBuffer.toByteArray(), hasGeometry ? currentGeometryType : null, new ArrayList<>(currentParts), hasGeometry ? Arrays.copyOf(currentBbox, 4) : null));
+            return;
+        }
+
+        if (Objects.isNull(hasZ)) {
+            hasZ = hasGeometry && currentDimension == 3;
+        }
+
+        byte[] feature = encodeFeature(propertyBuffer.toByteArray(), hasGeometry ? currentGeometryType : null, currentParts);
+
+        if (!headerWritten) {
+            writeHeader(GEOMETRY_TYPE_UNKNOWN, 0, 0, null);
+        }
+
+        outputStream.write(feature);
+        featureCount++;
+
+        if (featureCount % FLUSH_INTERVAL == 0) {
+            outputStream.flush();
+        }
+    }
+
+    @Override
+    public void onPropertyStart(FeatureProperty featureProperty, List<Integer> multiplicities) {
+        if (Objects.isNull(featureProperty)) {
+            return;
+        }
+
+        // only single-valued properties on the top level are columns
+        Integer column = columnIndex.get(featureProperty.getName());
+        if (Objects.isNull(column) || writtenColumns.get(column)) {
+            return;
+        }
+
+        FeatureProperty processedFeatureProperty = featureProperty;
+        for (FeaturePropertySchemaTransformer schemaTransformer : getSchemaTransformations(featureProperty)) {
+            processedFeatureProperty = schemaTransformer.transform(processedFeatureProperty);
+            // the property may have been removed by the transformations
+            if (Objects.isNull(processedFeatureProperty)) {
+                return;
+            }
+        }
+
+        currentColumn = column;
+        currentProperty = featureProperty;
+    }
+
+    @Override
+    public void onPropertyText(String text) {
+        if (currentColumn >= 0) {
+            currentValueBuilder.append(text);
+        }
+    }
+
+    @Override
+    public void onPropertyEnd() throws Exception {
+        if (currentColumn >= 0 && currentValueBuilder.length() > 0) {
+            String value = currentValueBuilder.toString();
+            for (FeaturePropertyValueTransformer valueTransformer : getValueTransformations(currentProperty)) {
+                value = valueTransformer.transform(value);
+                if (Objects.isNull(value)) {
+                    break;
+                }
+            }
+            // skip, if the value has been transformed to null
+            if (Objects.nonNull(value)) {
+                try {
+                    writeProperty(currentColumn, columns.get(currentColumn).type, value);
+                    writtenColumns.set(currentColumn);
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Value '{}' of property '{}' in collection '{}' does not match the column type, the value is skipped.", value, currentProperty.getName(), collectionId);
+                }
+            }
+        }
+
+        // reset
+        currentColumn = -1;
+        currentProperty = null;
+        currentValueBuilder.setLength(0);
+    }
+
+    @Override
+    public void onGeometryStart(FeatureProperty featureProperty, SimpleFeatureGeometry type, Integer dimension) {
+        // only the first geometry of a feature is encoded
+        if (Objects.isNull(featureProperty) || hasGeometry || !GEOMETRY_TYPES.containsKey(type)) {
+            currentGeometryType = null;
+            return;
+        }
+
+        currentGeometryType = type;
+        currentDimension = Objects.nonNull(dimension) ? dimension : 2;
+        currentGeometryNestingChange = 0;
+        currentParts.clear();
+        if (type != SimpleFeatureGeometry.MULTI_POLYGON) {
+            currentParts.add(new GeometryPart(currentDimension));
+        }
+    }
+
+    @Override
+    public void onGeometryNestedStart() {
+        if (Objects.isNull(currentGeometryType)) {
+            return;
+        }
+
+        currentGeometryNestingChange++;
+    }
+
+    @Override
+    public void onGeometryCoordinates(String text) {
+        if (Objects.isNull(currentGeometryType)) {
+            return;
+        }
+
+        // a multi polygon opens a polygon and a ring, the other types open a ring or line string
+        if (currentGeometryType == SimpleFeatureGeometry.MULTI_POLYGON && (currentGeometryNestingChange >= 2 || currentParts.isEmpty())) {
+            currentParts.add(new GeometryPart(currentDimension));
+        }
+        GeometryPart part = currentParts.get(currentParts.size() - 1);
+        if (currentGeometryNestingChange >= 1) {
+            part.endRing();
+        }
+
+        double[] coordinates = parseCoordinates(text);
+        part.add(coordinates, currentBbox);
+
+        currentGeometryNestingChange = 0;
+    }
+
+    @Override
+    public void onGeometryNestedEnd() {
+    }
+
+    @Override
+    public void onGeometryEnd() {
+        if (Objects.isNull(currentGeometryType)) {
+            return;
+        }
+
+        currentParts.forEach(GeometryPart::endRing);
+        hasGeometry = currentParts.stream()
+                                  .anyMatch(part -> part.vertices > 0);
+        if (!hasGeometry) {
+            currentParts.clear();
+        }
+    }
+
+    private double[] parseCoordinates(String text) {
+        List<String> values = coordinateSplitter.splitToList(text);
+        double[] coordinates = new double[values.size()];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = Double.parseDouble(values.get(i));
+        }
+        if (crsTransformer.isPresent()) {
+            if (currentDimension == 2) {
+                coordinates = crsTransformer.get()
+                                            .transform(coordinates, coordinates.length / 2, swapCoordinates);
+            } else if (currentDimension == 3) {
+                coordinates = crsTransformer.get()
+                                            .transform3d(coordinates, coordinates.length / 3, swapCoordinates);
+            }
+        }
+        return coordinates;
+    }
+
+    private void writeProperty(int column, byte type, String value) throws IOException {
+        // convert first, so that nothing is written for invalid values
+        switch (type) {
+            case COLUMN_TYPE_BOOL:
+                boolean bool = value.equalsIgnoreCase("t") || value.equalsIgnoreCase("true") || value.equals("1");
+                writeColumnIndex(column);
+                propertyBuffer.write(bool ? 1 : 0);
+                break;
+            case COLUMN_TYPE_LONG:
+                long longValue = Long.parseLong(value);
+                writeColumnIndex(column);
+                scratch.clear();
+                scratch.putLong(longValue);
+                propertyBuffer.write(scratch.array(), 0, 8);
+                break;
+            case COLUMN_TYPE_DOUBLE:
+                double doubleValue = Double.parseDouble(value);
+                writeColumnIndex(column);
+                scratch.clear();
+                scratch.putDouble(doubleValue);
+                propertyBuffer.write(scratch.array(), 0, 8);
+                break;
+            case COLUMN_TYPE_STRING:
+            case COLUMN_TYPE_DATETIME:
+            default:
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeColumnIndex(column);
+                scratch.clear();
+                scratch.putInt(bytes.length);
+                propertyBuffer.write(scratch.array(), 0, 4);
+                propertyBuffer.write(bytes);
+        }
+    }
+
+    private void writeColumnIndex(int column) {
+        scratch.clear();
+        scratch.putShort((short) column);
+        propertyBuffer.write(scratch.array(), 0, 2);
+    }
+
+    private byte[] encodeFeature(byte[] propertyBytes, SimpleFeatureGeometry featureGeometryType,
+                                 List<GeometryPart> parts) {
+        builder.clear();
+
+        int geometry = Objects.nonNull(featureGeometryType) ? createGeometry(featureGeometryType, parts) : 0;
+        int properties = propertyBytes.length > 0 ? builder.createByteVector(propertyBytes) : 0;
+
+        // table Feature
+        builder.startTable(3);
+        builder.addOffset(0, geometry, 0);
+        builder.addOffset(1, properties, 0);
+        builder.finishSizePrefixed(builder.endTable());
+
+        return builder.sizedByteArray();
+    }
+
+    private int createGeometry(SimpleFeatureGeometry featureGeometryType, List<GeometryPart> parts) {
+        byte type = GEOMETRY_TYPES.get(featureGeometryType);
+
+        if (featureGeometryType != SimpleFeatureGeometry.MULTI_POLYGON) {
+            boolean withEnds = featureGeometryType == SimpleFeatureGeometry.POLYGON || featureGeometryType == SimpleFeatureGeometry.MULTI_LINE_STRING;
+            return createGeometry(parts.get(0), type, withEnds);
+        }
+
+        int[] partTables = new int[parts.size()];
+        for (int i = 0; i < partTables.length; i++) {
+            partTables[i] = createGeometry(parts.get(i), GEOMETRY_TYPE_POLYGON, true);
+        }
+        int partsVector = builder.createVectorOfTables(partTables);
+
+        // table Geometry
+        builder.startTable(8);
+        builder.addOffset(7, partsVector, 0);
+        builder.addByte(6, type, GEOMETRY_TYPE_UNKNOWN);
+        return builder.endTable();
+    }
+
+    private int createGeometry(GeometryPart part, byte type, boolean withEnds) {
+        // a single ring or line string does not need ends
+        int ends = withEnds && part.endsCount > 1 ? createUIntVector(part.ends, part.endsCount) : 0;
+        int xy = createDoubleVector(part.xy, part.vertices * 2);
+        int z = 0;
+        if (hasZ) {
+            z = createDoubleVector(part.z.length >= part.vertices ? part.z : new double[part.vertices], part.vertices);
+        }
+
+        // table Geometry
+        builder.startTable(8);
+        builder.addOffset(0, ends, 0);
+        builder.addOffset(1, xy, 0);
+        builder.addOffset(2, z, 0);
+        builder.addByte(6, type, GEOMETRY_TYPE_UNKNOWN);
+        return builder.endTable();
+    }
+
+    private int createDoubleVector(double[] values, int length) {
+        builder.startVector(8, length, 8);
+        for (int i = length - 1; i >= 0; i--) {
+            builder.addDouble(values[i]);
+        }
+        return builder.endVector();
+    }
+
+    private int createUIntVector(int[] values, int length) {
+        builder.startVector(4, length, 4);
+        for (int i = length - 1; i >= 0; i--) {
+            builder.addInt(values[i]);
+        }
+        return builder.endVector();
+    }
+
+    private void writeHeader(byte geometryType, long featuresCount, int indexNodeSize,
+                             double[] envelope) throws IOException {
+        if (Objects.isNull(hasZ)) {
+            hasZ = false;
+        }
+
+        builder.clear();
+
+        int name = builder.createString(collectionId);
+        int title = featureSchema.flatMap(FeatureSchema::getLabel)
+                                 .map(builder::createString)
+                                 .orElse(0);
+        int description = featureSchema.flatMap(FeatureSchema::getDescription)
+                                       .map(builder::createString)
+                                       .orElse(0);
+        int envelopeVector = Objects.nonNull(envelope) ? createDoubleVector(envelope, 4) : 0;
+
+        int[] columnTables = new int[columns.size()];
+        for (int i = 0; i < columnTables.length; i++) {
+            Column column = columns.get(i);
+            int columnName = builder.createString(column.name);
+            int columnTitle = Objects.nonNull(column.title) ? builder.createString(column.title) : 0;
+            int columnDescription = Objects.nonNull(column.description) ? builder.createString(column.description) : 0;
+
+            // table Column
+            builder.startTable(11);
+            builder.addOffset(0, columnName, 0);
+            builder.addByte(1, column.type, 0);
+            builder.addOffset(2, columnTitle, 0);
+            builder.addOffset(3, columnDescription, 0);
+            columnTables[i] = builder.endTable();
+        }
+        int columnsVector = columnTables.length > 0 ? builder.createVectorOfTables(columnTables) : 0;
+
+        // table Crs
+        int org = builder.createString("EPSG");
+        builder.startTable(6);
+        builder.addOffset(0, org, 0);
+        builder.addInt(1, targetCrs.getCode(), 0);
+        int crs = builder.endTable();
+
+        // table Header
+        builder.startTable(14);
+        builder.addOffset(0, name, 0);
+        builder.addOffset(1, envelopeVector, 0);
+        builder.addByte(2, geometryType, GEOMETRY_TYPE_UNKNOWN);
+        builder.addBoolean(3, hasZ, false);
+        builder.addOffset(7, columnsVector, 0);
+        builder.addLong(8, featuresCount, 0L);
+        builder.addShort(9, (short) indexNodeSize, (short) INDEX_NODE_SIZE);
+        builder.addOffset(10, crs, 0);
+        builder.addOffset(11, title, 0);
+        builder.addOffset(12, description, 0);
+        builder.finishSizePrefixed(builder.endTable());
+
+        outputStream.write(MAGIC_BYTES);
+        outputStream.write(builder.sizedByteArray());
+        headerWritten = true;
+    }
+
+    private void writeIndexedFeatures() throws IOException {
+        int numItems = encodedFeatures.size();
+
+        hasZ = encodedFeatures.stream()
+                              .flatMap(feature -> feature.parts.stream())
+                              .anyMatch(part -> part.dimension == 3 && part.vertices > 0);
+        for (EncodedFeature feature : encodedFeatures) {
+            feature.bytes = encodeFeature(feature.properties, feature.geometryType, feature.parts);
+        }
+
+        // the type is only declared, if all features have a geometry of the same type
+        SimpleFeatureGeometry firstType = numItems > 0 ? encodedFeatures.get(0).geometryType : null;
+        byte geometryType = Objects.nonNull(firstType) && encodedFeatures.stream()
+                                                                         .allMatch(feature -> feature.geometryType == firstType)
+                ? GEOMETRY_TYPES.get(firstType)
+                : GEOMETRY_TYPE_UNKNOWN;
+
+        // features without a geometry cannot be indexed
+        if (numItems == 0 || encodedFeatures.stream()
+                                            .anyMatch(feature -> Objects.isNull(feature.bbox))) {
+            writeHeader(geometryType, numItems, 0, null);
+            for (EncodedFeature feature : encodedFeatures) {
+                outputStream.write(feature.bytes);
+            }
+            return;
+        }
+
+        double[] extent = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (EncodedFeature feature : encodedFeatures) {
+            expand(extent, feature.bbox);
+        }
+
+        double width = extent[2] - extent[0];
+        double height = extent[3] - extent[1];
+        for (EncodedFeature feature : encodedFeatures) {
+            int x = width > 0 ? (int) Math.floor(HILBERT_MAX * ((feature.bbox[0] + feature.bbox[2]) / 2 - extent[0]) / width) : 0;
+            int y = height > 0 ? (int) Math.floor(HILBERT_MAX * ((feature.bbox[1] + feature.bbox[3]) / 2 - extent[1]) / height) : 0;
+            feature.hilbert = hilbert(x, y);
+        }
+        encodedFeatures.sort(Comparator.comparingLong(feature -> feature.hilbert));
+
+        writeHeader(geometryType, numItems, INDEX_NODE_SIZE, extent);
+        outputStream.write(createIndex(encodedFeatures, INDEX_NODE_SIZE));
+        for (EncodedFeature feature : encodedFeatures) {
+            outputStream.write(feature.bytes);
+        }
+    }
+
+    /**
+     * Creates a packed Hilbert R-tree. The root node is written first, the leaf nodes last. The offset
+     * of a leaf node is the byte offset of the feature in the feature section, the offset of all other
+     * nodes is the index of the first child node.
+     *
+     * @param features the features sorted by their Hilbert value
+     * @param nodeSize the maximum number of children per node
+     * @return the index in little-endian byte order
+     */
+    static byte[] createIndex(List<EncodedFeature> features, int nodeSize) {
+        int numItems = features.size();
+
+        List<Integer> levelNumNodes = new ArrayList<>();
+        int n = numItems;
+        int numNodes = n;
+        levelNumNodes.add(n);
+        do {
+            n = (n + nodeSize - 1) / nodeSize;
+            numNodes += n;
+            levelNumNodes.add(n);
+        } while (n != 1);
+
+        int[] levelOffsets = new int[levelNumNodes.size()];
+        n = numNodes;
+        for (int i = 0; i < levelOffsets.length; i++) {
+            levelOffsets[i] = n - levelNumNodes.get(i);
+            n -= levelNumNodes.get(i);
+        }
+
+        double[][] bboxes = new double[numNodes][];
+        long[] offsets = new long[numNodes];
+
+        long featureOffset = 0;
+        for (int i = 0; i < numItems; i++) {
+            EncodedFeature feature = features.get(i);
+            bboxes[levelOffsets[0] + i] = feature.bbox;
+            offsets[levelOffsets[0] + i] = featureOffset;
+            featureOffset += feature.bytes.length;
+        }
+
+        for (int level = 0; level < levelOffsets.length - 1; level++) {
+            int pos = levelOffsets[level];
+            int end = pos + levelNumNodes.get(level);
+            int parent = levelOffsets[level + 1];
+            while (pos < end) {
+                double[] bbox = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+                offsets[parent] = pos;
+                for (int j = 0; j < nodeSize && pos < end; j++, pos++) {
+                    expand(bbox, bboxes[pos]);
+                }
+                bboxes[parent++] = bbox;
+            }
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(numNodes * NODE_ITEM_BYTES)
+                                     .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < numNodes; i++) {
+            index.putDouble(bboxes[i][0])
+                 .putDouble(bboxes[i][1])
+                 .putDouble(bboxes[i][2])
+                 .putDouble(bboxes[i][3])
+                 .putLong(offsets[i]);
+        }
+
+        return index.array();
+    }
+
+    private static void expand(double[] bbox, double[] other) {
+        bbox[0] = Math.min(bbox[0], other[0]);
+        bbox[1] = Math.min(bbox[1], other[1]);
+        bbox[2] = Math.max(bbox[2], other[2]);
+        bbox[3] = Math.max(bbox[3], other[3]);
+    }
+
+    // Fast Hilbert curve algorithm by http://threadlocalmutex.com/, ported from C++ https://github.com/rawrunprotected/hilbert_curves (public domain)
+    static long hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >>> 1);
+        int B = (a >>> 1) ^ a;
+        int C = ((c >>> 1) ^ (b & (d >>> 1))) ^ c;
+        int D = ((a & (c >>> 1)) ^ (d >>> 1)) ^ d;
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = ((a & (a >>> 2)) ^ (b & (b >>> 2)));
+        B = ((a & (b >>> 2)) ^ (b & ((a ^ b) >>> 2)));
+        C ^= ((a & (c >>> 2)) ^ (b & (d >>> 2)));
+        D ^= ((b & (c >>> 2)) ^ ((a ^ b) & (d >>> 2)));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = ((a & (a >>> 4)) ^ (b & (b >>> 4)));
+        B = ((a & (b >>> 4)) ^ (b & ((a ^ b) >>> 4)));
+        C ^= ((a & (c >>> 4)) ^ (b & (d >>> 4)));
+        D ^= ((b & (c >>> 4)) ^ ((a ^ b) & (d >>> 4)));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        C ^= ((a & (c >>> 8)) ^ (b & (d >>> 8)));
+        D ^= ((b & (c >>> 8)) ^ ((a ^ b) & (d >>> 8)));
+
+        a = C ^ (C >>> 1);
+        b = D ^ (D >>> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        i0 = (i0 | (i0 << 8)) & 0x00FF00FF;
+        i0 = (i0 | (i0 << 4)) & 0x0F0F0F0F;
+        i0 = (i0 | (i0 << 2)) & 0x33333333;
+        i0 = (i0 | (i0 << 1)) & 0x55555555;
+
+        i1 = (i1 | (i1 << 8)) & 0x00FF00FF;
+        i1 = (i1 | (i1 << 4)) & 0x0F0F0F0F;
+        i1 = (i1 | (i1 << 2)) & 0x33333333;
+        i1 = (i1 | (i1 << 1)) & 0x55555555;
+
+        return ((i1 << 1) | i0) & 0xFFFFFFFFL;
+    }
+
+    private static List<Column> getColumns(Optional<FeatureSchema> featureSchema) {
+        ImmutableList.Builder<Column> columns = ImmutableList.builder();
+        featureSchema.map(FeatureSchema::getProperties)
+                     .orElse(ImmutableList.of())
+                     .forEach(property -> {
+                         byte type;
+                         switch (property.getType()) {
+                             case BOOLEAN:
+                                 type = COLUMN_TYPE_BOOL;
+                                 break;
+                             case INTEGER:
+                                 type = COLUMN_TYPE_LONG;
+                                 break;
+                             case FLOAT:
+                                 type = COLUMN_TYPE_DOUBLE;
+                                 break;
+                             case DATETIME:
+                                 type = COLUMN_TYPE_DATETIME;
+                                 break;
+                             case STRING:
+                                 type = COLUMN_TYPE_STRING;
+                                 break;
+                             default:
+                                 // objects, arrays and geometries are not supported as columns
+                                 return;
+                         }
+                         columns.add(new Column(property.getName(), type, property.getLabel()
+                                                                                  .orElse(null), property.getDescription()
+                                                                                                         .orElse(null)));
+                     });
+        return columns.build();
+    }
+
+    static class Column {
+        final String name;
+        final byte type;
+        final String title;
+        final String description;
+
+        Column(String name, byte type, String title, String description) {
+            this.name = name;
+            this.type = type;
+            this.title = title;
+            this.description = description;
+        }
+    }
+
+    static class EncodedFeature {
+        final byte[] properties;
+        final SimpleFeatureGeometry geometryType;
+        final List<GeometryPart> parts;
+        final double[] bbox;
+        byte[] bytes;
+        long hilbert;
+
+        EncodedFeature(byte[] properties, SimpleFeatureGeometry geometryType, List<GeometryPart> parts,
+                       double[] bbox) {
+            this.properties = properties;
+            this.geometryType = geometryType;
+            this.parts = parts;
+            this.bbox = bbox;
+        }
+    }
+
+    /**
+     * The coordinates of a simple geometry or of a polygon in a multi polygon. The ends are the
+     * vertex indexes after the last vertex of each ring or line string.
+     */
+    static class GeometryPart {
+        final int dimension;
+        double[] xy = new double[64];
+        double[] z;
+        int[] ends = new int[4];
+        int endsCount;
+        int vertices;
+
+        GeometryPart(int dimension) {
+            this.dimension = dimension;
+            this.z = new double[dimension == 3 ? 32 : 0];
+        }
+
+        void add(double[] coordinates, double[] bbox) {
+            int count = coordinates.length / dimension;
+            if ((vertices + count) * 2 > xy.length) {
+                xy = Arrays.copyOf(xy, Math.max(xy.length * 2, (vertices + count) * 2));
+            }
+            if (dimension == 3 && vertices + count > z.length) {
+                z = Arrays.copyOf(z, Math.max(z.length * 2, vertices + count));
+            }
+            for (int i = 0; i < count; i++) {
+                double x = coordinates[i * dimension];
+                double y = coordinates[i * dimension + 1];
+                xy[(vertices + i) * 2] = x;
+                xy[(vertices + i) * 2 + 1] = y;
+                if (dimension == 3) {
+                    z[vertices + i] = coordinates[i * dimension + 2];
+                }
+                bbox[0] = Math.min(bbox[0], x);
+                bbox[1] = Math.min(bbox[1], y);
+                bbox[2] = Math.max(bbox[2], x);
+                bbox[3] = Math.max(bbox[3], y);
+            }
+            vertices += count;
+        }
+
+        void endRing() {
+            int lastEnd = endsCount > 0 ? ends[endsCount - 1] : 0;
+            if (vertices > lastEnd) {
+                if (endsCount == ends.length) {
+                    ends = Arrays.copyOf(ends, ends.length * 2);
+                }
+                ends[endsCount++] = vertices;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.flatgeobuf.app;
+
+import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaTypeContent;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaTypeContent;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureFormatExtension;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureTransformationContext;
+import de.ii.ldproxy.ogcapi.features.flatgeobuf.domain.FlatgeobufConfiguration;
+import de.ii.ldproxy.ogcapi.features.geojson.app.FeaturesFormatGeoJson;
+import de.ii.xtraplatform.features.domain.FeatureTransformer2;
+import io.swagger.v3.oas.models.media.BinarySchema;
+import io.swagger.v3.oas.models.media.Schema;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+import javax.ws.rs.core.MediaType;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Features as FlatGeobuf, see https://flatgeobuf.org.
+ */
+@Component
+@Provides
+@Instantiate
+public class FeaturesFormatFlatgeobuf implements FeatureFormatExtension {
+
+    public static final ApiMediaType MEDIA_TYPE = new ImmutableApiMediaType.Builder()
+            .type(new MediaType("application", "flatgeobuf"))
+            .label("FlatGeobuf")
+            .parameter("fgb")
+            .qs(300)
+            .build();
+    public static final String SCHEMA_REF_FEATURES = "#/components/schemas/FeaturesFlatgeobuf";
+
+    private final Schema schemaFeatures = new BinarySchema();
+
+    @Override
+    public ApiMediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return FlatgeobufConfiguration.class;
+    }
+
+    // FlatGeobuf is a format for feature collections, a single feature is not supported
+    @Override
+    public String getPathPattern() {
+        return "^\\/?collections\\/[^\\/]+\\/items\\/?$";
+    }
+
+    @Override
+    public ApiMediaTypeContent getContent(OgcApiDataV2 apiData, String path) {
+        if (!path.matches("/collections/[^//]+/items/?")) {
+            return null;
+        }
+
+        return new ImmutableApiMediaTypeContent.Builder()
+                .schema(schemaFeatures)
+                .schemaRef(SCHEMA_REF_FEATURES)
+                .ogcApiMediaType(MEDIA_TYPE)
+                .build();
+    }
+
+    @Override
+    public ApiMediaType getCollectionMediaType() {
+        return FeaturesFormatGeoJson.COLLECTION_MEDIA_TYPE;
+    }
+
+    @Override
+    public boolean canTransformFeatures() {
+        return true;
+    }
+
+    @Override
+    public Optional<FeatureTransformer2> getFeatureTransformer(FeatureTransformationContext transformationContext,
+                                                               Optional<Locale> language) {
+        return Optional.of(new FeatureTransformerFlatgeobuf(transformationContext));
+    }
+}
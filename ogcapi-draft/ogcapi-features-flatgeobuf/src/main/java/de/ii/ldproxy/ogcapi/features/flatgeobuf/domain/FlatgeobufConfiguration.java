@@ -0,0 +1,32 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.flatgeobuf.domain;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureTransformations;
+import org.immutables.value.Value;
+
+import javax.annotation.Nullable;
+
+@Value.Immutable
+@Value.Style(builder = "new", deepImmutablesDetection = true, attributeBuilderDetection = true)
+@JsonDeserialize(builder = ImmutableFlatgeobufConfiguration.Builder.class)
+public interface FlatgeobufConfiguration extends ExtensionConfiguration, FeatureTransformations {
+
+    abstract class Builder extends ExtensionConfiguration.Builder {
+    }
+
+    @Nullable
+    Integer getMaxFeaturesForSpatialIndex();
+
+    @Override
+    default Builder getBuilder() {
+        return new ImmutableFlatgeobufConfiguration.Builder();
+    }
+}
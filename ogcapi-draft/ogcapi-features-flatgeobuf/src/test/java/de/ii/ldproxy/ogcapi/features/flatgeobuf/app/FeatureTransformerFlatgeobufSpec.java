@@ -0,0 +1,491 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.flatgeobuf.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.flatbuffers.Table;
+import com.greghaskins.spectrum.Spectrum;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.ImmutableFeatureTypeConfigurationOgcApi;
+import de.ii.ldproxy.ogcapi.domain.ImmutableOgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
+import de.ii.ldproxy.ogcapi.domain.URICustomizer;
+import de.ii.ldproxy.ogcapi.features.core.domain.ImmutableFeatureTransformationContextGeneric;
+import de.ii.ldproxy.ogcapi.features.flatgeobuf.app.FeatureTransformerFlatgeobuf.EncodedFeature;
+import de.ii.ldproxy.ogcapi.features.flatgeobuf.domain.ImmutableFlatgeobufConfiguration;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import de.ii.xtraplatform.features.domain.FeatureProperty;
+import de.ii.xtraplatform.features.domain.FeatureType;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureProperty;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureSchema;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureType;
+import de.ii.xtraplatform.features.domain.SchemaBase;
+import de.ii.xtraplatform.geometries.domain.SimpleFeatureGeometry;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.context;
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+
+@RunWith(Spectrum.class)
+public class FeatureTransformerFlatgeobufSpec {
+
+    private static final FeatureType FEATURE_TYPE = new ImmutableFeatureType.Builder().name("xyz")
+                                                                                      .properties(ImmutableMap.of())
+                                                                                      .build();
+
+    private static final FeatureProperty ID = new ImmutableFeatureProperty.Builder().name("id")
+                                                                                    .path("")
+                                                                                    .build();
+
+    private static final FeatureProperty COUNT = new ImmutableFeatureProperty.Builder().name("count")
+                                                                                       .path("")
+                                                                                       .build();
+
+    private static final FeatureProperty GEOMETRY = new ImmutableFeatureProperty.Builder().name("geometry")
+                                                                                          .path("")
+                                                                                          .type(FeatureProperty.Type.GEOMETRY)
+                                                                                          .build();
+
+    {
+
+        describe("FlatGeobuf encoding", () -> {
+
+            context("given a streamed page with a point and a line string", () -> {
+
+                it("it should declare the columns and an unknown geometry type in the header", () -> {
+
+                    ByteBuffer bytes = write(0, ImmutableList.of(
+                            new TestFeature("a", "1", SimpleFeatureGeometry.POINT, "1 2"),
+                            new TestFeature("b", "2", SimpleFeatureGeometry.LINE_STRING, "0 0, 1 1")));
+
+                    for (int i = 0; i < FeatureTransformerFlatgeobuf.MAGIC_BYTES.length; i++) {
+                        assertEquals(bytes.get(i), FeatureTransformerFlatgeobuf.MAGIC_BYTES[i]);
+                    }
+
+                    FlatBufferTable header = FlatBufferTable.sizePrefixed(bytes, FeatureTransformerFlatgeobuf.MAGIC_BYTES.length);
+                    assertEquals(header.getString(0), "xyz");
+                    assertEquals(header.getByte(2), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_UNKNOWN);
+                    assertEquals(header.getLong(8), 0L);
+                    assertEquals(header.getShort(9, (short) FeatureTransformerFlatgeobuf.INDEX_NODE_SIZE), (short) 0);
+                    assertEquals(header.getTable(10)
+                                       .getInt(1), 4326);
+
+                    // the geometry is not a column
+                    List<FlatBufferTable> columns = header.getTables(7);
+                    assertEquals(columns.size(), 2);
+                    assertEquals(columns.get(0)
+                                        .getString(0), "id");
+                    assertEquals(columns.get(0)
+                                        .getByte(1), FeatureTransformerFlatgeobuf.COLUMN_TYPE_STRING);
+                    assertEquals(columns.get(1)
+                                        .getString(0), "count");
+                    assertEquals(columns.get(1)
+                                        .getByte(1), FeatureTransformerFlatgeobuf.COLUMN_TYPE_LONG);
+
+                });
+
+                it("it should write the geometry type and the properties of each feature", () -> {
+
+                    ByteBuffer bytes = write(0, ImmutableList.of(
+                            new TestFeature("a", "1", SimpleFeatureGeometry.POINT, "1 2"),
+                            new TestFeature("b", "2", SimpleFeatureGeometry.LINE_STRING, "0 0, 1 1")));
+
+                    List<FlatBufferTable> features = readFeatures(bytes, 0);
+                    assertEquals(features.size(), 2);
+
+                    FlatBufferTable point = features.get(0)
+                                                    .getTable(0);
+                    assertEquals(point.getByte(6), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_POINT);
+                    assertEquals(point.getDoubles(1), new double[]{1, 2});
+                    assertEquals(point.getInts(0), new int[0]);
+                    assertProperties(features.get(0), "a", 1L);
+
+                    FlatBufferTable lineString = features.get(1)
+                                                         .getTable(0);
+                    assertEquals(lineString.getByte(6), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_LINE_STRING);
+                    assertEquals(lineString.getDoubles(1), new double[]{0, 0, 1, 1});
+                    assertProperties(features.get(1), "b", 2L);
+
+                });
+
+            });
+
+            context("given a buffered page with mixed geometry types", () -> {
+
+                List<TestFeature> features = ImmutableList.of(
+                        new TestFeature("a", "1", SimpleFeatureGeometry.POINT, "0 0"),
+                        new TestFeature("b", "2", SimpleFeatureGeometry.POLYGON, "10 10, 20 10, 20 20, 10 10", "12 12, 13 12, 13 13, 12 12"),
+                        new TestFeature("c", "3", SimpleFeatureGeometry.MULTI_POLYGON, "30 30, 40 30, 40 40, 30 30"));
+
+                it("it should declare an unknown geometry type and the spatial index in the header", () -> {
+
+                    FlatBufferTable header = FlatBufferTable.sizePrefixed(write(10, features), FeatureTransformerFlatgeobuf.MAGIC_BYTES.length);
+                    assertEquals(header.getByte(2), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_UNKNOWN);
+                    assertEquals(header.getLong(8), 3L);
+                    assertEquals(header.getDoubles(1), new double[]{0, 0, 40, 40});
+
+                });
+
+                it("it should write the geometry type and the rings of each feature", () -> {
+
+                    // 3 leaves and the root
+                    List<FlatBufferTable> encoded = readFeatures(write(10, features), 4);
+                    assertEquals(encoded.size(), 3);
+
+                    FlatBufferTable point = encoded.get(0)
+                                                   .getTable(0);
+                    assertEquals(point.getByte(6), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_POINT);
+                    assertEquals(point.getDoubles(1), new double[]{0, 0});
+
+                    FlatBufferTable polygon = encoded.get(1)
+                                                     .getTable(0);
+                    assertEquals(polygon.getByte(6), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_POLYGON);
+                    assertEquals(polygon.getInts(0), new int[]{4, 8});
+                    assertEquals(polygon.getDoubles(1), new double[]{10, 10, 20, 10, 20, 20, 10, 10, 12, 12, 13, 12, 13, 13, 12, 12});
+                    assertProperties(encoded.get(1), "b", 2L);
+
+                    FlatBufferTable multiPolygon = encoded.get(2)
+                                                          .getTable(0);
+                    assertEquals(multiPolygon.getByte(6), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_MULTI_POLYGON);
+                    List<FlatBufferTable> parts = multiPolygon.getTables(7);
+                    assertEquals(parts.size(), 1);
+                    assertEquals(parts.get(0)
+                                      .getByte(6), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_POLYGON);
+                    assertEquals(parts.get(0)
+                                      .getDoubles(1), new double[]{30, 30, 40, 30, 40, 40, 30, 30});
+
+                });
+
+            });
+
+            context("given a buffered page with a single geometry type", () -> {
+
+                it("it should declare the geometry type in the header", () -> {
+
+                    FlatBufferTable header = FlatBufferTable.sizePrefixed(write(10, ImmutableList.of(
+                            new TestFeature("a", "1", SimpleFeatureGeometry.POINT, "0 0"),
+                            new TestFeature("b", "2", SimpleFeatureGeometry.POINT, "1 1"))), FeatureTransformerFlatgeobuf.MAGIC_BYTES.length);
+                    assertEquals(header.getByte(2), FeatureTransformerFlatgeobuf.GEOMETRY_TYPE_POINT);
+
+                });
+
+            });
+
+        });
+
+        describe("FlatGeobuf spatial index", () -> {
+
+            context("given the Hilbert curve", () -> {
+
+                it("it should visit the first cells in curve order", () -> {
+                    assertEquals(FeatureTransformerFlatgeobuf.hilbert(0, 0), 0L);
+                    assertEquals(FeatureTransformerFlatgeobuf.hilbert(1, 0), 1L);
+                    assertEquals(FeatureTransformerFlatgeobuf.hilbert(1, 1), 2L);
+                    assertEquals(FeatureTransformerFlatgeobuf.hilbert(0, 1), 3L);
+                });
+
+                it("it should end in the last cell", () -> {
+                    assertEquals(FeatureTransformerFlatgeobuf.hilbert(65535, 0), 4294967295L);
+                });
+
+            });
+
+            context("given three features and a node size of two", () -> {
+
+                List<EncodedFeature> features = ImmutableList.of(
+                        feature(10, 0, 0, 1, 1),
+                        feature(20, 2, 0, 3, 1),
+                        feature(30, 4, 4, 5, 5));
+
+                it("it should write the root node first and the leaf nodes last", () -> {
+
+                    ByteBuffer index = ByteBuffer.wrap(FeatureTransformerFlatgeobuf.createIndex(features, 2))
+                                                 .order(ByteOrder.LITTLE_ENDIAN);
+
+                    // 3 leaves, 2 inner nodes, 1 root
+                    assertEquals(index.capacity(), 6 * FeatureTransformerFlatgeobuf.NODE_ITEM_BYTES);
+
+                    // the root covers all features, its children start at node 1
+                    assertNode(index, 0, new double[]{0, 0, 5, 5}, 1);
+                    assertNode(index, 1, new double[]{0, 0, 3, 1}, 3);
+                    assertNode(index, 2, new double[]{4, 4, 5, 5}, 5);
+
+                    // the offset of a leaf is the byte offset of the feature
+                    assertNode(index, 3, new double[]{0, 0, 1, 1}, 0);
+                    assertNode(index, 4, new double[]{2, 0, 3, 1}, 10);
+                    assertNode(index, 5, new double[]{4, 4, 5, 5}, 30);
+
+                });
+
+            });
+
+        });
+
+    }
+
+    private static ByteBuffer write(int maxFeaturesForSpatialIndex, List<TestFeature> features) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        FeatureTransformerFlatgeobuf transformer = new FeatureTransformerFlatgeobuf(createTransformationContext(outputStream, maxFeaturesForSpatialIndex));
+
+        transformer.onStart(OptionalLong.of(features.size()), OptionalLong.empty());
+        for (TestFeature feature : features) {
+            transformer.onFeatureStart(FEATURE_TYPE);
+            transformer.onPropertyStart(ID, ImmutableList.of());
+            transformer.onPropertyText(feature.id);
+            transformer.onPropertyEnd();
+            transformer.onPropertyStart(COUNT, ImmutableList.of());
+            transformer.onPropertyText(feature.count);
+            transformer.onPropertyEnd();
+            transformer.onGeometryStart(GEOMETRY, feature.geometryType, 2);
+            // a multi polygon opens a polygon and a ring, the other types open a ring or line string
+            int depth = feature.geometryType == SimpleFeatureGeometry.MULTI_POLYGON ? 2 : feature.geometryType == SimpleFeatureGeometry.POLYGON ? 1 : 0;
+            for (String coordinates : feature.coordinates) {
+                for (int i = 0; i < depth; i++) {
+                    transformer.onGeometryNestedStart();
+                }
+                transformer.onGeometryCoordinates(coordinates);
+                for (int i = 0; i < depth; i++) {
+                    transformer.onGeometryNestedEnd();
+                }
+            }
+            transformer.onGeometryEnd();
+            transformer.onFeatureEnd();
+        }
+        transformer.onEnd();
+
+        return ByteBuffer.wrap(outputStream.toByteArray())
+                         .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ImmutableFeatureTransformationContextGeneric createTransformationContext(ByteArrayOutputStream outputStream,
+                                                                                           int maxFeaturesForSpatialIndex) {
+        return new ImmutableFeatureTransformationContextGeneric.Builder()
+                .defaultCrs(OgcCrs.CRS84)
+                .apiData(new ImmutableOgcApiDataV2.Builder()
+                                 .id("s")
+                                 .serviceType("OGC_API")
+                                 .collections(ImmutableMap.of("xyz", new ImmutableFeatureTypeConfigurationOgcApi.Builder()
+                                         .id("xyz")
+                                         .label("xyz")
+                                         .addExtensions(new ImmutableFlatgeobufConfiguration.Builder()
+                                                                .enabled(true)
+                                                                .maxFeaturesForSpatialIndex(maxFeaturesForSpatialIndex)
+                                                                .build())
+                                         .build()))
+                                 .build())
+                .collectionId("xyz")
+                .featureSchema(new ImmutableFeatureSchema.Builder()
+                                       .name("xyz")
+                                       .type(SchemaBase.Type.OBJECT)
+                                       .putPropertyMap("id", new ImmutableFeatureSchema.Builder().name("id")
+                                                                                                 .type(SchemaBase.Type.STRING)
+                                                                                                 .build())
+                                       .putPropertyMap("count", new ImmutableFeatureSchema.Builder().name("count")
+                                                                                                    .type(SchemaBase.Type.INTEGER)
+                                                                                                    .build())
+                                       .putPropertyMap("geometry", new ImmutableFeatureSchema.Builder().name("geometry")
+                                                                                                       .type(SchemaBase.Type.GEOMETRY)
+                                                                                                       .build())
+                                       .build())
+                .outputStream(outputStream)
+                .links(ImmutableList.of())
+                .isFeatureCollection(true)
+                .ogcApiRequest(new ApiRequestContext() {
+                    @Override
+                    public ApiMediaType getMediaType() {
+                        return null;
+                    }
+
+                    @Override
+                    public List<ApiMediaType> getAlternateMediaTypes() {
+                        return null;
+                    }
+
+                    @Override
+                    public Optional<Locale> getLanguage() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public OgcApi getApi() {
+                        return null;
+                    }
+
+                    @Override
+                    public URICustomizer getUriCustomizer() {
+                        return new URICustomizer();
+                    }
+
+                    @Override
+                    public String getStaticUrlPrefix() {
+                        return null;
+                    }
+
+                    @Override
+                    public Map<String, String> getParameters() {
+                        return null;
+                    }
+                })
+                .limit(10)
+                .offset(0)
+                .build();
+    }
+
+    private static List<FlatBufferTable> readFeatures(ByteBuffer bytes, int indexNodes) {
+        int position = FeatureTransformerFlatgeobuf.MAGIC_BYTES.length;
+        position += 4 + bytes.getInt(position);
+        position += indexNodes * FeatureTransformerFlatgeobuf.NODE_ITEM_BYTES;
+
+        List<FlatBufferTable> features = new ArrayList<>();
+        while (position < bytes.capacity()) {
+            features.add(FlatBufferTable.sizePrefixed(bytes, position));
+            position += 4 + bytes.getInt(position);
+        }
+        return features;
+    }
+
+    private static void assertProperties(FlatBufferTable feature, String id, long count) {
+        ByteBuffer properties = ByteBuffer.wrap(feature.getBytes(1))
+                                          .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(properties.getShort(), (short) 0);
+        byte[] idBytes = new byte[properties.getInt()];
+        properties.get(idBytes);
+        assertEquals(new String(idBytes, StandardCharsets.UTF_8), id);
+        assertEquals(properties.getShort(), (short) 1);
+        assertEquals(properties.getLong(), count);
+        assertEquals(properties.remaining(), 0);
+    }
+
+    private static EncodedFeature feature(int size, double minX, double minY, double maxX, double maxY) {
+        EncodedFeature feature = new EncodedFeature(new byte[0], null, ImmutableList.of(), new double[]{minX, minY, maxX, maxY});
+        feature.bytes = new byte[size];
+        return feature;
+    }
+
+    private static void assertNode(ByteBuffer index, int node, double[] bbox, long offset) {
+        int position = node * FeatureTransformerFlatgeobuf.NODE_ITEM_BYTES;
+        for (int i = 0; i < 4; i++) {
+            assertEquals(index.getDouble(position + i * 8), bbox[i]);
+        }
+        assertEquals(index.getLong(position + 32), offset);
+    }
+
+    private static class TestFeature {
+        final String id;
+        final String count;
+        final SimpleFeatureGeometry geometryType;
+        final List<String> coordinates;
+
+        TestFeature(String id, String count, SimpleFeatureGeometry geometryType, String... coordinates) {
+            this.id = id;
+            this.count = count;
+            this.geometryType = geometryType;
+            this.coordinates = Arrays.asList(coordinates);
+        }
+    }
+
+    /**
+     * Reads the fields of a FlatBuffers table by their index in the FlatGeobuf schema.
+     */
+    private static class FlatBufferTable extends Table {
+
+        static FlatBufferTable sizePrefixed(ByteBuffer bytes, int position) {
+            return new FlatBufferTable(bytes, position + 4 + bytes.getInt(position + 4));
+        }
+
+        FlatBufferTable(ByteBuffer bytes, int position) {
+            __reset(position, bytes);
+        }
+
+        private int field(int index) {
+            return __offset(4 + 2 * index);
+        }
+
+        byte getByte(int index) {
+            int offset = field(index);
+            return offset != 0 ? bb.get(bb_pos + offset) : 0;
+        }
+
+        short getShort(int index, short defaultValue) {
+            int offset = field(index);
+            return offset != 0 ? bb.getShort(bb_pos + offset) : defaultValue;
+        }
+
+        int getInt(int index) {
+            int offset = field(index);
+            return offset != 0 ? bb.getInt(bb_pos + offset) : 0;
+        }
+
+        long getLong(int index) {
+            int offset = field(index);
+            return offset != 0 ? bb.getLong(bb_pos + offset) : 0L;
+        }
+
+        String getString(int index) {
+            int offset = field(index);
+            return offset != 0 ? __string(bb_pos + offset) : null;
+        }
+
+        FlatBufferTable getTable(int index) {
+            int offset = field(index);
+            return offset != 0 ? new FlatBufferTable(bb, __indirect(bb_pos + offset)) : null;
+        }
+
+        List<FlatBufferTable> getTables(int index) {
+            int offset = field(index);
+            List<FlatBufferTable> tables = new ArrayList<>();
+            for (int i = 0; offset != 0 && i < __vector_len(offset); i++) {
+                tables.add(new FlatBufferTable(bb, __indirect(__vector(offset) + i * 4)));
+            }
+            return tables;
+        }
+
+        byte[] getBytes(int index) {
+            int offset = field(index);
+            byte[] values = new byte[offset != 0 ? __vector_len(offset) : 0];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bb.get(__vector(offset) + i);
+            }
+            return values;
+        }
+
+        int[] getInts(int index) {
+            int offset = field(index);
+            int[] values = new int[offset != 0 ? __vector_len(offset) : 0];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bb.getInt(__vector(offset) + i * 4);
+            }
+            return values;
+        }
+
+        double[] getDoubles(int index) {
+            int offset = field(index);
+            double[] values = new double[offset != 0 ? __vector_len(offset) : 0];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = bb.getDouble(__vector(offset) + i * 8);
+            }
+            return values;
+        }
+    }
+}
@@ -115,54 +115,49 @@ public class EndpointJsonLdContext extends EndpointSubCollection {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("collections")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES_JSONLD_CONTEXT);
-            String subSubPath = "/context";
-            String path = "/collections/{collectionId}" + subSubPath;
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
-            if (!optCollectionIdParam.isPresent()) {
-                LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
-            } else {
-                final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
-                final boolean explode = collectionIdParam.getExplodeInOpenApi();
-                final Set<String> collectionIds = (explode) ?
-                        collectionIdParam.getValues(apiData) :
-                        ImmutableSet.of("{collectionId}");
-                for (String collectionId : collectionIds) {
-                    if (explode && !Files.isRegularFile(getContextPath(apiData.getId(), collectionId)))
-                        // skip, if no context is available
-                        continue;
-                    final List<OgcApiQueryParameter> queryParameters = explode ?
-                            getQueryParameters(extensionRegistry, apiData, path, collectionId) :
-                            getQueryParameters(extensionRegistry, apiData, path);
-                    final String operationSummary = "retrieve the JSON-LD context for the feature collection '" + collectionId + "'";
-                    Optional<String> operationDescription = Optional.empty();
-                    String resourcePath = "/collections/" + collectionId + subSubPath;
-                    ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
-                            .path(resourcePath)
-                            .pathParameters(pathParameters);
-                    Map<MediaType, ApiMediaTypeContent> responseContent = new ImmutableMap.Builder<MediaType, ApiMediaTypeContent>()
-                            .put(MEDIA_TYPE.type(),
-                                 new ImmutableApiMediaTypeContent.Builder()
-                                    .ogcApiMediaType(MEDIA_TYPE)
-                                    .schema(new ObjectSchema())
-                                    .schemaRef("#/components/schemas/json-ld-context")
-                                    .build())
-                            .build();
-                    ApiOperation operation = addOperation(apiData, HttpMethods.GET, responseContent, queryParameters, resourcePath, operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("GET", operation);
-                    definitionBuilder.putResources(resourcePath, resourceBuilder.build());
-                }
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("collections")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES_JSONLD_CONTEXT);
+        String subSubPath = "/context";
+        String path = "/collections/{collectionId}" + subSubPath;
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = (explode) ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                if (explode && !Files.isRegularFile(getContextPath(apiData.getId(), collectionId)))
+                    // skip, if no context is available
+                    continue;
+                final List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId) :
+                        getQueryParameters(extensionRegistry, apiData, path);
+                final String operationSummary = "retrieve the JSON-LD context for the feature collection '" + collectionId + "'";
+                Optional<String> operationDescription = Optional.empty();
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                Map<MediaType, ApiMediaTypeContent> responseContent = new ImmutableMap.Builder<MediaType, ApiMediaTypeContent>()
+                        .put(MEDIA_TYPE.type(),
+                             new ImmutableApiMediaTypeContent.Builder()
+                                .ogcApiMediaType(MEDIA_TYPE)
+                                .schema(new ObjectSchema())
+                                .schemaRef("#/components/schemas/json-ld-context")
+                                .build())
+                        .build();
+                ApiOperation operation = addOperation(apiData, HttpMethods.GET, responseContent, queryParameters, resourcePath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("GET", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
             }
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
         }
-
-        return apiDefinitions.get(apiDataHash);
+        return definitionBuilder.build();
     }
 }
@@ -22,17 +22,23 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Component
 @Provides
 @Instantiate
 public class GeoJsonWriterJsonLd implements GeoJsonWriter {
 
+    private static final String FEATURE_ID_PLACEHOLDER = "{{featureId}}";
+
     @Override
     public GeoJsonWriterJsonLd create() {
         return new GeoJsonWriterJsonLd();
     }
 
+    private Optional<GeoJsonLdConfiguration> jsonLdOptions = Optional.empty();
+    private Optional<Function<String, String>> idFormatter = Optional.empty();
+
     @Override
     public int getSortPriority() {
         return 5;
@@ -41,12 +47,15 @@ public class GeoJsonWriterJsonLd implements GeoJsonWriter {
     @Override
     public void onStart(FeatureTransformationContextGeoJson transformationContext,
                         Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
-        if (transformationContext.isFeatureCollection()) {
-            Optional<GeoJsonLdConfiguration> jsonLdOptions = transformationContext.getApiData()
-                                                                                  .getCollections()
-                                                                                  .get(transformationContext.getCollectionId())
-                                                                                  .getExtension(GeoJsonLdConfiguration.class);
-
+        // the configuration and the id template are resolved once per request, not for every feature
+        this.jsonLdOptions = transformationContext.getApiData()
+                                                  .getCollections()
+                                                  .get(transformationContext.getCollectionId())
+                                                  .getExtension(GeoJsonLdConfiguration.class);
+        this.idFormatter = jsonLdOptions.flatMap(GeoJsonLdConfiguration::getIdTemplate)
+                                        .map(idTemplate -> compileIdTemplate(idTemplate, transformationContext.getServiceUrl(), transformationContext.getCollectionId()));
+
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
             if (jsonLdOptions.isPresent() && jsonLdOptions.get().isEnabled()) {
                 writeContextAndJsonLdType(transformationContext, jsonLdOptions.get()
                                                                               .getContext(), ImmutableList.of("geojson:FeatureCollection"));
@@ -60,17 +69,13 @@ public class GeoJsonWriterJsonLd implements GeoJsonWriter {
     @Override
     public void onFeatureStart(FeatureTransformationContextGeoJson transformationContext,
                                Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
-        Optional<GeoJsonLdConfiguration> jsonLdOptions = transformationContext.getApiData()
-                                                                     .getCollections()
-                                                                     .get(transformationContext.getCollectionId())
-                                                                     .getExtension(GeoJsonLdConfiguration.class);
-
         if (jsonLdOptions.isPresent() && jsonLdOptions.get().isEnabled()) {
             List<String> types = jsonLdOptions.map(GeoJsonLdConfiguration::getTypes)
                                               .orElse(ImmutableList.of("geojson:Feature"));
 
+            // each feature in a sequence is a standalone document
             writeContextAndJsonLdType(transformationContext, jsonLdOptions.get()
-                                                                          .getContext(), types, !transformationContext.isFeatureCollection());
+                                                                          .getContext(), types, !transformationContext.isFeatureCollection() || transformationContext.isFeatureSequence());
         }
 
         // next chain for extensions
@@ -94,34 +99,40 @@ public class GeoJsonWriterJsonLd implements GeoJsonWriter {
                                                        .getCurrentValue()
                                                        .get();
 
-            if (currentFeatureProperty.isId()) {
-
-                Optional<String> jsonLdId = transformationContext.getApiData()
-                                                                 .getCollections()
-                                                                 .get(transformationContext.getCollectionId())
-                                                                 .getExtension(GeoJsonLdConfiguration.class)
-                                                                 .flatMap(GeoJsonLdConfiguration::getIdTemplate)
-                                                                 .map(idTemplate -> {
-                                                                     String currentUri = StringTemplateFilters.applyTemplate(idTemplate, currentValue, isHtml -> {
-                                                                     }, "featureId");
-                                                                     currentUri = StringTemplateFilters.applyTemplate(currentUri, transformationContext.getServiceUrl(), isHtml -> {
-                                                                     }, "serviceUrl");
-                                                                     currentUri = StringTemplateFilters.applyTemplate(currentUri, transformationContext.getCollectionId(), isHtml -> {
-                                                                     }, "collectionId");
-                                                                     return currentUri;
-                                                                 });
-
-
-                if (jsonLdId.isPresent()) {
-                    transformationContext.getJson()
-                                         .writeStringField("@id", jsonLdId.get());
-                }
+            if (currentFeatureProperty.isId() && idFormatter.isPresent()) {
+                transformationContext.getJson()
+                                     .writeStringField("@id", idFormatter.get()
+                                                                         .apply(currentValue));
             }
         }
 
         next.accept(transformationContext);
     }
 
+    // serviceUrl and collectionId are the same for all features, only the feature id has to be inserted per feature
+    static Function<String, String> compileIdTemplate(String idTemplate, String serviceUrl,
+                                                      String collectionId) {
+        String template = StringTemplateFilters.applyTemplate(idTemplate, serviceUrl, isHtml -> {
+        }, "serviceUrl");
+        String boundTemplate = StringTemplateFilters.applyTemplate(template, collectionId, isHtml -> {
+        }, "collectionId");
+
+        int start = boundTemplate.indexOf("{{");
+        if (start < 0) {
+            return featureId -> boundTemplate;
+        }
+
+        // without filters the feature id is simply inserted, otherwise the template has to be applied
+        if (boundTemplate.indexOf(FEATURE_ID_PLACEHOLDER) == start && boundTemplate.indexOf("{{", start + 1) < 0) {
+            String prefix = boundTemplate.substring(0, start);
+            String suffix = boundTemplate.substring(start + FEATURE_ID_PLACEHOLDER.length());
+            return featureId -> prefix + featureId + suffix;
+        }
+
+        return featureId -> StringTemplateFilters.applyTemplate(boundTemplate, featureId, isHtml -> {
+        }, "featureId");
+    }
+
     private void writeContextAndJsonLdType(FeatureTransformationContextGeoJson transformationContext,
                                            String ldContext,
                                            List<String> types) throws IOException {
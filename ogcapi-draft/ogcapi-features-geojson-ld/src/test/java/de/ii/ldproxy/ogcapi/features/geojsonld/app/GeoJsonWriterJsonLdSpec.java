@@ -0,0 +1,77 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.geojsonld.app;
+
+import com.google.common.collect.ImmutableList;
+import com.greghaskins.spectrum.Spectrum;
+import de.ii.xtraplatform.stringtemplates.domain.StringTemplateFilters;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+
+@RunWith(Spectrum.class)
+public class GeoJsonWriterJsonLdSpec {
+
+    static final String SERVICE_URL = "https://example.com/api";
+    static final String COLLECTION_ID = "buildings";
+    static final List<String> FEATURE_IDS = ImmutableList.of("42", "DENW1234", "a b");
+
+    {
+
+        describe("id template", () -> {
+
+            it("it should insert the feature id into a template without filters", () -> {
+                Function<String, String> idFormatter = GeoJsonWriterJsonLd.compileIdTemplate("{{serviceUrl}}/collections/{{collectionId}}/items/{{featureId}}", SERVICE_URL, COLLECTION_ID);
+
+                assertEquals(idFormatter.apply("42"), "https://example.com/api/collections/buildings/items/42");
+            });
+
+            it("it should return a template without a feature id unchanged", () -> {
+                Function<String, String> idFormatter = GeoJsonWriterJsonLd.compileIdTemplate("{{serviceUrl}}/collections/{{collectionId}}", SERVICE_URL, COLLECTION_ID);
+
+                assertEquals(idFormatter.apply("42"), "https://example.com/api/collections/buildings");
+            });
+
+            it("it should produce the same ids as the template for plain placeholders", () -> {
+                assertSameAsTemplate("{{serviceUrl}}/collections/{{collectionId}}/items/{{featureId}}");
+                assertSameAsTemplate("urn:example:{{featureId}}");
+                assertSameAsTemplate("{{featureId}}");
+            });
+
+            it("it should produce the same ids as the template for filters and repeated placeholders", () -> {
+                assertSameAsTemplate("{{serviceUrl}}/collections/{{collectionId}}/items/{{featureId | toUpper}}");
+                assertSameAsTemplate("{{serviceUrl}}/items/{{featureId}}#{{featureId}}");
+                assertSameAsTemplate("{{featureId}}/{{collectionId}}");
+            });
+
+        });
+
+    }
+
+    // the reference applies the complete template for every feature in the same order as before the formatter
+    // was compiled, i.e. the feature id first
+    static void assertSameAsTemplate(String idTemplate) {
+        Function<String, String> idFormatter = GeoJsonWriterJsonLd.compileIdTemplate(idTemplate, SERVICE_URL, COLLECTION_ID);
+
+        for (String featureId : FEATURE_IDS) {
+            String expected = StringTemplateFilters.applyTemplate(idTemplate, featureId, isHtml -> {
+            }, "featureId");
+            expected = StringTemplateFilters.applyTemplate(expected, SERVICE_URL, isHtml -> {
+            }, "serviceUrl");
+            expected = StringTemplateFilters.applyTemplate(expected, COLLECTION_ID, isHtml -> {
+            }, "collectionId");
+
+            assertEquals(idFormatter.apply(featureId), expected, idTemplate);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.QueryHandler;
 import de.ii.ldproxy.ogcapi.domain.QueryInput;
+import de.ii.ldproxy.ogcapi.features.core.domain.CrsTransformerCache;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ldproxy.ogcapi.features.core.domain.processing.FeatureProcessChain;
@@ -32,7 +33,6 @@ import de.ii.ldproxy.ogcapi.observation_processing.api.ImmutableFeatureTransform
 import de.ii.ldproxy.ogcapi.observation_processing.api.ObservationProcessingQueriesHandler;
 import de.ii.xtraplatform.codelists.domain.Codelist;
 import de.ii.xtraplatform.crs.domain.CrsTransformer;
-import de.ii.xtraplatform.crs.domain.CrsTransformerFactory;
 import de.ii.xtraplatform.crs.domain.EpsgCrs;
 import de.ii.xtraplatform.dropwizard.domain.Dropwizard;
 import de.ii.xtraplatform.features.domain.FeatureProvider2;
@@ -73,7 +73,7 @@ public class ObservationProcessingQueriesHandlerImpl implements ObservationProce
 
     private static final String DAPA_PATH_ELEMENT = "dapa";
     private final I18n i18n;
-    private final CrsTransformerFactory crsTransformerFactory;
+    private final CrsTransformerCache crsTransformerCache;
     private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
     private final MetricRegistry metricRegistry;
     private final EntityRegistry entityRegistry;
@@ -82,13 +82,13 @@ public class ObservationProcessingQueriesHandlerImpl implements ObservationProce
 
 
     public ObservationProcessingQueriesHandlerImpl(@Requires I18n i18n,
-                                                   @Requires CrsTransformerFactory crsTransformerFactory,
+                                                   @Requires CrsTransformerCache crsTransformerCache,
                                                    @Requires Dropwizard dropwizard,
                                                    @Requires EntityRegistry entityRegistry,
                                                    @Requires FeaturesCoreProviders providers,
                                                    @Requires Http http) {
         this.i18n = i18n;
-        this.crsTransformerFactory = crsTransformerFactory;
+        this.crsTransformerCache = crsTransformerCache;
         this.entityRegistry = entityRegistry;
 
         this.metricRegistry = dropwizard.getEnvironment()
@@ -211,7 +211,7 @@ public class ObservationProcessingQueriesHandlerImpl implements ObservationProce
         if (featureProvider.supportsCrs()) {
             EpsgCrs sourceCrs = featureProvider.crs().getNativeCrs();
             //TODO: warmup on service start
-            crsTransformer = crsTransformerFactory.getTransformer(sourceCrs, targetCrs);
+            crsTransformer = crsTransformerCache.getTransformer(sourceCrs, targetCrs);
             swapCoordinates = crsTransformer.isPresent() && crsTransformer.get()
                                                                           .needsCoordinateSwap();
         }
@@ -23,16 +23,18 @@ import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.OgcApiPathParameter;
 import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
 import de.ii.ldproxy.ogcapi.styles.domain.StylesConfiguration;
+import de.ii.ldproxy.resources.domain.FileResource;
+import de.ii.ldproxy.resources.domain.ResourceCatalog;
 import de.ii.ldproxy.resources.domain.ResourceFormatExtension;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
-import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.NotAcceptableException;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.Path;
@@ -40,17 +42,22 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-
-import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
-import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * fetch list of styles or a style for the service
@@ -67,13 +74,18 @@ public class EndpointResource extends Endpoint {
 
     private static final List<String> TAGS = ImmutableList.of("Discover and fetch styles");
 
-    private final java.nio.file.Path resourcesStore;
+    private static final String RANGE = "Range";
+    private static final String IF_RANGE = "If-Range";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private final ResourceCatalog resourceCatalog;
 
-    public EndpointResource(@org.apache.felix.ipojo.annotations.Context BundleContext bundleContext, @Requires ExtensionRegistry extensionRegistry) throws IOException {
+    public EndpointResource(@Requires ExtensionRegistry extensionRegistry, @Requires ResourceCatalog resourceCatalog) {
         super(extensionRegistry);
-        this.resourcesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
-                                   .resolve("resources");
-        Files.createDirectories(resourcesStore);
+        this.resourceCatalog = resourceCatalog;
     }
 
     @Override
@@ -100,37 +112,29 @@ public class EndpointResource extends Endpoint {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("resources")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_RESOURCE);
-            String path = "/resources/{resourceId}";
-            List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            if (!pathParameters.stream().filter(param -> param.getName().equals("resourceId")).findAny().isPresent()) {
-                LOGGER.error("Path parameter 'resourceId' missing for resource at path '" + path + "'. The GET method will not be available.");
-            } else {
-                String operationSummary = "fetch the file resource `{resourceId}`";
-                Optional<String> operationDescription = Optional.of("Fetches the file resource with identifier `resourceId`. The set of " +
-                        "available resources can be retrieved at `/resources`.");
-                ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
-                        .path(path)
-                        .pathParameters(pathParameters);
-                ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
-                if (operation!=null)
-                    resourceBuilder.putOperations("GET", operation);
-                definitionBuilder.putResources(path, resourceBuilder.build());
-            }
-
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("resources")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_RESOURCE);
+        String path = "/resources/{resourceId}";
+        List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        if (!pathParameters.stream().filter(param -> param.getName().equals("resourceId")).findAny().isPresent()) {
+            LOGGER.error("Path parameter 'resourceId' missing for resource at path '" + path + "'. The GET method will not be available.");
+        } else {
+            String operationSummary = "fetch the file resource `{resourceId}`";
+            Optional<String> operationDescription = Optional.of("Fetches the file resource with identifier `resourceId`. The set of " +
+                    "available resources can be retrieved at `/resources`.");
+            ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
+                    .path(path)
+                    .pathParameters(pathParameters);
+            ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
+            if (operation!=null)
+                resourceBuilder.putOperations("GET", operation);
+            definitionBuilder.putResources(path, resourceBuilder.build());
         }
 
-        return apiDefinitions.get(apiDataHash);
+        return definitionBuilder.build();
     }
 
     /**
@@ -143,29 +147,116 @@ public class EndpointResource extends Endpoint {
     @GET
     @Produces(MediaType.WILDCARD)
     public Response getResource(@PathParam("resourceId") String resourceId, @Context OgcApi api,
-                                @Context ApiRequestContext requestContext) throws IOException {
+                                @Context ApiRequestContext requestContext, @Context Request request,
+                                @HeaderParam(RANGE) String range, @HeaderParam(IF_RANGE) String ifRange) {
+
+        final FileResource resource;
+        try {
+            resource = resourceCatalog.getResource(api.getId(), resourceId)
+                                      .orElseThrow(() -> new NotFoundException(MessageFormat.format("The file ''{0}'' does not exist.", resourceId)));
+        } catch (IOException e) {
+            throw new ServerErrorException("resource could not be read: "+resourceId, 500);
+        }
+
+        EntityTag entityTag = resource.getEntityTag();
+        Date lastModified = resource.getLastModified();
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, entityTag);
+        if (notModified != null) {
+            return notModified.header(ACCEPT_RANGES, "bytes")
+                              .build();
+        }
+
+        Response response = getFormats().stream()
+                .filter(format -> requestContext.getMediaType().matches(format.getMediaType().type()))
+                .findAny()
+                .map(ResourceFormatExtension.class::cast)
+                .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type {0} cannot be generated.", requestContext.getMediaType().type())))
+                .getResourceResponse(resource, resourceId, api, requestContext);
+
+        Response.ResponseBuilder responseBuilder = Response.fromResponse(response)
+                                                           .tag(entityTag)
+                                                           .lastModified(lastModified)
+                                                           .header(ACCEPT_RANGES, "bytes");
+
+        if (response.getStatus() != Response.Status.OK.getStatusCode() || Objects.isNull(range) || !isCurrent(ifRange, entityTag, lastModified)) {
+            return responseBuilder.build();
+        }
+
+        Optional<long[]> byteRange = parseRange(range, resource.getSize());
+        if (!byteRange.isPresent()) {
+            // unsupported range units or multiple ranges, the complete representation is returned
+            return responseBuilder.build();
+        }
+
+        long first = byteRange.get()[0];
+        long last = byteRange.get()[1];
+        if (first > last) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(CONTENT_RANGE, "bytes */" + resource.getSize())
+                           .build();
+        }
 
-        final String datasetId = api.getId();
-        java.nio.file.Path apiDir = resourcesStore.resolve(datasetId);
-        Files.createDirectories(apiDir);
+        // the content range also excludes the partial response from compression
+        return responseBuilder.status(Response.Status.PARTIAL_CONTENT)
+                              .entity(resource.getEntity(first, last - first + 1))
+                              .header(HttpHeaders.CONTENT_LENGTH, last - first + 1)
+                              .header(CONTENT_RANGE, "bytes " + first + "-" + last + "/" + resource.getSize())
+                              .build();
+    }
 
-        java.nio.file.Path resourceFile = apiDir.resolve(resourceId);
+    // a range request is only evaluated, if the resource has not changed since the client received the first part
+    static boolean isCurrent(String ifRange, EntityTag entityTag, Date lastModified) {
+        if (Objects.isNull(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range uses the strong comparison, a weak entity tag never matches (RFC 7233, section 3.2)
+            if (ifRange.startsWith("W/") || entityTag.isWeak()) {
+                return false;
+            }
+            try {
+                return EntityTag.valueOf(ifRange)
+                                .getValue()
+                                .equals(entityTag.getValue());
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        try {
+            return Objects.equals(HTTP_DATE.parse(ifRange, ZonedDateTime::from)
+                                           .toInstant(), lastModified.toInstant());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
 
-        if (Files.notExists(resourceFile)) {
-            throw new NotFoundException(MessageFormat.format("The file ''{0}'' does not exist.", resourceId));
+    /**
+     * @return the first and last byte of a single byte range, limited to the size of the resource; if the first
+     * byte is after the last byte, the range is not satisfiable
+     */
+    static Optional<long[]> parseRange(String range, long size) {
+        Matcher matcher = BYTE_RANGE.matcher(range.trim());
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return Optional.empty();
         }
 
         try {
-            final byte[] resource = Files.readAllBytes(resourceFile);
-
-            return getFormats().stream()
-                    .filter(format -> requestContext.getMediaType().matches(format.getMediaType().type()))
-                    .findAny()
-                    .map(ResourceFormatExtension.class::cast)
-                    .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type {0} cannot be generated.", requestContext.getMediaType().type())))
-                    .getResourceResponse(resource, resourceId, api, requestContext);
-        } catch (IOException e) {
-            throw new ServerErrorException("resource could not be read: "+resourceId, 500);
+            if (matcher.group(1).isEmpty()) {
+                // suffix range, the last n bytes
+                long suffixLength = Long.parseLong(matcher.group(2));
+                return Optional.of(new long[]{Math.max(0, size - suffixLength), suffixLength > 0 ? size - 1 : -1});
+            }
+
+            long first = Long.parseLong(matcher.group(1));
+            long last = matcher.group(2).isEmpty() ? size - 1 : Long.parseLong(matcher.group(2));
+            if (last < first) {
+                // syntactically invalid, the header is ignored
+                return Optional.empty();
+            }
+
+            return Optional.of(new long[]{first, Math.min(last, size - 1)});
+        } catch (NumberFormatException e) {
+            return Optional.empty();
         }
     }
 }
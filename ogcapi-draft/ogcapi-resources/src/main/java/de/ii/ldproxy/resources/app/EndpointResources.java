@@ -12,12 +12,12 @@ import de.ii.ldproxy.ogcapi.domain.DefaultLinksGenerator;
 import de.ii.ldproxy.ogcapi.domain.I18n;
 import de.ii.ldproxy.ogcapi.domain.*;
 import de.ii.ldproxy.ogcapi.styles.domain.StylesConfiguration;
+import de.ii.ldproxy.resources.domain.ResourceCatalog;
 import de.ii.ldproxy.resources.domain.ResourcesFormatExtension;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
-import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,19 +28,11 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.text.MessageFormat;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
-import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
-
 /**
  * fetch list of styles or a style for the service
  */
@@ -56,13 +48,11 @@ public class EndpointResources extends Endpoint implements ConformanceClass {
 
     private static final List<String> TAGS = ImmutableList.of("Discover and fetch styles");
 
-    private final java.nio.file.Path resourcesStore;
+    private final ResourceCatalog resourceCatalog;
 
-    public EndpointResources(@org.apache.felix.ipojo.annotations.Context BundleContext bundleContext, @Requires ExtensionRegistry extensionRegistry) throws IOException {
+    public EndpointResources(@Requires ExtensionRegistry extensionRegistry, @Requires ResourceCatalog resourceCatalog) {
         super(extensionRegistry);
-        this.resourcesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
-                                   .resolve("resources");
-        Files.createDirectories(resourcesStore);
+        this.resourceCatalog = resourceCatalog;
     }
 
     @Override
@@ -94,33 +84,25 @@ public class EndpointResources extends Endpoint implements ConformanceClass {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("resources")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_RESOURCES);
-            List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, "/resources");
-            String operationSummary = "information about the available file resources";
-            Optional<String> operationDescription = Optional.of("This operation fetches the set of file resources that have been " +
-                    "created and that may be used by reference, for example, in stylesheets. For each resource the id and " +
-                    "a link to the resource is provided.");
-            String path = "/resources";
-            ImmutableOgcApiResourceSet.Builder resourceBuilderSet = new ImmutableOgcApiResourceSet.Builder()
-                    .path(path)
-                    .subResourceType("File Resource");
-            ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
-            if (operation!=null)
-                resourceBuilderSet.putOperations("GET", operation);
-            definitionBuilder.putResources(path, resourceBuilderSet.build());
-
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
-        }
-
-        return apiDefinitions.get(apiDataHash);
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("resources")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_RESOURCES);
+        List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, "/resources");
+        String operationSummary = "information about the available file resources";
+        Optional<String> operationDescription = Optional.of("This operation fetches the set of file resources that have been " +
+                "created and that may be used by reference, for example, in stylesheets. For each resource the id and " +
+                "a link to the resource is provided.");
+        String path = "/resources";
+        ImmutableOgcApiResourceSet.Builder resourceBuilderSet = new ImmutableOgcApiResourceSet.Builder()
+                .path(path)
+                .subResourceType("File Resource");
+        ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
+        if (operation!=null)
+            resourceBuilderSet.putOperations("GET", operation);
+        definitionBuilder.putResources(path, resourceBuilderSet.build());
+
+        return definitionBuilder.build();
     }
 
     /**
@@ -134,18 +116,10 @@ public class EndpointResources extends Endpoint implements ConformanceClass {
     public Response getResources(@Context OgcApi api, @Context ApiRequestContext requestContext) {
         final ResourcesLinkGenerator resourcesLinkGenerator = new ResourcesLinkGenerator();
 
-        final String apiId = api.getId();
-        File apiDir = new File(resourcesStore + File.separator + apiId);
-        if (!apiDir.exists()) {
-            apiDir.mkdirs();
-        }
-
         Resources resources = ImmutableResources.builder()
             .resources(
-                Arrays.stream(apiDir.listFiles())
-                .filter(file -> !file.isHidden())
-                .map(File::getName)
-                .sorted()
+                resourceCatalog.getResourceIds(api.getId())
+                .stream()
                 .map(filename -> ImmutableResource.builder()
                         .id(filename)
                         .link(resourcesLinkGenerator.generateResourceLink(requestContext.getUriCustomizer(), filename))
@@ -0,0 +1,176 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.resources.app;
+
+import com.google.common.collect.ImmutableList;
+import de.ii.ldproxy.ogcapi.domain.ApiDirectoryWatcher;
+import de.ii.ldproxy.resources.domain.FileResource;
+import de.ii.ldproxy.resources.domain.ResourceCatalog;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Invalidate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.osgi.framework.BundleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
+import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
+
+/**
+ * Lists the resources directory of an API on first access. The directory is watched for changes, a change
+ * discards the list and the files in memory of the API. Files up to {@link #MAX_IN_MEMORY_SIZE} bytes, e.g.
+ * font glyph ranges or sprites, are kept in memory. Since the watch service may report changes with a delay,
+ * the size and last modification of a file are checked on every access.
+ */
+@Component
+@Provides
+@Instantiate
+public class ResourceCatalogImpl implements ResourceCatalog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceCatalogImpl.class);
+
+    private static final int MAX_IN_MEMORY_SIZE = 64 * 1024;
+    private static final int MAX_IN_MEMORY_RESOURCES = 1000;
+
+    private final Path resourcesStore;
+    private final Map<String, List<String>> resourceIds;
+    private final Map<String, FileResource> inMemoryResources;
+    private ApiDirectoryWatcher watcher;
+
+    public ResourceCatalogImpl(@Context BundleContext bundleContext) throws IOException {
+        this.resourcesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
+                                   .resolve("resources");
+        Files.createDirectories(resourcesStore);
+        this.resourceIds = new ConcurrentHashMap<>();
+        this.inMemoryResources = new ConcurrentHashMap<>();
+    }
+
+    // the watcher is created on every start of the component, it is closed when the component is stopped
+    @Validate
+    private void onStart() throws IOException {
+        this.watcher = new ApiDirectoryWatcher("resources-watcher", this::invalidate);
+    }
+
+    @Invalidate
+    private void onStop() {
+        watcher.close();
+    }
+
+    @Override
+    public List<String> getResourceIds(String apiId) {
+        return Objects.requireNonNullElse(resourceIds.computeIfAbsent(apiId, this::list), ImmutableList.of());
+    }
+
+    @Override
+    public Optional<FileResource> getResource(String apiId, String resourceId) throws IOException {
+        Path apiDir = resourcesStore.resolve(apiId);
+        Path resourceFile = apiDir.resolve(resourceId)
+                                  .normalize();
+
+        // only files directly in the directory of the API are resources
+        if (!apiDir.equals(resourceFile.getParent()) || Files.isHidden(resourceFile)) {
+            return Optional.empty();
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(resourceFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+
+        FileResource resource = new FileResource(resourceFile, attributes.size(), attributes.lastModifiedTime()
+                                                                                             .toMillis(), Optional.empty());
+        if (resource.getSize() > MAX_IN_MEMORY_SIZE) {
+            return Optional.of(resource);
+        }
+
+        String key = apiId + "/" + resourceId;
+        FileResource inMemoryResource = inMemoryResources.get(key);
+        if (resource.isSameVersion(inMemoryResource)) {
+            return Optional.of(inMemoryResource);
+        }
+
+        byte[] content = Files.readAllBytes(resourceFile);
+        if (content.length != resource.getSize()) {
+            // the file is being written, do not keep it
+            return Optional.of(resource);
+        }
+        inMemoryResource = new FileResource(resourceFile, resource.getSize(), attributes.lastModifiedTime()
+                                                                                        .toMillis(), Optional.of(content));
+
+        if (inMemoryResources.size() >= MAX_IN_MEMORY_RESOURCES) {
+            inMemoryResources.clear();
+        }
+        inMemoryResources.put(key, inMemoryResource);
+
+        return Optional.of(inMemoryResource);
+    }
+
+    @Override
+    public void invalidate(String apiId) {
+        resourceIds.remove(apiId);
+        inMemoryResources.keySet()
+                         .removeIf(key -> key.startsWith(apiId + "/"));
+        LOGGER.debug("Resources of API '{}' discarded.", apiId);
+    }
+
+    // called once per API until the next change, the directory is watched before it is listed
+    private List<String> list(String apiId) {
+        Path apiDir = resourcesStore.resolve(apiId);
+        List<String> ids = new ArrayList<>();
+
+        try {
+            Files.createDirectories(apiDir);
+            watcher.register(apiId, apiDir);
+        } catch (IOException e) {
+            LOGGER.error("Resources of API '{}' could not be listed: {}", apiId, e.getMessage());
+            // null is not cached, the next request tries again
+            return null;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(apiDir)) {
+            for (Path file : files) {
+                if (Files.isHidden(file) || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                ids.add(file.getFileName()
+                            .toString());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Resources of API '{}' could not be listed: {}", apiId, e.getMessage());
+            // null is not cached, the next request tries again
+            return null;
+        }
+
+        Collections.sort(ids);
+
+        return ImmutableList.copyOf(ids);
+    }
+}
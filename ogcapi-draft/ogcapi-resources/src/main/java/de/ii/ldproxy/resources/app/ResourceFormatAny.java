@@ -1,6 +1,5 @@
 package de.ii.ldproxy.resources.app;
 
-import com.google.common.io.ByteSource;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaTypeContent;
 import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
@@ -9,6 +8,7 @@ import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaType;
 import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaTypeContent;
 import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.resources.domain.FileResource;
 import de.ii.ldproxy.resources.domain.ResourceFormatExtension;
 import io.swagger.v3.oas.models.media.BinarySchema;
 import io.swagger.v3.oas.models.media.Schema;
@@ -16,9 +16,11 @@ import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -69,13 +71,13 @@ public class ResourceFormatAny implements ResourceFormatExtension {
     }
 
     @Override
-    public Response getResourceResponse(byte[] resource, String resourceId, OgcApi api, ApiRequestContext requestContext) {
+    public Response getResourceResponse(FileResource resource, String resourceId, OgcApi api, ApiRequestContext requestContext) {
 
         // TODO: URLConnection content-type guessing doesn't seem to work well, maybe try Apache Tika
         String contentType = URLConnection.guessContentTypeFromName(resourceId);
         if (contentType==null) {
-            try {
-                contentType = URLConnection.guessContentTypeFromStream(ByteSource.wrap(resource).openStream());
+            try (InputStream inputStream = resource.openStream()) {
+                contentType = URLConnection.guessContentTypeFromStream(inputStream);
             } catch (IOException e) {
                 // nothing we can do here, just take the default
             }
@@ -84,8 +86,9 @@ public class ResourceFormatAny implements ResourceFormatExtension {
             contentType = "application/octet-stream";
 
         return Response.ok()
-                .entity(resource)
+                .entity(resource.getEntity())
                 .type(contentType)
+                .header(HttpHeaders.CONTENT_LENGTH, resource.getSize())
                 .header("Content-Disposition", "inline; filename=\""+resourceId+"\"")
                 .build();
     }
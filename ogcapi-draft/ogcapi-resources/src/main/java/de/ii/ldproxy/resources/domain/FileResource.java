@@ -0,0 +1,126 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.resources.domain;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A file in the resources store of an API. Small files are held in memory, all other files are streamed
+ * from the file system on every request.
+ */
+public final class FileResource {
+
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final Optional<byte[]> content;
+
+    public FileResource(Path path, long size, long lastModified, Optional<byte[]> content) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.content = content;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the last modification of the file, HTTP dates have a resolution of seconds
+     */
+    public Date getLastModified() {
+        return new Date(lastModified / 1000 * 1000);
+    }
+
+    /**
+     * @return the entity tag derived from the size and last modification of the file; it is weak, since the
+     * content encoding of a complete representation may vary
+     */
+    public EntityTag getEntityTag() {
+        return new EntityTag(Long.toHexString(size) + "-" + Long.toHexString(lastModified), true);
+    }
+
+    /**
+     * @param other another version of the same file
+     * @return {@code true}, if both versions have the same size and last modification
+     */
+    public boolean isSameVersion(FileResource other) {
+        return Objects.nonNull(other) && size == other.size && lastModified == other.lastModified;
+    }
+
+    public boolean isInMemory() {
+        return content.isPresent();
+    }
+
+    public InputStream openStream() throws IOException {
+        if (content.isPresent()) {
+            return new ByteArrayInputStream(content.get());
+        }
+
+        return new BufferedInputStream(Files.newInputStream(path));
+    }
+
+    /**
+     * @return the complete content of the file
+     */
+    public Object getEntity() {
+        if (content.isPresent()) {
+            return content.get();
+        }
+
+        return getEntity(0, size);
+    }
+
+    /**
+     * @param offset the first byte
+     * @param length the number of bytes
+     * @return the given byte range of the file
+     */
+    public StreamingOutput getEntity(long offset, long length) {
+        if (content.isPresent()) {
+            return outputStream -> outputStream.write(content.get(), (int) offset, (int) length);
+        }
+
+        // the file is transferred by the file channel, it is not copied to the heap as a whole
+        return outputStream -> {
+            try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+                long position = offset;
+                long remaining = length;
+                while (remaining > 0) {
+                    long transferred = fileChannel.transferTo(position, remaining, outputChannel);
+                    if (transferred <= 0) {
+                        // the file has been truncated in the meantime
+                        break;
+                    }
+                    position += transferred;
+                    remaining -= transferred;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.resources.domain;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The file resources of the APIs. The list of resources is read once per API and small files are kept in
+ * memory; changes in the resources store are detected automatically.
+ */
+public interface ResourceCatalog {
+
+    /**
+     * @param apiId the API
+     * @return the sorted identifiers of all resources of the API
+     */
+    List<String> getResourceIds(String apiId);
+
+    /**
+     * @param apiId the API
+     * @param resourceId the resource
+     * @return the current version of the resource, if it exists
+     * @throws IOException if the file cannot be read
+     */
+    Optional<FileResource> getResource(String apiId, String resourceId) throws IOException;
+
+    /**
+     * Discards the list of resources and the files in memory of the API, e.g. after a resource has been
+     * changed.
+     *
+     * @param apiId the API
+     */
+    void invalidate(String apiId);
+}
@@ -29,7 +29,7 @@ public interface ResourceFormatExtension extends FormatExtension {
         return true;
     }
 
-    Response getResourceResponse(byte[] resource,
+    Response getResourceResponse(FileResource resource,
                                  String resourceId,
                                  OgcApi api,
                                  ApiRequestContext requestContext);
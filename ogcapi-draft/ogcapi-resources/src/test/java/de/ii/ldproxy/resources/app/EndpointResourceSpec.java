@@ -0,0 +1,108 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.resources.app;
+
+import com.greghaskins.spectrum.Spectrum;
+import org.junit.runner.RunWith;
+
+import javax.ws.rs.core.EntityTag;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@RunWith(Spectrum.class)
+public class EndpointResourceSpec {
+
+    static final long SIZE = 100;
+    static final Date LAST_MODIFIED = Date.from(Instant.parse("2015-10-21T07:28:00Z"));
+
+    {
+
+        describe("Range header", () -> {
+
+            it("it should return a range within the resource", () -> {
+                assertRange("bytes=0-9", 0, 9);
+                assertRange(" bytes=10-10 ", 10, 10);
+            });
+
+            it("it should return the rest of the resource for an open range", () -> {
+                assertRange("bytes=90-", 90, 99);
+            });
+
+            it("it should return the last bytes for a suffix range", () -> {
+                assertRange("bytes=-10", 90, 99);
+                assertRange("bytes=-200", 0, 99);
+            });
+
+            it("it should limit the last byte to the size of the resource", () -> {
+                assertRange("bytes=50-500", 50, 99);
+            });
+
+            it("it should return an unsatisfiable range, if the first byte is after the resource", () -> {
+                assertUnsatisfiable("bytes=100-");
+                assertUnsatisfiable("bytes=150-200");
+                assertUnsatisfiable("bytes=-0");
+            });
+
+            it("it should ignore invalid or unsupported ranges", () -> {
+                assertIgnored("bytes=9-0");
+                assertIgnored("bytes=-");
+                assertIgnored("bytes=0-1,5-6");
+                assertIgnored("items=0-1");
+                assertIgnored("bytes=99999999999999999999-");
+            });
+
+        });
+
+        describe("If-Range header", () -> {
+
+            it("it should evaluate the range without the header", () -> {
+                assertTrue(EndpointResource.isCurrent(null, new EntityTag("64-1", true), LAST_MODIFIED));
+            });
+
+            it("it should never match a weak entity tag", () -> {
+                assertFalse(EndpointResource.isCurrent("W/\"64-1\"", new EntityTag("64-1", true), LAST_MODIFIED));
+                assertFalse(EndpointResource.isCurrent("W/\"64-1\"", new EntityTag("64-1", false), LAST_MODIFIED));
+            });
+
+            it("it should match the date of the last modification", () -> {
+                assertTrue(EndpointResource.isCurrent("Wed, 21 Oct 2015 07:28:00 GMT", new EntityTag("64-1", true), LAST_MODIFIED));
+                assertFalse(EndpointResource.isCurrent("Wed, 21 Oct 2015 07:27:59 GMT", new EntityTag("64-1", true), LAST_MODIFIED));
+                assertFalse(EndpointResource.isCurrent("yesterday", new EntityTag("64-1", true), LAST_MODIFIED));
+            });
+
+        });
+
+    }
+
+    static void assertRange(String range, long first, long last) {
+        Optional<long[]> byteRange = EndpointResource.parseRange(range, SIZE);
+
+        assertTrue(byteRange.isPresent());
+        assertEquals(byteRange.get()[0], first);
+        assertEquals(byteRange.get()[1], last);
+    }
+
+    static void assertUnsatisfiable(String range) {
+        Optional<long[]> byteRange = EndpointResource.parseRange(range, SIZE);
+
+        assertTrue(byteRange.isPresent());
+        assertTrue(byteRange.get()[0] > byteRange.get()[1]);
+    }
+
+    static void assertIgnored(String range) {
+        assertFalse(EndpointResource.parseRange(range, SIZE)
+                                    .isPresent());
+    }
+}
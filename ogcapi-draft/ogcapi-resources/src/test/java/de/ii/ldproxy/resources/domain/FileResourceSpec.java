@@ -0,0 +1,106 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.resources.domain;
+
+import com.greghaskins.spectrum.Spectrum;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.afterAll;
+import static com.greghaskins.spectrum.dsl.specification.Specification.beforeAll;
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@RunWith(Spectrum.class)
+public class FileResourceSpec {
+
+    static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    Path file;
+
+    {
+
+        beforeAll(() -> {
+            file = Files.createTempFile("resource", ".bin");
+            Files.write(file, CONTENT);
+        });
+
+        afterAll(() -> Files.deleteIfExists(file));
+
+        describe("byte ranges", () -> {
+
+            it("it should write the range of a resource in memory", () -> {
+                FileResource resource = new FileResource(file, CONTENT.length, 0, Optional.of(CONTENT));
+
+                assertEquals(write(resource, 2, 3), "234");
+                assertEquals(write(resource, 9, 1), "9");
+            });
+
+            it("it should write the range of a resource on the file system", () -> {
+                FileResource resource = new FileResource(file, CONTENT.length, 0, Optional.empty());
+
+                assertEquals(write(resource, 2, 3), "234");
+                assertEquals(write(resource, 0, CONTENT.length), "0123456789");
+            });
+
+            it("it should stop at the end of a truncated file", () -> {
+                FileResource resource = new FileResource(file, 20, 0, Optional.empty());
+
+                assertEquals(write(resource, 8, 12), "89");
+            });
+
+        });
+
+        describe("validators", () -> {
+
+            it("it should derive a weak entity tag from size and last modification", () -> {
+                FileResource resource = new FileResource(file, 16, 255, Optional.empty());
+
+                assertTrue(resource.getEntityTag()
+                                   .isWeak());
+                assertEquals(resource.getEntityTag()
+                                     .getValue(), "10-ff");
+            });
+
+            it("it should truncate the last modification to seconds", () -> {
+                FileResource resource = new FileResource(file, 16, 1234567, Optional.empty());
+
+                assertEquals(resource.getLastModified()
+                                     .getTime(), 1234000L);
+            });
+
+            it("it should detect a changed file", () -> {
+                FileResource resource = new FileResource(file, 16, 1000, Optional.empty());
+
+                assertTrue(resource.isSameVersion(new FileResource(file, 16, 1000, Optional.of(CONTENT))));
+                assertFalse(resource.isSameVersion(new FileResource(file, 16, 2000, Optional.empty())));
+                assertFalse(resource.isSameVersion(new FileResource(file, 17, 1000, Optional.empty())));
+                assertFalse(resource.isSameVersion(null));
+            });
+
+        });
+
+    }
+
+    static String write(FileResource resource, long offset, long length) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        resource.getEntity(offset, length)
+                .write(outputStream);
+
+        return new String(outputStream.toByteArray(), StandardCharsets.US_ASCII);
+    }
+}
@@ -8,11 +8,11 @@
 package de.ii.ldproxy.ogcapi.styles.app;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.Files;
 import de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
 import de.ii.ldproxy.ogcapi.domain.ApiOperation;
 import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.CachePolicy;
 import de.ii.ldproxy.ogcapi.domain.DefaultLinksGenerator;
 import de.ii.ldproxy.ogcapi.domain.Endpoint;
 import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
@@ -27,13 +27,13 @@ import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.OgcApiPathParameter;
 import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
+import de.ii.ldproxy.ogcapi.styles.domain.StyleCatalog;
 import de.ii.ldproxy.ogcapi.styles.domain.StyleFormatExtension;
 import de.ii.ldproxy.ogcapi.styles.domain.StylesConfiguration;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
-import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,19 +46,14 @@ import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
-import java.io.FilenameFilter;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
-import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
-
 /**
  * fetch the stylesheet of a style
  */
@@ -74,14 +69,12 @@ public class EndpointStyle extends Endpoint {
 
     private static final List<String> TAGS = ImmutableList.of("Discover and fetch styles");
 
-    private final java.nio.file.Path stylesStore;
+    private final StyleCatalog styleCatalog;
 
-    public EndpointStyle(@org.apache.felix.ipojo.annotations.Context BundleContext bundleContext,
-                         @Requires ExtensionRegistry extensionRegistry) throws IOException {
+    public EndpointStyle(@Requires ExtensionRegistry extensionRegistry,
+                         @Requires StyleCatalog styleCatalog) {
         super(extensionRegistry);
-        this.stylesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
-                                .resolve("styles");
-        java.nio.file.Files.createDirectories(stylesStore);
+        this.styleCatalog = styleCatalog;
     }
 
     private Stream<StyleFormatExtension> getStyleFormatStream(OgcApiDataV2 apiData) {
@@ -90,9 +83,10 @@ public class EndpointStyle extends Endpoint {
                 .filter(styleFormatExtension -> styleFormatExtension.isEnabledForApi(apiData));
     }
 
-    private List<ApiMediaType> getStylesheetMediaTypes(OgcApiDataV2 apiData, File apiDir, String styleId) {
+    private List<ApiMediaType> getStylesheetMediaTypes(OgcApiDataV2 apiData, String styleId) {
+        Set<String> stylesheetExtensions = styleCatalog.getStylesheetExtensions(apiData.getId(), styleId);
         return getStyleFormatStream(apiData)
-                .filter(styleFormat -> new File(apiDir + File.separator + styleId + "." + styleFormat.getFileExtension()).exists())
+                .filter(styleFormat -> stylesheetExtensions.contains(styleFormat.getFileExtension()))
                 .map(StyleFormatExtension::getMediaType)
                 .collect(Collectors.toList());
     }
@@ -102,6 +96,17 @@ public class EndpointStyle extends Endpoint {
         return StylesConfiguration.class;
     }
 
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.API_REVISION;
+    }
+
+    // the styles can change independently of the API configuration
+    @Override
+    public long getContentVersion(OgcApiDataV2 apiData, String path) {
+        return styleCatalog.getVersion(apiData.getId());
+    }
+
     @Override
     public List<? extends FormatExtension> getFormats() {
         if (formats==null)
@@ -110,38 +115,30 @@ public class EndpointStyle extends Endpoint {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("styles")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_STYLESHEET);
-            String path = "/styles/{styleId}";
-            List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            if (!pathParameters.stream().filter(param -> param.getName().equals("styleId")).findAny().isPresent()) {
-                LOGGER.error("Path parameter 'styleId' missing for resource at path '" + path + "'. The GET method will not be available.");
-            } else {
-                String operationSummary = "fetch a style";
-                Optional<String> operationDescription = Optional.of("Fetches the style with identifier `styleId`. " +
-                        "The set of available styles can be retrieved at `/styles`. Not all styles are available in " +
-                        "all style encodings.");
-                ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
-                        .path(path)
-                        .pathParameters(pathParameters);
-                ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
-                if (operation!=null)
-                    resourceBuilder.putOperations("GET", operation);
-                definitionBuilder.putResources(path, resourceBuilder.build());
-            }
-
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("styles")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_STYLESHEET);
+        String path = "/styles/{styleId}";
+        List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        if (!pathParameters.stream().filter(param -> param.getName().equals("styleId")).findAny().isPresent()) {
+            LOGGER.error("Path parameter 'styleId' missing for resource at path '" + path + "'. The GET method will not be available.");
+        } else {
+            String operationSummary = "fetch a style";
+            Optional<String> operationDescription = Optional.of("Fetches the style with identifier `styleId`. " +
+                    "The set of available styles can be retrieved at `/styles`. Not all styles are available in " +
+                    "all style encodings.");
+            ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
+                    .path(path)
+                    .pathParameters(pathParameters);
+            ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
+            if (operation!=null)
+                resourceBuilder.putOperations("GET", operation);
+            definitionBuilder.putResources(path, resourceBuilder.build());
         }
 
-        return apiDefinitions.get(apiDataHash);
+        return definitionBuilder.build();
     }
 
     /**
@@ -161,18 +158,22 @@ public class EndpointStyle extends Endpoint {
                                                                                   .findFirst()
                                                                                   .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type ''{0}'' is not supported for this resource.", ogcApiRequest.getMediaType())));
 
-        MediaType mediaType = styleFormat.getMediaType().type();
-        String key = styleId + "." + styleFormat.getFileExtension();
         String datasetId = dataset.getId();
-        File stylesheet = new File( stylesStore + File.separator + datasetId + File.separator + styleId + "." + styleFormat.getFileExtension());
-        if (!stylesheet.exists()) {
-            File folder = new File( stylesStore + File.separator + datasetId );
-            boolean styleExists = stylesheet.getParentFile().listFiles(new FilenameFilter() {
-                @Override
-                public boolean accept(File dir, String name) {
-                    return name.matches("^"+styleId+"\\..*");
-                }
-            }).length > 0;
+        String serviceUrl = ogcApiRequest.getUriCustomizer()
+                                         .copy()
+                                         .removeLastPathSegments(2)
+                                         .clearParameters()
+                                         .ensureNoTrailingSlash()
+                                         .toString();
+        Optional<byte[]> stylesheet;
+        try {
+            stylesheet = styleCatalog.getStylesheet(datasetId, styleId, styleFormat, serviceUrl);
+        } catch (IOException e) {
+            throw new ServerErrorException("Stylesheet in the styles store is invalid: " + styleId, 500, e);
+        }
+        if (!stylesheet.isPresent()) {
+            boolean styleExists = !styleCatalog.getStylesheetExtensions(datasetId, styleId)
+                                               .isEmpty();
             if (styleExists) {
                 throw new NotAcceptableException(MessageFormat.format("The style ''{0}'' is not available in the requested format.", styleId));
             } else {
@@ -188,20 +189,14 @@ public class EndpointStyle extends Endpoint {
         if (includeLinkHeader) {
             final DefaultLinksGenerator defaultLinkGenerator = new DefaultLinksGenerator();
 
-            final String apiId = dataset.getId();
-            File apiDir = new File(stylesStore + File.separator + apiId);
-            if (!apiDir.exists()) {
-                apiDir.mkdirs();
-            }
-
-            List<ApiMediaType> alternateMediaTypes = getStylesheetMediaTypes(dataset.getData(), apiDir, Files.getNameWithoutExtension(styleId)).stream()
-                                                                                                                                               .filter(availableMediaType -> !availableMediaType.matches(styleFormat.getMediaType().type()))
-                                                                                                                                               .collect(Collectors.toList());
+            List<ApiMediaType> alternateMediaTypes = getStylesheetMediaTypes(dataset.getData(), styleId).stream()
+                                                                                                        .filter(availableMediaType -> !availableMediaType.matches(styleFormat.getMediaType().type()))
+                                                                                                        .collect(Collectors.toList());
             links = defaultLinkGenerator.generateLinks(ogcApiRequest.getUriCustomizer(), styleFormat.getMediaType(), alternateMediaTypes, i18n, ogcApiRequest.getLanguage());
         }
 
         try {
-            return styleFormat.getStyleResponse(styleId, stylesheet, links, dataset, ogcApiRequest);
+            return styleFormat.getStyleResponse(styleId, stylesheet.get(), links, dataset, ogcApiRequest);
         } catch (IOException e) {
             throw new ServerErrorException("Stylesheet in the styles store could not be read: " + styleId, 500, e);
         }
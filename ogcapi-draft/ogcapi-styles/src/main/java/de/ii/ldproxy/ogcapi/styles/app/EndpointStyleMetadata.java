@@ -7,14 +7,11 @@
  */
 package de.ii.ldproxy.ogcapi.styles.app;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.guava.GuavaModule;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.collect.ImmutableList;
 import de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition;
 import de.ii.ldproxy.ogcapi.domain.ApiOperation;
 import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.CachePolicy;
 import de.ii.ldproxy.ogcapi.domain.Endpoint;
 import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
 import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
@@ -31,6 +28,7 @@ import de.ii.ldproxy.ogcapi.domain.URICustomizer;
 import de.ii.ldproxy.ogcapi.styles.domain.ImmutableStyleLayer;
 import de.ii.ldproxy.ogcapi.styles.domain.ImmutableStyleMetadata;
 import de.ii.ldproxy.ogcapi.styles.domain.ImmutableStyleSheet;
+import de.ii.ldproxy.ogcapi.styles.domain.StyleCatalog;
 import de.ii.ldproxy.ogcapi.styles.domain.StyleFormatExtension;
 import de.ii.ldproxy.ogcapi.styles.domain.StyleMetadata;
 import de.ii.ldproxy.ogcapi.styles.domain.StyleMetadataFormatExtension;
@@ -41,7 +39,6 @@ import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
-import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,20 +51,15 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
-import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
-
 /**
  * fetch list the metadata of a style
  */
@@ -83,14 +75,23 @@ public class EndpointStyleMetadata extends Endpoint {
 
     private static final List<String> TAGS = ImmutableList.of("Discover and fetch styles");
 
-    private final java.nio.file.Path stylesStore;
+    private final StyleCatalog styleCatalog;
 
-    public EndpointStyleMetadata(@org.apache.felix.ipojo.annotations.Context BundleContext bundleContext,
-                                 @Requires ExtensionRegistry extensionRegistry) throws IOException {
+    public EndpointStyleMetadata(@Requires ExtensionRegistry extensionRegistry,
+                                 @Requires StyleCatalog styleCatalog) {
         super(extensionRegistry);
-        this.stylesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
-                                .resolve("styles");
-        Files.createDirectories(stylesStore);
+        this.styleCatalog = styleCatalog;
+    }
+
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.API_REVISION;
+    }
+
+    // the styles can change independently of the API configuration
+    @Override
+    public long getContentVersion(OgcApiDataV2 apiData, String path) {
+        return styleCatalog.getVersion(apiData.getId());
     }
 
     @Override
@@ -106,40 +107,32 @@ public class EndpointStyleMetadata extends Endpoint {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("styles")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_STYLE_METADATA);
-            String path = "/styles/{styleId}/metadata";
-            ImmutableList<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            if (!pathParameters.stream().filter(param -> param.getName().equals("styleId")).findAny().isPresent()) {
-                LOGGER.error("Path parameter 'styleId' missing for resource at path '" + path + "'. The GET method will not be available.");
-            } else {
-                String operationSummary = "fetch metadata about the style `{styleId}`";
-                Optional<String> operationDescription = Optional.of("Style metadata is essential information about a style in order to " +
-                        "support users to discover and select styles for rendering their data and for visual style editors " +
-                        "to create user interfaces for editing a style. This operations returns the metadata for the " +
-                        "requested style as a single document. The stylesheet of the style will typically include some " +
-                        "the metadata, too.");
-                ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
-                        .path(path)
-                        .pathParameters(pathParameters);
-                ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
-                if (operation!=null)
-                    resourceBuilder.putOperations("GET", operation);
-                definitionBuilder.putResources(path, resourceBuilder.build());
-            }
-
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("styles")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_STYLE_METADATA);
+        String path = "/styles/{styleId}/metadata";
+        ImmutableList<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        if (!pathParameters.stream().filter(param -> param.getName().equals("styleId")).findAny().isPresent()) {
+            LOGGER.error("Path parameter 'styleId' missing for resource at path '" + path + "'. The GET method will not be available.");
+        } else {
+            String operationSummary = "fetch metadata about the style `{styleId}`";
+            Optional<String> operationDescription = Optional.of("Style metadata is essential information about a style in order to " +
+                    "support users to discover and select styles for rendering their data and for visual style editors " +
+                    "to create user interfaces for editing a style. This operations returns the metadata for the " +
+                    "requested style as a single document. The stylesheet of the style will typically include some " +
+                    "the metadata, too.");
+            ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
+                    .path(path)
+                    .pathParameters(pathParameters);
+            ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
+            if (operation!=null)
+                resourceBuilder.putOperations("GET", operation);
+            definitionBuilder.putResources(path, resourceBuilder.build());
         }
 
-        return apiDefinitions.get(apiDataHash);
+        return definitionBuilder.build();
     }
 
     /**
@@ -170,18 +163,21 @@ public class EndpointStyleMetadata extends Endpoint {
 
     private StyleMetadata getMetadata(OgcApi api, String styleId, ApiRequestContext requestContext) {
         String apiId = requestContext.getApi().getId();
-        File metadataFile = new File( stylesStore + File.separator + apiId + File.separator + styleId + ".metadata");
+        Optional<StyleMetadata> metadata;
+        try {
+            metadata = styleCatalog.getMetadata(apiId, styleId);
+        } catch (IOException e) {
+            throw new InternalServerErrorException(MessageFormat.format("Style metadata file in styles store is invalid for style ''{0}'' in API ''{1}''.", styleId, api.getId()), e);
+        }
 
-        if (!metadataFile.exists()) {
+        if (!metadata.isPresent()) {
             final StylesLinkGenerator stylesLinkGenerator = new StylesLinkGenerator();
+            Set<String> stylesheetExtensions = styleCatalog.getStylesheetExtensions(apiId, styleId);
             List<StyleSheet> stylesheets = new ArrayList<>();
             stylesheets.addAll(extensionRegistry.getExtensionsForType(StyleFormatExtension.class)
                                                 .stream()
                                                 .filter(format -> !format.getDerived())
-                                                .filter(format -> Paths.get(stylesStore.toString(),apiId)
-                                                                       .resolve(styleId+"."+format.getFileExtension())
-                                                                       .toFile()
-                                                                       .exists())
+                                                .filter(format -> stylesheetExtensions.contains(format.getFileExtension()))
                                                 .map(format -> ImmutableStyleSheet.builder()
                                                                                   .native_(true)
                                                                                   .title(styleId)
@@ -192,35 +188,15 @@ public class EndpointStyleMetadata extends Endpoint {
                                                                                   .version(format.getVersion())
                                                                                   .build())
                                                 .collect(Collectors.toList()));
-            ImmutableStyleMetadata.Builder metadata = ImmutableStyleMetadata.builder()
-                                                                            .id(styleId)
-                                                                            .title(styleId)
-                                                                            .stylesheets(stylesheets);
+            ImmutableStyleMetadata.Builder metadataBuilder = ImmutableStyleMetadata.builder()
+                                                                                   .id(styleId)
+                                                                                   .title(styleId)
+                                                                                   .stylesheets(stylesheets);
 
-            return metadata.build();
+            return metadataBuilder.build();
         }
 
-        try {
-            final byte[] metadataContent = java.nio.file.Files.readAllBytes(metadataFile.toPath());
-
-            // prepare Jackson mapper for deserialization
-            final ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new Jdk8Module());
-            mapper.registerModule(new GuavaModule());
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            try {
-                // parse input
-                StyleMetadata metadata = mapper.readValue(metadataContent, StyleMetadata.class);
-
-                return replaceParameters(metadata, requestContext.getUriCustomizer().copy());
-            } catch (IOException e) {
-                LOGGER.error("Style metadata file in styles store is invalid: "+metadataFile.getAbsolutePath());
-                throw new InternalServerErrorException(MessageFormat.format("Style metadata file in styles store is invalid for style ''{0}'' in API ''{1}''.", styleId, api.getId()), e);
-            }
-        } catch (IOException e) {
-            LOGGER.error("Style metadata could not be read: "+styleId);
-            throw new InternalServerErrorException(MessageFormat.format("Style metadata could not be read for style ''{0}'' in API ''{1}''.", styleId, api.getId()), e);
-        }
+        return replaceParameters(metadata.get(), requestContext.getUriCustomizer().copy());
     }
 
     private StyleMetadata replaceParameters(StyleMetadata metadata, URICustomizer uriCustomizer) {
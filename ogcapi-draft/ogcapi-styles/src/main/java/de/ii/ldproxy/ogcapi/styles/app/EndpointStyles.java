@@ -7,12 +7,7 @@
  */
 package de.ii.ldproxy.ogcapi.styles.app;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.guava.GuavaModule;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.Files;
 import de.ii.ldproxy.ogcapi.domain.DefaultLinksGenerator;
 import de.ii.ldproxy.ogcapi.domain.*;
 import de.ii.ldproxy.ogcapi.styles.domain.*;
@@ -20,7 +15,6 @@ import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
-import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,19 +22,14 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.text.MessageFormat;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
-import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
-
 /**
  * fetch list of styles or metadata for a style
  */
@@ -56,14 +45,12 @@ public class EndpointStyles extends Endpoint implements ConformanceClass {
 
     private static final List<String> TAGS = ImmutableList.of("Discover and fetch styles");
 
-    private final java.nio.file.Path stylesStore;
+    private final StyleCatalog styleCatalog;
 
-    public EndpointStyles(@org.apache.felix.ipojo.annotations.Context BundleContext bundleContext,
-                          @Requires ExtensionRegistry extensionRegistry) throws IOException {
+    public EndpointStyles(@Requires ExtensionRegistry extensionRegistry,
+                          @Requires StyleCatalog styleCatalog) {
         super(extensionRegistry);
-        this.stylesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
-                                .resolve("styles");
-        java.nio.file.Files.createDirectories(stylesStore);
+        this.styleCatalog = styleCatalog;
     }
 
     @Override
@@ -76,6 +63,17 @@ public class EndpointStyles extends Endpoint implements ConformanceClass {
         return StylesConfiguration.class;
     }
 
+    @Override
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.API_REVISION;
+    }
+
+    // the styles can change independently of the API configuration
+    @Override
+    public long getContentVersion(OgcApiDataV2 apiData, String path) {
+        return styleCatalog.getVersion(apiData.getId());
+    }
+
     @Override
     public List<? extends FormatExtension> getFormats() {
         if (formats==null)
@@ -84,33 +82,25 @@ public class EndpointStyles extends Endpoint implements ConformanceClass {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("styles")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_STYLES);
-            List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, "/styles");
-            String operationSummary = "lists the available styles";
-            Optional<String> operationDescription = Optional.of("This operation fetches the set of styles available. " +
-                    "For each style the id, a title, links to the stylesheet of the style in each supported encoding, " +
-                    "and the link to the metadata is provided.");
-            String path = "/styles";
-            ImmutableOgcApiResourceSet.Builder resourceBuilderSet = new ImmutableOgcApiResourceSet.Builder()
-                    .path(path)
-                    .subResourceType("Style");
-            ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
-            if (operation!=null)
-                resourceBuilderSet.putOperations("GET", operation);
-            definitionBuilder.putResources(path, resourceBuilderSet.build());
-
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
-        }
-
-        return apiDefinitions.get(apiDataHash);
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("styles")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_STYLES);
+        List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, "/styles");
+        String operationSummary = "lists the available styles";
+        Optional<String> operationDescription = Optional.of("This operation fetches the set of styles available. " +
+                "For each style the id, a title, links to the stylesheet of the style in each supported encoding, " +
+                "and the link to the metadata is provided.");
+        String path = "/styles";
+        ImmutableOgcApiResourceSet.Builder resourceBuilderSet = new ImmutableOgcApiResourceSet.Builder()
+                .path(path)
+                .subResourceType("Style");
+        ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
+        if (operation!=null)
+            resourceBuilderSet.putOperations("GET", operation);
+        definitionBuilder.putResources(path, resourceBuilderSet.build());
+
+        return definitionBuilder.build();
     }
 
     /**
@@ -125,32 +115,26 @@ public class EndpointStyles extends Endpoint implements ConformanceClass {
         final StylesLinkGenerator stylesLinkGenerator = new StylesLinkGenerator();
 
         final String apiId = api.getId();
-        File apiDir = new File(stylesStore + File.separator + apiId);
-        if (!apiDir.exists()) {
-            apiDir.mkdirs();
-        }
 
         List<StyleFormatExtension> styleFormats = extensionRegistry.getExtensionsForType(StyleFormatExtension.class);
-        String styleFormatRegex = styleFormats.stream()
-                                              .filter(format -> !format.getDerived())
-                                              .map(StyleFormatExtension::getFileExtension)
-                                              .collect(Collectors.joining("|"));
+        Set<String> styleFormatExtensions = styleFormats.stream()
+                                                        .filter(format -> !format.getDerived())
+                                                        .map(StyleFormatExtension::getFileExtension)
+                                                        .collect(Collectors.toSet());
         Optional<StylesConfiguration> stylesExtension = api.getData().getExtension(StylesConfiguration.class);
         Styles styles = ImmutableStyles.builder()
                                        .styles(
-                        Arrays.stream(apiDir.listFiles())
-                              .filter(file -> !file.isHidden())
-                              .filter(file -> Files.getFileExtension(file.getName()).matches(styleFormatRegex))
-                              .map(file -> Files.getNameWithoutExtension(file.getName()))
-                              .distinct()
-                              .sorted()
+                        styleCatalog.getStyleIds(apiId)
+                              .stream()
+                              .filter(stylename -> styleCatalog.getStylesheetExtensions(apiId, stylename)
+                                                               .stream()
+                                                               .anyMatch(styleFormatExtensions::contains))
                               .map(stylename -> ImmutableStyleEntry.builder()
                                     .id(stylename)
                                     .title(getTitle(stylename, requestContext).orElse(stylename))
                                     .links(stylesLinkGenerator.generateStyleLinks(requestContext.getUriCustomizer(),
                                                                          stylename,
                                                                          getStylesheetMediaTypes(api.getData(),
-                                                                                 apiDir,
                                                                                  stylename),
                                                                          i18n,
                                                                          requestContext.getLanguage()))
@@ -174,40 +158,22 @@ public class EndpointStyles extends Endpoint implements ConformanceClass {
 
     private Optional<String> getTitle(String styleId, ApiRequestContext requestContext) {
         String apiId = requestContext.getApi().getId();
-        File metadataFile = new File( stylesStore + File.separator + apiId + File.separator + styleId + ".metadata");
-
-        if (!metadataFile.exists()) {
-            return Optional.empty();
-        }
-
         try {
-            final byte[] metadataContent = java.nio.file.Files.readAllBytes(metadataFile.toPath());
-
-            // prepare Jackson mapper for deserialization
-            final ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new Jdk8Module());
-            mapper.registerModule(new GuavaModule());
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            try {
-                // parse input
-                StyleMetadata metadata = mapper.readValue(metadataContent, StyleMetadata.class);
-
-                return metadata.getTitle();
-            } catch (IOException e) {
-                LOGGER.error("Cannot determine style title. Style metadata file in styles store is invalid: "+metadataFile.getAbsolutePath());
-            }
+            return styleCatalog.getMetadata(apiId, styleId)
+                               .flatMap(StyleMetadata::getTitle);
         } catch (IOException e) {
-            LOGGER.error("Cannot determine style title. Style metadata could not be read: "+styleId);
+            LOGGER.error("Cannot determine style title. " + e.getMessage());
         }
         return Optional.empty();
     }
 
-    private List<ApiMediaType> getStylesheetMediaTypes(OgcApiDataV2 apiData, File apiDir, String styleId) {
+    private List<ApiMediaType> getStylesheetMediaTypes(OgcApiDataV2 apiData, String styleId) {
+        Set<String> stylesheetExtensions = styleCatalog.getStylesheetExtensions(apiData.getId(), styleId);
         return extensionRegistry.getExtensionsForType(StyleFormatExtension.class)
                 .stream()
                 .sorted(Comparator.comparing(StyleFormatExtension::getFileExtension))
                 .filter(styleFormatExtension -> styleFormatExtension.isEnabledForApi(apiData))
-                .filter(styleFormat -> new File(apiDir + File.separator + styleId + "." + styleFormat.getFileExtension()).exists())
+                .filter(styleFormat -> stylesheetExtensions.contains(styleFormat.getFileExtension()))
                 .map(StyleFormatExtension::getMediaType)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,232 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.styles.app;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import de.ii.ldproxy.ogcapi.domain.ApiDirectoryWatcher;
+import de.ii.ldproxy.ogcapi.styles.domain.StyleCatalog;
+import de.ii.ldproxy.ogcapi.styles.domain.StyleFormatExtension;
+import de.ii.ldproxy.ogcapi.styles.domain.StyleMetadata;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Invalidate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.osgi.framework.BundleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.API_RESOURCES_DIR;
+import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
+
+/**
+ * Loads all documents in the styles directory of an API on first access. The directory is watched for changes,
+ * a change discards the loaded styles of the API. The rendered stylesheets are kept per service URL, which is
+ * the same for all requests unless the API is accessed under different external URLs.
+ */
+@Component
+@Provides
+@Instantiate
+public class StyleCatalogImpl implements StyleCatalog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StyleCatalogImpl.class);
+
+    private static final String METADATA_EXTENSION = "metadata";
+
+    private final Path stylesStore;
+    private final ObjectMapper mapper;
+    private final Map<String, ApiStyles> apiStyles;
+    private final AtomicLong versions;
+    private ApiDirectoryWatcher watcher;
+
+    public StyleCatalogImpl(@Context BundleContext bundleContext) throws IOException {
+        this.stylesStore = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), API_RESOURCES_DIR)
+                                .resolve("styles");
+        Files.createDirectories(stylesStore);
+        this.mapper = new ObjectMapper();
+        mapper.registerModule(new Jdk8Module());
+        mapper.registerModule(new GuavaModule());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.apiStyles = new ConcurrentHashMap<>();
+        this.versions = new AtomicLong();
+    }
+
+    // the watcher is created on every start of the component, it is closed when the component is stopped
+    @Validate
+    private void onStart() throws IOException {
+        // all styles of the API are loaded again on next access
+        this.watcher = new ApiDirectoryWatcher("styles-watcher", this::invalidate);
+    }
+
+    @Invalidate
+    private void onStop() {
+        watcher.close();
+    }
+
+    @Override
+    public List<String> getStyleIds(String apiId) {
+        return getApiStyles(apiId).styles
+                                  .entrySet()
+                                  .stream()
+                                  .filter(entry -> !entry.getValue().stylesheets.isEmpty())
+                                  .map(Map.Entry::getKey)
+                                  .collect(ImmutableList.toImmutableList());
+    }
+
+    @Override
+    public Set<String> getStylesheetExtensions(String apiId, String styleId) {
+        return Optional.ofNullable(getApiStyles(apiId).styles.get(styleId))
+                       .map(style -> style.stylesheets.keySet())
+                       .orElse(ImmutableSet.of());
+    }
+
+    @Override
+    public Optional<StyleMetadata> getMetadata(String apiId, String styleId) throws IOException {
+        Style style = getApiStyles(apiId).styles.get(styleId);
+        if (Objects.isNull(style) || Objects.isNull(style.metadata)) {
+            return Optional.empty();
+        }
+        if (!style.metadata.isPresent()) {
+            throw new IOException(String.format("Style metadata file in styles store is invalid: %s", stylesStore.resolve(apiId)
+                                                                                                                   .resolve(styleId + "." + METADATA_EXTENSION)));
+        }
+
+        return style.metadata;
+    }
+
+    @Override
+    public Optional<byte[]> getStylesheet(String apiId, String styleId, StyleFormatExtension format,
+                                          String serviceUrl) throws IOException {
+        Style style = getApiStyles(apiId).styles.get(styleId);
+        if (Objects.isNull(style) || !style.stylesheets.containsKey(format.getFileExtension())) {
+            return Optional.empty();
+        }
+
+        // derived style encodings share the file extension of the stylesheet
+        String key = format.getMediaType()
+                           .type() + " " + serviceUrl;
+        try {
+            // if rendering throws, computeIfAbsent stores no value and the next request tries again
+            return Optional.ofNullable(style.rendered.computeIfAbsent(key, ignore -> {
+                try {
+                    return format.renderStylesheet(style.stylesheets.get(format.getFileExtension()), serviceUrl);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public long getVersion(String apiId) {
+        return getApiStyles(apiId).version;
+    }
+
+    @Override
+    public void invalidate(String apiId) {
+        if (Objects.nonNull(apiStyles.remove(apiId))) {
+            LOGGER.debug("Styles of API '{}' discarded.", apiId);
+        }
+    }
+
+    private ApiStyles getApiStyles(String apiId) {
+        return apiStyles.computeIfAbsent(apiId, this::load);
+    }
+
+    private ApiStyles load(String apiId) {
+        Path apiDir = stylesStore.resolve(apiId);
+        Map<String, Map<String, byte[]>> documents = new TreeMap<>();
+
+        try {
+            Files.createDirectories(apiDir);
+            watcher.register(apiId, apiDir);
+
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(apiDir)) {
+                for (Path file : files) {
+                    String fileName = file.getFileName()
+                                          .toString();
+                    if (Files.isHidden(file) || !Files.isRegularFile(file)) {
+                        continue;
+                    }
+                    int dot = fileName.lastIndexOf('.');
+                    String name = dot >= 0 ? fileName.substring(0, dot) : fileName;
+                    String extension = dot >= 0 ? fileName.substring(dot + 1) : "";
+                    documents.computeIfAbsent(name, ignore -> new HashMap<>())
+                             .put(extension, Files.readAllBytes(file));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Styles of API '{}' could not be read: {}", apiId, e.getMessage());
+        }
+
+        ImmutableMap.Builder<String, Style> styles = ImmutableMap.builder();
+        documents.forEach((styleId, styleDocuments) -> styles.put(styleId, new Style(styleDocuments.remove(METADATA_EXTENSION), styleDocuments, apiId, styleId)));
+
+        LOGGER.debug("Styles of API '{}' loaded: {}", apiId, documents.keySet());
+
+        return new ApiStyles(styles.build(), versions.incrementAndGet());
+    }
+
+    private static class ApiStyles {
+        private final Map<String, Style> styles;
+        private final long version;
+
+        private ApiStyles(Map<String, Style> styles, long version) {
+            this.styles = styles;
+            this.version = version;
+        }
+    }
+
+    private class Style {
+        // null, if there is no metadata document, empty, if it is invalid
+        private final Optional<StyleMetadata> metadata;
+        private final Map<String, byte[]> stylesheets;
+        private final Map<String, byte[]> rendered;
+
+        private Style(byte[] metadata, Map<String, byte[]> stylesheets, String apiId, String styleId) {
+            this.metadata = Objects.nonNull(metadata) ? parseMetadata(metadata, apiId, styleId) : null;
+            this.stylesheets = ImmutableMap.copyOf(stylesheets);
+            this.rendered = new ConcurrentHashMap<>();
+        }
+    }
+
+    private Optional<StyleMetadata> parseMetadata(byte[] metadata, String apiId, String styleId) {
+        try {
+            return Optional.of(mapper.readValue(metadata, StyleMetadata.class));
+        } catch (IOException e) {
+            LOGGER.error("Style metadata file in styles store is invalid: {}", stylesStore.resolve(apiId)
+                                                                                         .resolve(styleId + "." + METADATA_EXTENSION));
+            return Optional.empty();
+        }
+    }
+}
@@ -32,7 +32,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
@@ -114,7 +113,7 @@ public class StyleFormatHtml implements StyleFormatExtension {
     }
 
     @Override
-    public Response getStyleResponse(String styleId, File stylesheet, List<Link> links, OgcApi api, ApiRequestContext requestContext) throws IOException {
+    public Response getStyleResponse(String styleId, byte[] stylesheet, List<Link> links, OgcApi api, ApiRequestContext requestContext) throws IOException {
 
         String styleUri = String.format("%s/%s/styles/%s?f=mbs", xtraPlatform.getServicesUri(), String.join("/", api.getData().getSubPath()), styleId);
         StyleView styleView = new StyleView(styleUri, api, styleId);
@@ -22,13 +22,13 @@ import de.ii.ldproxy.ogcapi.domain.Link;
 import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.SchemaGenerator;
-import de.ii.ldproxy.ogcapi.domain.URICustomizer;
 import de.ii.ldproxy.ogcapi.styles.domain.ImmutableMbStyleStylesheet;
 import de.ii.ldproxy.ogcapi.styles.domain.ImmutableMbStyleVectorSource;
 import de.ii.ldproxy.ogcapi.styles.domain.MbStyleSource;
 import de.ii.ldproxy.ogcapi.styles.domain.MbStyleStylesheet;
 import de.ii.ldproxy.ogcapi.styles.domain.MbStyleVectorSource;
 import de.ii.ldproxy.ogcapi.styles.domain.StyleFormatExtension;
+import de.ii.xtraplatform.dropwizard.domain.Jackson;
 import io.swagger.v3.oas.models.media.Schema;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
@@ -39,7 +39,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
@@ -55,6 +54,9 @@ public class StyleFormatMbStyle implements ConformanceClass, StyleFormatExtensio
     @Requires
     SchemaGenerator schemaGenerator;
 
+    @Requires
+    Jackson jackson;
+
     static final ApiMediaType MEDIA_TYPE = new ImmutableApiMediaType.Builder()
             .type(new MediaType("application", "vnd.mapbox.style+json"))
             .label("Mapbox")
@@ -63,9 +65,13 @@ public class StyleFormatMbStyle implements ConformanceClass, StyleFormatExtensio
 
     private final Schema schemaStyle;
     public final static String SCHEMA_REF_STYLE = "#/components/schemas/MbStyleStylesheet";
+    private final ObjectMapper mapper;
 
     public StyleFormatMbStyle() {
         schemaStyle = schemaGenerator.getSchema(MbStyleStylesheet.class);
+        mapper = new ObjectMapper();
+        mapper.registerModule(new Jdk8Module());
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     }
 
     @Override
@@ -117,30 +123,30 @@ public class StyleFormatMbStyle implements ConformanceClass, StyleFormatExtensio
     }
 
     @Override
-    public Response getStyleResponse(String styleId, File stylesheet, List<Link> links, OgcApi api, ApiRequestContext requestContext) throws IOException {
-
-        final byte[] content = java.nio.file.Files.readAllBytes(stylesheet.toPath());
-
-        // prepare Jackson mapper for deserialization
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new Jdk8Module());
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    public byte[] renderStylesheet(byte[] stylesheet, String serviceUrl) throws IOException {
         MbStyleStylesheet parsedContent;
         try {
             // parse input
-            parsedContent = mapper.readValue(content, MbStyleStylesheet.class);
+            parsedContent = mapper.readValue(stylesheet, MbStyleStylesheet.class);
         } catch (IOException e) {
-            throw new RuntimeException("Stylesheet in the styles store is invalid. Path: " + stylesheet.getAbsolutePath() + ".", e);
+            throw new IOException("Stylesheet in the styles store is invalid.", e);
         }
 
+        return jackson.getDefaultObjectMapper()
+                      .writeValueAsBytes(replaceParameters(parsedContent, serviceUrl));
+    }
+
+    @Override
+    public Response getStyleResponse(String styleId, byte[] stylesheet, List<Link> links, OgcApi api, ApiRequestContext requestContext) throws IOException {
+
         return Response.ok()
-                .entity(replaceParameters(parsedContent, requestContext.getUriCustomizer().copy()))
+                .entity(stylesheet)
                 .type(MEDIA_TYPE.type())
                 .links(links.isEmpty() ? null : links.stream().map(link -> link.getLink()).toArray(javax.ws.rs.core.Link[]::new))
                 .build();
     }
 
-    private MbStyleStylesheet replaceParameters(MbStyleStylesheet stylesheet, URICustomizer uriCustomizer) {
+    private MbStyleStylesheet replaceParameters(MbStyleStylesheet stylesheet, String serviceUrl) {
 
         // any template parameters in links?
         boolean templated = stylesheet.getSprite()
@@ -163,11 +169,6 @@ public class StyleFormatMbStyle implements ConformanceClass, StyleFormatExtensio
         if (!templated)
             return stylesheet;
 
-        String serviceUrl = uriCustomizer.removeLastPathSegments(2)
-                                         .clearParameters()
-                                         .ensureNoTrailingSlash()
-                                         .toString();
-
         return ImmutableMbStyleStylesheet.builder()
                                          .from(stylesheet)
                                          .sprite(stylesheet.getSprite().isPresent() ?
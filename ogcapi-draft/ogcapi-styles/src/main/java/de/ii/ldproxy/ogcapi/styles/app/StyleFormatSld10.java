@@ -18,7 +18,6 @@ import org.apache.felix.ipojo.annotations.Provides;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
@@ -87,13 +86,12 @@ public class StyleFormatSld10 implements ConformanceClass, StyleFormatExtension
     }
 
     @Override
-    public Response getStyleResponse(String styleId, File stylesheet, List<Link> links, OgcApi api, ApiRequestContext requestContext) throws IOException {
-        final byte[] content = java.nio.file.Files.readAllBytes(stylesheet.toPath());
+    public Response getStyleResponse(String styleId, byte[] stylesheet, List<Link> links, OgcApi api, ApiRequestContext requestContext) throws IOException {
 
         // TODO
 
         return Response.ok()
-                .entity(content)
+                .entity(stylesheet)
                 .type(MEDIA_TYPE.type())
                 .links(links.isEmpty() ? null : links.stream().map(link -> link.getLink()).toArray(javax.ws.rs.core.Link[]::new))
                 .build();
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.styles.domain;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The styles of the APIs in the styles store. The styles of an API are loaded on first access and kept in
+ * memory, until a file in the styles directory of the API changes or the catalog is invalidated.
+ */
+public interface StyleCatalog {
+
+    /**
+     * @param apiId the API
+     * @return the ids of all styles with at least one stylesheet, sorted
+     */
+    List<String> getStyleIds(String apiId);
+
+    /**
+     * @param apiId the API
+     * @param styleId the style
+     * @return the file extensions of the stylesheets of the style
+     */
+    Set<String> getStylesheetExtensions(String apiId, String styleId);
+
+    /**
+     * @param apiId the API
+     * @param styleId the style
+     * @return the metadata of the style, if the style has a metadata document
+     * @throws IOException if the metadata document is invalid
+     */
+    Optional<StyleMetadata> getMetadata(String apiId, String styleId) throws IOException;
+
+    /**
+     * The stylesheet is rendered with {@link StyleFormatExtension#renderStylesheet} once per service URL.
+     *
+     * @param apiId the API
+     * @param styleId the style
+     * @param format the style encoding
+     * @param serviceUrl the URI of the landing page of the API
+     * @return the rendered stylesheet, if the style is available in the style encoding
+     * @throws IOException if the stylesheet is invalid
+     */
+    Optional<byte[]> getStylesheet(String apiId, String styleId, StyleFormatExtension format,
+                                   String serviceUrl) throws IOException;
+
+    /**
+     * @param apiId the API
+     * @return a value that changes whenever the styles of the API change
+     */
+    long getVersion(String apiId);
+
+    /**
+     * Discards the styles of the API, they are loaded again on next access. This has to be called after
+     * changes to the styles store, changes by other processes are detected automatically.
+     *
+     * @param apiId the API
+     */
+    void invalidate(String apiId);
+}
@@ -10,7 +10,6 @@ package de.ii.ldproxy.ogcapi.styles.domain;
 import de.ii.ldproxy.ogcapi.domain.*;
 
 import javax.ws.rs.core.Response;
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
@@ -71,13 +70,24 @@ public interface StyleFormatExtension extends FormatExtension {
     default boolean getDerived() { return false; }
 
     /**
+     * Replaces the parameters in a stylesheet from the styles store. The result is cached by the
+     * {@link StyleCatalog}, so this is only called once per stylesheet and service URL.
      *
-     * @param stylesheet the stylesheet content
+     * @param stylesheet the stylesheet content in the styles store
+     * @param serviceUrl the URI of the landing page of the API
+     * @return the stylesheet content that is returned to clients
+     * @throws IOException if the stylesheet is invalid
+     */
+    default byte[] renderStylesheet(byte[] stylesheet, String serviceUrl) throws IOException { return stylesheet; }
+
+    /**
+     *
+     * @param stylesheet the rendered stylesheet content
      * @param api
      * @param requestContext
      * @return the response
      */
-    Response getStyleResponse(String styleId, File stylesheet, List<Link> links,
+    Response getStyleResponse(String styleId, byte[] stylesheet, List<Link> links,
                               OgcApi api, ApiRequestContext requestContext) throws IOException;
 
 };
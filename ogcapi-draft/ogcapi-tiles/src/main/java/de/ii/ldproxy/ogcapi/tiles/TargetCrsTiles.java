@@ -0,0 +1,66 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.tiles;
+
+import com.google.common.collect.ImmutableList;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.TargetCrsExtension;
+import de.ii.ldproxy.ogcapi.tiles.tileMatrixSet.TileMatrixSet;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * the features of a collection are transformed to the CRS of each tile matrix set with zoom levels
+ */
+@Component
+@Provides
+@Instantiate
+public class TargetCrsTiles implements TargetCrsExtension {
+
+    private final ExtensionRegistry extensionRegistry;
+
+    public TargetCrsTiles(@Requires ExtensionRegistry extensionRegistry) {
+        this.extensionRegistry = extensionRegistry;
+    }
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return TilesConfiguration.class;
+    }
+
+    @Override
+    public List<EpsgCrs> getTargetCrs(OgcApiDataV2 apiData, String collectionId) {
+        Map<String, MinMax> zoomLevels = apiData.getCollections()
+                                                .get(collectionId)
+                                                .getExtension(TilesConfiguration.class)
+                                                .map(TilesConfiguration::getZoomLevels)
+                                                .orElse(null);
+        if (Objects.isNull(zoomLevels)) {
+            return ImmutableList.of();
+        }
+
+        Set<String> tileMatrixSetIds = zoomLevels.keySet();
+
+        return extensionRegistry.getExtensionsForType(TileMatrixSet.class)
+                                .stream()
+                                .filter(tileMatrixSet -> tileMatrixSetIds.contains(tileMatrixSet.getId()))
+                                .map(TileMatrixSet::getCrs)
+                                .distinct()
+                                .collect(ImmutableList.toImmutableList());
+    }
+}
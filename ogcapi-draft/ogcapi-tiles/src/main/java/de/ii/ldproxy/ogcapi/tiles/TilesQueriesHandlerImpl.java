@@ -23,6 +23,7 @@ import de.ii.ldproxy.ogcapi.domain.Link;
 import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.QueryHandler;
 import de.ii.ldproxy.ogcapi.domain.QueryInput;
+import de.ii.ldproxy.ogcapi.features.core.domain.CrsTransformerCache;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ldproxy.ogcapi.tiles.tileMatrixSet.TileMatrixSet;
 import de.ii.ldproxy.ogcapi.tiles.tileMatrixSet.TileMatrixSetLimitsGenerator;
@@ -74,6 +75,7 @@ public class TilesQueriesHandlerImpl implements TilesQueriesHandler {
 
     private final I18n i18n;
     private final CrsTransformerFactory crsTransformerFactory;
+    private final CrsTransformerCache crsTransformerCache;
     private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
     private final MetricRegistry metricRegistry;
     private EntityRegistry entityRegistry;
@@ -83,6 +85,7 @@ public class TilesQueriesHandlerImpl implements TilesQueriesHandler {
 
     public TilesQueriesHandlerImpl(@Requires I18n i18n,
                                    @Requires CrsTransformerFactory crsTransformerFactory,
+                                   @Requires CrsTransformerCache crsTransformerCache,
                                    @Requires Dropwizard dropwizard,
                                    @Requires EntityRegistry entityRegistry,
                                    @Requires ExtensionRegistry extensionRegistry,
@@ -90,6 +93,7 @@ public class TilesQueriesHandlerImpl implements TilesQueriesHandler {
                                    @Requires TilesCache tilesCache) {
         this.i18n = i18n;
         this.crsTransformerFactory = crsTransformerFactory;
+        this.crsTransformerCache = crsTransformerCache;
         this.entityRegistry = entityRegistry;
 
         this.metricRegistry = dropwizard.getEnvironment()
@@ -271,7 +275,7 @@ public class TilesQueriesHandlerImpl implements TilesQueriesHandler {
         if (featureProvider.supportsCrs()) {
             EpsgCrs sourceCrs = featureProvider.crs()
                                                .getNativeCrs();
-            crsTransformer = crsTransformerFactory.getTransformer(sourceCrs, targetCrs);
+            crsTransformer = crsTransformerCache.getTransformer(sourceCrs, targetCrs);
             swapCoordinates = crsTransformer.isPresent() && crsTransformer.get()
                                                                           .needsCoordinateSwap();
         }
@@ -398,7 +402,7 @@ public class TilesQueriesHandlerImpl implements TilesQueriesHandler {
         if (featureProvider.supportsCrs()) {
             EpsgCrs sourceCrs = featureProvider.crs()
                     .getNativeCrs();
-            crsTransformer = crsTransformerFactory.getTransformer(sourceCrs, targetCrs);
+            crsTransformer = crsTransformerCache.getTransformer(sourceCrs, targetCrs);
             swapCoordinates = crsTransformer.isPresent() && crsTransformer.get()
                                                                           .needsCoordinateSwap();
         }
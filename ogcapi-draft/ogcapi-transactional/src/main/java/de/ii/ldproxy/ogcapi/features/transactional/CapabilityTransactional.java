@@ -29,6 +29,8 @@ public class CapabilityTransactional implements ApiBuildingBlock {
     @Override
     public ExtensionConfiguration getDefaultConfiguration() {
         return new ImmutableTransactionalConfiguration.Builder().enabled(false)
+                                                                .bulkBatchSize(1000)
+                                                                .asyncEnabled(false)
                                                                 .build();
     }
 
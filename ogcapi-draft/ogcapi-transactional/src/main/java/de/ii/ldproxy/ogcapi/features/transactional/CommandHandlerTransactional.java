@@ -16,6 +16,9 @@ import akka.stream.javadsl.Sink;
 import akka.stream.javadsl.Source;
 import akka.stream.javadsl.StreamConverters;
 import akka.util.ByteString;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
 import de.ii.ldproxy.ogcapi.domain.URICustomizer;
 import de.ii.xtraplatform.features.geojson.domain.FeatureDecoderGeoJson;
@@ -26,26 +29,36 @@ import de.ii.xtraplatform.feature.transformer.api.FeatureTypeMapping;
 import de.ii.xtraplatform.features.geojson.domain.GeoJsonStreamParser;
 import de.ii.xtraplatform.features.geojson.domain.MappingSwapper;
 
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 public class CommandHandlerTransactional {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int UNPROCESSABLE_ENTITY = 422;
 
     public Response postItemsResponse(
             FeatureTransactions featureProvider,
-            ApiMediaType mediaType, URICustomizer uriCustomizer, String collectionName,
+            ApiMediaType mediaType, URICustomizer uriCustomizer, String featureType,
             InputStream requestBody) {
 
         FeatureDecoder.WithSource featureSource = getFeatureSource(mediaType, requestBody);
 
-        //TODO: collectionName != featureType
-        FeatureTransactions.MutationResult result = featureProvider.createFeatures(collectionName, featureSource);
+        FeatureTransactions.MutationResult result = featureProvider.createFeatures(featureType, featureSource);
 
         if (result.getError().isPresent()) {
             //TODO: see FeaturesCoreQueryHandler
@@ -53,7 +66,7 @@ public class CommandHandlerTransactional {
         }
 
         List<String> ids = result.getIds();
-        //List<String> ids = featureProvider.addFeaturesFromStream(collectionName, defaultReverseTransformer, getFeatureTransformStream(mediaType, featureTypeMapping, requestBody));
+        //List<String> ids = featureProvider.addFeaturesFromStream(featureType, defaultReverseTransformer, getFeatureTransformStream(mediaType, featureTypeMapping, requestBody));
 
 
 
@@ -73,15 +86,242 @@ public class CommandHandlerTransactional {
                        .build();
     }
 
+    /**
+     * Writes the features in batches, each batch in a separate transaction. The first batch is written before
+     * the response is committed, so a request that writes no features fails with 400 (invalid or empty input)
+     * or 422 (the feature provider rejected the features). The results of the following batches are streamed
+     * to the client while the request body is read; if one of these batches fails, the remaining features are
+     * not written and the failure is reported for that batch.
+     */
+    public Response postBulkResponse(
+            FeatureTransactions featureProvider,
+            ApiMediaType mediaType, String featureType, boolean isSequence, int batchSize,
+            InputStream requestBody) {
+
+        GeoJsonBatchReader batchReader = null;
+        List<String> firstIds = new ArrayList<>();
+        try {
+            batchReader = new GeoJsonBatchReader(requestBody, isSequence, batchSize);
+
+            Optional<GeoJsonBatchReader.Batch> firstBatch;
+            try {
+                firstBatch = batchReader.next();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("The input is not valid GeoJSON: " + e.getOriginalMessage());
+            }
+            if (!firstBatch.isPresent()) {
+                throw new IllegalArgumentException("No features found in input");
+            }
+
+            writeBatch(featureProvider, mediaType, featureType, 1, firstBatch.get(), new BatchListener() {
+                @Override
+                public void onBatch(int batchNumber, List<String> ids) {
+                    firstIds.addAll(ids);
+                }
+
+                @Override
+                public void onError(int batchNumber, String error) {
+                    // nothing has been written
+                    throw new ClientErrorException(error, UNPROCESSABLE_ENTITY);
+                }
+            });
+        } catch (IOException e) {
+            closeQuietly(batchReader);
+            throw new IllegalStateException("The request body could not be read.", e);
+        } catch (RuntimeException e) {
+            closeQuietly(batchReader);
+            throw e;
+        }
+
+        GeoJsonBatchReader remainingBatches = batchReader;
+        StreamingOutput streamingOutput = outputStream -> {
+            try (GeoJsonBatchReader reader = remainingBatches;
+                 JsonGenerator json = JSON_FACTORY.createGenerator(outputStream)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("batches");
+
+                long[] numberOfFeatures = {0};
+                BatchListener listener = new BatchListener() {
+                    @Override
+                    public void onBatch(int batchNumber, List<String> ids) throws IOException {
+                        json.writeStartObject();
+                        json.writeNumberField("batch", batchNumber);
+                        json.writeNumberField("numberOfFeatures", ids.size());
+                        json.writeArrayFieldStart("ids");
+                        for (String id : ids) {
+                            json.writeString(id);
+                        }
+                        json.writeEndArray();
+                        json.writeEndObject();
+                        // the client sees the progress of long running loads
+                        json.flush();
+
+                        numberOfFeatures[0] += ids.size();
+                    }
+
+                    @Override
+                    public void onError(int batchNumber, String error) throws IOException {
+                        json.writeStartObject();
+                        json.writeNumberField("batch", batchNumber);
+                        json.writeStringField("error", error);
+                        json.writeEndObject();
+                    }
+                };
+
+                listener.onBatch(1, firstIds);
+                boolean complete = writeBatches(featureProvider, mediaType, featureType, reader, 2, listener);
+
+                json.writeEndArray();
+                json.writeNumberField("numberOfFeatures", numberOfFeatures[0]);
+                json.writeBooleanField("complete", complete);
+                json.writeEndObject();
+            }
+        };
+
+        return Response.ok(streamingOutput, MediaType.APPLICATION_JSON_TYPE)
+                       .build();
+    }
+
+    public TransactionJobs.Task postItemsTask(
+            FeatureTransactions featureProvider,
+            ApiMediaType mediaType, URICustomizer uriCustomizer, String featureType) {
+        return (requestBody, job) -> {
+            FeatureTransactions.MutationResult result = featureProvider.createFeatures(featureType, getFeatureSource(mediaType, requestBody));
+
+            if (result.getError().isPresent()) {
+                job.addFailure(result.getError().get().getMessage());
+                return;
+            }
+            if (result.getIds().isEmpty()) {
+                job.addFailure("No features found in input");
+                return;
+            }
+
+            job.addProcessed(result.getIds().size());
+            try {
+                job.setLocation(uriCustomizer.copy()
+                                             .ensureLastPathSegment(result.getIds().get(0))
+                                             .build());
+            } catch (URISyntaxException e) {
+                //ignore
+            }
+        };
+    }
+
+    public TransactionJobs.Task postBulkTask(
+            FeatureTransactions featureProvider,
+            ApiMediaType mediaType, String featureType, boolean isSequence, int batchSize) {
+        return (requestBody, job) -> {
+            try (GeoJsonBatchReader batchReader = new GeoJsonBatchReader(requestBody, isSequence, batchSize)) {
+                writeBatches(featureProvider, mediaType, featureType, batchReader, 1, new BatchListener() {
+                    @Override
+                    public void onBatch(int batchNumber, List<String> ids) {
+                        job.addProcessed(ids.size());
+                    }
+
+                    @Override
+                    public void onError(int batchNumber, String error) {
+                        job.addFailure(String.format("Batch %d: %s", batchNumber, error));
+                    }
+                });
+            }
+        };
+    }
+
+    public TransactionJobs.Task putItemTask(
+            FeatureTransactions featureProvider,
+            ApiMediaType mediaType, URICustomizer uriCustomizer, String featureType, String featureId) {
+        return (requestBody, job) -> {
+            FeatureTransactions.MutationResult result = featureProvider.updateFeature(featureType, getFeatureSource(mediaType, requestBody), featureId);
+
+            if (result.getError().isPresent()) {
+                job.addFailure(result.getError().get().getMessage());
+                return;
+            }
+
+            job.addProcessed(1);
+            try {
+                job.setLocation(uriCustomizer.copy()
+                                             .clearParameters()
+                                             .build());
+            } catch (URISyntaxException e) {
+                //ignore
+            }
+        };
+    }
+
+    interface BatchListener {
+        void onBatch(int batchNumber, List<String> ids) throws IOException;
+
+        void onError(int batchNumber, String error) throws IOException;
+    }
+
+    /**
+     * @return {@code true}, if all features have been written
+     */
+    private boolean writeBatches(FeatureTransactions featureProvider, ApiMediaType mediaType, String featureType,
+                                 GeoJsonBatchReader batchReader, int firstBatchNumber,
+                                 BatchListener listener) throws IOException {
+        for (int batchNumber = firstBatchNumber; ; batchNumber++) {
+            Optional<GeoJsonBatchReader.Batch> batch;
+            try {
+                batch = batchReader.next();
+            } catch (JsonProcessingException e) {
+                listener.onError(batchNumber, "The input is not valid GeoJSON: " + e.getOriginalMessage());
+                return false;
+            }
+            if (!batch.isPresent()) {
+                return true;
+            }
+
+            if (!writeBatch(featureProvider, mediaType, featureType, batchNumber, batch.get(), listener)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, if the features of the batch have been written
+     */
+    private boolean writeBatch(FeatureTransactions featureProvider, ApiMediaType mediaType, String featureType,
+                               int batchNumber, GeoJsonBatchReader.Batch batch,
+                               BatchListener listener) throws IOException {
+        FeatureTransactions.MutationResult result;
+        try {
+            result = featureProvider.createFeatures(featureType, getFeatureSource(mediaType, new ByteArrayInputStream(batch.featureCollection)));
+        } catch (RuntimeException e) {
+            listener.onError(batchNumber, Objects.toString(e.getMessage(), "unknown error"));
+            return false;
+        }
+
+        if (result.getError().isPresent()) {
+            listener.onError(batchNumber, Objects.toString(result.getError().get().getMessage(), "unknown error"));
+            return false;
+        }
+
+        listener.onBatch(batchNumber, result.getIds());
+        return true;
+    }
+
+    private static void closeQuietly(GeoJsonBatchReader batchReader) {
+        if (Objects.isNull(batchReader)) {
+            return;
+        }
+        try {
+            batchReader.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
     public Response putItemResponse(
             FeatureTransactions featureProvider,
-            ApiMediaType mediaType, String collectionName, String featureId,
+            ApiMediaType mediaType, String featureType, String featureId,
             InputStream requestBody) {
 
         FeatureDecoder.WithSource featureSource = getFeatureSource(mediaType, requestBody);
 
-        //TODO: collectionName != featureType
-        FeatureTransactions.MutationResult result = featureProvider.updateFeature(collectionName, featureSource, featureId);
+        FeatureTransactions.MutationResult result = featureProvider.updateFeature(featureType, featureSource, featureId);
 
         if (result.getError().isPresent()) {
             //TODO: see FeaturesCoreQueryHandler
@@ -94,9 +334,9 @@ public class CommandHandlerTransactional {
 
     public Response deleteItemResponse(
             FeatureTransactions featureProvider,
-            String collectionName, String featureId) {
+            String featureType, String featureId) {
 
-        FeatureTransactions.MutationResult result = featureProvider.deleteFeature(collectionName, featureId);
+        FeatureTransactions.MutationResult result = featureProvider.deleteFeature(featureType, featureId);
 
         if (result.getError().isPresent()) {
             //TODO: see FeaturesCoreQueryHandler
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import de.ii.ldproxy.ogcapi.collections.domain.EndpointSubCollection;
+import de.ii.ldproxy.ogcapi.collections.domain.ImmutableOgcApiResourceData;
+import de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition;
+import de.ii.ldproxy.ogcapi.domain.ApiOperation;
+import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
+import de.ii.ldproxy.ogcapi.domain.FormatExtension;
+import de.ii.ldproxy.ogcapi.domain.HttpMethods;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiEndpointDefinition;
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.OgcApiPathParameter;
+import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
+import de.ii.xtraplatform.auth.domain.User;
+import io.dropwizard.auth.Auth;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * fetch the status of an asynchronous transaction
+ */
+@Component
+@Provides
+@Instantiate
+public class EndpointTransactionJobs extends EndpointSubCollection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EndpointTransactionJobs.class);
+    private static final List<String> TAGS = ImmutableList.of("Mutate data");
+
+    private final TransactionJobs transactionJobs;
+
+    public EndpointTransactionJobs(@Requires ExtensionRegistry extensionRegistry,
+                                   @Requires TransactionJobs transactionJobs) {
+        super(extensionRegistry);
+        this.transactionJobs = transactionJobs;
+    }
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return TransactionalConfiguration.class;
+    }
+
+    @Override
+    public boolean isEnabledForApi(OgcApiDataV2 apiData) {
+        return super.isEnabledForApi(apiData) && apiData.getExtension(TransactionalConfiguration.class)
+                                                        .map(TransactionalConfiguration::getAsyncEnabled)
+                                                        .orElse(false);
+    }
+
+    @Override
+    public List<? extends FormatExtension> getFormats() {
+        if (formats==null)
+            formats = extensionRegistry.getExtensionsForType(TransactionJobFormatExtension.class);
+        return formats;
+    }
+
+    @Override
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("collections")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES_TRANSACTION);
+        String subSubPath = "/jobs/{jobId}";
+        String path = "/collections/{collectionId}" + subSubPath;
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = explode ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                final List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId) :
+                        getQueryParameters(extensionRegistry, apiData, path);
+                final String operationSummary = "fetch the status of an asynchronous transaction in the feature collection '" + collectionId + "'";
+                Optional<String> operationDescription = Optional.of("A transaction is processed asynchronously, if the request includes the header `Prefer: respond-async`. " +
+                        "The status reports the progress of the transaction, i.e. the number of features processed and the failures, and the final result.");
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("GET", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
+            }
+        }
+
+        return definitionBuilder.build();
+    }
+
+    @Path("/{collectionId}/jobs/{jobId}")
+    @GET
+    public Response getJob(@Auth Optional<User> optionalUser, @PathParam("collectionId") String collectionId,
+                           @PathParam("jobId") String jobId, @Context OgcApi api,
+                           @Context ApiRequestContext requestContext) {
+
+        checkAuthorization(api.getData(), optionalUser);
+
+        checkCollectionExists(api.getData(), collectionId);
+
+        TransactionJobStatus status = transactionJobs.getJob(api.getId(), jobId)
+                                                     .map(TransactionJob::getStatus)
+                                                     .filter(jobStatus -> jobStatus.getCollectionId().equals(collectionId))
+                                                     .orElseThrow(() -> new NotFoundException(MessageFormat.format("The transaction ''{0}'' does not exist.", jobId)));
+
+        return getFormats().stream()
+                .filter(format -> requestContext.getMediaType().matches(format.getMediaType().type()))
+                .findAny()
+                .map(TransactionJobFormatExtension.class::cast)
+                .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type {0} cannot be generated.", requestContext.getMediaType().type())))
+                .getJobResponse(status, api, requestContext);
+    }
+}
@@ -24,6 +24,7 @@ import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.OgcApiPathParameter;
 import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeatureFormatExtension;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.xtraplatform.auth.domain.User;
 import de.ii.xtraplatform.features.domain.FeatureProvider2;
@@ -39,15 +40,22 @@ import org.slf4j.LoggerFactory;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.NotAllowedException;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -63,15 +71,22 @@ public class EndpointTransactional extends EndpointSubCollection {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EndpointTransactional.class);
     private static final List<String> TAGS = ImmutableList.of("Mutate data");
+    private static final MediaType GEOJSON = new MediaType("application", "geo+json");
+    private static final int DEFAULT_BULK_BATCH_SIZE = 1000;
+    private static final String PREFER = "Prefer";
+    private static final String RESPOND_ASYNC = "respond-async";
 
     private final FeaturesCoreProviders providers;
     private final CommandHandlerTransactional commandHandler;
+    private final TransactionJobs transactionJobs;
 
     public EndpointTransactional(@Requires ExtensionRegistry extensionRegistry,
-                                 @Requires FeaturesCoreProviders providers) {
+                                 @Requires FeaturesCoreProviders providers,
+                                 @Requires TransactionJobs transactionJobs) {
         super(extensionRegistry);
         this.providers = providers;
         this.commandHandler = new CommandHandlerTransactional();
+        this.transactionJobs = transactionJobs;
     }
 
     @Override
@@ -100,81 +115,106 @@ public class EndpointTransactional extends EndpointSubCollection {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("collections")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES_TRANSACTION);
-            String subSubPath = "/items";
-            String path = "/collections/{collectionId}" + subSubPath;
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
-            if (!optCollectionIdParam.isPresent()) {
-                LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
-            } else {
-                final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
-                final boolean explode = collectionIdParam.getExplodeInOpenApi();
-                final Set<String> collectionIds = (explode) ?
-                        collectionIdParam.getValues(apiData) :
-                        ImmutableSet.of("{collectionId}");
-                for (String collectionId : collectionIds) {
-                    final List<OgcApiQueryParameter> queryParameters = explode ?
-                            getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.POST) :
-                            getQueryParameters(extensionRegistry, apiData, path, HttpMethods.POST);
-                    final String operationSummary = "add a feature in the feature collection '" + collectionId + "'";
-                    Optional<String> operationDescription = Optional.of("The content of the request is a new feature in one of the supported encodings. The URI of the new feature is returned in the header `Location`.");
-                    String resourcePath = "/collections/" + collectionId + subSubPath;
-                    ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
-                            .path(resourcePath)
-                            .pathParameters(pathParameters);
-                    ApiOperation operation = addOperation(apiData, HttpMethods.POST, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("POST", operation);
-                    definitionBuilder.putResources(resourcePath, resourceBuilder.build());
-                }
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("collections")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES_TRANSACTION);
+        String subSubPath = "/items";
+        String path = "/collections/{collectionId}" + subSubPath;
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = (explode) ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                final List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.POST) :
+                        getQueryParameters(extensionRegistry, apiData, path, HttpMethods.POST);
+                final String operationSummary = "add a feature in the feature collection '" + collectionId + "'";
+                Optional<String> operationDescription = Optional.of("The content of the request is a new feature in one of the supported encodings. The URI of the new feature is returned in the header `Location`.");
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.POST, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("POST", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
             }
-            subSubPath = "/items/{featureId}";
-            path = "/collections/{collectionId}" + subSubPath;
-            pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
-            if (!optCollectionIdParam.isPresent()) {
-                LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
-            } else {
-                final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
-                final boolean explode = collectionIdParam.getExplodeInOpenApi();
-                final Set<String> collectionIds = explode ?
-                        collectionIdParam.getValues(apiData) :
-                        ImmutableSet.of("{collectionId}");
-                for (String collectionId : collectionIds) {
-                    List<OgcApiQueryParameter> queryParameters = explode ?
-                            getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.PUT) :
-                            getQueryParameters(extensionRegistry, apiData, path, HttpMethods.PUT);
-                    String operationSummary = "add or update a feature in the feature collection '" + collectionId + "'";
-                    Optional<String> operationDescription = Optional.of("The content of the request is a new feature in one of the supported encodings. The id of the new or updated feature is `{featureId}`.");
-                    String resourcePath = "/collections/" + collectionId + subSubPath;
-                    ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
-                            .path(resourcePath)
-                            .pathParameters(pathParameters);
-                    ApiOperation operation = addOperation(apiData, HttpMethods.PUT, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("PUT", operation);
-                    queryParameters = explode ?
-                            getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.DELETE) :
-                            getQueryParameters(extensionRegistry, apiData, path, HttpMethods.DELETE);
-                    operationSummary = "delete a feature in the feature collection '" + collectionId + "'";
-                    operationDescription = Optional.of("The feature with id `{featureId}` will be deleted.");
-                    operation = addOperation(apiData, HttpMethods.DELETE, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("DELETE", operation);
-                    definitionBuilder.putResources(resourcePath, resourceBuilder.build());
-                }
-
+        }
+        subSubPath = "/bulk";
+        path = "/collections/{collectionId}" + subSubPath;
+        pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = explode ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                final List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.POST) :
+                        getQueryParameters(extensionRegistry, apiData, path, HttpMethods.POST);
+                final String operationSummary = "add many features to the feature collection '" + collectionId + "'";
+                Optional<String> operationDescription = Optional.of("The content of the request is a GeoJSON feature collection or a GeoJSON text sequence (`application/geo+json-seq`) of any size. " +
+                        "The features are written in batches, each batch in a separate transaction. The result of each batch, including the ids of the new features, is reported in the response while the request is processed. " +
+                        "If a batch fails, the previous batches remain written and the processing stops.");
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.POST, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("POST", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
             }
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
         }
+        subSubPath = "/items/{featureId}";
+        path = "/collections/{collectionId}" + subSubPath;
+        pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = explode ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.PUT) :
+                        getQueryParameters(extensionRegistry, apiData, path, HttpMethods.PUT);
+                String operationSummary = "add or update a feature in the feature collection '" + collectionId + "'";
+                Optional<String> operationDescription = Optional.of("The content of the request is a new feature in one of the supported encodings. The id of the new or updated feature is `{featureId}`.");
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.PUT, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("PUT", operation);
+                queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId, HttpMethods.DELETE) :
+                        getQueryParameters(extensionRegistry, apiData, path, HttpMethods.DELETE);
+                operationSummary = "delete a feature in the feature collection '" + collectionId + "'";
+                operationDescription = Optional.of("The feature with id `{featureId}` will be deleted.");
+                operation = addOperation(apiData, HttpMethods.DELETE, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("DELETE", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
+            }
 
-        return apiDefinitions.get(apiDataHash);
+        }
+        return definitionBuilder.build();
     }
 
     @Path("/{id}/items")
@@ -182,16 +222,51 @@ public class EndpointTransactional extends EndpointSubCollection {
     @Consumes("application/geo+json")
     public Response postItems(@Auth Optional<User> optionalUser, @PathParam("id") String id,
                               @Context OgcApi service, @Context ApiRequestContext apiRequestContext,
-                              @Context HttpServletRequest request, InputStream requestBody) {
+                              @Context HttpServletRequest request, @HeaderParam(PREFER) String prefer,
+                              InputStream requestBody) {
         FeatureProvider2 featureProvider = providers.getFeatureProvider(service.getData(), service.getData().getCollections().get(id));
 
         checkTransactional(featureProvider);
 
         checkAuthorization(service.getData(), optionalUser);
 
+        if (isAsync(service.getData(), prefer)) {
+            return submitJob(service, id, "create", apiRequestContext, requestBody, commandHandler.postItemsTask((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), apiRequestContext.getUriCustomizer()
+                                                                                                                                                                                       .copy(), getFeatureType(service.getData(), id)));
+        }
 
         return commandHandler.postItemsResponse((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), apiRequestContext.getUriCustomizer()
-                                                                                                                                          .copy(), id, requestBody);
+                                                                                                                                          .copy(), getFeatureType(service.getData(), id), requestBody);
+    }
+
+    @Path("/{id}/bulk")
+    @POST
+    @Consumes({"application/geo+json", "application/geo+json-seq", "application/x-ndjson"})
+    public Response postBulk(@Auth Optional<User> optionalUser, @PathParam("id") String id,
+                             @Context OgcApi service, @Context ApiRequestContext apiRequestContext,
+                             @Context HttpServletRequest request, @HeaderParam(PREFER) String prefer,
+                             InputStream requestBody) {
+        FeatureProvider2 featureProvider = providers.getFeatureProvider(service.getData(), service.getData().getCollections().get(id));
+
+        checkTransactional(featureProvider);
+
+        checkAuthorization(service.getData(), optionalUser);
+
+        int batchSize = service.getData()
+                               .getCollections()
+                               .get(id)
+                               .getExtension(TransactionalConfiguration.class)
+                               .map(TransactionalConfiguration::getBulkBatchSize)
+                               .filter(size -> size > 0)
+                               .orElse(DEFAULT_BULK_BATCH_SIZE);
+        boolean isSequence = !MediaType.valueOf(request.getContentType())
+                                       .isCompatible(GEOJSON);
+
+        if (isAsync(service.getData(), prefer)) {
+            return submitJob(service, id, "bulk", apiRequestContext, requestBody, commandHandler.postBulkTask((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), getFeatureType(service.getData(), id), isSequence, batchSize));
+        }
+
+        return commandHandler.postBulkResponse((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), getFeatureType(service.getData(), id), isSequence, batchSize, requestBody);
     }
 
     @Path("/{id}/items/{featureid}")
@@ -200,7 +275,7 @@ public class EndpointTransactional extends EndpointSubCollection {
     public Response putItem(@Auth Optional<User> optionalUser, @PathParam("id") String id,
                             @PathParam("featureid") final String featureId, @Context OgcApi service,
                             @Context ApiRequestContext apiRequestContext, @Context HttpServletRequest request,
-                            InputStream requestBody) {
+                            @HeaderParam(PREFER) String prefer, InputStream requestBody) {
 
         FeatureProvider2 featureProvider = providers.getFeatureProvider(service.getData(), service.getData().getCollections().get(id));
 
@@ -208,7 +283,12 @@ public class EndpointTransactional extends EndpointSubCollection {
 
         checkAuthorization(service.getData(), optionalUser);
 
-        return commandHandler.putItemResponse((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), id, featureId, requestBody);
+        if (isAsync(service.getData(), prefer)) {
+            return submitJob(service, id, "replace", apiRequestContext, requestBody, commandHandler.putItemTask((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), apiRequestContext.getUriCustomizer()
+                                                                                                                                                                                     .copy(), getFeatureType(service.getData(), id), featureId));
+        }
+
+        return commandHandler.putItemResponse((FeatureTransactions) featureProvider, apiRequestContext.getMediaType(), getFeatureType(service.getData(), id), featureId, requestBody);
     }
 
     @Path("/{id}/items/{featureid}")
@@ -222,7 +302,52 @@ public class EndpointTransactional extends EndpointSubCollection {
 
         checkAuthorization(service.getData(), optionalUser);
 
-        return commandHandler.deleteItemResponse((FeatureTransactions) featureProvider, id, featureId);
+        return commandHandler.deleteItemResponse((FeatureTransactions) featureProvider, getFeatureType(service.getData(), id), featureId);
+    }
+
+    // the feature type in the provider may differ from the collection id
+    private static String getFeatureType(OgcApiDataV2 apiData, String collectionId) {
+        return apiData.getCollections()
+                      .get(collectionId)
+                      .getExtension(FeaturesCoreConfiguration.class)
+                      .map(cfg -> cfg.getFeatureType().orElse(collectionId))
+                      .orElse(collectionId);
+    }
+
+    // the transaction is processed asynchronously, if the client prefers it and it is enabled for the API
+    private boolean isAsync(OgcApiDataV2 apiData, String prefer) {
+        return Objects.nonNull(prefer) && prefer.toLowerCase().contains(RESPOND_ASYNC) &&
+                apiData.getExtension(TransactionalConfiguration.class)
+                       .map(TransactionalConfiguration::getAsyncEnabled)
+                       .orElse(false);
+    }
+
+    private Response submitJob(OgcApi service, String collectionId, String operation,
+                               ApiRequestContext apiRequestContext, InputStream requestBody,
+                               TransactionJobs.Task task) {
+        TransactionJob job;
+        try {
+            job = transactionJobs.submit(service.getId(), collectionId, operation, requestBody, task);
+        } catch (IOException e) {
+            throw new ServerErrorException("The request body could not be stored: " + e.getMessage(), 500);
+        }
+
+        URI jobUri = null;
+        try {
+            jobUri = apiRequestContext.getUriCustomizer()
+                                      .copy()
+                                      .clearParameters()
+                                      .cutPathAfterSegments("collections", collectionId)
+                                      .ensureLastPathSegments("jobs", job.getId())
+                                      .build();
+        } catch (URISyntaxException e) {
+            //ignore
+        }
+
+        return Response.accepted()
+                       .location(jobUri)
+                       .header("Preference-Applied", RESPOND_ASYNC)
+                       .build();
     }
 
     private void checkTransactional(FeatureProvider2 featureProvider) {
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Splits a GeoJSON FeatureCollection or a GeoJSON text sequence of any size into FeatureCollections with at
+ * most the given number of features. The input is parsed incrementally, only the current batch and the
+ * current feature are held in memory. Members of a FeatureCollection other than the features are not
+ * passed on.
+ */
+class GeoJsonBatchReader implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final int RECORD_SEPARATOR = 0x1E;
+
+    private final JsonParser parser;
+    private final int batchSize;
+    private final ByteArrayOutputStream batch;
+    private boolean inFeatures;
+    private TokenBuffer pendingFeature;
+
+    /**
+     * @param inputStream the request body
+     * @param isSequence {@code true}, if the input is a GeoJSON text sequence (RFC 8142) or newline-delimited
+     * @param batchSize the maximum number of features per batch
+     */
+    GeoJsonBatchReader(InputStream inputStream, boolean isSequence, int batchSize) throws IOException {
+        this.parser = JSON_FACTORY.createParser(isSequence ? new RecordSeparatorInputStream(inputStream) : inputStream);
+        this.batchSize = batchSize;
+        this.batch = new ByteArrayOutputStream();
+        this.inFeatures = false;
+    }
+
+    /**
+     * @return the next batch as a GeoJSON FeatureCollection, empty at the end of the input
+     * @throws JsonParseException if the input is not valid GeoJSON
+     */
+    Optional<Batch> next() throws IOException {
+        batch.reset();
+        int numberOfFeatures = 0;
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(batch)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "FeatureCollection");
+            generator.writeArrayFieldStart("features");
+
+            while (numberOfFeatures < batchSize && nextFeature(generator)) {
+                numberOfFeatures++;
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        if (numberOfFeatures == 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Batch(batch.toByteArray(), numberOfFeatures));
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private boolean nextFeature(JsonGenerator generator) throws IOException {
+        while (true) {
+            if (inFeatures) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT) {
+                    generator.copyCurrentStructure(parser);
+                    return true;
+                }
+                if (token != JsonToken.END_ARRAY) {
+                    throw new JsonParseException(parser, "The features of a FeatureCollection must be objects.");
+                }
+                inFeatures = false;
+                skipRemainingMembers();
+                continue;
+            }
+
+            if (Objects.nonNull(pendingFeature)) {
+                try (JsonParser featureParser = pendingFeature.asParser()) {
+                    featureParser.nextToken();
+                    generator.copyCurrentStructure(featureParser);
+                }
+                pendingFeature = null;
+                return true;
+            }
+
+            JsonToken token = parser.nextToken();
+            if (Objects.isNull(token)) {
+                return false;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The input must consist of GeoJSON Features or FeatureCollections.");
+            }
+            readRootObject();
+        }
+    }
+
+    // the members are buffered until it is known, whether the object is a Feature or a FeatureCollection
+    private void readRootObject() throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.writeStartObject();
+        String type = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (name.equals("features") && value == JsonToken.START_ARRAY) {
+                inFeatures = true;
+                return;
+            }
+            if (name.equals("type") && value == JsonToken.VALUE_STRING) {
+                type = parser.getText();
+            }
+            buffer.writeFieldName(name);
+            buffer.copyCurrentStructure(parser);
+        }
+        buffer.writeEndObject();
+
+        if (!Objects.equals(type, "Feature")) {
+            throw new JsonParseException(parser, String.format("Unexpected GeoJSON object of type '%s'.", type));
+        }
+        pendingFeature = buffer;
+    }
+
+    private void skipRemainingMembers() throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    static class Batch {
+        final byte[] featureCollection;
+        final int numberOfFeatures;
+
+        private Batch(byte[] featureCollection, int numberOfFeatures) {
+            this.featureCollection = featureCollection;
+            this.numberOfFeatures = numberOfFeatures;
+        }
+    }
+
+    // the record separators of a GeoJSON text sequence are replaced with whitespace
+    private static class RecordSeparatorInputStream extends FilterInputStream {
+
+        private RecordSeparatorInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            return b == RECORD_SEPARATOR ? ' ' : b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            for (int i = off; i < off + n; i++) {
+                if (b[i] == RECORD_SEPARATOR) {
+                    b[i] = ' ';
+                }
+            }
+            return n;
+        }
+    }
+}
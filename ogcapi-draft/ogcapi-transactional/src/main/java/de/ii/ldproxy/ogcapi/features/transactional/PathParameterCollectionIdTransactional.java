@@ -0,0 +1,39 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+
+import de.ii.ldproxy.ogcapi.collections.domain.AbstractPathParameterCollectionId;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+
+@Component
+@Provides
+@Instantiate
+public class PathParameterCollectionIdTransactional extends AbstractPathParameterCollectionId {
+
+    @Override
+    public String getId() {
+        return "collectionIdTransactional";
+    }
+
+    @Override
+    public boolean isApplicable(OgcApiDataV2 apiData, String definitionPath) {
+        return isEnabledForApi(apiData) &&
+                (definitionPath.equals("/collections/{collectionId}/bulk") ||
+                        definitionPath.equals("/collections/{collectionId}/jobs/{jobId}"));
+    }
+
+    @Override
+    public boolean isEnabledForApi(OgcApiDataV2 apiData) {
+        return isExtensionEnabled(apiData, TransactionalConfiguration.class);
+    }
+}
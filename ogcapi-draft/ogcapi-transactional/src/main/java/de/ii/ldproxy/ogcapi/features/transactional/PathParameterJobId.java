@@ -0,0 +1,72 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+
+import com.google.common.collect.ImmutableSet;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.OgcApiPathParameter;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+import java.util.Set;
+
+
+@Component
+@Provides
+@Instantiate
+public class PathParameterJobId implements OgcApiPathParameter {
+
+    @Override
+    public String getPattern() {
+        return "[\\w\\-]+";
+    }
+
+    @Override
+    public Set<String> getValues(OgcApiDataV2 apiData) {
+        return ImmutableSet.of();
+    }
+
+    @Override
+    public Schema getSchema(OgcApiDataV2 apiData) {
+        return new StringSchema().pattern(getPattern());
+    }
+
+    @Override
+    public String getName() {
+        return "jobId";
+    }
+
+    @Override
+    public String getDescription() {
+        return "The identifier of an asynchronous transaction.";
+    }
+
+    @Override
+    public boolean isApplicable(OgcApiDataV2 apiData, String definitionPath) {
+        return isEnabledForApi(apiData) &&
+                definitionPath.equals("/collections/{collectionId}/jobs/{jobId}");
+    }
+
+    @Override
+    public boolean isEnabledForApi(OgcApiDataV2 apiData) {
+        return isExtensionEnabled(apiData, TransactionalConfiguration.class) &&
+                apiData.getExtension(TransactionalConfiguration.class)
+                       .map(TransactionalConfiguration::getAsyncEnabled)
+                       .orElse(false);
+    }
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return TransactionalConfiguration.class;
+    }
+}
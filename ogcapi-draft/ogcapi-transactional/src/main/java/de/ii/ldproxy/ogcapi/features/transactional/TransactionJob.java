@@ -0,0 +1,115 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import com.google.common.collect.ImmutableList;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An asynchronous transaction. The progress is updated by the background thread that writes the features
+ * and read by the requests for the job status.
+ */
+public class TransactionJob {
+
+    static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final String apiId;
+    private final String collectionId;
+    private final String operation;
+    private final Instant created;
+    private final AtomicLong featuresProcessed;
+    private final AtomicLong failures;
+    private final List<String> errors;
+    private volatile TransactionJobStatus.Status status;
+    private volatile Instant started;
+    private volatile Instant finished;
+    private volatile URI location;
+
+    TransactionJob(String id, String apiId, String collectionId, String operation) {
+        this.id = id;
+        this.apiId = apiId;
+        this.collectionId = collectionId;
+        this.operation = operation;
+        this.created = Instant.now();
+        this.featuresProcessed = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.errors = new ArrayList<>();
+        this.status = TransactionJobStatus.Status.ACCEPTED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getApiId() {
+        return apiId;
+    }
+
+    public void addProcessed(long numberOfFeatures) {
+        featuresProcessed.addAndGet(numberOfFeatures);
+    }
+
+    public void addFailure(String error) {
+        failures.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(Objects.toString(error, "unknown error"));
+            }
+        }
+    }
+
+    public void setLocation(URI location) {
+        this.location = location;
+    }
+
+    void start() {
+        this.started = Instant.now();
+        this.status = TransactionJobStatus.Status.RUNNING;
+    }
+
+    void finish() {
+        this.finished = Instant.now();
+        this.status = failures.get() > 0 ? TransactionJobStatus.Status.FAILED : TransactionJobStatus.Status.SUCCESSFUL;
+    }
+
+    boolean isFinishedBefore(Instant instant) {
+        return Objects.nonNull(finished) && finished.isBefore(instant);
+    }
+
+    public TransactionJobStatus getStatus() {
+        List<String> currentErrors;
+        synchronized (errors) {
+            currentErrors = ImmutableList.copyOf(errors);
+        }
+
+        return ImmutableTransactionJobStatus.builder()
+                                            .jobId(id)
+                                            .collectionId(collectionId)
+                                            .operation(operation)
+                                            .status(status)
+                                            .created(created.toString())
+                                            .started(Optional.ofNullable(started)
+                                                             .map(Instant::toString))
+                                            .finished(Optional.ofNullable(finished)
+                                                              .map(Instant::toString))
+                                            .featuresProcessed(featuresProcessed.get())
+                                            .failures(failures.get())
+                                            .errors(currentErrors)
+                                            .location(Optional.ofNullable(location)
+                                                              .map(URI::toString))
+                                            .build();
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaTypeContent;
+import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaTypeContent;
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.SchemaGenerator;
+import io.swagger.v3.oas.models.media.Schema;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Component
+@Provides
+@Instantiate
+public class TransactionJobFormatJson implements TransactionJobFormatExtension {
+
+    @Requires
+    SchemaGenerator schemaGenerator;
+
+    public static final ApiMediaType MEDIA_TYPE = new ImmutableApiMediaType.Builder()
+            .type(new MediaType("application", "json"))
+            .label("JSON")
+            .parameter("json")
+            .build();
+
+    private final Schema schemaJob;
+    public final static String SCHEMA_REF_JOB = "#/components/schemas/TransactionJob";
+
+    public TransactionJobFormatJson() {
+        schemaJob = schemaGenerator.getSchema(TransactionJobStatus.class);
+    }
+
+    @Override
+    public ApiMediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public ApiMediaTypeContent getContent(OgcApiDataV2 apiData, String path) {
+
+        if (path.matches("/collections/[^//]+/jobs/[^//]+/?"))
+            return new ImmutableApiMediaTypeContent.Builder()
+                    .schema(schemaJob)
+                    .schemaRef(SCHEMA_REF_JOB)
+                    .ogcApiMediaType(MEDIA_TYPE)
+                    .build();
+
+        throw new RuntimeException("Unexpected path: " + path);
+    }
+
+    @Override
+    public Response getJobResponse(TransactionJobStatus status, OgcApi api, ApiRequestContext requestContext) {
+        return Response.ok(status)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The state of an asynchronous transaction at the time of the request.
+ */
+@Value.Immutable
+@Value.Style(deepImmutablesDetection = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(as = ImmutableTransactionJobStatus.class)
+public abstract class TransactionJobStatus {
+
+    public enum Status {ACCEPTED, RUNNING, SUCCESSFUL, FAILED}
+
+    public abstract String getJobId();
+
+    public abstract String getCollectionId();
+
+    /**
+     * @return "create", "replace" or "bulk"
+     */
+    public abstract String getOperation();
+
+    public abstract Status getStatus();
+
+    public abstract String getCreated();
+
+    public abstract Optional<String> getStarted();
+
+    public abstract Optional<String> getFinished();
+
+    public abstract long getFeaturesProcessed();
+
+    public abstract long getFailures();
+
+    /**
+     * @return the first errors, at most {@link TransactionJob#MAX_ERRORS}
+     */
+    public abstract List<String> getErrors();
+
+    /**
+     * @return the URI of the first created or the replaced feature
+     */
+    public abstract Optional<String> getLocation();
+}
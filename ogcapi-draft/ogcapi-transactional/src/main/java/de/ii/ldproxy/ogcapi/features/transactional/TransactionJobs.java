@@ -0,0 +1,43 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Runs transactions in the background. The request body is spooled to disk before the request returns,
+ * the number of concurrently running and waiting transactions is limited.
+ */
+public interface TransactionJobs {
+
+    interface Task {
+        void run(InputStream requestBody, TransactionJob job) throws IOException;
+    }
+
+    /**
+     * @param apiId the API
+     * @param collectionId the collection
+     * @param operation the kind of transaction, see {@link TransactionJobStatus#getOperation()}
+     * @param requestBody the request body, it is read completely before the method returns
+     * @param task the transaction
+     * @return the new job
+     * @throws IOException if the request body cannot be spooled
+     * @throws javax.ws.rs.ServiceUnavailableException if too many transactions are waiting
+     */
+    TransactionJob submit(String apiId, String collectionId, String operation, InputStream requestBody,
+                          Task task) throws IOException;
+
+    /**
+     * @param apiId the API
+     * @param jobId the job
+     * @return the job, if it is known; finished jobs are kept for a limited time
+     */
+    Optional<TransactionJob> getJob(String apiId, String jobId);
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Invalidate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.osgi.framework.BundleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.ServiceUnavailableException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.TMP_DIR;
+import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
+
+/**
+ * Spools the request bodies to the temporary directory and runs the transactions on a bounded executor, so
+ * that long running transactions do not occupy the request threads. Jobs and spooled request bodies do not
+ * survive a restart.
+ */
+@Component
+@Provides
+@Instantiate
+public class TransactionJobsImpl implements TransactionJobs {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionJobsImpl.class);
+
+    static final int MAX_RUNNING_JOBS = 2;
+    static final int MAX_WAITING_JOBS = 50;
+    private static final int MAX_JOBS = 1000;
+    static final Duration RETENTION = Duration.ofHours(24);
+    private static final long RETRY_AFTER_SECONDS = 60;
+
+    private final Path spoolDir;
+    private final Map<String, TransactionJob> jobs;
+    private ThreadPoolExecutor executor;
+    // the expiry of jobs is tested with a different clock
+    Clock clock;
+
+    public TransactionJobsImpl(@Context BundleContext bundleContext) throws IOException {
+        this.spoolDir = Paths.get(bundleContext.getProperty(DATA_DIR_KEY), TMP_DIR)
+                             .resolve("transactions");
+        Files.createDirectories(spoolDir);
+        deleteSpooledRequests();
+        this.jobs = new ConcurrentHashMap<>();
+        this.clock = Clock.systemUTC();
+    }
+
+    // the executor is created on every start of the component, it is shut down when the component is stopped
+    @Validate
+    private void onStart() {
+        this.executor = new ThreadPoolExecutor(MAX_RUNNING_JOBS, MAX_RUNNING_JOBS, 0L, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(MAX_WAITING_JOBS),
+                                               new ThreadFactoryBuilder().setNameFormat("transactions-%d")
+                                                                         .setDaemon(true)
+                                                                         .build());
+    }
+
+    @Invalidate
+    private void onStop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public TransactionJob submit(String apiId, String collectionId, String operation, InputStream requestBody,
+                                 Task task) throws IOException {
+        removeExpiredJobs();
+
+        TransactionJob job = new TransactionJob(UUID.randomUUID()
+                                                    .toString(), apiId, collectionId, operation);
+        Path spoolFile = spoolDir.resolve(job.getId());
+        try {
+            Files.copy(requestBody, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(spoolFile);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, spoolFile, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(spoolFile);
+            throw new ServiceUnavailableException("Too many transactions are waiting to be processed. Please try again later.", RETRY_AFTER_SECONDS);
+        }
+
+        LOGGER.debug("Transaction job '{}' for API '{}' accepted: {} {}", job.getId(), apiId, operation, collectionId);
+
+        return job;
+    }
+
+    @Override
+    public Optional<TransactionJob> getJob(String apiId, String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                       .filter(job -> Objects.equals(job.getApiId(), apiId));
+    }
+
+    private void run(TransactionJob job, Path spoolFile, Task task) {
+        job.start();
+        try (InputStream requestBody = Files.newInputStream(spoolFile)) {
+            task.run(requestBody, job);
+        } catch (Throwable e) {
+            job.addFailure(e.getMessage());
+            LOGGER.error("Transaction job '{}' failed: {}", job.getId(), e.getMessage());
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Stacktrace:", e);
+            }
+        } finally {
+            job.finish();
+            deleteQuietly(spoolFile);
+        }
+
+        LOGGER.debug("Transaction job '{}' finished: {}", job.getId(), job.getStatus()
+                                                                           .getStatus());
+    }
+
+    private void removeExpiredJobs() {
+        Instant expired = clock.instant()
+                               .minus(RETENTION);
+        jobs.values()
+            .removeIf(job -> job.isFinishedBefore(expired));
+
+        // still too many, forget all finished jobs
+        if (jobs.size() >= MAX_JOBS) {
+            jobs.values()
+                .removeIf(job -> job.isFinishedBefore(clock.instant()));
+        }
+    }
+
+    private void deleteSpooledRequests() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Spooled request body could not be deleted: {}", file);
+        }
+    }
+}
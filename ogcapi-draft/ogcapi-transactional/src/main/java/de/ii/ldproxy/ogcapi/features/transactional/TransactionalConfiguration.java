@@ -11,6 +11,8 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
 import org.immutables.value.Value;
 
+import javax.annotation.Nullable;
+
 @Value.Immutable
 @Value.Style(builder = "new")
 @JsonDeserialize(builder = ImmutableTransactionalConfiguration.Builder.class)
@@ -19,6 +21,12 @@ public interface TransactionalConfiguration extends ExtensionConfiguration {
     abstract class Builder extends ExtensionConfiguration.Builder {
     }
 
+    @Nullable
+    Integer getBulkBatchSize();
+
+    @Nullable
+    Boolean getAsyncEnabled();
+
     @Override
     default Builder getBuilder() {
         return new ImmutableTransactionalConfiguration.Builder();
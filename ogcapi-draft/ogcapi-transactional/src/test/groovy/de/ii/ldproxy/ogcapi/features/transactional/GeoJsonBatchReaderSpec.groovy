@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional
+
+import com.fasterxml.jackson.core.JsonParseException
+import com.fasterxml.jackson.core.JsonProcessingException
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class GeoJsonBatchReaderSpec extends Specification {
+
+    static String F1 = '{"type":"Feature","id":1,"properties":{"a":1}}'
+    static String F2 = '{"type":"Feature","id":2,"properties":{}}'
+    static String F3 = '{"type":"Feature","properties":{},"id":3}'
+
+    def 'split a FeatureCollection into batches'() {
+
+        given:
+        def input = '{"type":"FeatureCollection","numberMatched":3,"features":[' + F1 + ',' + F2 + ',' + F3 + '],"links":[]}'
+
+        when:
+        def batches = readAll(input, false, 2)
+
+        then:
+        batches == [
+                '{"type":"FeatureCollection","features":[' + F1 + ',' + F2 + ']}',
+                '{"type":"FeatureCollection","features":[' + F3 + ']}'
+        ]
+    }
+
+    def 'split a GeoJSON text sequence into batches'() {
+
+        given:
+        def input = '\u001e' + F1 + '\n\u001e' + F2 + '\n\u001e' + F3 + '\n'
+
+        when:
+        def batches = readAll(input, true, 2)
+
+        then:
+        batches == [
+                '{"type":"FeatureCollection","features":[' + F1 + ',' + F2 + ']}',
+                '{"type":"FeatureCollection","features":[' + F3 + ']}'
+        ]
+    }
+
+    def 'read newline-delimited features'() {
+
+        given:
+        def input = F1 + '\n' + F2 + '\n'
+
+        when:
+        def batches = readAll(input, true, 5)
+
+        then:
+        batches == ['{"type":"FeatureCollection","features":[' + F1 + ',' + F2 + ']}']
+    }
+
+    def 'return no batch for an empty FeatureCollection'() {
+
+        expect:
+        readAll('{"type":"FeatureCollection","features":[]}', false, 2) == []
+    }
+
+    def 'reject invalid GeoJSON'() {
+
+        when:
+        readAll(input, false, 2)
+
+        then:
+        thrown(JsonParseException)
+
+        where:
+        input << [
+                '{"type":"FeatureCollection","features":[1]}',
+                '{"type":"Point","coordinates":[1,2]}',
+                '[' + F1 + ']'
+        ]
+    }
+
+    def 'reject truncated input'() {
+
+        when:
+        readAll('{"type":"FeatureCollection","features":[' + F1, false, 2)
+
+        then:
+        thrown(JsonProcessingException)
+    }
+
+    static List<String> readAll(String input, boolean isSequence, int batchSize) {
+        def batches = []
+        new GeoJsonBatchReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), isSequence, batchSize).withCloseable { reader ->
+            def batch = reader.next()
+            while (batch.isPresent()) {
+                assert batch.get().numberOfFeatures <= batchSize
+                batches << new String(batch.get().featureCollection, StandardCharsets.UTF_8)
+                batch = reader.next()
+            }
+        }
+        return batches
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.transactional
+
+import org.osgi.framework.BundleContext
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.ws.rs.ServiceUnavailableException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Clock
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY
+
+class TransactionJobsSpec extends Specification {
+
+    Path dataDir
+    TransactionJobsImpl transactionJobs
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    def setup() {
+        dataDir = Files.createTempDirectory("transactions")
+        BundleContext bundleContext = Stub() {
+            getProperty(DATA_DIR_KEY) >> dataDir.toString()
+        }
+        transactionJobs = new TransactionJobsImpl(bundleContext)
+        transactionJobs.onStart()
+    }
+
+    def cleanup() {
+        transactionJobs.onStop()
+        dataDir.toFile().deleteDir()
+    }
+
+    def 'a new job is accepted'() {
+
+        when:
+        def job = new TransactionJob("1", "api", "collection", "create")
+
+        then:
+        job.getStatus().getStatus() == TransactionJobStatus.Status.ACCEPTED
+        !job.getStatus().getStarted().isPresent()
+    }
+
+    def 'a job without failures is successful'() {
+
+        given:
+        def proceed = new CountDownLatch(1)
+        def running = new CountDownLatch(1)
+
+        when:
+        def job = submit({ body, transactionJob ->
+            running.countDown()
+            proceed.await(5, TimeUnit.SECONDS)
+            transactionJob.addProcessed(body.bytes.length)
+        })
+        running.await(5, TimeUnit.SECONDS)
+
+        then:
+        job.getStatus().getStatus() == TransactionJobStatus.Status.RUNNING
+
+        when:
+        proceed.countDown()
+
+        then:
+        conditions.eventually {
+            assert job.getStatus().getStatus() == TransactionJobStatus.Status.SUCCESSFUL
+        }
+        job.getStatus().getFeaturesProcessed() == 4
+        job.getStatus().getFinished().isPresent()
+    }
+
+    def 'a job with failures or an exception fails'() {
+
+        when:
+        def failed = submit({ body, transactionJob -> transactionJob.addFailure("invalid feature") })
+        def thrown = submit({ body, transactionJob -> throw new IOException("connection lost") })
+
+        then:
+        conditions.eventually {
+            assert failed.getStatus().getStatus() == TransactionJobStatus.Status.FAILED
+            assert thrown.getStatus().getStatus() == TransactionJobStatus.Status.FAILED
+        }
+        failed.getStatus().getErrors() == ["invalid feature"]
+        thrown.getStatus().getErrors() == ["connection lost"]
+    }
+
+    def 'the errors of a job are capped'() {
+
+        given:
+        def job = new TransactionJob("1", "api", "collection", "bulk")
+
+        when:
+        (TransactionJob.MAX_ERRORS + 50).times { job.addFailure("error " + it) }
+
+        then:
+        job.getStatus().getFailures() == TransactionJob.MAX_ERRORS + 50
+        job.getStatus().getErrors().size() == TransactionJob.MAX_ERRORS
+        job.getStatus().getErrors().first() == "error 0"
+    }
+
+    def 'jobs are rejected, if too many are waiting'() {
+
+        given:
+        def proceed = new CountDownLatch(1)
+        def task = { body, transactionJob -> proceed.await(5, TimeUnit.SECONDS) }
+        (TransactionJobsImpl.MAX_RUNNING_JOBS + TransactionJobsImpl.MAX_WAITING_JOBS).times { submit(task) }
+
+        when:
+        submit(task)
+
+        then:
+        def e = thrown(ServiceUnavailableException)
+        e.getResponse().getStatus() == 503
+        e.getResponse().getHeaderString("Retry-After") == "60"
+        Files.list(dataDir.resolve("tmp").resolve("transactions")).count() == TransactionJobsImpl.MAX_RUNNING_JOBS + TransactionJobsImpl.MAX_WAITING_JOBS
+
+        cleanup:
+        proceed.countDown()
+    }
+
+    def 'finished jobs expire after the retention period'() {
+
+        given:
+        def job = submit({ body, transactionJob -> })
+        conditions.eventually {
+            assert job.getStatus().getStatus() == TransactionJobStatus.Status.SUCCESSFUL
+        }
+
+        when:
+        transactionJobs.clock = Clock.offset(Clock.systemUTC(), TransactionJobsImpl.RETENTION.minus(Duration.ofHours(1)))
+        submit({ body, transactionJob -> })
+
+        then:
+        transactionJobs.getJob("api", job.getId()).isPresent()
+
+        when:
+        transactionJobs.clock = Clock.offset(Clock.systemUTC(), TransactionJobsImpl.RETENTION.plus(Duration.ofHours(1)))
+        submit({ body, transactionJob -> })
+
+        then:
+        !transactionJobs.getJob("api", job.getId()).isPresent()
+    }
+
+    def 'jobs are only found for their API'() {
+
+        when:
+        def job = submit({ body, transactionJob -> })
+
+        then:
+        transactionJobs.getJob("api", job.getId()).isPresent()
+        !transactionJobs.getJob("other", job.getId()).isPresent()
+    }
+
+    TransactionJob submit(Closure task) {
+        transactionJobs.submit("api", "collection", "bulk", new ByteArrayInputStream("{ }\n".bytes), task as TransactionJobs.Task)
+    }
+}
@@ -15,6 +15,7 @@ import de.ii.ldproxy.ogcapi.collections.domain.CollectionsFormatExtension;
 import de.ii.ldproxy.ogcapi.collections.domain.ImmutableCollections;
 import de.ii.ldproxy.ogcapi.collections.domain.ImmutableOgcApiCollection;
 import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.ApiRevisionCache;
 import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
 import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
 import de.ii.ldproxy.ogcapi.domain.I18n;
@@ -38,12 +39,21 @@ import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+/**
+ * Builds the Collections and Collection resources. The built resources are cached per revision of the API
+ * configuration, the request URI, the media type and the language. Information that extensions add
+ * independently of the configuration is taken into account by the content versions of the extensions.
+ */
 @Component
 @Instantiate
 @Provides(specifications = {QueriesHandlerCollections.class})
 public class QueriesHandlerCollections implements QueriesHandler<QueriesHandlerCollections.Query> {
 
+    // per API, the request URIs are controlled by the client
+    private static final int MAX_CACHED_DOCUMENTS = 1000;
+
     @Requires
     I18n i18n;
 
@@ -64,10 +74,11 @@ public class QueriesHandlerCollections implements QueriesHandler<QueriesHandlerC
 
     private final ExtensionRegistry extensionRegistry;
     private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
-
+    private final ApiRevisionCache<List<Object>, Object> documents;
 
     public QueriesHandlerCollections(@Requires ExtensionRegistry extensionRegistry) {
         this.extensionRegistry = extensionRegistry;
+        this.documents = new ApiRevisionCache<>(MAX_CACHED_DOCUMENTS);
 
         this.queryHandlers = ImmutableMap.of(
                 Query.COLLECTIONS, QueryHandler.with(QueryInputCollections.class, this::getCollectionsResponse),
@@ -85,6 +96,30 @@ public class QueriesHandlerCollections implements QueriesHandler<QueriesHandlerC
         OgcApi api = requestContext.getApi();
         OgcApiDataV2 apiData = api.getData();
 
+        // usually determined by the dispatcher already
+        long contentVersion = requestContext.getContentVersion()
+                                            .orElseGet(() -> getCollectionsContentVersion(apiData));
+        List<Object> cacheKey = ImmutableList.of(Query.COLLECTIONS, queryInput, requestContext.getUriCustomizer()
+                                                                                              .toString(), requestContext.getMediaType(), requestContext.getAlternateMediaTypes(), requestContext.getLanguage(), contentVersion);
+        ImmutableCollections responseObject = getCachedDocument(apiData, cacheKey, () -> buildCollections(queryInput, requestContext));
+
+        CollectionsFormatExtension outputFormatExtension = api.getOutputFormat(CollectionsFormatExtension.class,
+                                                                               requestContext.getMediaType(),
+                                                                         "/collections",
+                                                                               Optional.empty())
+                .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type ''{0}'' is not supported for this resource.", requestContext.getMediaType())));
+
+        return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? responseObject.getLinks() : null)
+                .entity(outputFormatExtension.getCollectionsEntity(responseObject, requestContext.getApi(), requestContext))
+                .build();
+
+    }
+
+    private ImmutableCollections buildCollections(QueryInputCollections queryInput, ApiRequestContext requestContext) {
+
+        OgcApiDataV2 apiData = requestContext.getApi()
+                                             .getData();
+
         Optional<String> licenseUrl = apiData.getMetadata().flatMap(Metadata::getLicenseUrl);
         Optional<String> licenseName = apiData.getMetadata().flatMap(Metadata::getLicenseName);
         List<Link> links = new CollectionsLinksGenerator()
@@ -114,25 +149,35 @@ public class QueriesHandlerCollections implements QueriesHandler<QueriesHandlerC
                     requestContext.getLanguage());
         }
 
-        CollectionsFormatExtension outputFormatExtension = api.getOutputFormat(CollectionsFormatExtension.class,
-                                                                               requestContext.getMediaType(),
-                                                                         "/collections",
-                                                                               Optional.empty())
+        return collections.build();
+    }
+
+    private Response getCollectionResponse(QueryInputFeatureCollection queryInput,
+                                           ApiRequestContext requestContext) {
+
+        OgcApi api = requestContext.getApi();
+        OgcApiDataV2 apiData = api.getData();
+        String collectionId = queryInput.getCollectionId();
+
+        CollectionsFormatExtension outputFormatExtension = api.getOutputFormat(CollectionsFormatExtension.class, requestContext.getMediaType(), "/collections/"+collectionId, Optional.of(collectionId))
                 .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type ''{0}'' is not supported for this resource.", requestContext.getMediaType())));
 
-        ImmutableCollections responseObject = collections.build();
+        long contentVersion = requestContext.getContentVersion()
+                                            .orElseGet(() -> getCollectionContentVersion(apiData, collectionId, false));
+        List<Object> cacheKey = ImmutableList.of(Query.FEATURE_COLLECTION, queryInput, requestContext.getUriCustomizer()
+                                                                                                     .toString(), requestContext.getMediaType(), requestContext.getAlternateMediaTypes(), requestContext.getLanguage(), contentVersion);
+        ImmutableOgcApiCollection responseObject = getCachedDocument(apiData, cacheKey, () -> buildCollection(queryInput, requestContext));
 
         return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? responseObject.getLinks() : null)
-                .entity(outputFormatExtension.getCollectionsEntity(responseObject, requestContext.getApi(), requestContext))
+                .entity(outputFormatExtension.getCollectionEntity(responseObject, api, requestContext))
                 .build();
-
     }
 
-    private Response getCollectionResponse(QueryInputFeatureCollection queryInput,
-                                           ApiRequestContext requestContext) {
+    private ImmutableOgcApiCollection buildCollection(QueryInputFeatureCollection queryInput,
+                                                      ApiRequestContext requestContext) {
 
-        OgcApi api = requestContext.getApi();
-        OgcApiDataV2 apiData = api.getData();
+        OgcApiDataV2 apiData = requestContext.getApi()
+                                             .getData();
         String collectionId = queryInput.getCollectionId();
 
         Optional<String> licenseUrl = apiData.getMetadata().flatMap(Metadata::getLicenseUrl);
@@ -147,9 +192,6 @@ public class QueriesHandlerCollections implements QueriesHandler<QueriesHandlerC
                 i18n,
                 requestContext.getLanguage());
 
-        CollectionsFormatExtension outputFormatExtension = api.getOutputFormat(CollectionsFormatExtension.class, requestContext.getMediaType(), "/collections/"+collectionId, Optional.of(collectionId))
-                .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type ''{0}'' is not supported for this resource.", requestContext.getMediaType())));
-
         ImmutableOgcApiCollection.Builder ogcApiCollection = ImmutableOgcApiCollection.builder()
                 .id(collectionId)
                 .links(links)
@@ -169,10 +211,51 @@ public class QueriesHandlerCollections implements QueriesHandler<QueriesHandlerC
                     requestContext.getLanguage());
         }
 
-        ImmutableOgcApiCollection responseObject = ogcApiCollection.build();
-        return prepareSuccessResponse(api, requestContext, queryInput.getIncludeLinkHeader() ? responseObject.getLinks() : null)
-                .entity(outputFormatExtension.getCollectionEntity(ogcApiCollection.build(), api, requestContext))
-                .build();
+        return ogcApiCollection.build();
+    }
+
+    /**
+     * @param apiData the API
+     * @return the version of the information that extensions add to the Collections resource independently
+     * of the configuration
+     */
+    public long getCollectionsContentVersion(OgcApiDataV2 apiData) {
+        long version = 0L;
+        for (CollectionsExtension collectionsExtension : getCollectionsExtenders()) {
+            version = 31 * version + collectionsExtension.getContentVersion(apiData);
+        }
+        // the collections are nested
+        for (String collectionId : apiData.getCollections()
+                                          .keySet()) {
+            version = 31 * version + getCollectionContentVersion(apiData, collectionId, true);
+        }
+
+        return version;
+    }
+
+    /**
+     * @param apiData the API
+     * @param collectionId the collection
+     * @param isNested {@code true}, if the collection is nested in the Collections resource
+     * @return the version of the information that extensions add to the Collection resource independently
+     * of the configuration
+     */
+    public long getCollectionContentVersion(OgcApiDataV2 apiData, String collectionId, boolean isNested) {
+        long version = 0L;
+        for (CollectionExtension collectionExtension : getCollectionExtenders()) {
+            version = 31 * version + collectionExtension.getContentVersion(apiData, collectionId, isNested);
+        }
+
+        return version;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getCachedDocument(OgcApiDataV2 apiData, List<Object> cacheKey, Supplier<T> buildDocument) {
+        // the extension registry returns the same lists, until an extension is added or removed, then the
+        // documents are built again
+        List<Object> key = ImmutableList.of(getCollectionsExtenders(), getCollectionExtenders(), cacheKey);
+
+        return (T) documents.computeIfAbsent(apiData, key, ignore -> buildDocument.get());
     }
 
     private List<CollectionExtension> getCollectionExtenders() {
@@ -24,5 +24,19 @@ public interface CollectionExtension extends ContentExtension {
                                               List<ApiMediaType> alternateMediaTypes,
                                               Optional<Locale> language);
 
+    /**
+     * The Collection resources are cached per revision of the API configuration. An extension that adds
+     * information that can change independently of the configuration, e.g. because it is read from a file,
+     * has to return a value that changes whenever the information changes.
+     *
+     * @param apiData the API
+     * @param collectionId the collection
+     * @param isNested {@code true}, if the collection is nested in the Collections resource
+     * @return the version of the information added to the collection
+     */
+    default long getContentVersion(OgcApiDataV2 apiData, String collectionId, boolean isNested) {
+        return 0L;
+    }
+
     default String getResourceName() { return "Collection"; };
 }
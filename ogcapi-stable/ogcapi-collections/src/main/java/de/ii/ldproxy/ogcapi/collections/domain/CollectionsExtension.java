@@ -25,5 +25,17 @@ public interface CollectionsExtension extends ContentExtension {
                                          List<ApiMediaType> alternateMediaTypes,
                                          Optional<Locale> language);
 
+    /**
+     * The Collections resources are cached per revision of the API configuration. An extension that adds
+     * information that can change independently of the configuration has to return a value that changes
+     * whenever the information changes.
+     *
+     * @param apiData the API
+     * @return the version of the information added to the collections
+     */
+    default long getContentVersion(OgcApiDataV2 apiData) {
+        return 0L;
+    }
+
     default String getResourceName() { return "Collections"; };
 }
@@ -17,6 +17,7 @@ import de.ii.ldproxy.ogcapi.collections.domain.EndpointSubCollection;
 import de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition;
 import de.ii.ldproxy.ogcapi.domain.ApiOperation;
 import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.CachePolicy;
 import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
 import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
 import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
@@ -78,59 +79,67 @@ public class EndpointCollection extends EndpointSubCollection {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("collections")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_COLLECTION);
-            String path = "/collections/{collectionId}";
-            List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
-            if (!optCollectionIdParam.isPresent()) {
-                LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The GET method will not be available.");
-            } else {
-                final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
-                final boolean explode = collectionIdParam.getExplodeInOpenApi();
-                final Set<String> collectionIds = (explode) ?
-                        collectionIdParam.getValues(apiData) :
-                        ImmutableSet.of("{collectionId}");
-                for (String collectionId : collectionIds) {
-                    FeatureTypeConfigurationOgcApi featureType = apiData.getCollections()
-                            .get(collectionId);
-                    String operationSummary = "feature collection '" + featureType.getLabel() + "'";
-                    Optional<String> operationDescription = Optional.of("Information about the feature collection with " +
-                            "id '"+collectionId+"'. The response contains a link to the items in the collection " +
-                            "(path `/collections/{collectionId}/items`,link relation `items`) as well as key " +
-                            "information about the collection. This information includes:\n\n" +
-                            "* A local identifier for the collection that is unique for the dataset;\n" +
-                            "* A list of coordinate reference systems (CRS) in which geometries may be returned by the server. " +
-                            "The first CRS is the default coordinate reference system (the default is always WGS 84 with " +
-                            "axis order longitude/latitude);\n" +
-                            "* An optional title and description for the collection;\n" +
-                            "* An optional extent that can be used to provide an indication of the spatial and temporal extent " +
-                            "of the collection - typically derived from the data;\n" +
-                            "* An optional indicator about the type of the items in the collection (the default value, " +
-                            "if the indicator is not provided, is 'feature').");
-                    String resourcePath = "/collections/" + collectionId;
-                    ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
-                            .path(resourcePath)
-                            .pathParameters(pathParameters);
-                    ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, "", operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("GET", operation);
-                    definitionBuilder.putResources(resourcePath, resourceBuilder.build());
-                }
-            }
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.API_REVISION;
+    }
+
+    // the path is "/collections/{collectionId}"
+    @Override
+    public long getContentVersion(OgcApiDataV2 apiData, String path) {
+        String[] pathSegments = path.split("/");
+        if (pathSegments.length < 3) {
+            return 0L;
+        }
 
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
+        return queryHandler.getCollectionContentVersion(apiData, pathSegments[2], false);
+    }
+
+    @Override
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("collections")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_COLLECTION);
+        String path = "/collections/{collectionId}";
+        List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, path);
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The GET method will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = (explode) ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                FeatureTypeConfigurationOgcApi featureType = apiData.getCollections()
+                        .get(collectionId);
+                String operationSummary = "feature collection '" + featureType.getLabel() + "'";
+                Optional<String> operationDescription = Optional.of("Information about the feature collection with " +
+                        "id '"+collectionId+"'. The response contains a link to the items in the collection " +
+                        "(path `/collections/{collectionId}/items`,link relation `items`) as well as key " +
+                        "information about the collection. This information includes:\n\n" +
+                        "* A local identifier for the collection that is unique for the dataset;\n" +
+                        "* A list of coordinate reference systems (CRS) in which geometries may be returned by the server. " +
+                        "The first CRS is the default coordinate reference system (the default is always WGS 84 with " +
+                        "axis order longitude/latitude);\n" +
+                        "* An optional title and description for the collection;\n" +
+                        "* An optional extent that can be used to provide an indication of the spatial and temporal extent " +
+                        "of the collection - typically derived from the data;\n" +
+                        "* An optional indicator about the type of the items in the collection (the default value, " +
+                        "if the indicator is not provided, is 'feature').");
+                String resourcePath = "/collections/" + collectionId;
+                ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, "", operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("GET", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
+            }
         }
 
-        return apiDefinitions.get(apiDataHash);
+        return definitionBuilder.build();
     }
 
     @GET
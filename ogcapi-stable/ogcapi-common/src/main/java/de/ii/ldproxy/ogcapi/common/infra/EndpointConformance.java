@@ -59,34 +59,31 @@ public class EndpointConformance extends Endpoint {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("conformance")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_CONFORMANCE);
-            List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, "/conformance");
-            String operationSummary = "conformance declaration";
-            Optional<String> operationDescription = Optional.of("The URIs of all conformance classes supported by the server. " +
-                    "This information is provided to support 'generic' clients that want to access multiple " +
-                    "OGC API implementations - and not 'just' a specific API. For clients accessing only a single " +
-                    "API, this information is in general not relevant and the OpenAPI definition details the " +
-                    "required information about the API.");
-            String path = "/conformance";
-            ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
-                    .path(path);
-            ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
-            if (operation!=null)
-                resourceBuilder.putOperations("GET", operation);
-            definitionBuilder.putResources(path, resourceBuilder.build());
-
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
-        }
-
-        return apiDefinitions.get(apiDataHash);
+    public CachePolicy getCachePolicy() {
+        return CachePolicy.API_REVISION;
+    }
+
+    @Override
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("conformance")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_CONFORMANCE);
+        List<OgcApiQueryParameter> queryParameters = getQueryParameters(extensionRegistry, apiData, "/conformance");
+        String operationSummary = "conformance declaration";
+        Optional<String> operationDescription = Optional.of("The URIs of all conformance classes supported by the server. " +
+                "This information is provided to support 'generic' clients that want to access multiple " +
+                "OGC API implementations - and not 'just' a specific API. For clients accessing only a single " +
+                "API, this information is in general not relevant and the OpenAPI definition details the " +
+                "required information about the API.");
+        String path = "/conformance";
+        ImmutableOgcApiResourceAuxiliary.Builder resourceBuilder = new ImmutableOgcApiResourceAuxiliary.Builder()
+                .path(path);
+        ApiOperation operation = addOperation(apiData, queryParameters, path, operationSummary, operationDescription, TAGS);
+        if (operation!=null)
+            resourceBuilder.putOperations("GET", operation);
+        definitionBuilder.putResources(path, resourceBuilder.build());
+
+        return definitionBuilder.build();
     }
 
     @GET
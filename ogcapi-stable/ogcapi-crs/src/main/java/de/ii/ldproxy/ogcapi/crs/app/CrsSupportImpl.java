@@ -10,6 +10,7 @@ package de.ii.ldproxy.ogcapi.crs.app;
 import com.google.common.collect.ImmutableList;
 import de.ii.ldproxy.ogcapi.crs.domain.CrsConfiguration;
 import de.ii.ldproxy.ogcapi.crs.domain.CrsSupport;
+import de.ii.ldproxy.ogcapi.domain.ApiRevisionCache;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
@@ -23,18 +24,25 @@ import org.apache.felix.ipojo.annotations.Requires;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+/**
+ * The supported CRS are determined once per configuration of an API and per feature provider, they are
+ * checked for every request with a crs or bbox-crs parameter.
+ */
 @Component
 @Provides
 @Instantiate
 public class CrsSupportImpl implements CrsSupport {
 
     private final FeaturesCoreProviders providers;
+    private final ApiRevisionCache<String, SupportedCrs> supportedCrsLists;
 
     public CrsSupportImpl(@Requires FeaturesCoreProviders providers) {
         this.providers = providers;
+        this.supportedCrsLists = new ApiRevisionCache<>(Integer.MAX_VALUE);
     }
 
     @Override
@@ -45,6 +53,21 @@ public class CrsSupportImpl implements CrsSupport {
     @Override
     public List<EpsgCrs> getSupportedCrsList(OgcApiDataV2 apiData,
                                              @Nullable FeatureTypeConfigurationOgcApi featureTypeConfiguration) {
+        FeatureProvider2 provider = getFeatureProvider(apiData, Optional.ofNullable(featureTypeConfiguration));
+        String key = Objects.nonNull(featureTypeConfiguration) ? featureTypeConfiguration.getId() : "";
+
+        SupportedCrs supportedCrs = supportedCrsLists.get(apiData, key);
+        // the native CRS changes with the provider
+        if (Objects.isNull(supportedCrs) || supportedCrs.provider != provider) {
+            supportedCrs = new SupportedCrs(provider, computeSupportedCrsList(apiData, featureTypeConfiguration));
+            supportedCrsLists.put(apiData, key, supportedCrs);
+        }
+
+        return supportedCrs.crsList;
+    }
+
+    private List<EpsgCrs> computeSupportedCrsList(OgcApiDataV2 apiData,
+                                                  @Nullable FeatureTypeConfigurationOgcApi featureTypeConfiguration) {
         EpsgCrs nativeCrs = getStorageCrs(apiData, Optional.ofNullable(featureTypeConfiguration));
         EpsgCrs defaultCrs = getDefaultCrs(apiData, Optional.ofNullable(featureTypeConfiguration));
         List<EpsgCrs> additionalCrs = getAdditionalCrs(apiData, Optional.ofNullable(featureTypeConfiguration));
@@ -75,7 +98,7 @@ public class CrsSupportImpl implements CrsSupport {
     @Override
     public EpsgCrs getStorageCrs(OgcApiDataV2 apiData,
                                  Optional<FeatureTypeConfigurationOgcApi> featureTypeConfiguration) {
-        FeatureProvider2 provider = featureTypeConfiguration.isPresent() ? providers.getFeatureProvider(apiData, featureTypeConfiguration.get()) : providers.getFeatureProvider(apiData);
+        FeatureProvider2 provider = getFeatureProvider(apiData, featureTypeConfiguration);
 
         if (!provider.supportsCrs()) {
             throw new IllegalStateException("Provider has no CRS support.");
@@ -97,4 +120,19 @@ public class CrsSupportImpl implements CrsSupport {
                       .map(CrsConfiguration::getAdditionalCrs)
                       .orElse(ImmutableList.of());
     }
+
+    private FeatureProvider2 getFeatureProvider(OgcApiDataV2 apiData,
+                                                Optional<FeatureTypeConfigurationOgcApi> featureTypeConfiguration) {
+        return featureTypeConfiguration.isPresent() ? providers.getFeatureProvider(apiData, featureTypeConfiguration.get()) : providers.getFeatureProvider(apiData);
+    }
+
+    private static class SupportedCrs {
+        private final FeatureProvider2 provider;
+        private final List<EpsgCrs> crsList;
+
+        private SupportedCrs(FeatureProvider2 provider, List<EpsgCrs> crsList) {
+            this.provider = provider;
+            this.crsList = crsList;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.crs.app;
+
+import de.ii.ldproxy.ogcapi.crs.domain.CrsConfiguration;
+import de.ii.ldproxy.ogcapi.crs.domain.CrsSupport;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.TargetCrsExtension;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+
+import java.util.List;
+
+/**
+ * the features of a collection may be requested in each supported CRS
+ */
+@Component
+@Provides
+@Instantiate
+public class TargetCrsAdditionalCrs implements TargetCrsExtension {
+
+    private final CrsSupport crsSupport;
+
+    public TargetCrsAdditionalCrs(@Requires CrsSupport crsSupport) {
+        this.crsSupport = crsSupport;
+    }
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return CrsConfiguration.class;
+    }
+
+    @Override
+    public List<EpsgCrs> getTargetCrs(OgcApiDataV2 apiData, String collectionId) {
+        return crsSupport.getSupportedCrsList(apiData, apiData.getCollections()
+                                                              .get(collectionId));
+    }
+}
@@ -18,6 +18,7 @@ import org.apache.felix.ipojo.annotations.Provides;
 import static de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration.DEFAULT_PAGE_SIZE;
 import static de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration.MAX_PAGE_SIZE;
 import static de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration.MINIMUM_PAGE_SIZE;
+import static de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration.NUMBER_MATCHED_CACHE_TTL;
 
 @Component
 @Provides
@@ -37,6 +38,7 @@ public class CapabilityFeaturesCore implements ApiBuildingBlock {
                                                                .defaultPageSize(DEFAULT_PAGE_SIZE)
                                                                .maximumPageSize(MAX_PAGE_SIZE)
                                                                .showsFeatureSelfLink(false)
+                                                               .numberMatchedCacheTtl(NUMBER_MATCHED_CACHE_TTL)
                                                                .build();
     }
 
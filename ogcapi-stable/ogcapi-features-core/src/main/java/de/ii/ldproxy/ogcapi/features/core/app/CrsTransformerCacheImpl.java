@@ -0,0 +1,102 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.app;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.ii.ldproxy.ogcapi.features.core.domain.CrsTransformerCache;
+import de.ii.xtraplatform.crs.domain.CrsTransformer;
+import de.ii.xtraplatform.crs.domain.CrsTransformerFactory;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Invalidate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The transformers only hold the immutable math transform between the two CRS, so a single instance per pair
+ * of CRS is shared by all requests. Creating a transformer for a CRS for the first time initializes the EPSG
+ * database, this is done in the background, when an API is started.
+ */
+@Component
+@Provides
+@Instantiate
+public class CrsTransformerCacheImpl implements CrsTransformerCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CrsTransformerCacheImpl.class);
+
+    // the pairs are limited by the supported CRS of the APIs, this only guards against unexpected growth
+    private static final int MAX_TRANSFORMERS = 1000;
+
+    private final CrsTransformerFactory crsTransformerFactory;
+    private final Map<List<EpsgCrs>, CrsTransformer> transformers;
+    private ExecutorService executorService;
+
+    public CrsTransformerCacheImpl(@Requires CrsTransformerFactory crsTransformerFactory) {
+        this.crsTransformerFactory = crsTransformerFactory;
+        this.transformers = new ConcurrentHashMap<>();
+    }
+
+    // the component may be stopped and started again, the executor is shut down on every stop
+    @Validate
+    private void onStart() {
+        this.executorService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("crs-warmup-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+    }
+
+    @Invalidate
+    private void onStop() {
+        executorService.shutdownNow();
+    }
+
+    @Override
+    public Optional<CrsTransformer> getTransformer(EpsgCrs sourceCrs, EpsgCrs targetCrs) {
+        List<EpsgCrs> key = ImmutableList.of(sourceCrs, targetCrs);
+        CrsTransformer transformer = transformers.get(key);
+        if (Objects.nonNull(transformer)) {
+            return Optional.of(transformer);
+        }
+
+        if (transformers.size() >= MAX_TRANSFORMERS) {
+            transformers.clear();
+        }
+
+        // a missing transformer is not cached, the next request tries again
+        return Optional.ofNullable(transformers.computeIfAbsent(key, ignore -> crsTransformerFactory.getTransformer(sourceCrs, targetCrs)
+                                                                                              .orElse(null)));
+    }
+
+    @Override
+    public void warmup(EpsgCrs sourceCrs, Collection<EpsgCrs> targetCrs) {
+        List<EpsgCrs> crsList = ImmutableList.copyOf(targetCrs);
+
+        executorService.submit(() -> {
+            for (EpsgCrs crs : crsList) {
+                try {
+                    getTransformer(sourceCrs, crs);
+                } catch (Throwable e) {
+                    LOGGER.debug("Transformer from '{}' to '{}' could not be created: {}", sourceCrs.toUriString(), crs.toUriString(), e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.app;
+
+import com.google.common.collect.ImmutableSet;
+import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
+import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.CrsTransformerCache;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
+import de.ii.ldproxy.ogcapi.features.core.domain.TargetCrsExtension;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+import de.ii.xtraplatform.features.domain.FeatureProvider2;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.whiteboard.Wbp;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Creates the transformers from the native CRS of each collection to the default CRS and all other CRS that
+ * are announced by a {@link TargetCrsExtension}, when an API is started or its configuration is changed.
+ */
+@Component
+@Instantiate
+@Wbp(
+        filter = "(objectClass=de.ii.ldproxy.ogcapi.domain.OgcApi)",
+        onArrival = "onArrival",
+        onModification = "onModification",
+        onDeparture = "onDeparture")
+public class CrsTransformerWarmup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CrsTransformerWarmup.class);
+
+    @Context
+    private BundleContext bundleContext;
+
+    private final CrsTransformerCache crsTransformerCache;
+    private final FeaturesCoreProviders providers;
+    private final ExtensionRegistry extensionRegistry;
+
+    public CrsTransformerWarmup(@Requires CrsTransformerCache crsTransformerCache,
+                                @Requires FeaturesCoreProviders providers,
+                                @Requires ExtensionRegistry extensionRegistry) {
+        this.crsTransformerCache = crsTransformerCache;
+        this.providers = providers;
+        this.extensionRegistry = extensionRegistry;
+    }
+
+    private synchronized void onArrival(ServiceReference<OgcApi> ref) {
+        warmup(ref);
+    }
+
+    private synchronized void onModification(ServiceReference<OgcApi> ref) {
+        warmup(ref);
+    }
+
+    private synchronized void onDeparture(ServiceReference<OgcApi> ref) {
+        // the transformers do not depend on the API, they are shared with other APIs
+    }
+
+    private void warmup(ServiceReference<OgcApi> ref) {
+        final OgcApi api = bundleContext.getService(ref);
+
+        if (Objects.isNull(api)) {
+            return;
+        }
+
+        OgcApiDataV2 apiData = api.getData();
+        List<TargetCrsExtension> extensions = extensionRegistry.getExtensionsForType(TargetCrsExtension.class);
+
+        for (FeatureTypeConfigurationOgcApi collectionData : apiData.getCollections()
+                                                                    .values()) {
+            if (!apiData.isCollectionEnabled(collectionData.getId())) {
+                continue;
+            }
+
+            try {
+                FeatureProvider2 featureProvider = providers.getFeatureProvider(apiData, collectionData);
+                if (!featureProvider.supportsCrs()) {
+                    continue;
+                }
+
+                ImmutableSet.Builder<EpsgCrs> targetCrs = ImmutableSet.builder();
+                collectionData.getExtension(FeaturesCoreConfiguration.class)
+                              .map(FeaturesCoreConfiguration::getDefaultEpsgCrs)
+                              .ifPresent(targetCrs::add);
+                extensions.stream()
+                          .filter(extension -> extension.isEnabledForApi(apiData, collectionData.getId()))
+                          .forEach(extension -> targetCrs.addAll(extension.getTargetCrs(apiData, collectionData.getId())));
+
+                crsTransformerCache.warmup(featureProvider.crs()
+                                                          .getNativeCrs(), targetCrs.build());
+            } catch (Throwable e) {
+                LOGGER.debug("Transformers for collection '{}' in API '{}' could not be prepared: {}", collectionData.getId(), apiData.getId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -95,86 +95,78 @@ public class EndpointFeatures extends EndpointSubCollection {
     }
 
     @Override
-    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
-        if (!isEnabledForApi(apiData))
-            return super.getDefinition(apiData);
-
-        int apiDataHash = apiData.hashCode();
-        if (!apiDefinitions.containsKey(apiDataHash)) {
-            ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
-                    .apiEntrypoint("collections")
-                    .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES);
-            String subSubPath = "/items";
-            String path = "/collections/{collectionId}" + subSubPath;
-            List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
-            if (!optCollectionIdParam.isPresent()) {
-                LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
-            } else {
-                final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
-                final boolean explode = collectionIdParam.getExplodeInOpenApi();
-                final Set<String> collectionIds = (explode) ?
-                        collectionIdParam.getValues(apiData) :
-                        ImmutableSet.of("{collectionId}");
-                for (String collectionId : collectionIds) {
-                    final List<OgcApiQueryParameter> queryParameters = explode ?
-                            getQueryParameters(extensionRegistry, apiData, path, collectionId) :
-                            getQueryParameters(extensionRegistry, apiData, path);
-                    final String operationSummary = "retrieve features in the feature collection '" + collectionId + "'";
-                    Optional<String> operationDescription = Optional.of("The response is a document consisting of features in the collection. " +
-                            "The features included in the response are determined by the server based on the query parameters of the request. " +
-                            "To support access to larger collections without overloading the client, the API supports paged access with links " +
-                            "to the next page, if more features are selected that the page size. The `bbox` and `datetime` parameter can be " +
-                            "used to select only a subset of the features in the collection (the features that are in the bounding box or time interval). " +
-                            "The `bbox` parameter matches all features in the collection that are not associated with a location, too. " +
-                            "The `datetime` parameter matches all features in the collection that are not associated with a time stamp or interval, too. " +
-                            "The `limit` parameter may be used to control the subset of the selected features that should be returned in the response, " +
-                            "the page size. Each page may include information about the number of selected and returned features (`numberMatched` " +
-                            "and `numberReturned`) as well as links to support paging (link relation `next`).");
-                    String resourcePath = "/collections/" + collectionId + subSubPath;
-                    ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
-                            .path(resourcePath)
-                            .pathParameters(pathParameters);
-                    ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("GET", operation);
-                    definitionBuilder.putResources(resourcePath, resourceBuilder.build());
-                }
-
+    protected ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData) {
+        ImmutableApiEndpointDefinition.Builder definitionBuilder = new ImmutableApiEndpointDefinition.Builder()
+                .apiEntrypoint("collections")
+                .sortPriority(ApiEndpointDefinition.SORT_PRIORITY_FEATURES);
+        String subSubPath = "/items";
+        String path = "/collections/{collectionId}" + subSubPath;
+        List<OgcApiPathParameter> pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        Optional<OgcApiPathParameter> optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = (explode) ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                final List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId) :
+                        getQueryParameters(extensionRegistry, apiData, path);
+                final String operationSummary = "retrieve features in the feature collection '" + collectionId + "'";
+                Optional<String> operationDescription = Optional.of("The response is a document consisting of features in the collection. " +
+                        "The features included in the response are determined by the server based on the query parameters of the request. " +
+                        "To support access to larger collections without overloading the client, the API supports paged access with links " +
+                        "to the next page, if more features are selected that the page size. The `bbox` and `datetime` parameter can be " +
+                        "used to select only a subset of the features in the collection (the features that are in the bounding box or time interval). " +
+                        "The `bbox` parameter matches all features in the collection that are not associated with a location, too. " +
+                        "The `datetime` parameter matches all features in the collection that are not associated with a time stamp or interval, too. " +
+                        "The `limit` parameter may be used to control the subset of the selected features that should be returned in the response, " +
+                        "the page size. Each page may include information about the number of selected and returned features (`numberMatched` " +
+                        "and `numberReturned`) as well as links to support paging (link relation `next`).");
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("GET", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
             }
-            subSubPath = "/items/{featureId}";
-            path = "/collections/{collectionId}" + subSubPath;
-            pathParameters = getPathParameters(extensionRegistry, apiData, path);
-            optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
-            if (!optCollectionIdParam.isPresent()) {
-                LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
-            } else {
-                final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
-                final boolean explode = collectionIdParam.getExplodeInOpenApi();
-                final Set<String> collectionIds = explode ?
-                        collectionIdParam.getValues(apiData) :
-                        ImmutableSet.of("{collectionId}");
-                for (String collectionId : collectionIds) {
-                    final List<OgcApiQueryParameter> queryParameters = explode ?
-                            getQueryParameters(extensionRegistry, apiData, path, collectionId) :
-                            getQueryParameters(extensionRegistry, apiData, path);
-                    final String operationSummary = "retrieve a feature in the feature collection '" + collectionId + "'";
-                    final Optional<String> operationDescription = Optional.of("Fetch the feature with id `{featureId}`.");
-                    String resourcePath = "/collections/" + collectionId + subSubPath;
-                    ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
-                            .path(resourcePath)
-                            .pathParameters(pathParameters);
-                    ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
-                    if (operation!=null)
-                        resourceBuilder.putOperations("GET", operation);
-                    definitionBuilder.putResources(resourcePath, resourceBuilder.build());
-                }
 
-            }
-            apiDefinitions.put(apiDataHash, definitionBuilder.build());
         }
+        subSubPath = "/items/{featureId}";
+        path = "/collections/{collectionId}" + subSubPath;
+        pathParameters = getPathParameters(extensionRegistry, apiData, path);
+        optCollectionIdParam = pathParameters.stream().filter(param -> param.getName().equals("collectionId")).findAny();
+        if (!optCollectionIdParam.isPresent()) {
+            LOGGER.error("Path parameter 'collectionId' missing for resource at path '" + path + "'. The resource will not be available.");
+        } else {
+            final OgcApiPathParameter collectionIdParam = optCollectionIdParam.get();
+            final boolean explode = collectionIdParam.getExplodeInOpenApi();
+            final Set<String> collectionIds = explode ?
+                    collectionIdParam.getValues(apiData) :
+                    ImmutableSet.of("{collectionId}");
+            for (String collectionId : collectionIds) {
+                final List<OgcApiQueryParameter> queryParameters = explode ?
+                        getQueryParameters(extensionRegistry, apiData, path, collectionId) :
+                        getQueryParameters(extensionRegistry, apiData, path);
+                final String operationSummary = "retrieve a feature in the feature collection '" + collectionId + "'";
+                final Optional<String> operationDescription = Optional.of("Fetch the feature with id `{featureId}`.");
+                String resourcePath = "/collections/" + collectionId + subSubPath;
+                ImmutableOgcApiResourceData.Builder resourceBuilder = new ImmutableOgcApiResourceData.Builder()
+                        .path(resourcePath)
+                        .pathParameters(pathParameters);
+                ApiOperation operation = addOperation(apiData, HttpMethods.GET, queryParameters, collectionId, subSubPath, operationSummary, operationDescription, TAGS);
+                if (operation!=null)
+                    resourceBuilder.putOperations("GET", operation);
+                definitionBuilder.putResources(resourcePath, resourceBuilder.build());
+            }
 
-        return apiDefinitions.get(apiDataHash);
+        }
+        return definitionBuilder.build();
     }
 
     @Override
@@ -248,6 +240,7 @@ public class EndpointFeatures extends EndpointSubCollection {
                 .defaultPageSize(Optional.of(defaultPageSize))
                 .showsFeatureSelfLink(showsFeatureSelfLink)
                 .includeLinkHeader(includeLinkHeader)
+                .keysetPaging(ogcApiFeaturesQuery.supportsKeysetPaging(api.getData(), collectionData))
                 .build();
 
         return queryHandler.handle(FeaturesCoreQueriesHandlerImpl.Query.FEATURES, queryInput, requestContext);
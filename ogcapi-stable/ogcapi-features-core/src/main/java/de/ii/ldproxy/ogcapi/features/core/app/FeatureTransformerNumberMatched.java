@@ -0,0 +1,121 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.app;
+
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.xtraplatform.features.domain.FeatureProperty;
+import de.ii.xtraplatform.features.domain.FeatureTransformer2;
+import de.ii.xtraplatform.features.domain.FeatureType;
+import de.ii.xtraplatform.geometries.domain.SimpleFeatureGeometry;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Remembers numberMatched of the first page of a query and passes it to the transformer of the output
+ * format for the following pages that are requested with a cursor. For these pages the provider only
+ * counts the remaining features. All other events are passed through unchanged.
+ */
+class FeatureTransformerNumberMatched implements FeatureTransformer2 {
+
+    private final FeatureTransformer2 featureTransformer;
+    private final NumberMatchedCache cache;
+    private final OgcApiDataV2 apiData;
+    private final String cacheKey;
+    private final int cacheTtl;
+    private final boolean isCursorPage;
+
+    FeatureTransformerNumberMatched(FeatureTransformer2 featureTransformer, NumberMatchedCache cache,
+                                    OgcApiDataV2 apiData, String cacheKey, int cacheTtl,
+                                    boolean isCursorPage) {
+        this.featureTransformer = featureTransformer;
+        this.cache = cache;
+        this.apiData = apiData;
+        this.cacheKey = cacheKey;
+        this.cacheTtl = cacheTtl;
+        this.isCursorPage = isCursorPage;
+    }
+
+    @Override
+    public String getTargetFormat() {
+        return featureTransformer.getTargetFormat();
+    }
+
+    @Override
+    public void onStart(OptionalLong numberReturned, OptionalLong numberMatched) throws Exception {
+        featureTransformer.onStart(numberReturned, getNumberMatched(numberMatched));
+    }
+
+    private OptionalLong getNumberMatched(OptionalLong numberMatched) {
+        if (!isCursorPage) {
+            if (numberMatched.isPresent()) {
+                cache.put(apiData, cacheKey, numberMatched.getAsLong(), cacheTtl);
+            }
+            return numberMatched;
+        }
+
+        // the total is only known from the first page, without it numberMatched is omitted
+        return cache.get(apiData, cacheKey);
+    }
+
+    @Override
+    public void onEnd() throws Exception {
+        featureTransformer.onEnd();
+    }
+
+    @Override
+    public void onFeatureStart(FeatureType featureType) throws Exception {
+        featureTransformer.onFeatureStart(featureType);
+    }
+
+    @Override
+    public void onFeatureEnd() throws Exception {
+        featureTransformer.onFeatureEnd();
+    }
+
+    @Override
+    public void onPropertyStart(FeatureProperty featureProperty, List<Integer> multiplicities) throws Exception {
+        featureTransformer.onPropertyStart(featureProperty, multiplicities);
+    }
+
+    @Override
+    public void onPropertyText(String text) throws Exception {
+        featureTransformer.onPropertyText(text);
+    }
+
+    @Override
+    public void onPropertyEnd() throws Exception {
+        featureTransformer.onPropertyEnd();
+    }
+
+    @Override
+    public void onGeometryStart(FeatureProperty featureProperty, SimpleFeatureGeometry type,
+                                Integer dimension) throws Exception {
+        featureTransformer.onGeometryStart(featureProperty, type, dimension);
+    }
+
+    @Override
+    public void onGeometryNestedStart() throws Exception {
+        featureTransformer.onGeometryNestedStart();
+    }
+
+    @Override
+    public void onGeometryCoordinates(String text) throws Exception {
+        featureTransformer.onGeometryCoordinates(text);
+    }
+
+    @Override
+    public void onGeometryNestedEnd() throws Exception {
+        featureTransformer.onGeometryNestedEnd();
+    }
+
+    @Override
+    public void onGeometryEnd() throws Exception {
+        featureTransformer.onGeometryEnd();
+    }
+}
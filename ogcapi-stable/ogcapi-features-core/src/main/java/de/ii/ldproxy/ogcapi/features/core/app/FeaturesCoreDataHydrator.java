@@ -9,14 +9,18 @@ package de.ii.ldproxy.ogcapi.features.core.app;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
 import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
 import de.ii.ldproxy.ogcapi.domain.ImmutableCollectionExtent;
 import de.ii.ldproxy.ogcapi.domain.ImmutableFeatureTypeConfigurationOgcApi;
 import de.ii.ldproxy.ogcapi.domain.ImmutableMetadata;
 import de.ii.ldproxy.ogcapi.domain.ImmutableOgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataHydratorExtension;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.CrsTransformerCache;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ldproxy.ogcapi.features.core.domain.ImmutableFeaturesCollectionQueryables;
@@ -24,33 +28,90 @@ import de.ii.ldproxy.ogcapi.features.core.domain.ImmutableFeaturesCoreConfigurat
 import de.ii.xtraplatform.crs.domain.BoundingBox;
 import de.ii.xtraplatform.crs.domain.CrsTransformationException;
 import de.ii.xtraplatform.crs.domain.CrsTransformer;
-import de.ii.xtraplatform.crs.domain.CrsTransformerFactory;
 import de.ii.xtraplatform.crs.domain.OgcCrs;
+import de.ii.xtraplatform.dropwizard.domain.Jackson;
 import de.ii.xtraplatform.features.domain.FeatureProvider2;
 import de.ii.xtraplatform.features.domain.FeatureSchema;
 import de.ii.xtraplatform.features.domain.Metadata;
+import de.ii.xtraplatform.store.domain.entities.EntityRegistry;
 import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
 import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Invalidate;
 import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.Validate;
+import org.osgi.framework.BundleContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import static de.ii.ldproxy.ogcapi.domain.FoundationConfiguration.CACHE_DIR;
+import static de.ii.xtraplatform.runtime.domain.Constants.DATA_DIR_KEY;
+
+/**
+ * Completes the configuration of an API with the collections and metadata of the feature provider and with the
+ * spatial extents of the collections that are computed from the data.
+ *
+ * The spatial extents are computed in parallel by a bounded number of threads that is shared by all APIs and
+ * are persisted with a fingerprint of the provider configuration for {@value #EXTENTS_TTL_HOURS} hours. An API
+ * does not wait longer than {@value #EXTENTS_TIMEOUT_SECONDS} seconds for the computation, extents that are not
+ * finished by then are added to the running API when they are available.
+ */
 @Component
 @Provides
 @Instantiate
 public class FeaturesCoreDataHydrator implements OgcApiDataHydratorExtension {
 
-    private final FeaturesCoreProviders providers;
-    private final CrsTransformerFactory crsTransformerFactory;
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeaturesCoreDataHydrator.class);
 
-    public FeaturesCoreDataHydrator(@Requires FeaturesCoreProviders providers,
-                                    @Requires CrsTransformerFactory crsTransformerFactory) {
+    private static final int EXTENTS_PARALLELISM = 4;
+    private static final int EXTENTS_TIMEOUT_SECONDS = 10;
+    private static final int EXTENTS_TTL_HOURS = 24;
+
+    private final FeaturesCoreProviders providers;
+    private final CrsTransformerCache crsTransformerCache;
+    private final EntityRegistry entityRegistry;
+    private final SpatialExtentStore extentStore;
+    private ExecutorService executorService;
+
+    public FeaturesCoreDataHydrator(@Context BundleContext bundleContext,
+                                    @Requires FeaturesCoreProviders providers,
+                                    @Requires CrsTransformerCache crsTransformerCache,
+                                    @Requires EntityRegistry entityRegistry,
+                                    @Requires Jackson jackson) {
         this.providers = providers;
-        this.crsTransformerFactory = crsTransformerFactory;
+        this.crsTransformerCache = crsTransformerCache;
+        this.entityRegistry = entityRegistry;
+        this.extentStore = new SpatialExtentStore(Paths.get(bundleContext.getProperty(DATA_DIR_KEY), CACHE_DIR), jackson.getDefaultObjectMapper(), Duration.ofHours(EXTENTS_TTL_HOURS));
+    }
+
+    // the executor is created on every start of the component, it is shut down when the component is stopped
+    @Validate
+    private void onStart() {
+        this.executorService = Executors.newFixedThreadPool(EXTENTS_PARALLELISM, new ThreadFactoryBuilder().setNameFormat("extents-%d")
+                                                                                                          .setDaemon(true)
+                                                                                                          .build());
+    }
+
+    @Invalidate
+    private void onStop() {
+        executorService.shutdownNow();
     }
 
     @Override
@@ -172,73 +233,155 @@ public class FeaturesCoreDataHydrator implements OgcApiDataHydratorExtension {
     private ImmutableMap<String, FeatureTypeConfigurationOgcApi> computeMissingBboxes(
             OgcApiDataV2 apiData) throws IllegalStateException {
 
+        Map<String, SpatialExtentStore.StoredExtent> persistedExtents = extentStore.read(apiData.getId());
+        Map<String, String> fingerprints = new HashMap<>();
+        Map<String, BoundingBox> extents = new HashMap<>();
+        Map<String, CompletableFuture<Optional<BoundingBox>>> computations = new LinkedHashMap<>();
+
+        for (FeatureTypeConfigurationOgcApi collection : apiData.getCollections()
+                                                                .values()) {
+            if (!collection.getExtent()
+                           .isPresent() || !collection.getExtent()
+                                                      .get()
+                                                      .getSpatialComputed()) {
+                continue;
+            }
+
+            FeatureProvider2 featureProvider = providers.getFeatureProvider(apiData, collection);
+            if (!featureProvider.supportsExtents()) {
+                continue;
+            }
+
+            String fingerprint = extentStore.getFingerprint(featureProvider);
+            fingerprints.put(collection.getId(), fingerprint);
+
+            Optional<BoundingBox> persistedExtent = extentStore.get(persistedExtents, collection.getId(), fingerprint);
+            if (persistedExtent.isPresent()) {
+                extents.put(collection.getId(), persistedExtent.get());
+            } else {
+                computations.put(collection.getId(), CompletableFuture.supplyAsync(() -> computeSpatialExtent(featureProvider, collection.getId()), executorService));
+            }
+        }
+
+        if (!computations.isEmpty()) {
+            CompletableFuture<Void> computed = CompletableFuture.allOf(computations.entrySet()
+                                                                                   .stream()
+                                                                                   .map(computation -> computation.getValue()
+                                                                                                                  .exceptionally(e -> {
+                                                                                                                      LOGGER.error("The spatial extent of collection '{}' in API '{}' could not be computed: {}", computation.getKey(), apiData.getId(), e.getMessage());
+                                                                                                                      return Optional.empty();
+                                                                                                                  }))
+                                                                                   .toArray(CompletableFuture[]::new));
+
+            try {
+                computed.get(EXTENTS_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                LOGGER.info("The spatial extents of API '{}' are still being computed, the API is started without them.", apiData.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            } catch (ExecutionException e) {
+                // failures are logged for each collection
+            }
+
+            extents.putAll(getComputedExtents(computations));
+            Set<String> hydratedExtents = ImmutableSet.copyOf(extents.keySet());
+
+            // the extents are persisted, when all are computed; those that were not finished in time are also
+            // added to the running API
+            computed.thenRun(() -> {
+                Map<String, BoundingBox> computedExtents = getComputedExtents(computations);
+                extentStore.write(apiData.getId(), computedExtents, fingerprints);
+
+                Map<String, BoundingBox> lateExtents = computedExtents.entrySet()
+                                                                      .stream()
+                                                                      .filter(entry -> !hydratedExtents.contains(entry.getKey()))
+                                                                      .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+                if (!lateExtents.isEmpty()) {
+                    addToRunningApi(apiData.getId(), lateExtents);
+                }
+            });
+        }
+
+        return withSpatialExtents(apiData.getCollections(), extents);
+    }
 
-        return apiData.getCollections()
-                      .entrySet()
-                      .stream()
-                      .map(entry -> {
-
-                          FeatureProvider2 featureProvider = providers.getFeatureProvider(apiData, entry.getValue());
-
-                          if (entry.getValue()
-                                   .getExtent()
-                                   .isPresent() &&
-                                  entry.getValue()
-                                       .getExtent()
-                                       .get()
-                                       .getSpatialComputed() &&
-                                  featureProvider.supportsExtents()) {
-                              Optional<BoundingBox> spatialExtent = featureProvider.extents()
-                                                                                   .getSpatialExtent(entry.getValue()
-                                                                                                          .getId());
-
-                              if (spatialExtent.isPresent()) {
-
-                                  BoundingBox boundingBox = spatialExtent.get();
-                                  if (!boundingBox.getEpsgCrs()
-                                                  .equals(OgcCrs.CRS84) &&
-                                      !boundingBox.getEpsgCrs()
-                                                  .equals(OgcCrs.CRS84h)) {
-                                      try {
-                                          Optional<CrsTransformer> transformer = crsTransformerFactory.getTransformer(boundingBox.getEpsgCrs(), OgcCrs.CRS84);
-                                          if (transformer.isPresent()) {
-                                              boundingBox = transformer.get()
-                                                                       .transformBoundingBox(boundingBox);
-                                          }
-                                      } catch (CrsTransformationException e) {
-                                          throw new RuntimeException(String.format("Error transforming the bounding box with CRS '%s'", boundingBox.getEpsgCrs()
-                                                                                                                                                       .toUriString()));
-                                      }
-                                  }
-
-                                  ImmutableFeatureTypeConfigurationOgcApi featureTypeConfiguration;
-                                  if (entry.getValue()
-                                           .getExtent()
-                                           .isPresent()) {
-                                      featureTypeConfiguration = new ImmutableFeatureTypeConfigurationOgcApi.Builder()
-                                              .from(entry.getValue())
-                                              .extent(new ImmutableCollectionExtent.Builder()
-                                                      .from(entry.getValue()
-                                                                 .getExtent()
-                                                                 .get())
-                                                      .spatial(boundingBox)
-                                                      .build())
-                                              .build();
-                                  } else {
-                                      featureTypeConfiguration = new ImmutableFeatureTypeConfigurationOgcApi.Builder()
-                                              .from(entry.getValue())
-                                              .extent(new ImmutableCollectionExtent.Builder()
-                                                      .spatial(boundingBox)
-                                                      .build())
-                                              .build();
-
-                                  }
-
-                                  return new AbstractMap.SimpleEntry<>(entry.getKey(), featureTypeConfiguration);
+    private void addToRunningApi(String apiId, Map<String, BoundingBox> extents) {
+        Optional<OgcApi> api = entityRegistry.getEntity(OgcApi.class, apiId);
+        if (!api.isPresent()) {
+            LOGGER.debug("The spatial extents of API '{}' are available after the next restart or reload of the API.", apiId);
+            return;
+        }
+
+        api.get()
+           .updateData(data -> new ImmutableOgcApiDataV2.Builder()
+                   .from(data)
+                   .collections(withSpatialExtents(data.getCollections(), extents))
+                   .build());
+        LOGGER.info("The spatial extents of API '{}' have been computed.", apiId);
+    }
+
+    private static ImmutableMap<String, FeatureTypeConfigurationOgcApi> withSpatialExtents(
+            Map<String, FeatureTypeConfigurationOgcApi> collections, Map<String, BoundingBox> extents) {
+        return collections.entrySet()
+                          .stream()
+                          .map(entry -> {
+                              BoundingBox boundingBox = extents.get(entry.getValue()
+                                                                         .getId());
+                              if (Objects.isNull(boundingBox)) {
+                                  return entry;
                               }
-                          }
-                          return entry;
-                      })
-                      .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+
+                              ImmutableFeatureTypeConfigurationOgcApi featureTypeConfiguration = new ImmutableFeatureTypeConfigurationOgcApi.Builder()
+                                      .from(entry.getValue())
+                                      .extent(new ImmutableCollectionExtent.Builder()
+                                              .from(entry.getValue()
+                                                         .getExtent()
+                                                         .get())
+                                              .spatial(boundingBox)
+                                              .build())
+                                      .build();
+
+                              return new AbstractMap.SimpleEntry<>(entry.getKey(), featureTypeConfiguration);
+                          })
+                          .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private Optional<BoundingBox> computeSpatialExtent(FeatureProvider2 featureProvider, String collectionId) {
+        Optional<BoundingBox> spatialExtent = featureProvider.extents()
+                                                             .getSpatialExtent(collectionId);
+
+        if (spatialExtent.isPresent()) {
+            BoundingBox boundingBox = spatialExtent.get();
+            if (!boundingBox.getEpsgCrs()
+                            .equals(OgcCrs.CRS84) &&
+                !boundingBox.getEpsgCrs()
+                            .equals(OgcCrs.CRS84h)) {
+                try {
+                    Optional<CrsTransformer> transformer = crsTransformerCache.getTransformer(boundingBox.getEpsgCrs(), OgcCrs.CRS84);
+                    if (transformer.isPresent()) {
+                        return Optional.of(transformer.get()
+                                                      .transformBoundingBox(boundingBox));
+                    }
+                } catch (CrsTransformationException e) {
+                    throw new RuntimeException(String.format("Error transforming the bounding box with CRS '%s'", boundingBox.getEpsgCrs()
+                                                                                                                             .toUriString()));
+                }
+            }
+        }
+
+        return spatialExtent;
+    }
+
+    private static Map<String, BoundingBox> getComputedExtents(Map<String, CompletableFuture<Optional<BoundingBox>>> computations) {
+        ImmutableMap.Builder<String, BoundingBox> extents = ImmutableMap.builder();
+        computations.forEach((collectionId, computation) -> {
+            if (computation.isDone() && !computation.isCompletedExceptionally()) {
+                computation.join()
+                           .ifPresent(boundingBox -> extents.put(collectionId, boundingBox));
+            }
+        });
+
+        return extents.build();
     }
 }
@@ -19,15 +19,16 @@ import de.ii.ldproxy.ogcapi.domain.OgcApi;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.QueryHandler;
 import de.ii.ldproxy.ogcapi.domain.QueryInput;
+import de.ii.ldproxy.ogcapi.features.core.domain.CrsTransformerCache;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeatureFormatExtension;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeatureLinksGenerator;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreQueriesHandler;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesLinksGenerator;
 import de.ii.ldproxy.ogcapi.features.core.domain.ImmutableFeatureTransformationContextGeneric;
 import de.ii.xtraplatform.codelists.domain.Codelist;
 import de.ii.xtraplatform.crs.domain.CrsTransformer;
-import de.ii.xtraplatform.crs.domain.CrsTransformerFactory;
 import de.ii.xtraplatform.crs.domain.EpsgCrs;
 import de.ii.xtraplatform.dropwizard.domain.Dropwizard;
 import de.ii.xtraplatform.features.domain.FeatureConsumer;
@@ -69,18 +70,20 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
     private static final Logger LOGGER = LoggerFactory.getLogger(FeaturesCoreQueriesHandlerImpl.class);
 
     private final I18n i18n;
-    private final CrsTransformerFactory crsTransformerFactory;
+    private final CrsTransformerCache crsTransformerCache;
     private final Map<Query, QueryHandler<? extends QueryInput>> queryHandlers;
     private final MetricRegistry metricRegistry;
     private final EntityRegistry entityRegistry;
+    private final NumberMatchedCache numberMatchedCache;
 
     public FeaturesCoreQueriesHandlerImpl(@Requires I18n i18n,
-                                          @Requires CrsTransformerFactory crsTransformerFactory,
+                                          @Requires CrsTransformerCache crsTransformerCache,
                                           @Requires Dropwizard dropwizard,
                                           @Requires EntityRegistry entityRegistry) {
         this.i18n = i18n;
-        this.crsTransformerFactory = crsTransformerFactory;
+        this.crsTransformerCache = crsTransformerCache;
         this.entityRegistry = entityRegistry;
+        this.numberMatchedCache = new NumberMatchedCache();
 
         this.metricRegistry = dropwizard.getEnvironment()
                                         .metrics();
@@ -125,7 +128,7 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
                                                  .orElseThrow(() -> new NotAcceptableException(MessageFormat.format("The requested media type ''{0}'' is not supported for this resource.", requestContext.getMediaType())));
 
         return getItemsResponse(api, requestContext, collectionId, query, queryInput.getFeatureProvider(), true, null, outputFormat, onlyHitsIfMore, defaultPageSize,
-                queryInput.getShowsFeatureSelfLink(), queryInput.getIncludeLinkHeader(), queryInput.getDefaultCrs());
+                queryInput.getShowsFeatureSelfLink(), queryInput.getIncludeLinkHeader(), queryInput.getDefaultCrs(), queryInput.getKeysetPaging());
     }
 
     private Response getItemResponse(QueryInputFeature queryInput,
@@ -154,7 +157,7 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
         }
 
         return getItemsResponse(api, requestContext, collectionId, query, queryInput.getFeatureProvider(), false, persistentUri, outputFormat, false, Optional.empty(),
-                false, queryInput.getIncludeLinkHeader(), queryInput.getDefaultCrs());
+                false, queryInput.getIncludeLinkHeader(), queryInput.getDefaultCrs(), false);
     }
 
     private Response getItemsResponse(OgcApi api, ApiRequestContext requestContext, String collectionId,
@@ -163,7 +166,7 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
                                       FeatureFormatExtension outputFormat,
                                       boolean onlyHitsIfMore, Optional<Integer> defaultPageSize,
                                       boolean showsFeatureSelfLink, boolean includeLinkHeader,
-                                      EpsgCrs defaultCrs) {
+                                      EpsgCrs defaultCrs, boolean keysetPaging) {
 
         ensureCollectionIdExists(api.getData(), collectionId);
         ensureFeatureProviderSupportsQueries(featureProvider);
@@ -176,8 +179,7 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
         if (featureProvider.supportsCrs()) {
             EpsgCrs sourceCrs = featureProvider.crs()
                                                .getNativeCrs();
-            //TODO: warmup on service start
-            crsTransformer = crsTransformerFactory.getTransformer(sourceCrs, targetCrs);
+            crsTransformer = crsTransformerCache.getTransformer(sourceCrs, targetCrs);
             swapCoordinates = crsTransformer.isPresent() && crsTransformer.get()
                                                                           .needsCoordinateSwap();
         }
@@ -190,11 +192,13 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
                         new FeaturesLinksGenerator().generateLinks(requestContext.getUriCustomizer(), query.getOffset(), query.getLimit(), defaultPageSize.orElse(0), requestContext.getMediaType(), alternateMediaTypes, i18n, requestContext.getLanguage()) :
                         new FeatureLinksGenerator().generateLinks(requestContext.getUriCustomizer(), requestContext.getMediaType(), alternateMediaTypes, outputFormat.getCollectionMediaType(), canonicalUri, i18n, requestContext.getLanguage());
 
-        String featureTypeId = api.getData().getCollections()
-                                  .get(collectionId)
-                                  .getExtension(FeaturesCoreConfiguration.class)
-                                  .map(cfg -> cfg.getFeatureType().orElse(collectionId))
-                                  .orElse(collectionId);
+        Optional<FeaturesCoreConfiguration> coreConfiguration = api.getData()
+                                                                   .getCollections()
+                                                                   .get(collectionId)
+                                                                   .getExtension(FeaturesCoreConfiguration.class);
+
+        String featureTypeId = coreConfiguration.map(cfg -> cfg.getFeatureType().orElse(collectionId))
+                                                .orElse(collectionId);
 
         ImmutableFeatureTransformationContextGeneric.Builder transformationContext = new ImmutableFeatureTransformationContextGeneric.Builder()
                 .apiData(api.getData())
@@ -217,6 +221,7 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
                 .geometryPrecision(query.getGeometryPrecision())
                 .shouldSwapCoordinates(swapCoordinates)
                 .isHitsOnlyIfMore(onlyHitsIfMore)
+                .isKeysetPaging(keysetPaging)
                 .showsFeatureSelfLink(showsFeatureSelfLink);
 
         StreamingOutput streamingOutput;
@@ -234,9 +239,14 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
             FeatureStream2 featureStream = featureProvider.queries()
                                                           .getFeatureStream2(query);
 
-            streamingOutput = stream(featureStream, !isCollection, outputStream -> outputFormat.getFeatureTransformer(transformationContext.outputStream(outputStream)
-                                                                                                                                           .build(), requestContext.getLanguage())
-                                                                                               .get());
+            Function<OutputStream, FeatureTransformer2> featureTransformerFactory = outputStream -> {
+                FeatureTransformer2 featureTransformer = outputFormat.getFeatureTransformer(transformationContext.outputStream(outputStream)
+                                                                                                                .build(), requestContext.getLanguage())
+                                                                     .get();
+                return isCollection ? applyNumberMatchedCache(featureTransformer, api.getData(), collectionId, coreConfiguration, requestContext) : featureTransformer;
+            };
+
+            streamingOutput = stream(featureStream, !isCollection, featureTransformerFactory);
         } else {
             throw new NotAcceptableException(MessageFormat.format("The requested media type {0} cannot be generated, because it does not support streaming.", requestContext.getMediaType().type()));
         }
@@ -252,6 +262,26 @@ public class FeaturesCoreQueriesHandlerImpl implements FeaturesCoreQueriesHandle
                 .build();
     }
 
+    private FeatureTransformer2 applyNumberMatchedCache(FeatureTransformer2 featureTransformer, OgcApiDataV2 apiData,
+                                                        String collectionId,
+                                                        Optional<FeaturesCoreConfiguration> coreConfiguration,
+                                                        ApiRequestContext requestContext) {
+        int cacheTtl = coreConfiguration.map(FeaturesCoreConfiguration::getNumberMatchedCacheTtl)
+                                        .orElse(FeaturesCoreConfiguration.NUMBER_MATCHED_CACHE_TTL);
+        boolean isCursorPage = requestContext.getParameters()
+                                             .containsKey(FeaturesCursor.PARAMETER_CURSOR);
+
+        // nothing to adjust, the value of the provider is passed through
+        if (!isCursorPage && cacheTtl <= 0) {
+            return featureTransformer;
+        }
+
+        String cacheKey = NumberMatchedCache.getKey(collectionId, requestContext.getUriCustomizer()
+                                                                                .getQueryParams());
+
+        return new FeatureTransformerNumberMatched(featureTransformer, numberMatchedCache, apiData, cacheKey, cacheTtl, isCursorPage);
+    }
+
     private StreamingOutput stream(FeatureStream2 featureTransformStream, boolean failIfEmpty,
                                    final Function<OutputStream, FeatureTransformer2> featureTransformer) {
         Timer.Context timer = metricRegistry.timer(name(FeaturesCoreQueriesHandlerImpl.class, "stream"))
@@ -19,6 +19,7 @@ import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreProviders;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesQuery;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.xtraplatform.cql.domain.And;
 import de.ii.xtraplatform.cql.domain.Cql;
 import de.ii.xtraplatform.cql.domain.CqlFilter;
@@ -26,6 +27,7 @@ import de.ii.xtraplatform.cql.domain.CqlPredicate;
 import de.ii.xtraplatform.cql.domain.Eq;
 import de.ii.xtraplatform.cql.domain.Function;
 import de.ii.xtraplatform.cql.domain.Geometry.Envelope;
+import de.ii.xtraplatform.cql.domain.Gt;
 import de.ii.xtraplatform.cql.domain.Intersects;
 import de.ii.xtraplatform.cql.domain.Like;
 import de.ii.xtraplatform.cql.domain.Property;
@@ -37,7 +39,9 @@ import de.ii.xtraplatform.cql.domain.TemporalLiteral;
 import de.ii.xtraplatform.crs.domain.CrsTransformerFactory;
 import de.ii.xtraplatform.crs.domain.EpsgCrs;
 import de.ii.xtraplatform.crs.domain.OgcCrs;
+import de.ii.xtraplatform.features.domain.FeatureProvider2;
 import de.ii.xtraplatform.features.domain.FeatureQuery;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
 import de.ii.xtraplatform.features.domain.ImmutableFeatureQuery;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
@@ -49,6 +53,7 @@ import org.threeten.extra.Interval;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -73,6 +78,8 @@ public class FeaturesQueryImpl implements FeaturesQuery {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FeaturesQueryImpl.class);
 
+    private static final String ID_PLACEHOLDER = "_ID_";
+
     private final ExtensionRegistry extensionRegistry;
     private final CrsTransformerFactory crsTransformerFactory;
     private final FeaturesCoreProviders providers;
@@ -107,7 +114,7 @@ public class FeaturesQueryImpl implements FeaturesQuery {
             parameters = parameter.transformParameters(collectionData, parameters, apiData);
         }
 
-        final CqlFilter filter = CqlFilter.of(Eq.of("_ID_", ScalarLiteral.of(urldecode(featureId))));
+        final CqlFilter filter = CqlFilter.of(Eq.of(ID_PLACEHOLDER, ScalarLiteral.of(urldecode(featureId))));
 
         final String collectionId = collectionData.getId();
         final String featureTypeId = apiData.getCollections()
@@ -165,6 +172,11 @@ public class FeaturesQueryImpl implements FeaturesQuery {
         // TODO detailed checks should no longer be necessary
         final int limit = parseLimit(minimumPageSize, defaultPageSize, maxPageSize, parameters.get("limit"));
         final int offset = parseOffset(parameters.get("offset"));
+        final Optional<String> cursor = parseCursor(parameters.get(FeaturesCursor.PARAMETER_CURSOR));
+        final Optional<String> keysetPagingIdProperty = hitsOnly ? Optional.empty() : getKeysetPagingIdProperty(apiData, collectionData);
+        if (cursor.isPresent() && !keysetPagingIdProperty.isPresent()) {
+            throw new IllegalArgumentException("The query parameter '" + FeaturesCursor.PARAMETER_CURSOR + "' is not supported for this collection.");
+        }
 
         final String collectionId = collectionData.getId();
         String featureTypeId = apiData.getCollections()
@@ -184,12 +196,17 @@ public class FeaturesQueryImpl implements FeaturesQuery {
             parameter.transformQuery(collectionData, queryBuilder, parameters, apiData);
         }
 
-        if (!filters.isEmpty()) {
+        if (!filters.isEmpty() || cursor.isPresent()) {
             Cql.Format cqlFormat = Cql.Format.TEXT;
             if (parameters.containsKey("filter-lang") && "cql-json".equals(parameters.get("filter-lang"))) {
                 cqlFormat = Cql.Format.JSON;
             }
-            Optional<CqlFilter> cql = getCQLFromFilters(filters, filterableFields, filterParameters, cqlFormat);
+            List<CqlPredicate> predicates = new ArrayList<>(getPredicatesFromFilters(filters, filterableFields, filterParameters, cqlFormat));
+
+            // keyset paging, the provider sorts the features by id, resume after the last feature of the previous page
+            cursor.ifPresent(lastFeatureId -> predicates.add(CqlPredicate.of(Gt.of(ID_PLACEHOLDER, ScalarLiteral.of(lastFeatureId)))));
+
+            Optional<CqlFilter> cql = toFilter(predicates);
 
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Filter: {}", cql);
@@ -234,11 +251,54 @@ public class FeaturesQueryImpl implements FeaturesQuery {
         return filters;
     }
 
+    @Override
+    public boolean supportsKeysetPaging(OgcApiDataV2 apiData, FeatureTypeConfigurationOgcApi collectionData) {
+        return getKeysetPagingIdProperty(apiData, collectionData).isPresent();
+    }
+
+    private Optional<String> getKeysetPagingIdProperty(OgcApiDataV2 apiData,
+                                                       FeatureTypeConfigurationOgcApi collectionData) {
+        FeatureProvider2 featureProvider = providers.getFeatureProvider(apiData, collectionData);
+
+        // only the SQL provider sorts the features, by the sort key of the main table, which is the id
+        if (!featureProvider.getData()
+                            .getFeatureProviderType()
+                            .equals("SQL")) {
+            return Optional.empty();
+        }
+
+        final String collectionId = collectionData.getId();
+        final String featureTypeId = collectionData.getExtension(FeaturesCoreConfiguration.class)
+                                                   .map(cfg -> cfg.getFeatureType().orElse(collectionId))
+                                                   .orElse(collectionId);
+
+        // the features are sorted by id, a cursor requires an id property
+        return Optional.ofNullable(featureProvider.getData()
+                                                  .getTypes()
+                                                  .get(featureTypeId))
+                       .flatMap(featureType -> featureType.getProperties()
+                                                          .stream()
+                                                          .filter(FeatureSchema::isId)
+                                                          .map(FeatureSchema::getName)
+                                                          .findFirst());
+    }
+
     private Optional<CqlFilter> getCQLFromFilters(Map<String, String> filters,
                                                   Map<String, String> filterableFields, Set<String> filterParameters,
                                                   Cql.Format cqlFormat) {
 
-        List<CqlPredicate> predicates = filters.entrySet()
+        return toFilter(getPredicatesFromFilters(filters, filterableFields, filterParameters, cqlFormat));
+    }
+
+    private Optional<CqlFilter> toFilter(List<CqlPredicate> predicates) {
+        return predicates.isEmpty() ? Optional.empty() : Optional.of(predicates.size() == 1 ? CqlFilter.of(predicates.get(0)) : CqlFilter.of(And.of(predicates)));
+    }
+
+    private List<CqlPredicate> getPredicatesFromFilters(Map<String, String> filters,
+                                                        Map<String, String> filterableFields, Set<String> filterParameters,
+                                                        Cql.Format cqlFormat) {
+
+        return filters.entrySet()
                                                .stream()
                                                .map(filter -> {
                                                    if (filter.getKey()
@@ -274,8 +334,6 @@ public class FeaturesQueryImpl implements FeaturesQuery {
                                                })
                                                .filter(Objects::nonNull)
                                                .collect(Collectors.toList());
-
-        return predicates.isEmpty() ? Optional.empty() : Optional.of(predicates.size() == 1 ? CqlFilter.of(predicates.get(0)) : CqlFilter.of(And.of(predicates)));
     }
 
     private CqlPredicate bboxToCql(String geometryField, String bboxValue) {
@@ -380,6 +438,13 @@ public class FeaturesQueryImpl implements FeaturesQuery {
         return limit;
     }
 
+    private Optional<String> parseCursor(String paramCursor) {
+        if (paramCursor != null && !paramCursor.isEmpty()) {
+            return Optional.of(FeaturesCursor.decode(paramCursor));
+        }
+        return Optional.empty();
+    }
+
     private int parseOffset(String paramOffset) {
         int offset = 0;
         if (paramOffset != null && !paramOffset.isEmpty()) {
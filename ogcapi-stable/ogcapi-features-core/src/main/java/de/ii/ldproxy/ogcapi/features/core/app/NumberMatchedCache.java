@@ -0,0 +1,93 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.app;
+
+import com.google.common.collect.ImmutableSet;
+import de.ii.ldproxy.ogcapi.domain.ApiRevisionCache;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCursor;
+import org.apache.http.NameValuePair;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the number of matched features per collection and filter of the current revision of an API.
+ * The filter is normalized from the query parameters of the request, parameters that only select the
+ * page or the representation are ignored, so all pages of a query share the same entry.
+ */
+class NumberMatchedCache {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    // these parameters do not change the set of matched features
+    private static final Set<String> IGNORED_PARAMETERS = ImmutableSet.of("offset", "limit", FeaturesCursor.PARAMETER_CURSOR, "f", "lang", "pretty");
+
+    // the entries are replaced when they expire, so the cache holds a mutable reference per key
+    private final ApiRevisionCache<String, AtomicReference<Entry>> entries;
+
+    NumberMatchedCache() {
+        this.entries = new ApiRevisionCache<>(MAX_ENTRIES);
+    }
+
+    static String getKey(String collectionId, List<NameValuePair> queryParameters) {
+        String filter = queryParameters.stream()
+                                       .filter(parameter -> !IGNORED_PARAMETERS.contains(parameter.getName()))
+                                       .sorted(Comparator.comparing(NameValuePair::getName)
+                                                         .thenComparing(parameter -> Objects.toString(parameter.getValue(), "")))
+                                       .map(parameter -> parameter.getName() + "=" + Objects.toString(parameter.getValue(), ""))
+                                       .collect(Collectors.joining("&"));
+
+        return String.format("%s?%s", collectionId, filter);
+    }
+
+    OptionalLong get(OgcApiDataV2 apiData, String key) {
+        AtomicReference<Entry> reference = getReference(apiData, key);
+        Entry entry = reference.get();
+        if (Objects.isNull(entry)) {
+            return OptionalLong.empty();
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            reference.compareAndSet(entry, null);
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(entry.numberMatched);
+    }
+
+    void put(OgcApiDataV2 apiData, String key, long numberMatched, int ttlSeconds) {
+        if (ttlSeconds <= 0) {
+            return;
+        }
+
+        getReference(apiData, key).set(new Entry(numberMatched, System.currentTimeMillis() + ttlSeconds * 1000L));
+    }
+
+    private AtomicReference<Entry> getReference(OgcApiDataV2 apiData, String key) {
+        return entries.computeIfAbsent(apiData, key, ignore -> new AtomicReference<>());
+    }
+
+    private static class Entry {
+        private final long numberMatched;
+        private final long expires;
+
+        private Entry(long numberMatched, long expires) {
+            this.numberMatched = numberMatched;
+            this.expires = expires;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expires;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.app;
+
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.HttpMethods;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCursor;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+@Component
+@Provides
+@Instantiate
+public class QueryParameterCursorFeatures implements OgcApiQueryParameter {
+
+    @Override
+    public String getId() {
+        return "cursorFeatures";
+    }
+
+    @Override
+    public String getName() {
+        return FeaturesCursor.PARAMETER_CURSOR;
+    }
+
+    @Override
+    public String getDescription() {
+        return "The optional cursor parameter identifies the position of the first feature in the response in the overall " +
+                "result set. The value is opaque and is provided in the 'next' link of the previous page.";
+    }
+
+    @Override
+    public boolean isApplicable(OgcApiDataV2 apiData, String definitionPath, HttpMethods method) {
+        return isEnabledForApi(apiData) &&
+                method== HttpMethods.GET &&
+                definitionPath.equals("/collections/{collectionId}/items");
+    }
+
+    private Schema schema = null;
+
+    @Override
+    public Schema getSchema(OgcApiDataV2 apiData) {
+        if (schema==null) {
+            schema = new StringSchema();
+        }
+        return schema;
+    }
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return FeaturesCoreConfiguration.class;
+    }
+}
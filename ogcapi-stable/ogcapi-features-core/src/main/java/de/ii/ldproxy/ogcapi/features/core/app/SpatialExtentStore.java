@@ -0,0 +1,153 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.app;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import de.ii.xtraplatform.crs.domain.BoundingBox;
+import de.ii.xtraplatform.crs.domain.OgcCrs;
+import de.ii.xtraplatform.features.domain.FeatureProvider2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Persists the computed spatial extents of the collections of an API in the cache directory, so that they
+ * do not have to be computed again after a restart. Each extent is stored with a fingerprint of the
+ * configuration of the feature provider and the time of the computation. It is only reused, if the provider
+ * has not been changed since and if it is not older than the time to live; changes of the data are not
+ * detected otherwise. Deleting the file of an API forces a new computation.
+ */
+class SpatialExtentStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpatialExtentStore.class);
+
+    private static final String EXTENTS_DIR_NAME = "extents";
+
+    private final Path extentsStore;
+    private final ObjectMapper objectMapper;
+    private final Duration timeToLive;
+
+    SpatialExtentStore(Path cacheDirectory, ObjectMapper objectMapper, Duration timeToLive) {
+        this.extentsStore = cacheDirectory.resolve(EXTENTS_DIR_NAME);
+        this.objectMapper = objectMapper;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * @param featureProvider the feature provider
+     * @return the fingerprint of the current configuration of the provider
+     */
+    String getFingerprint(FeatureProvider2 featureProvider) {
+        try {
+            return Hashing.murmur3_128()
+                          .hashBytes(objectMapper.writeValueAsBytes(featureProvider.getData()))
+                          .toString();
+        } catch (JsonProcessingException e) {
+            // the extents of this provider are not persisted
+            return "";
+        }
+    }
+
+    /**
+     * @param extents the persisted extents of the API
+     * @param collectionId the collection
+     * @param fingerprint the fingerprint of the current configuration of the provider
+     * @return the persisted extent, if the provider is unchanged and the extent has not expired
+     */
+    Optional<BoundingBox> get(Map<String, StoredExtent> extents, String collectionId, String fingerprint) {
+        StoredExtent extent = extents.get(collectionId);
+        if (Objects.isNull(extent) || fingerprint.isEmpty() || !extent.fingerprint.equals(fingerprint) || extent.bbox.length != 4) {
+            return Optional.empty();
+        }
+        // entries without a time of computation are treated as expired
+        if (System.currentTimeMillis() - extent.computedAt > timeToLive.toMillis()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new BoundingBox(extent.bbox[0], extent.bbox[1], extent.bbox[2], extent.bbox[3], OgcCrs.CRS84));
+    }
+
+    /**
+     * @param apiId the API
+     * @return the persisted extents of the collections of the API
+     */
+    Map<String, StoredExtent> read(String apiId) {
+        Path file = extentsStore.resolve(apiId + ".json");
+        if (!Files.isRegularFile(file)) {
+            return ImmutableMap.of();
+        }
+
+        try {
+            return objectMapper.readValue(file.toFile(), new TypeReference<Map<String, StoredExtent>>() {});
+        } catch (IOException e) {
+            LOGGER.debug("Persisted extents of API '{}' could not be read: {}", apiId, e.getMessage());
+            return ImmutableMap.of();
+        }
+    }
+
+    /**
+     * Adds the extents to the persisted extents of the API. Only 2D extents in CRS84 are persisted.
+     *
+     * @param apiId the API
+     * @param extents the computed extents by collection
+     * @param fingerprints the fingerprints of the providers by collection
+     */
+    synchronized void write(String apiId, Map<String, BoundingBox> extents, Map<String, String> fingerprints) {
+        Map<String, StoredExtent> stored = new HashMap<>(read(apiId));
+        long computedAt = System.currentTimeMillis();
+        extents.forEach((collectionId, bbox) -> {
+            String fingerprint = fingerprints.getOrDefault(collectionId, "");
+            if (!fingerprint.isEmpty() && bbox.getEpsgCrs()
+                                              .equals(OgcCrs.CRS84)) {
+                stored.put(collectionId, new StoredExtent(fingerprint, computedAt, new double[]{bbox.getXmin(), bbox.getYmin(), bbox.getXmax(), bbox.getYmax()}));
+            }
+        });
+
+        try {
+            Files.createDirectories(extentsStore);
+            Path file = extentsStore.resolve(apiId + ".json");
+            Path tmpFile = extentsStore.resolve(apiId + ".json.tmp");
+            objectMapper.writeValue(tmpFile.toFile(), stored);
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Computed extents of API '{}' could not be persisted: {}", apiId, e.getMessage());
+        }
+    }
+
+    static class StoredExtent {
+        @JsonProperty
+        final String fingerprint;
+        @JsonProperty
+        final long computedAt;
+        @JsonProperty
+        final double[] bbox;
+
+        @JsonCreator
+        StoredExtent(@JsonProperty("fingerprint") String fingerprint, @JsonProperty("computedAt") long computedAt,
+                     @JsonProperty("bbox") double[] bbox) {
+            this.fingerprint = fingerprint;
+            this.computedAt = computedAt;
+            this.bbox = bbox;
+        }
+    }
+}
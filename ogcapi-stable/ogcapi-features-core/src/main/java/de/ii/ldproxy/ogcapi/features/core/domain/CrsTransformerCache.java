@@ -0,0 +1,37 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.domain;
+
+import de.ii.xtraplatform.crs.domain.CrsTransformer;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Shares the coordinate transformers between all requests. A transformer is created once for each pair of
+ * source and target CRS, the axis order and the dimension are part of the CRS.
+ */
+public interface CrsTransformerCache {
+
+    /**
+     * @param sourceCrs the CRS of the coordinates
+     * @param targetCrs the requested CRS
+     * @return the shared transformer or empty, if no transformation is necessary
+     */
+    Optional<CrsTransformer> getTransformer(EpsgCrs sourceCrs, EpsgCrs targetCrs);
+
+    /**
+     * Creates the transformers in the background, so that the first request for a CRS does not have to
+     * initialize the CRS database.
+     *
+     * @param sourceCrs the CRS of the coordinates
+     * @param targetCrs the CRS that may be requested
+     */
+    void warmup(EpsgCrs sourceCrs, Collection<EpsgCrs> targetCrs);
+}
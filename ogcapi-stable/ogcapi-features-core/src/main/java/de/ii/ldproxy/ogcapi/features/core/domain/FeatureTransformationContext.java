@@ -76,6 +76,15 @@ public interface FeatureTransformationContext {
         return false;
     }
 
+    /**
+     * @return {@code true}, if the next page can be referenced with a cursor on the id of the last feature
+     * instead of an offset, see {@link FeaturesCursor}
+     */
+    @Value.Default
+    default boolean isKeysetPaging() {
+        return false;
+    }
+
     @Value.Default
     default List<String> getFields() {
         return ImmutableList.of("*");
@@ -37,6 +37,7 @@ public interface FeaturesCoreConfiguration extends ExtensionConfiguration, Featu
     int MINIMUM_PAGE_SIZE = 1;
     int DEFAULT_PAGE_SIZE = 10;
     int MAX_PAGE_SIZE = 10000;
+    int NUMBER_MATCHED_CACHE_TTL = 300;
     String PARAMETER_BBOX = "bbox";
     String PARAMETER_DATETIME = "datetime";
     String DATETIME_INTERVAL_SEPARATOR = "/";
@@ -66,6 +67,9 @@ public interface FeaturesCoreConfiguration extends ExtensionConfiguration, Featu
     @Nullable
     Boolean getShowsFeatureSelfLink();
 
+    @Nullable
+    Integer getNumberMatchedCacheTtl();
+
     Optional<FeaturesCollectionQueryables> getQueryables();
 
     @Override
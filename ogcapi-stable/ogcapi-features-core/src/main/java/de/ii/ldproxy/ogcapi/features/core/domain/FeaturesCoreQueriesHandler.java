@@ -41,6 +41,11 @@ public interface FeaturesCoreQueriesHandler extends QueriesHandler<FeaturesCoreQ
         boolean getShowsFeatureSelfLink();
 
         boolean getIncludeLinkHeader();
+
+        @Value.Default
+        default boolean getKeysetPaging() {
+            return false;
+        }
     }
 
     @Value.Immutable
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.domain;
+
+import de.ii.ldproxy.ogcapi.domain.URICustomizer;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset paging. The cursor encodes the id of the last feature of a page, the next
+ * page starts with the features that have a greater id, so the feature provider does not have to
+ * skip the features of all previous pages.
+ */
+public class FeaturesCursor {
+
+    public static final String PARAMETER_CURSOR = "cursor";
+
+    private static final String VERSION_PREFIX = "1:";
+
+    public static String encode(String lastFeatureId) {
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString((VERSION_PREFIX + lastFeatureId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor the value of the query parameter
+     * @return the id of the last feature of the previous page
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static String decode(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder()
+                                       .decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for query parameter '" + PARAMETER_CURSOR + "'. The value must be taken from a 'next' link. Found: " + cursor);
+        }
+        if (!decoded.startsWith(VERSION_PREFIX) || decoded.length() == VERSION_PREFIX.length()) {
+            throw new IllegalArgumentException("Invalid value for query parameter '" + PARAMETER_CURSOR + "'. The value must be taken from a 'next' link. Found: " + cursor);
+        }
+        return decoded.substring(VERSION_PREFIX.length());
+    }
+
+    /**
+     * @param nextUri the URI of the next page based on limit and offset
+     * @param lastFeatureId the id of the last feature of the current page
+     * @return the URI of the next page based on a cursor
+     */
+    public static String getNextUri(String nextUri, String lastFeatureId) {
+        try {
+            return new URICustomizer(nextUri).removeParameters("offset", PARAMETER_CURSOR)
+                                             .setParameter(PARAMETER_CURSOR, encode(lastFeatureId))
+                                             .toString();
+        } catch (URISyntaxException e) {
+            // keep the offset based link
+            return nextUri;
+        }
+    }
+}
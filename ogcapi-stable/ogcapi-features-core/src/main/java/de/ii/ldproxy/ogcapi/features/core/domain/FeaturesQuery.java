@@ -31,6 +31,11 @@ public interface FeaturesQuery {
                                        int defaultPageSize, int maxPageSize, Map<String, String> parameters,
                                        List<OgcApiQueryParameter> allowedParameters);
 
+    /**
+     * @return {@code true}, if the features of the collection can be paged with a cursor on the feature id
+     */
+    boolean supportsKeysetPaging(OgcApiDataV2 apiData, FeatureTypeConfigurationOgcApi collectionData);
+
     Optional<CqlFilter> getFilterFromQuery(Map<String, String> query, Map<String, String> filterableFields,
                                            Set<String> filterParameters,
                                            Cql.Format cqlFormat);
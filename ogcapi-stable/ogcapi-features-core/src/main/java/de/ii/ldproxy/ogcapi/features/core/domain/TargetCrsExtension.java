@@ -0,0 +1,28 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.core.domain;
+
+import de.ii.ldproxy.ogcapi.domain.ApiExtension;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.xtraplatform.crs.domain.EpsgCrs;
+
+import java.util.List;
+
+/**
+ * Building blocks that transform the features of a collection to other coordinate reference systems than the
+ * default CRS announce them, so that the transformers are created when the API is started.
+ */
+public interface TargetCrsExtension extends ApiExtension {
+
+    /**
+     * @param apiData the API
+     * @param collectionId the collection
+     * @return the CRS the features of the collection may be transformed to
+     */
+    List<EpsgCrs> getTargetCrs(OgcApiDataV2 apiData, String collectionId);
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.geojson.app;
+
+import com.google.common.collect.ImmutableSortedSet;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaTypeContent;
+import de.ii.ldproxy.ogcapi.domain.ExtensionConfiguration;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaTypeContent;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureFormatExtension;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureTransformationContext;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.FeatureTransformerGeoJson;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.GeoJsonConfiguration;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.GeoJsonWriter;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.ImmutableFeatureTransformationContextGeoJson;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.SchemaGeneratorFeature;
+import de.ii.xtraplatform.features.domain.FeatureTransformer2;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Base class for feature encodings that write one GeoJSON feature per line without a FeatureCollection
+ * envelope. The features are written by the same GeoJSON writers as the regular GeoJSON encoding.
+ */
+public abstract class AbstractFeaturesFormatGeoJsonSequence implements FeatureFormatExtension {
+
+    private final SchemaGeneratorFeature schemaGeneratorFeature;
+    private final GeoJsonWriterRegistry geoJsonWriterRegistry;
+
+    protected AbstractFeaturesFormatGeoJsonSequence(SchemaGeneratorFeature schemaGeneratorFeature,
+                                                    GeoJsonWriterRegistry geoJsonWriterRegistry) {
+        this.schemaGeneratorFeature = schemaGeneratorFeature;
+        this.geoJsonWriterRegistry = geoJsonWriterRegistry;
+    }
+
+    /**
+     * @return {@code true}, if each feature is prefixed with a record separator
+     */
+    protected abstract boolean useRecordSeparator();
+
+    @Override
+    public Class<? extends ExtensionConfiguration> getBuildingBlockConfigurationType() {
+        return GeoJsonConfiguration.class;
+    }
+
+    @Override
+    public boolean isEnabledForApi(OgcApiDataV2 apiData) {
+        return apiData.getExtension(GeoJsonConfiguration.class)
+                      .filter(GeoJsonConfiguration::isEnabled)
+                      .map(config -> Objects.equals(config.getFeatureSequences(), true))
+                      .orElse(false);
+    }
+
+    @Override
+    public boolean isEnabledForApi(OgcApiDataV2 apiData, String collectionId) {
+        return apiData.getCollections()
+                      .get(collectionId)
+                      .getExtension(GeoJsonConfiguration.class)
+                      .filter(GeoJsonConfiguration::isEnabled)
+                      .map(config -> Objects.equals(config.getFeatureSequences(), true))
+                      .orElse(false);
+    }
+
+    @Override
+    public boolean isEnabledByDefault() {
+        return false;
+    }
+
+    // sequences are only supported for the features resource, a single feature is always a GeoJSON object
+    @Override
+    public String getPathPattern() {
+        return "^\\/?collections\\/[^\\/]+\\/items\\/?$";
+    }
+
+    @Override
+    public ApiMediaTypeContent getContent(OgcApiDataV2 apiData, String path) {
+        if (!path.matches("/collections/[^//]+/items/?")) {
+            return null;
+        }
+
+        String collectionId = path.split("/", 4)[2];
+
+        // the schema describes a single record of the sequence
+        return new ImmutableApiMediaTypeContent.Builder()
+                .schema(schemaGeneratorFeature.getSchemaOpenApi(apiData, collectionId))
+                .schemaRef(schemaGeneratorFeature.getSchemaReferenceOpenApi(collectionId))
+                .ogcApiMediaType(getMediaType())
+                .build();
+    }
+
+    @Override
+    public ApiMediaType getCollectionMediaType() {
+        return FeaturesFormatGeoJson.COLLECTION_MEDIA_TYPE;
+    }
+
+    @Override
+    public boolean canTransformFeatures() {
+        return true;
+    }
+
+    @Override
+    public Optional<FeatureTransformer2> getFeatureTransformer(FeatureTransformationContext transformationContext,
+                                                               Optional<Locale> language) {
+
+        ImmutableSortedSet<GeoJsonWriter> geoJsonWriters = geoJsonWriterRegistry.getGeoJsonWriters()
+                                                                                .stream()
+                                                                                .map(GeoJsonWriter::create)
+                                                                                .collect(ImmutableSortedSet.toImmutableSortedSet(Comparator.comparingInt(GeoJsonWriter::getSortPriority)));
+
+        return Optional.of(new FeatureTransformerGeoJson(ImmutableFeatureTransformationContextGeoJson.builder()
+                                                                                                     .from(transformationContext)
+                                                                                                     .geoJsonConfig(transformationContext.getApiData()
+                                                                                                                                         .getCollections()
+                                                                                                                                         .get(transformationContext.getCollectionId())
+                                                                                                                                         .getExtension(GeoJsonConfiguration.class)
+                                                                                                                                         .get())
+                                                                                                     .isFeatureSequence(true)
+                                                                                                     .useRecordSeparator(useRecordSeparator())
+                                                                                                     // one feature per line
+                                                                                                     .prettify(false)
+                                                                                                     .build(), geoJsonWriters));
+    }
+}
@@ -35,6 +35,7 @@ public class CapabilityGeoJson implements ApiBuildingBlock {
                                                           .multiplicityStrategy(FeatureTransformerGeoJson.MULTIPLICITY.ARRAY)
                                                           .useFormattedJsonOutput(false)
                                                           .separator(".")
+                                                          .featureSequences(false)
                                                           .build();
     }
 
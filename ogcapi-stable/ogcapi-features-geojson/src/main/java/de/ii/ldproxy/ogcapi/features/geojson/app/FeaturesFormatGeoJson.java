@@ -123,6 +123,13 @@ public class FeaturesFormatGeoJson implements ConformanceClass, FeatureFormatExt
                     .ogcApiMediaType(MEDIA_TYPE)
                     .build();
         }
+        if (path.matches("/collections/[^//]+/bulk/?") && method== HttpMethods.POST) {
+            return new ImmutableApiMediaTypeContent.Builder()
+                    .schema(schemaGeneratorFeatureCollection.getSchemaOpenApi(apiData, collectionId))
+                    .schemaRef(schemaGeneratorFeatureCollection.getSchemaReferenceOpenApi(collectionId))
+                    .ogcApiMediaType(MEDIA_TYPE)
+                    .build();
+        }
 
         return null;
     }
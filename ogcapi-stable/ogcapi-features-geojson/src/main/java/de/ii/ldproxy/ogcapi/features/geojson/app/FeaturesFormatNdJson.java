@@ -0,0 +1,52 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.geojson.app;
+
+import de.ii.ldproxy.ogcapi.domain.ApiExtension;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.FormatExtension;
+import de.ii.ldproxy.ogcapi.domain.ImmutableApiMediaType;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeatureFormatExtension;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.SchemaGeneratorFeature;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Features as newline-delimited JSON, each feature is terminated with a line feed.
+ */
+@Component
+@Provides(specifications = {FeatureFormatExtension.class, FormatExtension.class, ApiExtension.class})
+@Instantiate
+public class FeaturesFormatNdJson extends AbstractFeaturesFormatGeoJsonSequence {
+
+    public static final ApiMediaType MEDIA_TYPE = new ImmutableApiMediaType.Builder()
+            .type(new MediaType("application", "x-ndjson"))
+            .label("NDJSON")
+            .parameter("ndjson")
+            .qs(500)
+            .build();
+
+    public FeaturesFormatNdJson(@Requires SchemaGeneratorFeature schemaGeneratorFeature,
+                                @Requires GeoJsonWriterRegistry geoJsonWriterRegistry) {
+        super(schemaGeneratorFeature, geoJsonWriterRegistry);
+    }
+
+    @Override
+    public ApiMediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    protected boolean useRecordSeparator() {
+        return false;
+    }
+}
@@ -42,7 +42,7 @@ public class GeoJsonWriterCrs implements GeoJsonWriter {
     @Override
     public void onStart(FeatureTransformationContextGeoJson transformationContext,
                         Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
-        if (transformationContext.isFeatureCollection()) {
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
             writeCrs(transformationContext.getJson(), transformationContext.getCrsTransformer(), transformationContext.getDefaultCrs());
         }
 
@@ -8,7 +8,9 @@
 package de.ii.ldproxy.ogcapi.features.geojson.app;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import de.ii.ldproxy.ogcapi.domain.ImmutableLink;
 import de.ii.ldproxy.ogcapi.domain.Link;
+import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCursor;
 import de.ii.ldproxy.ogcapi.features.geojson.domain.FeatureTransformationContextGeoJson;
 import de.ii.ldproxy.ogcapi.features.geojson.domain.GeoJsonWriter;
 import org.apache.felix.ipojo.annotations.Component;
@@ -20,8 +22,10 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * @author zahnen
@@ -37,6 +41,7 @@ public class GeoJsonWriterMetadata implements GeoJsonWriter {
     }
 
     private boolean linksWritten;
+    private boolean isLastPage;
 
     @Override
     public int getSortPriority() {
@@ -45,13 +50,14 @@ public class GeoJsonWriterMetadata implements GeoJsonWriter {
 
     private void reset() {
         this.linksWritten = false;
+        this.isLastPage = false;
     }
 
     @Override
     public void onStart(FeatureTransformationContextGeoJson transformationContext, Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
         reset();
 
-        if (transformationContext.isFeatureCollection()) {
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
             // extendable
             // TODO move isLastPage up to Wfs3Service
             // next chain for links? would allow to defer output until onEnd
@@ -59,9 +65,12 @@ public class GeoJsonWriterMetadata implements GeoJsonWriter {
                                                                .getNumberReturned();
             OptionalLong numberMatched = transformationContext.getState()
                                                               .getNumberMatched();
-            boolean isLastPage = numberReturned.orElse(0) < transformationContext.getLimit();
+            this.isLastPage = numberReturned.orElse(0) < transformationContext.getLimit();
 
-            this.writeLinksIfAny(transformationContext.getJson(), transformationContext.getLinks(), isLastPage);
+            // with keyset paging, the next link depends on the last feature, the links are written at the end
+            if (!transformationContext.isKeysetPaging()) {
+                this.writeLinksIfAny(transformationContext.getJson(), transformationContext.getLinks(), isLastPage);
+            }
 
             if (numberReturned.isPresent()) {
                 transformationContext.getJson()
@@ -80,6 +89,26 @@ public class GeoJsonWriterMetadata implements GeoJsonWriter {
         next.accept(transformationContext);
     }
 
+    @Override
+    public void onEnd(FeatureTransformationContextGeoJson transformationContext, Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence() && transformationContext.isKeysetPaging()) {
+            Optional<String> lastFeatureId = transformationContext.getState()
+                                                                  .getLastFeatureId();
+            List<Link> links = transformationContext.getLinks()
+                                                    .stream()
+                                                    .map(link -> Objects.equals(link.getRel(), "next") && lastFeatureId.isPresent() ?
+                                                            new ImmutableLink.Builder().from(link)
+                                                                                       .href(FeaturesCursor.getNextUri(link.getHref(), lastFeatureId.get()))
+                                                                                       .build() :
+                                                            link)
+                                                    .collect(Collectors.toList());
+
+            this.writeLinksIfAny(transformationContext.getJson(), links, isLastPage);
+        }
+
+        next.accept(transformationContext);
+    }
+
     @Override
     public void onFeatureStart(FeatureTransformationContextGeoJson transformationContext, Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
         if (!transformationContext.isFeatureCollection()) {
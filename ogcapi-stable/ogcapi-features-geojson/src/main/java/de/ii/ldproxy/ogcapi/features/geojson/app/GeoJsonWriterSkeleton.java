@@ -24,6 +24,11 @@ import java.util.function.Consumer;
 @Instantiate
 public class GeoJsonWriterSkeleton implements GeoJsonWriter {
 
+    private static final char RECORD_SEPARATOR = '\u001E';
+    private static final int SEQUENCE_FLUSH_INTERVAL = 100;
+
+    private int featureCount;
+
     @Override
     public GeoJsonWriterSkeleton create() {
         return new GeoJsonWriterSkeleton();
@@ -36,7 +41,8 @@ public class GeoJsonWriterSkeleton implements GeoJsonWriter {
 
     @Override
     public void onStart(FeatureTransformationContextGeoJson transformationContext, Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
-        if (transformationContext.isFeatureCollection()) {
+        // a feature sequence has no FeatureCollection envelope
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
 
             transformationContext.getJson()
                                  .writeStartObject();
@@ -46,7 +52,7 @@ public class GeoJsonWriterSkeleton implements GeoJsonWriter {
 
         next.accept(transformationContext);
 
-        if (transformationContext.isFeatureCollection()) {
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
             transformationContext.getJson()
                                  .writeFieldName("features");
             transformationContext.getJson()
@@ -57,7 +63,7 @@ public class GeoJsonWriterSkeleton implements GeoJsonWriter {
     @Override
     public void onEnd(FeatureTransformationContextGeoJson transformationContext, Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
 
-        if (transformationContext.isFeatureCollection()) {
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
             // end of features array
             transformationContext.getJson()
                                  .writeEndArray();
@@ -66,7 +72,7 @@ public class GeoJsonWriterSkeleton implements GeoJsonWriter {
         // next chain for extensions
         next.accept(transformationContext);
 
-        if (transformationContext.isFeatureCollection()) {
+        if (transformationContext.isFeatureCollection() && !transformationContext.isFeatureSequence()) {
             // end of collection object
             transformationContext.getJson()
                                  .writeEndObject();
@@ -76,6 +82,11 @@ public class GeoJsonWriterSkeleton implements GeoJsonWriter {
     @Override
     public void onFeatureStart(FeatureTransformationContextGeoJson transformationContext, Consumer<FeatureTransformationContextGeoJson> next) throws IOException {
 
+        if (transformationContext.isFeatureSequence() && transformationContext.getUseRecordSeparator()) {
+            transformationContext.getJson()
+                                 .writeRaw(RECORD_SEPARATOR);
+        }
+
         transformationContext.getJson()
                              .writeStartObject();
         transformationContext.getJson()
@@ -94,5 +105,16 @@ public class GeoJsonWriterSkeleton implements GeoJsonWriter {
         // end of feature
         transformationContext.getJson()
                              .writeEndObject();
+
+        if (transformationContext.isFeatureSequence()) {
+            transformationContext.getJson()
+                                 .writeRaw('\n');
+
+            // flush regularly, so that clients can process the sequence while it is written
+            if (++featureCount % SEQUENCE_FLUSH_INTERVAL == 0) {
+                transformationContext.getJson()
+                                     .flush();
+            }
+        }
     }
 }
\ No newline at end of file
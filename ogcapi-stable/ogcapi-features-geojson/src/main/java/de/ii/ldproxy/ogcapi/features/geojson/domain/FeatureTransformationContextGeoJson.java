@@ -47,6 +47,10 @@ public abstract class FeatureTransformationContextGeoJson implements FeatureTran
         }
 
         json.setCodec(new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL));
+        if (isFeatureSequence()) {
+            // the record delimiters are written explicitly
+            json.setRootValueSeparator(null);
+        }
         if (getPrettify()) {
             json.useDefaultPrettyPrinter();
         }
@@ -63,6 +67,22 @@ public abstract class FeatureTransformationContextGeoJson implements FeatureTran
         return false;
     }
 
+    /**
+     * @return {@code true}, if the features are written as a sequence of GeoJSON texts, one per line, without a FeatureCollection envelope
+     */
+    @Value.Default
+    public boolean isFeatureSequence() {
+        return false;
+    }
+
+    /**
+     * @return {@code true}, if each GeoJSON text in a feature sequence is prefixed with a record separator (RFC 8142)
+     */
+    @Value.Default
+    public boolean getUseRecordSeparator() {
+        return false;
+    }
+
     @Value.Default
     public boolean getPrettify() {
         return getGeoJsonConfig().getUseFormattedJsonOutput() == true;
@@ -116,6 +136,8 @@ public abstract class FeatureTransformationContextGeoJson implements FeatureTran
 
         public abstract Optional<ImmutableCoordinatesTransformer.Builder> getCoordinatesWriterBuilder();
 
+        public abstract Optional<String> getLastFeatureId();
+
         @Value.Default
         public int getCurrentGeometryNestingChange() {
             return 0;
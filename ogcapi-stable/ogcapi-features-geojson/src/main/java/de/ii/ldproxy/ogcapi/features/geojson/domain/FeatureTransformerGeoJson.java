@@ -79,6 +79,7 @@ public class FeatureTransformerGeoJson extends FeatureTransformerBase {
         transformationContext.getState()
                              .setNumberMatched(numberMatched);
 
+        // the writers are also initialized for a feature sequence, only the envelope is skipped by the writers
         transformationContext.getState()
                              .setEvent(FeatureTransformationContext.Event.START);
         executePipeline(featureWriters.iterator()).accept(transformationContext);
@@ -161,6 +162,13 @@ public class FeatureTransformerGeoJson extends FeatureTransformerBase {
 
         if (stringBuilder.length() > 0) {
             String value = stringBuilder.toString();
+
+            // the cursor for the next page is based on the untransformed id
+            if (transformationContext.isKeysetPaging() && currentProperty.isId()) {
+                transformationContext.getState()
+                                     .setLastFeatureId(value);
+            }
+
             List<FeaturePropertyValueTransformer> valueTransformations = getValueTransformations(currentProperty);
             for (FeaturePropertyValueTransformer valueTransformer : valueTransformations) {
                 value = valueTransformer.transform(value);
@@ -35,6 +35,9 @@ public interface GeoJsonConfiguration extends ExtensionConfiguration, FeatureTra
     @Nullable
     String getSeparator();
 
+    @Nullable
+    Boolean getFeatureSequences();
+
     @Override
     default Builder getBuilder() {
         return new ImmutableGeoJsonConfiguration.Builder();
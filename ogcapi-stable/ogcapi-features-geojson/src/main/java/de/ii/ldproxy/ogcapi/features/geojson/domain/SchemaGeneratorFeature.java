@@ -2,6 +2,7 @@ package de.ii.ldproxy.ogcapi.features.geojson.domain;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import de.ii.ldproxy.ogcapi.domain.ApiRevisionCache;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.FeatureTypeConfigurationOgcApi;
 import de.ii.ldproxy.ogcapi.features.core.domain.FeaturesCoreConfiguration;
@@ -16,8 +17,6 @@ import org.apache.felix.ipojo.annotations.Provides;
 import org.apache.felix.ipojo.annotations.Requires;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -36,8 +35,9 @@ public class SchemaGeneratorFeature {
 
     final static String DEFINITIONS_TOKEN = "definitions";
 
-    private final ConcurrentMap<Integer, ConcurrentMap<String, Schema>> schemaMapOpenApi = new ConcurrentHashMap<>();
-    private final ConcurrentMap<Integer, ConcurrentMap<String, Map<String, Object>>> schemaMapJson = new ConcurrentHashMap<>();
+    // the schemas only depend on the API configuration, they are kept per collection for the current revision of an API
+    private final ApiRevisionCache<String, Schema> schemaMapOpenApi = new ApiRevisionCache<>(Integer.MAX_VALUE);
+    private final ApiRevisionCache<String, Map<String, Object>> schemaMapJson = new ApiRevisionCache<>(Integer.MAX_VALUE);
 
     @Requires
     FeaturesCoreProviders providers;
@@ -55,10 +55,7 @@ public class SchemaGeneratorFeature {
     }
 
     public Schema getSchemaOpenApi(OgcApiDataV2 apiData, String collectionId) {
-        int apiHashCode = apiData.hashCode();
-        if (!schemaMapOpenApi.containsKey(apiHashCode))
-            schemaMapOpenApi.put(apiHashCode, new ConcurrentHashMap<>());
-        if (!schemaMapOpenApi.get(apiHashCode).containsKey(collectionId)) {
+        return schemaMapOpenApi.computeIfAbsent(apiData, collectionId, ignore -> {
             FeatureTypeConfigurationOgcApi collectionData = apiData.getCollections()
                                                                    .get(collectionId);
             String featureTypeId = apiData.getCollections()
@@ -78,17 +75,15 @@ public class SchemaGeneratorFeature {
                                                   .isPresent();
 
             ContextOpenApi featureContext = processPropertiesOpenApi(featureType, true, flatten);
-            schemaMapOpenApi.get(apiHashCode)
-                            .put(collectionId, new ObjectSchema().title(featureType.getLabel().orElse(null))
+            return new ObjectSchema().title(featureType.getLabel().orElse(null))
                                                                  .description(featureType.getDescription().orElse(null))
                                                                  .required(ImmutableList.of("type", "geometry", "properties"))
                                                                  .addProperties("type", new StringSchema()._enum(ImmutableList.of("Feature")))
                                                                  .addProperties("geometry", featureContext.geometry)
                                                                  .addProperties("properties", featureContext.properties)
                                                                  .addProperties("id", new StringSchema())
-                                                                 .addProperties("links", new ArraySchema().items(new Schema().$ref("https://raw.githubusercontent.com/opengeospatial/ogcapi-features/master/core/openapi/ogcapi-features-1.yaml#/components/schemas/link"))));
-        }
-        return schemaMapOpenApi.get(apiHashCode).get(collectionId);
+                                                                 .addProperties("links", new ArraySchema().items(new Schema().$ref("https://raw.githubusercontent.com/opengeospatial/ogcapi-features/master/core/openapi/ogcapi-features-1.yaml#/components/schemas/link")));
+        });
     }
 
     public List<String> getPropertyNames(OgcApiDataV2 apiData, String collectionId) {
@@ -338,86 +333,85 @@ public class SchemaGeneratorFeature {
     }
 
     public Map<String, Object> getSchemaJson(OgcApiDataV2 apiData, String collectionId, Optional<String> schemaUri) {
-        int apiHashCode = apiData.hashCode();
-        if (!schemaMapJson.containsKey(apiHashCode))
-            schemaMapJson.put(apiHashCode, new ConcurrentHashMap<>());
-        if (!schemaMapJson.get(apiHashCode).containsKey(collectionId)) {
-
-            FeatureTypeConfigurationOgcApi collectionData = apiData.getCollections()
-                    .get(collectionId);
-            String featureTypeId = apiData.getCollections()
-                                          .get(collectionId)
-                                          .getExtension(FeaturesCoreConfiguration.class)
-                                          .map(cfg -> cfg.getFeatureType().orElse(collectionId))
-                                          .orElse(collectionId);
-            FeatureProvider2 featureProvider = providers.getFeatureProvider(apiData, collectionData);
-            FeatureSchema featureType = featureProvider.getData()
-                    .getTypes()
-                    .get(featureTypeId);
+        // the schema URI depends on the request, so it is not part of the cached schema
+        return ImmutableMap.<String, Object>builder()
+                           .put("$schema", "http://json-schema.org/draft-07/schema#")
+                           .put("$id", schemaUri)
+                           .putAll(schemaMapJson.computeIfAbsent(apiData, collectionId, ignore -> createSchemaJson(apiData, collectionId)))
+                           .build();
+    }
 
-            Optional<GeoJsonConfiguration> geoJsonConfiguration = collectionData.getExtension(GeoJsonConfiguration.class);
-            boolean flatten = geoJsonConfiguration.filter(geoJsonConfig -> geoJsonConfig.getNestedObjectStrategy() == FeatureTransformerGeoJson.NESTED_OBJECTS.FLATTEN &&
-                                                                    geoJsonConfig.getMultiplicityStrategy() == FeatureTransformerGeoJson.MULTIPLICITY.SUFFIX)
-                                            .isPresent();
-
-            ContextJsonSchema featureContext = processPropertiesJsonSchema(featureType, true, flatten);
-
-            ImmutableMap.Builder<String, Object> definitionsMapBuilder = ImmutableMap.<String, Object>builder();
-            Set<FeatureSchema> processed = new HashSet<>();
-            Set<FeatureSchema> current = featureContext.definitions;
-
-            while (!flatten && !current.isEmpty()) {
-                Set<FeatureSchema> next = new HashSet<>();
-                current.stream()
-                        .filter(defObject -> !processed.contains(defObject))
-                        .forEach(defObject -> {
-                            ContextJsonSchema definitionContext = processPropertiesJsonSchema(defObject, false, false);
-                            definitionsMapBuilder.put(definitionContext.objectKey, ImmutableMap.<String, Object>builder()
-                                    .put("type", "object")
-                                    .put("title", defObject.getLabel())
-                                    .put("description", defObject.getDescription())
-                                    .put("required", ImmutableList.builder()
-                                            .addAll(definitionContext.required)
-                                            .build())
-                                    .put("properties", definitionContext.properties)
-                                    .build());
-                            next.addAll(definitionContext.definitions);
-                            processed.add(defObject);
-                        });
-                current = next;
-            }
-
-            schemaMapJson.get(apiHashCode)
-                         .put(collectionId, ImmutableMap.<String, Object>builder()
-                                 .put("$schema", "http://json-schema.org/draft-07/schema#")
-                                 .put("$id", schemaUri)
-                                 .put("type", "object")
-                                 .put("title", featureType.getLabel())
-                                 .put("description", featureType.getDescription())
-                                 .put("required", ImmutableList.builder()
-                                                               .add("type", "geometry", "properties")
-                                                               .build())
-                                 .put("properties", ImmutableMap.builder()
-                                                                .put("type", ImmutableMap.builder()
-                                                                                         .put("type", "string")
-                                                                                         .put("enum", ImmutableList.builder()
-                                                                                                                   .add("Feature")
-                                                                                                                   .build())
-                                                                                         .build())
-                                                                .put("id", ImmutableMap.builder()
-                                                                                       .put("type", "string")
-                                                                                       .build())
-                                                                .put("links", ImmutableMap.builder()
-                                                                                          .put("type", "array")
-                                                                                          .put("items", ImmutableMap.builder().put("$ref", "https://raw.githubusercontent.com/opengeospatial/ogcapi-features/master/core/openapi/ogcapi-features-1.yaml#/components/schemas/link").build())
-                                                                                          .build())
-                                                                .put("geometry", featureContext.geometry)
-                                                                .put("properties", featureContext.properties)
-                                                                .build())
-                                 .put(DEFINITIONS_TOKEN, definitionsMapBuilder.build())
-                                 .build());
+    private Map<String, Object> createSchemaJson(OgcApiDataV2 apiData, String collectionId) {
+        FeatureTypeConfigurationOgcApi collectionData = apiData.getCollections()
+                .get(collectionId);
+        String featureTypeId = apiData.getCollections()
+                                      .get(collectionId)
+                                      .getExtension(FeaturesCoreConfiguration.class)
+                                      .map(cfg -> cfg.getFeatureType().orElse(collectionId))
+                                      .orElse(collectionId);
+        FeatureProvider2 featureProvider = providers.getFeatureProvider(apiData, collectionData);
+        FeatureSchema featureType = featureProvider.getData()
+                .getTypes()
+                .get(featureTypeId);
+
+        Optional<GeoJsonConfiguration> geoJsonConfiguration = collectionData.getExtension(GeoJsonConfiguration.class);
+        boolean flatten = geoJsonConfiguration.filter(geoJsonConfig -> geoJsonConfig.getNestedObjectStrategy() == FeatureTransformerGeoJson.NESTED_OBJECTS.FLATTEN &&
+                                                                geoJsonConfig.getMultiplicityStrategy() == FeatureTransformerGeoJson.MULTIPLICITY.SUFFIX)
+                                        .isPresent();
+
+        ContextJsonSchema featureContext = processPropertiesJsonSchema(featureType, true, flatten);
+
+        ImmutableMap.Builder<String, Object> definitionsMapBuilder = ImmutableMap.<String, Object>builder();
+        Set<FeatureSchema> processed = new HashSet<>();
+        Set<FeatureSchema> current = featureContext.definitions;
+
+        while (!flatten && !current.isEmpty()) {
+            Set<FeatureSchema> next = new HashSet<>();
+            current.stream()
+                    .filter(defObject -> !processed.contains(defObject))
+                    .forEach(defObject -> {
+                        ContextJsonSchema definitionContext = processPropertiesJsonSchema(defObject, false, false);
+                        definitionsMapBuilder.put(definitionContext.objectKey, ImmutableMap.<String, Object>builder()
+                                .put("type", "object")
+                                .put("title", defObject.getLabel())
+                                .put("description", defObject.getDescription())
+                                .put("required", ImmutableList.builder()
+                                        .addAll(definitionContext.required)
+                                        .build())
+                                .put("properties", definitionContext.properties)
+                                .build());
+                        next.addAll(definitionContext.definitions);
+                        processed.add(defObject);
+                    });
+            current = next;
         }
-        return schemaMapJson.get(apiHashCode).get(collectionId);
+
+        return ImmutableMap.<String, Object>builder()
+                             .put("type", "object")
+                             .put("title", featureType.getLabel())
+                             .put("description", featureType.getDescription())
+                             .put("required", ImmutableList.builder()
+                                                           .add("type", "geometry", "properties")
+                                                           .build())
+                             .put("properties", ImmutableMap.builder()
+                                                            .put("type", ImmutableMap.builder()
+                                                                                     .put("type", "string")
+                                                                                     .put("enum", ImmutableList.builder()
+                                                                                                               .add("Feature")
+                                                                                                               .build())
+                                                                                     .build())
+                                                            .put("id", ImmutableMap.builder()
+                                                                                   .put("type", "string")
+                                                                                   .build())
+                                                            .put("links", ImmutableMap.builder()
+                                                                                      .put("type", "array")
+                                                                                      .put("items", ImmutableMap.builder().put("$ref", "https://raw.githubusercontent.com/opengeospatial/ogcapi-features/master/core/openapi/ogcapi-features-1.yaml#/components/schemas/link").build())
+                                                                                      .build())
+                                                            .put("geometry", featureContext.geometry)
+                                                            .put("properties", featureContext.properties)
+                                                            .build())
+                             .put(DEFINITIONS_TOKEN, definitionsMapBuilder.build())
+                             .build();
     }
 
     private Map<String, Object> getJsonSchemaForLiteralType(de.ii.xtraplatform.features.domain.SchemaBase.Type type) {
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.geojson.app;
+
+import com.google.common.collect.ImmutableList;
+import com.greghaskins.spectrum.Spectrum;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.FeatureTransformationContextGeoJson;
+import de.ii.ldproxy.ogcapi.features.geojson.domain.FeatureTransformerGeoJson;
+import de.ii.xtraplatform.features.domain.FeatureProperty;
+import de.ii.xtraplatform.features.domain.FeatureType;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureProperty;
+import de.ii.xtraplatform.features.domain.ImmutableFeatureType;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.OptionalLong;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.beforeEach;
+import static com.greghaskins.spectrum.dsl.specification.Specification.context;
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+
+@RunWith(Spectrum.class)
+public class GeoJsonWriterSequenceSpec {
+
+    static final FeatureType featureMapping = new ImmutableFeatureType.Builder().name("f1")
+                                                                                .build();
+
+    static final FeatureProperty idMapping = new ImmutableFeatureProperty.Builder().name("id")
+                                                                                   .path("")
+                                                                                   .role(FeatureProperty.Role.ID)
+                                                                                   .build();
+
+    static final FeatureProperty propertyMapping = new ImmutableFeatureProperty.Builder().name("p1")
+                                                                                         .path("")
+                                                                                         .build();
+
+    static final FeatureProperty propertyMapping2 = new ImmutableFeatureProperty.Builder().name("p2")
+                                                                                          .path("")
+                                                                                          .type(FeatureProperty.Type.INTEGER)
+                                                                                          .build();
+
+    {
+
+        describe("GeoJSON feature sequences", () -> {
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            beforeEach(outputStream::reset);
+
+            context("given newline delimited JSON", () -> {
+
+                it("it should write one feature with properties per line without an envelope", () -> {
+
+                    writeFeatures(outputStream, false);
+
+                    String expected = "{\"type\":\"Feature\",\"id\":\"1\",\"properties\":{\"p1\":\"val1\",\"p2\":2}}\n" +
+                            "{\"type\":\"Feature\",\"id\":\"2\",\"properties\":{\"p1\":\"val2\",\"p2\":3}}\n";
+                    String actual = GeoJsonWriterSetupUtil.asString(outputStream);
+
+                    assertEquals(actual, expected);
+
+                });
+
+            });
+
+            context("given a GeoJSON text sequence", () -> {
+
+                it("it should prefix each feature with a record separator", () -> {
+
+                    writeFeatures(outputStream, true);
+
+                    String expected = "\u001e{\"type\":\"Feature\",\"id\":\"1\",\"properties\":{\"p1\":\"val1\",\"p2\":2}}\n" +
+                            "\u001e{\"type\":\"Feature\",\"id\":\"2\",\"properties\":{\"p1\":\"val2\",\"p2\":3}}\n";
+                    String actual = GeoJsonWriterSetupUtil.asString(outputStream);
+
+                    assertEquals(actual, expected);
+
+                });
+
+            });
+
+        });
+
+    }
+
+    private void writeFeatures(ByteArrayOutputStream outputStream,
+                               boolean useRecordSeparator) throws IOException, URISyntaxException {
+        FeatureTransformationContextGeoJson transformationContext = GeoJsonWriterSetupUtil.createSequenceTransformationContext(outputStream, useRecordSeparator);
+        FeatureTransformerGeoJson transformer = new FeatureTransformerGeoJson(transformationContext, ImmutableList.of(new GeoJsonWriterSkeleton(), new GeoJsonWriterId(), new GeoJsonWriterMetadata(), new GeoJsonWriterProperties(), new GeoJsonWriterCrs()));
+
+        transformer.onStart(OptionalLong.of(2), OptionalLong.of(2));
+        writeFeature(transformer, "1", "val1", "2");
+        writeFeature(transformer, "2", "val2", "3");
+        transformer.onEnd();
+    }
+
+    private void writeFeature(FeatureTransformerGeoJson transformer, String id, String value1,
+                              String value2) throws IOException {
+        transformer.onFeatureStart(featureMapping);
+        writeProperty(transformer, idMapping, id);
+        writeProperty(transformer, propertyMapping, value1);
+        writeProperty(transformer, propertyMapping2, value2);
+        transformer.onFeatureEnd();
+    }
+
+    private void writeProperty(FeatureTransformerGeoJson transformer, FeatureProperty mapping,
+                               String value) throws IOException {
+        transformer.onPropertyStart(mapping, ImmutableList.of());
+        transformer.onPropertyText(value);
+        transformer.onPropertyEnd();
+    }
+}
@@ -32,6 +32,17 @@ public class GeoJsonWriterSetupUtil {
     }
 
     static FeatureTransformationContextGeoJson createTransformationContext(OutputStream outputStream, boolean isCollection) throws URISyntaxException {
+        return createTransformationContextBuilder(outputStream, isCollection).build();
+    }
+
+    static FeatureTransformationContextGeoJson createSequenceTransformationContext(OutputStream outputStream, boolean useRecordSeparator) throws URISyntaxException {
+        return createTransformationContextBuilder(outputStream, true).isFeatureSequence(true)
+                                                                     .useRecordSeparator(useRecordSeparator)
+                                                                     .prettify(false)
+                                                                     .build();
+    }
+
+    private static ImmutableFeatureTransformationContextGeoJson.Builder createTransformationContextBuilder(OutputStream outputStream, boolean isCollection) throws URISyntaxException {
         return ImmutableFeatureTransformationContextGeoJson.builder()
                                                            .defaultCrs(OgcCrs.CRS84)
                                                            .apiData(new ImmutableOgcApiDataV2.Builder()
@@ -94,8 +105,7 @@ public class GeoJsonWriterSetupUtil {
                                                            .maxAllowableOffset(0)
                                                            .isHitsOnly(false)
                                                            .state(ModifiableStateGeoJson.create())
-                                                           .geoJsonConfig(new ImmutableGeoJsonConfiguration.Builder().enabled(true).nestedObjectStrategy(FeatureTransformerGeoJson.NESTED_OBJECTS.NEST).multiplicityStrategy(FeatureTransformerGeoJson.MULTIPLICITY.ARRAY).useFormattedJsonOutput(true).build())
-                                                           .build();
+                                                           .geoJsonConfig(new ImmutableGeoJsonConfiguration.Builder().enabled(true).nestedObjectStrategy(FeatureTransformerGeoJson.NESTED_OBJECTS.NEST).multiplicityStrategy(FeatureTransformerGeoJson.MULTIPLICITY.ARRAY).useFormattedJsonOutput(true).build());
 
     }
 }
@@ -20,10 +20,13 @@ import de.ii.xtraplatform.xml.domain.XMLNamespaceNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,9 +36,11 @@ import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 import static de.ii.xtraplatform.dropwizard.domain.LambdaWithException.biConsumerMayThrow;
-import static de.ii.xtraplatform.dropwizard.domain.LambdaWithException.consumerMayThrow;
 
 /**
+ * The qualified names of elements and the namespace declarations are computed once per response, the
+ * output is buffered and only flushed at the end of the page.
+ *
  * @author zahnen
  */
 public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
@@ -45,15 +50,21 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
             .add("posList")
             .add("pos")
             .add("coordinates")
-            .build();;
+            .build();
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     private final OutputStream outputStream;
     private final boolean isFeatureCollection;
-    private final OutputStreamWriter writer;
+    private final Writer writer;
     private final XMLNamespaceNormalizer namespaces;
     private final CrsTransformer crsTransformer;
     private final List<Link> links;
-    private final Escaper escaper;
+    private final Escaper attributeEscaper;
+    private final Escaper contentEscaper;
+    private final Map<String, String> qualifiedNames;
+    private final Map<String, String> namespacePrefixes;
+    private final String namespaceDeclarations;
+    private final String namespaceDeclarationsWithDefault;
     private final int pageSize;
     private double maxAllowableOffset;
 
@@ -70,16 +81,21 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
     public FeatureTransformerGmlUpgrade(FeatureTransformationContextGml transformationContext) {
         this.outputStream = transformationContext.getOutputStream();
         this.isFeatureCollection = transformationContext.isFeatureCollection();
-        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
         this.namespaces = new XMLNamespaceNormalizer(transformationContext.getNamespaces());
         this.crsTransformer = transformationContext.getCrsTransformer().orElse(null);
         this.links = transformationContext.getLinks();
-        this.escaper = XmlEscapers.xmlAttributeEscaper();
+        this.attributeEscaper = XmlEscapers.xmlAttributeEscaper();
+        this.contentEscaper = XmlEscapers.xmlContentEscaper();
+        this.qualifiedNames = new HashMap<>();
+        this.namespacePrefixes = new HashMap<>();
         this.pageSize  = transformationContext.getLimit();
         this.maxAllowableOffset = transformationContext.getMaxAllowableOffset();
         this.namespaces.addNamespace("sf", "http://www.opengis.net/ogcapi-features-1/1.0/sf", true);
         this.namespaces.addNamespace("ogcapi", "http://www.opengis.net/ogcapi-features-1/1.0", true);
         this.namespaces.addNamespace("atom", "http://www.w3.org/2005/Atom", true);
+        this.namespaceDeclarations = generateNamespaceDeclarations(false);
+        this.namespaceDeclarationsWithDefault = generateNamespaceDeclarations(true);
     }
 
     @Override
@@ -88,14 +104,7 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
         writer.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
         if (isFeatureCollection) {
             writer.append("\n<sf:FeatureCollection");
-            namespaces.getNamespaces()
-                      .keySet()
-                      .forEach(consumerMayThrow(prefix -> {
-                          if (!Strings.isNullOrEmpty(prefix)) {
-                              writer.append(" ");
-                              writer.append(namespaces.generateNamespaceDeclaration(prefix));
-                          }
-                      }));
+            writer.append(namespaceDeclarations);
 
             isLastPage = numberReturned.orElse(0) < pageSize;
             inCurrentStart = true;
@@ -120,7 +129,9 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
 
     @Override
     public void onFeatureStart(List<String> path, Map<String, String> additionalInfos) throws Exception {
-        LOGGER.debug("{}", path);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{}", path);
+        }
 
         if (inCurrentStart) {
             writer.append(">");
@@ -132,20 +143,13 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
             writer.append("\n<sf:featureMember>");
         }
         writer.append("\n<");
-        writer.append(namespaces.getNamespacePrefix(getNamespaceUri(path)));
-        writer.append(":");
-        writer.append(getLocalName(path));
+        writer.append(getQualifiedName(path));
 
         if (!isFeatureCollection) {
-            namespaces.getNamespaces()
-                      .keySet()
-                      .forEach(consumerMayThrow(prefix -> {
-                          writer.append(" ");
-                          writer.append(namespaces.generateNamespaceDeclaration(prefix));
-                      }));
+            writer.append(namespaceDeclarationsWithDefault);
             if (!Strings.isNullOrEmpty(locations)) {
                 writer.append(" ");
-                writer.append(namespaces.getNamespacePrefix("http://www.w3.org/2001/XMLSchema-instance"));
+                writer.append(getNamespacePrefix("http://www.w3.org/2001/XMLSchema-instance"));
                 writer.append(":schemaLocation");
                 writer.append("=\"");
                 writer.append(locations);
@@ -161,14 +165,11 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
     @Override
     public void onFeatureEnd(List<String> path) throws Exception {
         writer.append("\n</");
-        writer.append(namespaces.getNamespacePrefix(getNamespaceUri(path)));
-        writer.append(":");
-        writer.append(getLocalName(path));
+        writer.append(getQualifiedName(path));
         writer.append(">");
         if (isFeatureCollection) {
             writer.append("\n</sf:featureMember>");
         }
-        writer.flush();
     }
 
     private void onGmlAttribute(String name, String value) throws Exception {
@@ -177,7 +178,9 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
 
     //@Override
     public void onGmlAttribute(String namespace, String localName, List<String> path, String value, List<Integer> multiplicities) throws Exception {
-        LOGGER.debug("ATTR {} {} {}", path, localName, value);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("ATTR {} {} {}", path, localName, value);
+        }
 
         String newValue = value;
 
@@ -208,20 +211,22 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
         if (isFeatureCollection || inCurrentFeatureStart || inCurrentPropertyStart) {
             writer.append(" ");
             if (!Strings.isNullOrEmpty(namespace)) {
-                writer.append(namespaces.getNamespacePrefix(namespace));
-                writer.append(":");
+                writer.append(getNamespacePrefix(namespace));
+                writer.append(':');
             }
             writer.append(localName);
             writer.append("=\"");
-            writer.append(XmlEscapers.xmlAttributeEscaper().escape(newValue));
-            writer.append("\"");
+            writeEscaped(newValue, true);
+            writer.append('"');
         }
     }
 
     @Override
     public void onPropertyStart(List<String> path, List<Integer> multiplicities,
                                 Map<String, String> additionalInfos) throws Exception {
-        LOGGER.debug("START {} {}", path, getLocalName(path));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("START {} {}", path, getLocalName(path));
+        }
 
         if (inCurrentFeatureStart) {
             writer.append(">");
@@ -232,9 +237,7 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
         }
 
         writer.append("\n<");
-        writer.append(namespaces.getNamespacePrefix(getNamespaceUri(path)));
-        writer.append(":");
-        writer.append(getLocalName(path));
+        writer.append(getQualifiedName(path));
 
         inCurrentPropertyStart = true;
         if (GEOMETRY_COORDINATES.contains(getLocalName(path))) {
@@ -273,7 +276,7 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
             coordinatesWriter.write(text);
             coordinatesWriter.close();
         } else {
-            writer.append(XmlEscapers.xmlContentEscaper().escape(text));
+            writeEscaped(text, false);
         }
 
         inCurrentPropertyText = true;
@@ -281,7 +284,9 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
 
     @Override
     public void onPropertyEnd(List<String> path) throws Exception {
-        LOGGER.debug("END {} {}", path, getLocalName(path));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("END {} {}", path, getLocalName(path));
+        }
 
         if (inCurrentPropertyStart) {
             writer.append("/>");
@@ -294,9 +299,7 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
             }
 
             writer.append("</");
-            writer.append(namespaces.getNamespacePrefix(getNamespaceUri(path)));
-            writer.append(":");
-            writer.append(getLocalName(path));
+            writer.append(getQualifiedName(path));
             writer.append(">");
         }
         inCoordinates = false;
@@ -326,6 +329,50 @@ public class FeatureTransformerGmlUpgrade implements FeatureConsumer {
     }
 
 
+    private String generateNamespaceDeclarations(boolean withDefaultNamespace) {
+        StringBuilder declarations = new StringBuilder();
+        namespaces.getNamespaces()
+                  .keySet()
+                  .forEach(prefix -> {
+                      if (withDefaultNamespace || !Strings.isNullOrEmpty(prefix)) {
+                          declarations.append(" ")
+                                      .append(namespaces.generateNamespaceDeclaration(prefix));
+                      }
+                  });
+        return declarations.toString();
+    }
+
+    // the elements of a feature type are always the same, so the qualified names are only computed once
+    private String getQualifiedName(List<String> path) {
+        return qualifiedNames.computeIfAbsent(path.get(path.size() - 1), name -> getNamespacePrefix(getNamespaceUri(name)) + ":" + getLocalName(name));
+    }
+
+    private String getNamespacePrefix(String namespaceUri) {
+        return namespacePrefixes.computeIfAbsent(namespaceUri, namespaces::getNamespacePrefix);
+    }
+
+    // in most cases nothing has to be escaped, then the text is written as is
+    private void writeEscaped(String text, boolean isAttribute) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (needsEscaping(text.charAt(i), isAttribute)) {
+                writer.append(isAttribute ? attributeEscaper.escape(text) : contentEscaper.escape(text));
+                return;
+            }
+        }
+        writer.append(text);
+    }
+
+    // same characters as the Guava XML escapers
+    private static boolean needsEscaping(char c, boolean isAttribute) {
+        if (c == '&' || c == '<' || c == '>' || c >= 0xFFFE) {
+            return true;
+        }
+        if (c < 0x20) {
+            return isAttribute || (c != '\t' && c != '\n' && c != '\r');
+        }
+        return isAttribute && (c == '"' || c == '\'');
+    }
+
     private String getLocalName(List<String> path) {
         return path.isEmpty() ? null : getLocalName(path.get(path.size()-1));
     }
@@ -33,6 +33,8 @@ public class CapabilityFeaturesHtml implements ApiBuildingBlock {
         return new ImmutableFeaturesHtmlConfiguration.Builder().enabled(true)
                                                        .schemaOrgEnabled(true)
                                                        .layout(FeaturesHtmlConfiguration.LAYOUT.CLASSIC)
+                                                       .geometryPrecision(5)
+                                                       .maxGeometryVertices(1000)
                                                        .build();
     }
 
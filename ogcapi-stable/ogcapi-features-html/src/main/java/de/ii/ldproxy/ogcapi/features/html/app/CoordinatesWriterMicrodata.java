@@ -13,10 +13,29 @@ import org.immutables.value.Value;
 import java.io.IOException;
 import java.io.Writer;
 
+/**
+ * Writes the coordinates of a schema.org GeoShape, latitude first. Vertices beyond the budget are dropped,
+ * clients that need the full geometry use another representation. A truncated ring is closed again with its
+ * first vertex.
+ */
 @Value.Immutable
 public abstract class CoordinatesWriterMicrodata implements CoordinatesWriter<Writer> {
 
-    private final String[] values = new String[2];
+    private final StringBuilder x = new StringBuilder();
+    private final StringBuilder y = new StringBuilder();
+    private final StringBuilder firstVertex = new StringBuilder();
+    private int vertices = 0;
+    private boolean truncated = false;
+
+    @Value.Default
+    public int getMaxVertices() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Value.Default
+    public boolean getCloseRing() {
+        return false;
+    }
 
     @Override
     public void onStart() throws IOException {
@@ -24,20 +43,19 @@ public abstract class CoordinatesWriterMicrodata implements CoordinatesWriter<Wr
 
     @Override
     public void onSeparator() throws IOException {
-        getDelegate().write(values[1]);
-        getDelegate().append(' ');
-        getDelegate().write(values[0]);
-        getDelegate().append(' ');
+        writeVertex();
     }
 
     @Override
     public void onX(char[] chars, int offset, int length) throws IOException {
-        values[0] = String.copyValueOf(chars,offset,length);
+        x.setLength(0);
+        x.append(chars, offset, length);
     }
 
     @Override
     public void onY(char[] chars, int offset, int length) throws IOException {
-        values[1] = String.copyValueOf(chars,offset,length);
+        y.setLength(0);
+        y.append(chars, offset, length);
     }
 
     @Override
@@ -46,8 +64,30 @@ public abstract class CoordinatesWriterMicrodata implements CoordinatesWriter<Wr
 
     @Override
     public void onEnd() throws IOException {
-        getDelegate().write(values[1]);
+        writeVertex();
+
+        // the last vertex of a ring has been dropped, the ring has to be closed to be a valid polygon
+        if (getCloseRing() && truncated) {
+            getDelegate().append(' ');
+            getDelegate().append(firstVertex);
+        }
+    }
+
+    private void writeVertex() throws IOException {
+        if (vertices >= getMaxVertices()) {
+            truncated = true;
+            return;
+        }
+        if (vertices > 0) {
+            getDelegate().append(' ');
+        } else if (getCloseRing()) {
+            firstVertex.append(y)
+                       .append(' ')
+                       .append(x);
+        }
+        getDelegate().append(y);
         getDelegate().append(' ');
-        getDelegate().write(values[0]);
+        getDelegate().append(x);
+        vertices++;
     }
 }
@@ -37,6 +37,8 @@ public class FeatureCollectionView extends DatasetView {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FeatureCollectionView.class);
 
+    private final String template;
+    private String partTemplate;
     private URI uri;
     public List<NavigationDTO> pagination;
     public List<NavigationDTO> metaPagination;
@@ -61,6 +63,7 @@ public class FeatureCollectionView extends DatasetView {
                                  String urlPrefix, HtmlConfiguration htmlConfig, String persistentUri, boolean noIndex,
                                  I18n i18n, Locale language, FeaturesHtmlConfiguration.LAYOUT layout) {
         super(template, uri, name, title, description, urlPrefix, htmlConfig, noIndex);
+        this.template = template;
         this.features = new ArrayList<>();
         this.isCollection = !"featureDetails".equals(template);
         this.uri = uri; // TODO need to overload getPath() as it currently forces trailing slashes while OGC API uses no trailing slashes
@@ -69,6 +72,23 @@ public class FeatureCollectionView extends DatasetView {
         this.complexObjects = layout == FeaturesHtmlConfiguration.LAYOUT.COMPLEX_OBJECTS;
     }
 
+    @Override
+    public String getTemplateName() {
+        return Objects.nonNull(partTemplate) ? String.format("/templates/%s", partTemplate) : super.getTemplateName();
+    }
+
+    String getTemplate() {
+        return template;
+    }
+
+    /**
+     * @param partTemplate the template of the part of the page that is rendered next or {@code null} for the
+     *                     complete page
+     */
+    void setPartTemplate(String partTemplate) {
+        this.partTemplate = partTemplate;
+    }
+
     @Override
     public String getPath() {
         String path = uri.getPath();
@@ -57,6 +57,7 @@ public class FeatureTransformerHtml implements FeatureTransformer2 {
     private final Optional<FeatureSchema> featureSchema;
     private final Map<String, HtmlPropertyTransformations> transformations;
     private final boolean isSchemaOrgEnabled;
+    private final StreamingFeatureCollectionWriter featureCollectionWriter;
     /* TODO move to nearby module in community repo
     private NearbyQuery nearbyQuery;
     private final NearbyResolver nearbyResolver; //TODO inject, multiple implementations
@@ -68,7 +69,10 @@ public class FeatureTransformerHtml implements FeatureTransformer2 {
     private FeatureProperty currentFeatureProperty;
     private StringBuilder currentValue = new StringBuilder();
     private Writer coordinatesWriter;
-    private Writer coordinatesOutput;
+    // one buffer for the coordinates of all geometries of the request
+    private final StringWriter coordinatesOutput = new StringWriter();
+    private final int geometryPrecision;
+    private final int maxGeometryVertices;
     private PropertyDTO currentGeometryPart;
     private int currentGeometryParts;
     private boolean currentGeometryWritten;
@@ -106,6 +110,13 @@ public class FeatureTransformerHtml implements FeatureTransformer2 {
 
         this.isSchemaOrgEnabled = transformationContext.getHtmlConfiguration()
                                                        .getSchemaOrgEnabled();
+        this.geometryPrecision = Objects.requireNonNullElse(transformationContext.getHtmlConfiguration()
+                                                                                 .getGeometryPrecision(), 0);
+        this.maxGeometryVertices = Objects.requireNonNullElse(transformationContext.getHtmlConfiguration()
+                                                                                   .getMaxGeometryVertices(), Integer.MAX_VALUE);
+
+        // a single feature is rendered at the end, it sets the title of the page
+        this.featureCollectionWriter = isFeatureCollection ? new StreamingFeatureCollectionWriter(mustacheRenderer, outputStreamWriter, dataset, featureSchema) : null;
     }
 
     @Override
@@ -203,6 +214,11 @@ public class FeatureTransformerHtml implements FeatureTransformer2 {
 
     @Override
     public void onEnd() throws Exception {
+        if (isFeatureCollection) {
+            featureCollectionWriter.writeEnd();
+            return;
+        }
+
         mustacheRenderer.render(dataset, outputStreamWriter);
         outputStreamWriter.flush();
     }
@@ -248,7 +264,11 @@ public class FeatureTransformerHtml implements FeatureTransformer2 {
             this.dataset.breadCrumbs.get(dataset.breadCrumbs.size() - 1).label = currentFeature.name;
         }
 
-        dataset.features.add(currentFeature);
+        if (isFeatureCollection) {
+            featureCollectionWriter.writeFeature(currentFeature);
+        } else {
+            dataset.features.add(currentFeature);
+        }
         currentFeature = null;
 
         /* TODO move to nearby module in community repo
@@ -425,11 +445,18 @@ public class FeatureTransformerHtml implements FeatureTransformer2 {
 
         currentGeometryType = MicrodataGeometryMapping.MICRODATA_GEOMETRY_TYPE.forGmlType(type);
 
-        coordinatesOutput = new StringWriter();
+        coordinatesOutput.getBuffer()
+                         .setLength(0);
 
         this.coordinatesTransformerBuilder = ImmutableCoordinatesTransformer.builder();
 
-        coordinatesTransformerBuilder.coordinatesWriter(ImmutableCoordinatesWriterMicrodata.of(coordinatesOutput, Optional.ofNullable(dimension).orElse(2)));
+        coordinatesTransformerBuilder.coordinatesWriter(ImmutableCoordinatesWriterMicrodata.of(coordinatesOutput, Optional.ofNullable(dimension).orElse(2))
+                                                                                           .withMaxVertices(maxGeometryVertices)
+                                                                                           .withCloseRing(currentGeometryType == MicrodataGeometryMapping.MICRODATA_GEOMETRY_TYPE.POLYGON));
+
+        if (geometryPrecision > 0) {
+            coordinatesTransformerBuilder.precision(geometryPrecision);
+        }
 
         int fallbackDimension = Objects.nonNull(dimension) ? dimension : 2;
 
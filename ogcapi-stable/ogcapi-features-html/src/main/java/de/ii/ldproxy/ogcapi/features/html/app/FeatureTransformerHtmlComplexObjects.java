@@ -70,7 +70,10 @@ public class FeatureTransformerHtmlComplexObjects implements FeatureTransformer2
     MicrodataGeometryMapping.MICRODATA_GEOMETRY_TYPE currentGeometryType;
     ImmutableCoordinatesTransformer.Builder coordinatesTransformerBuilder;
     private Writer coordinatesWriter;
-    private Writer coordinatesOutput;
+    // one buffer for the coordinates of all geometries of the request
+    private final StringWriter coordinatesOutput = new StringWriter();
+    private final int geometryPrecision;
+    private final int maxGeometryVertices;
     private PropertyDTO currentGeometryPart;
     private int currentGeometryParts;
     private boolean currentGeometryWritten;
@@ -81,6 +84,7 @@ public class FeatureTransformerHtmlComplexObjects implements FeatureTransformer2
     private final Optional<FeatureSchema> featureSchema;
     private final Map<String, HtmlPropertyTransformations> transformations;
     private final boolean isSchemaOrgEnabled;
+    private final StreamingFeatureCollectionWriter featureCollectionWriter;
 
     private StringBuilder currentValueBuilder = new StringBuilder();
     private Map<String,Integer> pathMap = new HashMap<>();
@@ -221,6 +225,13 @@ public class FeatureTransformerHtmlComplexObjects implements FeatureTransformer2
 
         this.isSchemaOrgEnabled = transformationContext.getHtmlConfiguration()
                                                        .getSchemaOrgEnabled();
+        this.geometryPrecision = Objects.requireNonNullElse(transformationContext.getHtmlConfiguration()
+                                                                                 .getGeometryPrecision(), 0);
+        this.maxGeometryVertices = Objects.requireNonNullElse(transformationContext.getHtmlConfiguration()
+                                                                                   .getMaxGeometryVertices(), Integer.MAX_VALUE);
+
+        // a single feature is rendered at the end, it sets the title of the page
+        this.featureCollectionWriter = isFeatureCollection ? new StreamingFeatureCollectionWriter((MustacheRenderer) mustacheRenderer, outputStreamWriter, dataset, featureSchema) : null;
     }
 
     @Override
@@ -318,6 +329,10 @@ public class FeatureTransformerHtmlComplexObjects implements FeatureTransformer2
 
     @Override
     public void onEnd() throws Exception {
+        if (isFeatureCollection) {
+            featureCollectionWriter.writeEnd();
+            return;
+        }
 
         ((MustacheRenderer) mustacheRenderer).render(dataset, outputStreamWriter);
         outputStreamWriter.flush();
@@ -358,7 +373,11 @@ public class FeatureTransformerHtmlComplexObjects implements FeatureTransformer2
             this.dataset.title = currentFeature.name;
             this.dataset.breadCrumbs.get(dataset.breadCrumbs.size() - 1).label = currentFeature.name;
         }
-        dataset.features.add(currentFeature);
+        if (isFeatureCollection) {
+            featureCollectionWriter.writeFeature(currentFeature);
+        } else {
+            dataset.features.add(currentFeature);
+        }
         currentFeature = null;
     }
 
@@ -508,12 +527,19 @@ public class FeatureTransformerHtmlComplexObjects implements FeatureTransformer2
 
         currentGeometryType = MicrodataGeometryMapping.MICRODATA_GEOMETRY_TYPE.forGmlType(type);
 
-        coordinatesOutput = new StringWriter();
+        coordinatesOutput.getBuffer()
+                         .setLength(0);
 
         // for around-relations
         this.coordinatesTransformerBuilder = ImmutableCoordinatesTransformer.builder();
 
-        coordinatesTransformerBuilder.coordinatesWriter(ImmutableCoordinatesWriterMicrodata.of(coordinatesOutput, Optional.ofNullable(dimension).orElse(2)));
+        coordinatesTransformerBuilder.coordinatesWriter(ImmutableCoordinatesWriterMicrodata.of(coordinatesOutput, Optional.ofNullable(dimension).orElse(2))
+                                                                                           .withMaxVertices(maxGeometryVertices)
+                                                                                           .withCloseRing(currentGeometryType == MicrodataGeometryMapping.MICRODATA_GEOMETRY_TYPE.POLYGON));
+
+        if (geometryPrecision > 0) {
+            coordinatesTransformerBuilder.precision(geometryPrecision);
+        }
 
         if (transformationContext.getCrsTransformer()
                                  .isPresent()) {
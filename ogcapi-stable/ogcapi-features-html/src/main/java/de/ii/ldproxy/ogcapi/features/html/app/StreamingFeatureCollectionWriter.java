@@ -0,0 +1,88 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.features.html.app;
+
+import de.ii.xtraplatform.dropwizard.domain.MustacheRenderer;
+import de.ii.xtraplatform.features.domain.FeatureSchema;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Optional;
+
+/**
+ * Writes a feature collection page while the features are fetched. The page is split into a header, one part
+ * per feature and a footer, so only the current feature is held in memory.
+ *
+ * The header is written with the first feature, so that the map is shown, if the first feature has a geometry,
+ * even if the schema is unknown. The output is flushed regularly, so that the client can start rendering early.
+ */
+class StreamingFeatureCollectionWriter {
+
+    private static final String HEADER = "Header";
+    private static final String FOOTER = "Footer";
+    private static final String FEATURE_TEMPLATE = "featureCollectionItems";
+    private static final int FLUSH_INTERVAL = 10;
+
+    private final MustacheRenderer mustacheRenderer;
+    private final Writer writer;
+    private final FeatureCollectionView dataset;
+    private boolean headerWritten;
+    private int featureCount;
+
+    StreamingFeatureCollectionWriter(MustacheRenderer mustacheRenderer, Writer writer,
+                                     FeatureCollectionView dataset, Optional<FeatureSchema> featureSchema) {
+        this.mustacheRenderer = mustacheRenderer;
+        this.writer = writer;
+        this.dataset = dataset;
+
+        if (featureSchema.isPresent() && featureSchema.get()
+                                                      .getProperties()
+                                                      .stream()
+                                                      .anyMatch(FeatureSchema::isSpatial)) {
+            dataset.hideMap = false;
+        }
+    }
+
+    void writeFeature(ObjectDTO feature) throws IOException {
+        if (!headerWritten) {
+            writeHeader();
+        }
+
+        dataset.features.add(feature);
+        render(FEATURE_TEMPLATE);
+        dataset.features.clear();
+
+        if (++featureCount % FLUSH_INTERVAL == 0) {
+            writer.flush();
+        }
+    }
+
+    void writeEnd() throws IOException {
+        if (!headerWritten) {
+            writeHeader();
+        }
+
+        render(dataset.getTemplate() + FOOTER);
+        writer.flush();
+    }
+
+    private void writeHeader() throws IOException {
+        render(dataset.getTemplate() + HEADER);
+        writer.flush();
+        this.headerWritten = true;
+    }
+
+    private void render(String template) throws IOException {
+        dataset.setPartTemplate(template);
+        try {
+            mustacheRenderer.render(dataset, writer);
+        } finally {
+            dataset.setPartTemplate(null);
+        }
+    }
+}
@@ -42,6 +42,13 @@ public interface FeaturesHtmlConfiguration extends ExtensionConfiguration, Featu
 
     Optional<String> getItemLabelFormat();
 
+    // the geometry in the HTML output is only used for schema.org, the map loads the full geometry from GeoJSON
+    @Nullable
+    Integer getGeometryPrecision();
+
+    @Nullable
+    Integer getMaxGeometryVertices();
+
     @Override
     Map<String, FeatureTypeMapping2> getTransformations();
 
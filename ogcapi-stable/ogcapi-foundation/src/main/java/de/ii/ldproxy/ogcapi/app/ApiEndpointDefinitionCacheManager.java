@@ -0,0 +1,79 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.app;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinitionCache;
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
+import de.ii.xtraplatform.dropwizard.domain.Dropwizard;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.whiteboard.Wbp;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Evicts the endpoint definitions of an API from the {@link ApiEndpointDefinitionCache}, when the API is
+ * removed, and publishes the statistics of the cache as metrics.
+ */
+@Component
+@Instantiate
+@Wbp(
+        filter = "(objectClass=de.ii.ldproxy.ogcapi.domain.OgcApi)",
+        onArrival = "onArrival",
+        onDeparture = "onDeparture")
+public class ApiEndpointDefinitionCacheManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiEndpointDefinitionCacheManager.class);
+
+    @Context
+    private BundleContext bundleContext;
+
+    private final ApiEndpointDefinitionCache cache;
+
+    public ApiEndpointDefinitionCacheManager(@Requires Dropwizard dropwizard) {
+        this.cache = ApiEndpointDefinitionCache.getInstance();
+
+        MetricRegistry metricRegistry = dropwizard.getEnvironment()
+                                                  .metrics();
+        register(metricRegistry, "hits", cache::getHits);
+        register(metricRegistry, "misses", cache::getMisses);
+        register(metricRegistry, "evictions", cache::getEvictions);
+        register(metricRegistry, "apis", cache::getApiCount);
+        register(metricRegistry, "definitions", cache::getDefinitionCount);
+    }
+
+    private static <T> void register(MetricRegistry metricRegistry, String metric, Gauge<T> gauge) {
+        String metricName = name(ApiEndpointDefinitionCache.class, metric);
+        // the gauge may still be registered from a previous start of the bundle
+        metricRegistry.remove(metricName);
+        metricRegistry.register(metricName, gauge);
+    }
+
+    private synchronized void onArrival(ServiceReference<OgcApi> ref) {
+        // nothing to do, the definitions are computed on first access
+    }
+
+    private synchronized void onDeparture(ServiceReference<OgcApi> ref) {
+        final OgcApi api = bundleContext.getService(ref);
+
+        if (Objects.nonNull(api)) {
+            LOGGER.debug("Evicting endpoint definitions of API '{}'.", api.getId());
+            cache.evict(api.getId());
+        }
+    }
+}
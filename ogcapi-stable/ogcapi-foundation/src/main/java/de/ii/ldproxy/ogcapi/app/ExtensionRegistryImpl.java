@@ -7,6 +7,7 @@
  */
 package de.ii.ldproxy.ogcapi.app;
 
+import com.google.common.collect.ImmutableList;
 import de.ii.ldproxy.ogcapi.domain.*;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Context;
@@ -18,10 +19,10 @@ import org.osgi.framework.ServiceReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @Component
@@ -38,15 +39,16 @@ public class ExtensionRegistryImpl implements ExtensionRegistry {
     @Context
     private BundleContext bundleContext;
 
-    private final List<ApiExtension> apiExtensions;
+    // replaced as a whole on every change, so readers never see a partial update
+    private volatile Extensions extensions;
 
     ExtensionRegistryImpl() {
-        this.apiExtensions = new ArrayList<>();;
+        this.extensions = new Extensions(ImmutableList.of());
     }
 
     @Override
     public List<ApiExtension> getExtensions() {
-        return apiExtensions;
+        return extensions.all;
     }
 
     private synchronized void onArrival(ServiceReference<ApiExtension> ref) {
@@ -58,7 +60,10 @@ public class ExtensionRegistryImpl implements ExtensionRegistry {
                 return;
             }
 
-            apiExtensions.add(apiExtension);
+            this.extensions = new Extensions(ImmutableList.<ApiExtension>builder()
+                                                          .addAll(extensions.all)
+                                                          .add(apiExtension)
+                                                          .build());
 
             if (apiExtension instanceof ConformanceClass) {
                 final ConformanceClass conformanceClass = (ConformanceClass) apiExtension;
@@ -121,15 +126,36 @@ public class ExtensionRegistryImpl implements ExtensionRegistry {
 
         if (Objects.nonNull(apiExtension)) {
 
-            apiExtensions.remove(apiExtension);
+            this.extensions = new Extensions(extensions.all.stream()
+                                                           .filter(extension -> !Objects.equals(extension, apiExtension))
+                                                           .collect(ImmutableList.toImmutableList()));
         }
     }
 
     @Override
     public <T extends ApiExtension> List<T> getExtensionsForType(Class<T> extensionType) {
-            return getExtensions().stream()
-                    .filter(extension -> extension!=null && extensionType.isAssignableFrom(extension.getClass()))
-                    .map(extensionType::cast)
-                    .collect(Collectors.toList());
+        return extensions.forType(extensionType);
+    }
+
+    /**
+     * An immutable snapshot of the registered extensions with the lists per extension type, the lists are
+     * computed on first access.
+     */
+    private static class Extensions {
+        private final ImmutableList<ApiExtension> all;
+        private final Map<Class<?>, List<? extends ApiExtension>> byType;
+
+        private Extensions(ImmutableList<ApiExtension> all) {
+            this.all = all;
+            this.byType = new ConcurrentHashMap<>();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends ApiExtension> List<T> forType(Class<T> extensionType) {
+            return (List<T>) byType.computeIfAbsent(extensionType, type -> all.stream()
+                                                                               .filter(extension -> extension != null && extensionType.isAssignableFrom(extension.getClass()))
+                                                                               .map(extensionType::cast)
+                                                                               .collect(ImmutableList.toImmutableList()));
+        }
     }
 }
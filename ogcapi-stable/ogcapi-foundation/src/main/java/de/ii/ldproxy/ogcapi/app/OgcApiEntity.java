@@ -7,6 +7,7 @@
  */
 package de.ii.ldproxy.ogcapi.app;
 
+import com.google.common.collect.ImmutableList;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
 import de.ii.ldproxy.ogcapi.domain.ExtensionRegistry;
 import de.ii.ldproxy.ogcapi.domain.FormatExtension;
@@ -21,9 +22,14 @@ import org.apache.felix.ipojo.annotations.Requires;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @EntityComponent
@@ -37,7 +43,12 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OgcApiEntity.class);
 
+    // the path patterns of the formats are constant, each is compiled once
+    private static final Map<String, Pattern> PATH_PATTERNS = new ConcurrentHashMap<>();
+
     private final ExtensionRegistry extensionRegistry;
+    private volatile EnabledFormats enabledFormats;
+    private volatile UpdatedData updatedData;
 
     public OgcApiEntity(@Requires ExtensionRegistry extensionRegistry) {
         this.extensionRegistry = extensionRegistry;
@@ -45,35 +56,109 @@ public class OgcApiEntity extends AbstractService<OgcApiDataV2> implements OgcAp
 
     @Override
     public OgcApiDataV2 getData() {
-        return super.getData();
+        OgcApiDataV2 data = super.getData();
+        UpdatedData updated = updatedData;
+        // an update only applies to the configuration it was derived from, a reload discards it
+        if (Objects.nonNull(updated) && updated.base == data) {
+            return updated.data;
+        }
+
+        return data;
+    }
+
+    @Override
+    public synchronized void updateData(UnaryOperator<OgcApiDataV2> update) {
+        OgcApiDataV2 base = super.getData();
+        this.updatedData = new UpdatedData(base, update.apply(getData()));
     }
 
     @Override
     public <T extends FormatExtension> Optional<T> getOutputFormat(Class<T> extensionType, ApiMediaType mediaType,
                                                                    String path, Optional<String> collectionId) {
-        return extensionRegistry.getExtensionsForType(extensionType)
-                                .stream()
-                                .filter(outputFormatExtension -> path.matches(outputFormatExtension.getPathPattern()))
-                                .filter(outputFormatExtension -> mediaType.type()
-                                                                          .isCompatible(outputFormatExtension.getMediaType()
-                                                                                                             .type()))
-                                .filter(outputFormatExtension -> collectionId.isPresent() ? outputFormatExtension.isEnabledForApi(getData(),collectionId.get()) :
-                                                                                            outputFormatExtension.isEnabledForApi(getData()))
-                                .findFirst();
+        return getEnabledFormats(extensionType, collectionId).stream()
+                                                             .filter(outputFormatExtension -> matchesPath(outputFormatExtension, path))
+                                                             .filter(outputFormatExtension -> mediaType.type()
+                                                                                                       .isCompatible(outputFormatExtension.getMediaType()
+                                                                                                                                          .type()))
+                                                             .findFirst();
     }
 
     @Override
     public <T extends FormatExtension> List<T> getAllOutputFormats(Class<T> extensionType, ApiMediaType mediaType,
                                                                    String path, Optional<T> excludeFormat) {
-        return extensionRegistry.getExtensionsForType(extensionType)
-                                .stream()
-                                .filter(outputFormatExtension -> !Objects.equals(outputFormatExtension, excludeFormat.orElse(null)))
-                                .filter(outputFormatExtension -> path.matches(outputFormatExtension.getPathPattern()))
-                                .filter(outputFormatExtension -> mediaType.type()
-                                                                          .isCompatible(outputFormatExtension.getMediaType()
-                                                                                                             .type()))
-                                .filter(outputFormatExtension -> outputFormatExtension.isEnabledForApi(getData()))
-                                .collect(Collectors.toList());
+        return getEnabledFormats(extensionType, Optional.empty()).stream()
+                                                                 .filter(outputFormatExtension -> !Objects.equals(outputFormatExtension, excludeFormat.orElse(null)))
+                                                                 .filter(outputFormatExtension -> matchesPath(outputFormatExtension, path))
+                                                                 .filter(outputFormatExtension -> mediaType.type()
+                                                                                                           .isCompatible(outputFormatExtension.getMediaType()
+                                                                                                                                              .type()))
+                                                                 .collect(Collectors.toList());
+    }
+
+    private static boolean matchesPath(FormatExtension outputFormatExtension, String path) {
+        return PATH_PATTERNS.computeIfAbsent(outputFormatExtension.getPathPattern(), Pattern::compile)
+                            .matcher(path)
+                            .matches();
+    }
+
+    /**
+     * @return the formats of the given type that are enabled for the API or the collection, the result is
+     * cached until the API configuration or the registered extensions change
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends FormatExtension> List<T> getEnabledFormats(Class<T> extensionType,
+                                                                  Optional<String> collectionId) {
+        OgcApiDataV2 data = getData();
+        EnabledFormats current = enabledFormats;
+        if (Objects.isNull(current) || current.data != data) {
+            current = new EnabledFormats(data);
+            this.enabledFormats = current;
+        }
+
+        List<T> extensions = extensionRegistry.getExtensionsForType(extensionType);
+        Map.Entry<Class<?>, Optional<String>> key = new AbstractMap.SimpleImmutableEntry<>(extensionType, collectionId);
+        EnabledFormatsForType cached = current.formats.get(key);
+        if (Objects.nonNull(cached) && cached.extensions == extensions) {
+            return (List<T>) cached.enabled;
+        }
+
+        List<T> enabled = extensions.stream()
+                                    .filter(outputFormatExtension -> collectionId.isPresent() ? outputFormatExtension.isEnabledForApi(data, collectionId.get()) :
+                                                                                                outputFormatExtension.isEnabledForApi(data))
+                                    .collect(ImmutableList.toImmutableList());
+        current.formats.put(key, new EnabledFormatsForType(extensions, enabled));
+
+        return enabled;
+    }
+
+    private static class UpdatedData {
+        private final OgcApiDataV2 base;
+        private final OgcApiDataV2 data;
+
+        private UpdatedData(OgcApiDataV2 base, OgcApiDataV2 data) {
+            this.base = base;
+            this.data = data;
+        }
+    }
+
+    private static class EnabledFormats {
+        private final OgcApiDataV2 data;
+        private final Map<Map.Entry<Class<?>, Optional<String>>, EnabledFormatsForType> formats;
+
+        private EnabledFormats(OgcApiDataV2 data) {
+            this.data = data;
+            this.formats = new ConcurrentHashMap<>();
+        }
+    }
+
+    private static class EnabledFormatsForType {
+        private final List<?> extensions;
+        private final List<?> enabled;
+
+        private EnabledFormatsForType(List<?> extensions, List<?> enabled) {
+            this.extensions = extensions;
+            this.enabled = enabled;
+        }
     }
 
 }
@@ -34,6 +34,9 @@ public abstract class AbstractRequestContext implements ApiRequestContext {
     @Override
     public abstract Optional<Locale> getLanguage();
 
+    @Override
+    public abstract OptionalLong getContentVersion();
+
     @Value.Derived
     @Override
     public URICustomizer getUriCustomizer() {
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Watches the directories of APIs in a store, e.g. the styles or the resources, on a single daemon thread.
+ * The events themselves are not reported, a change of any file in the directory of an API is passed on as
+ * the id of the API.
+ */
+public class ApiDirectoryWatcher implements Closeable {
+
+    private final Consumer<String> onChange;
+    private final Map<WatchKey, String> watchedApis;
+    private final WatchService watchService;
+    private final ExecutorService executorService;
+
+    /**
+     * @param name the name of the watcher thread
+     * @param onChange called with the id of the API, if its directory has changed
+     * @throws IOException if the watch service cannot be created
+     */
+    public ApiDirectoryWatcher(String name, Consumer<String> onChange) throws IOException {
+        this.onChange = onChange;
+        this.watchedApis = new ConcurrentHashMap<>();
+        this.watchService = FileSystems.getDefault()
+                                       .newWatchService();
+        this.executorService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(name + "-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+        executorService.submit(this::watch);
+    }
+
+    /**
+     * Starts to watch the directory of an API, if it is not watched yet. To miss no change, this is called
+     * before the directory is read.
+     *
+     * @param apiId the id of the API
+     * @param apiDir the existing directory of the API
+     * @throws IOException if the directory cannot be watched
+     */
+    public void register(String apiId, Path apiDir) throws IOException {
+        if (watchedApis.containsValue(apiId)) {
+            return;
+        }
+
+        try {
+            watchedApis.put(apiDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), apiId);
+        } catch (ClosedWatchServiceException e) {
+            // the watcher has been closed
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        executorService.shutdownNow();
+    }
+
+    private void watch() {
+        while (!Thread.currentThread()
+                      .isInterrupted()) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            watchKey.pollEvents();
+            String apiId = watchedApis.get(watchKey);
+            if (Objects.nonNull(apiId)) {
+                onChange.accept(apiId);
+            }
+
+            if (!watchKey.reset()) {
+                // the directory has been deleted
+                watchedApis.remove(watchKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Central cache of the endpoint definitions of all APIs. The definitions are cached per API for the current
+ * revision of the API configuration, a definition is computed only once, concurrent requests for the same
+ * definition wait for the first computation. If a new revision of an API is seen, the definitions of the
+ * previous revision are evicted.
+ */
+public final class ApiEndpointDefinitionCache {
+
+    private static final ApiEndpointDefinitionCache INSTANCE = new ApiEndpointDefinitionCache();
+
+    private final ConcurrentMap<String, ApiRevision> apis;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    private ApiEndpointDefinitionCache() {
+        this.apis = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    public static ApiEndpointDefinitionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param apiData the API configuration
+     * @param endpointType the endpoint
+     * @param computeDefinition computes the definition, if it is not cached
+     * @return the definition of the endpoint for the API
+     */
+    public ApiEndpointDefinition computeIfAbsent(OgcApiDataV2 apiData, Class<? extends EndpointExtension> endpointType,
+                                                 Function<OgcApiDataV2, ApiEndpointDefinition> computeDefinition) {
+        ApiRevision revision = getRevision(apiData);
+
+        CompletableFuture<ApiEndpointDefinition> definition = revision.definitions.get(endpointType);
+        if (Objects.nonNull(definition)) {
+            hits.increment();
+            return join(definition);
+        }
+
+        CompletableFuture<ApiEndpointDefinition> newDefinition = new CompletableFuture<>();
+        definition = revision.definitions.putIfAbsent(endpointType, newDefinition);
+        if (Objects.nonNull(definition)) {
+            hits.increment();
+            return join(definition);
+        }
+
+        misses.increment();
+        try {
+            ApiEndpointDefinition computedDefinition = computeDefinition.apply(apiData);
+            newDefinition.complete(computedDefinition);
+            return computedDefinition;
+        } catch (RuntimeException e) {
+            // do not cache the failure, the next request tries again
+            revision.definitions.remove(endpointType, newDefinition);
+            newDefinition.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Evict all definitions of an API, e.g. because the API has been removed.
+     *
+     * @param apiId the id of the API
+     */
+    public void evict(String apiId) {
+        if (Objects.nonNull(apis.remove(apiId))) {
+            evictions.increment();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getApiCount() {
+        return apis.size();
+    }
+
+    public int getDefinitionCount() {
+        return apis.values()
+                   .stream()
+                   .mapToInt(revision -> revision.definitions.size())
+                   .sum();
+    }
+
+    private ApiRevision getRevision(OgcApiDataV2 apiData) {
+        ApiRevision revision = apis.get(apiData.getId());
+        if (Objects.nonNull(revision) && revision.isRevisionOf(apiData)) {
+            return revision;
+        }
+
+        return apis.compute(apiData.getId(), (apiId, current) -> {
+            if (Objects.nonNull(current) && current.isRevisionOf(apiData)) {
+                return current;
+            }
+            if (Objects.nonNull(current)) {
+                // the API has been reloaded
+                evictions.increment();
+            }
+            return new ApiRevision(apiData);
+        });
+    }
+
+    private static ApiEndpointDefinition join(CompletableFuture<ApiEndpointDefinition> definition) {
+        try {
+            return definition.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class ApiRevision {
+        private final OgcApiDataV2 apiData;
+        private final ConcurrentMap<Class<?>, CompletableFuture<ApiEndpointDefinition>> definitions;
+
+        private ApiRevision(OgcApiDataV2 apiData) {
+            this.apiData = apiData;
+            this.definitions = new ConcurrentHashMap<>();
+        }
+
+        // the same instance is the common case, equal copies of the configuration share the definitions
+        private boolean isRevisionOf(OgcApiDataV2 apiData) {
+            return this.apiData == apiData || this.apiData.equals(apiData);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 public interface ApiRequestContext {
     ApiMediaType getMediaType();
@@ -26,4 +27,12 @@ public interface ApiRequestContext {
     String getStaticUrlPrefix();
 
     Map<String,String> getParameters();
+
+    /**
+     * @return the version of the requested resource, if it has already been determined for the request,
+     * see {@link EndpointExtension#getContentVersion}
+     */
+    default OptionalLong getContentVersion() {
+        return OptionalLong.empty();
+    }
 }
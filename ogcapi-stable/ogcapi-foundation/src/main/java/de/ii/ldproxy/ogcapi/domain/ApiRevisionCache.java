@@ -0,0 +1,153 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Caches values that are fully determined by the configuration of an API, e.g. documents derived from the
+ * feature schema. Only the values of the current revision of each API are kept, if a new revision of an API
+ * is seen, the values of the previous revision are dropped.
+ *
+ * @param <K> the key of a value within an API
+ * @param <V> the cached value
+ */
+public final class ApiRevisionCache<K, V> {
+
+    private final int maxEntriesPerApi;
+    private final ConcurrentMap<String, ApiRevision<K, V>> apis;
+
+    /**
+     * @param maxEntriesPerApi if the keys are controlled by the client, e.g. because they include the request
+     * URI, the entries of an API are dropped when this number is reached
+     */
+    public ApiRevisionCache(int maxEntriesPerApi) {
+        this.maxEntriesPerApi = maxEntriesPerApi;
+        this.apis = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param apiData the API configuration
+     * @param key the key of the value
+     * @return the cached value or null, if there is none for the revision of the API
+     */
+    public V get(OgcApiDataV2 apiData, K key) {
+        return getRevision(apiData).values.get(key);
+    }
+
+    /**
+     * @param apiData the API configuration
+     * @param key the key of the value
+     * @param computeValue computes the value, if it is not cached; it is not called while a lock is held, so
+     * it may use other caches
+     * @return the cached or computed value
+     */
+    public V computeIfAbsent(OgcApiDataV2 apiData, K key, Function<K, V> computeValue) {
+        V value = get(apiData, key);
+        if (Objects.nonNull(value)) {
+            return value;
+        }
+
+        value = computeValue.apply(key);
+        if (Objects.isNull(value)) {
+            return null;
+        }
+
+        V previousValue = putIfAbsent(apiData, key, value);
+
+        return Objects.nonNull(previousValue) ? previousValue : value;
+    }
+
+    /**
+     * @param apiData the API configuration
+     * @param key the key of the value
+     * @param value the value, replaces a cached value
+     */
+    public void put(OgcApiDataV2 apiData, K key, V value) {
+        getValues(apiData).put(key, value);
+    }
+
+    /**
+     * @param apiData the API configuration
+     * @param key the key of the value
+     * @param value the value, if there is no cached value
+     * @return the cached value or null, if the value has been added
+     */
+    public V putIfAbsent(OgcApiDataV2 apiData, K key, V value) {
+        return getValues(apiData).putIfAbsent(key, value);
+    }
+
+    /**
+     * Drop a value, e.g. because it has turned out to be invalid. A value of a previous revision is already
+     * dropped.
+     *
+     * @param apiData the API configuration
+     * @param key the key of the value
+     * @param value the value that is dropped, a different cached value is kept
+     */
+    public void remove(OgcApiDataV2 apiData, K key, V value) {
+        ApiRevision<K, V> revision = apis.get(apiData.getId());
+        if (Objects.nonNull(revision) && revision.isRevisionOf(apiData)) {
+            revision.values.remove(key, value);
+        }
+    }
+
+    /**
+     * Drop all values of an API, e.g. because the API has been removed.
+     *
+     * @param apiId the id of the API
+     */
+    public void evict(String apiId) {
+        apis.remove(apiId);
+    }
+
+    /**
+     * Drop the values of all APIs, e.g. because an extension that contributes to the values has changed.
+     */
+    public void clear() {
+        apis.clear();
+    }
+
+    private ConcurrentMap<K, V> getValues(OgcApiDataV2 apiData) {
+        ConcurrentMap<K, V> values = getRevision(apiData).values;
+        // the keys are too diverse, e.g. because of arbitrary query parameters
+        if (values.size() >= maxEntriesPerApi) {
+            values.clear();
+        }
+
+        return values;
+    }
+
+    private ApiRevision<K, V> getRevision(OgcApiDataV2 apiData) {
+        ApiRevision<K, V> revision = apis.get(apiData.getId());
+        if (Objects.nonNull(revision) && revision.isRevisionOf(apiData)) {
+            return revision;
+        }
+
+        // the API has been reloaded, the values of the previous revision are dropped
+        return apis.compute(apiData.getId(), (apiId, current) -> Objects.nonNull(current) && current.isRevisionOf(apiData) ? current : new ApiRevision<>(apiData));
+    }
+
+    private static class ApiRevision<K, V> {
+        private final OgcApiDataV2 apiData;
+        private final ConcurrentMap<K, V> values;
+
+        private ApiRevision(OgcApiDataV2 apiData) {
+            this.apiData = apiData;
+            this.values = new ConcurrentHashMap<>();
+        }
+
+        // the same instance is the common case, equal copies of the configuration share the values
+        private boolean isRevisionOf(OgcApiDataV2 apiData) {
+            return this.apiData == apiData || this.apiData.equals(apiData);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+import com.google.common.base.CaseFormat;
+
+/**
+ * The building block identifiers derived from the configuration classes, computed once per class.
+ */
+final class BuildingBlockIdentifiers {
+
+    private static final ClassValue<String> IDENTIFIERS = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> clazz) {
+            return CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, clazz.getSimpleName()
+                                                                               .replace("Immutable", "")
+                                                                               .replace("Configuration", ""));
+        }
+    };
+
+    private BuildingBlockIdentifiers() {
+    }
+
+    static String get(Class<?> clazz) {
+        return IDENTIFIERS.get(clazz);
+    }
+}
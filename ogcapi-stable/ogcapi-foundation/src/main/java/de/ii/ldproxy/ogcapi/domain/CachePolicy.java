@@ -0,0 +1,27 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+/**
+ * Declares how clients and intermediaries may cache the responses to GET requests of an endpoint.
+ */
+public enum CachePolicy {
+
+    /**
+     * The response depends on data that may change at any time, e.g. features or tiles. No validators are
+     * sent, every request is processed.
+     */
+    NONE,
+
+    /**
+     * The response is fully determined by the API configuration, the request URI, the media type and the
+     * language. The entity tag is derived from the revision of the API, conditional requests with a matching
+     * entity tag are answered with 304 before the endpoint is invoked.
+     */
+    API_REVISION
+}
@@ -26,6 +26,10 @@ public class CapabilityFoundation implements ApiBuildingBlock {
         return new ImmutableFoundationConfiguration.Builder().enabled(true)
                                                              .includeLinkHeader(true)
                                                              .useLangParameter(false)
+                                                             .compressResponses(true)
+                                                             .compressionMinimumSize(1024)
+                                                             .conditionalRequests(true)
+                                                             .cacheMaxAge(0)
                                                              .build();
     }
 }
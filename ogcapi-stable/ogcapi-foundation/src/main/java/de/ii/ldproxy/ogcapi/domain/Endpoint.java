@@ -24,7 +24,6 @@ public abstract class Endpoint implements EndpointExtension {
     );
 
     protected final ExtensionRegistry extensionRegistry;
-    protected Map<Integer, ApiEndpointDefinition> apiDefinitions;
     protected List<? extends FormatExtension> formats;
 
     /**
@@ -33,7 +32,6 @@ public abstract class Endpoint implements EndpointExtension {
      */
     public Endpoint(ExtensionRegistry extensionRegistry) {
         this.extensionRegistry = extensionRegistry;
-        this.apiDefinitions =  new HashMap<>();
         this.formats = null;
     }
 
@@ -43,6 +41,23 @@ public abstract class Endpoint implements EndpointExtension {
      */
     public abstract List<? extends FormatExtension> getFormats();
 
+    @Override
+    public ApiEndpointDefinition getDefinition(OgcApiDataV2 apiData) {
+        if (!isEnabledForApi(apiData))
+            return EndpointExtension.super.getDefinition(apiData);
+
+        return ApiEndpointDefinitionCache.getInstance()
+                                         .computeIfAbsent(apiData, getClass(), this::computeDefinition);
+    }
+
+    /**
+     * Computes the definition of the endpoint, it is cached in {@link ApiEndpointDefinitionCache}.
+     *
+     * @param apiData the API configuration
+     * @return the definition of the endpoint for the API
+     */
+    protected abstract ApiEndpointDefinition computeDefinition(OgcApiDataV2 apiData);
+
     protected ApiOperation addOperation(OgcApiDataV2 apiData, List<OgcApiQueryParameter> queryParameters, String path,
                                         String operationSummary, Optional<String> operationDescription, List<String> tags) {
         return addOperation(apiData, queryParameters, path, operationSummary, operationDescription, Optional.empty(), tags);
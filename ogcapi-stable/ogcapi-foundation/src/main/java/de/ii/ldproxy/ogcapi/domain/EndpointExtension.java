@@ -30,6 +30,26 @@ public interface EndpointExtension extends ApiExtension {
                 .build();
     }
 
+    /**
+     * @return the cache policy for the responses to GET requests of the endpoint
+     */
+    default CachePolicy getCachePolicy() {
+        return CachePolicy.NONE;
+    }
+
+    /**
+     * Only relevant for the cache policy {@link CachePolicy#API_REVISION}: if the response to a GET request
+     * can change independently of the API configuration, the endpoint has to return a value that changes
+     * whenever the response changes.
+     *
+     * @param apiData the API
+     * @param path the path of the resource
+     * @return the version of the resource in the current revision of the API
+     */
+    default long getContentVersion(OgcApiDataV2 apiData, String path) {
+        return 0L;
+    }
+
     default ImmutableSet<ApiMediaType> getMediaTypes(OgcApiDataV2 apiData, String requestSubPath) {
         return getMediaTypes(apiData, requestSubPath, "GET");
     }
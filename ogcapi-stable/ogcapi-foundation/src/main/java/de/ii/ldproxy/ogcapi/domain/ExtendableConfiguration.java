@@ -9,6 +9,7 @@ package de.ii.ldproxy.ogcapi.domain;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.collect.ImmutableMap;
 import org.immutables.value.Value;
 
 import java.util.*;
@@ -20,11 +21,7 @@ public interface ExtendableConfiguration {
     List<ExtensionConfiguration> getExtensions();
 
     default <T extends ExtensionConfiguration> Optional<T> getExtension(Class<T> clazz) {
-        return getMergedExtensions().stream()
-                              .filter(extensionConfiguration -> Objects.equals(extensionConfiguration.getBuildingBlock(), ExtensionConfiguration.getBuildingBlockIdentifier(clazz)))
-                              .filter(Objects::nonNull)
-                              .findFirst()
-                              .map(extensionConfiguration -> (T) extensionConfiguration);
+        return Optional.ofNullable((T) getMergedExtensionsByBuildingBlock().get(ExtensionConfiguration.getBuildingBlockIdentifier(clazz)));
     }
 
     @JsonIgnore
@@ -34,6 +31,18 @@ public interface ExtendableConfiguration {
         return getMergedExtensions(getExtensions());
     }
 
+    /**
+     * @return the merged configurations including the default values, resolved once per configuration
+     */
+    @JsonIgnore
+    @Value.Derived
+    @Value.Auxiliary
+    default Map<String, ExtensionConfiguration> getMergedExtensionsByBuildingBlock() {
+        return getMergedExtensions().stream()
+                                    .filter(Objects::nonNull)
+                                    .collect(ImmutableMap.toImmutableMap(ExtensionConfiguration::getBuildingBlock, extensionConfiguration -> extensionConfiguration, (first, second) -> first));
+    }
+
     default List<ExtensionConfiguration> getMergedExtensions(List<ExtensionConfiguration> extensions) {
         Map<String, ExtensionConfiguration> mergedExtensions = new LinkedHashMap<>();
 
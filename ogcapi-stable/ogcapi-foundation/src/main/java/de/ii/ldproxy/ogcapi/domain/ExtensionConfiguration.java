@@ -11,7 +11,6 @@ import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
-import com.google.common.base.CaseFormat;
 import de.ii.xtraplatform.dropwizard.domain.JacksonProvider;
 import de.ii.xtraplatform.store.domain.entities.maptobuilder.Buildable;
 import de.ii.xtraplatform.store.domain.entities.maptobuilder.BuildableBuilder;
@@ -31,9 +30,7 @@ public interface ExtensionConfiguration extends Buildable<ExtensionConfiguration
     }
 
     static String getBuildingBlockIdentifier(Class<? extends ExtensionConfiguration> clazz) {
-        return CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, clazz.getSimpleName()
-                .replace("Immutable", "")
-                .replace("Configuration", ""));
+        return BuildingBlockIdentifiers.get(clazz);
     }
 
     @JsonAlias("extensionType")
@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.immutables.value.Value;
 
 import javax.annotation.Nullable;
+import java.util.List;
 
 @Value.Immutable
 @Value.Style(builder = "new")
@@ -36,6 +37,20 @@ public interface FoundationConfiguration extends ExtensionConfiguration {
     @Nullable
     String getApiCatalogDescription();
 
+    @Nullable
+    Boolean getCompressResponses();
+
+    @Nullable
+    Integer getCompressionMinimumSize();
+
+    List<String> getCompressionExcludedMediaTypes();
+
+    @Nullable
+    Boolean getConditionalRequests();
+
+    @Nullable
+    Integer getCacheMaxAge();
+
     @Override
     default Builder getBuilder() {
         return new ImmutableFoundationConfiguration.Builder();
@@ -11,6 +11,7 @@ import de.ii.xtraplatform.services.domain.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 
 public interface OgcApi extends Service {
@@ -23,4 +24,13 @@ public interface OgcApi extends Service {
 
     <T extends FormatExtension> List<T> getAllOutputFormats(Class<T> extensionType, ApiMediaType mediaType,
                                                             String path, Optional<T> excludeFormat);
+
+    /**
+     * Changes the configuration of the running API, e.g. with information that has been computed in the
+     * background after the API has been started. The change is not persisted, it is discarded when the API
+     * is reloaded.
+     *
+     * @param update derives the new configuration from the current configuration
+     */
+    void updateData(UnaryOperator<OgcApiDataV2> update);
 }
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A serialized response entity that is kept uncompressed and gzip-compressed. It is used for responses
+ * that are prepared once and served many times. The variant is selected according to the
+ * {@code Accept-Encoding} header of the request, when the response is written.
+ */
+public final class PrecompressedEntity {
+
+    private final byte[] entity;
+    private final byte[] gzipEntity;
+
+    private PrecompressedEntity(byte[] entity, byte[] gzipEntity) {
+        this.entity = entity;
+        this.gzipEntity = gzipEntity;
+    }
+
+    /**
+     * @param entity the uncompressed entity
+     * @return the entity together with its gzip-compressed variant
+     */
+    public static PrecompressedEntity of(byte[] entity) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(entity.length / 4 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(buffer)) {
+            gzipOutputStream.write(entity);
+        } catch (IOException e) {
+            // cannot happen, the stream is in memory
+            throw new UncheckedIOException(e);
+        }
+
+        return new PrecompressedEntity(entity, buffer.toByteArray());
+    }
+
+    public byte[] getEntity() {
+        return entity;
+    }
+
+    public byte[] getGzipEntity() {
+        return gzipEntity;
+    }
+}
@@ -7,6 +7,7 @@
  */
 package de.ii.ldproxy.ogcapi.infra.rest;
 
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import de.ii.ldproxy.ogcapi.domain.*;
 import de.ii.xtraplatform.dropwizard.domain.XtraPlatform;
@@ -21,13 +22,13 @@ import javax.ws.rs.*;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.net.URI;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import static de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition.SORT_PRIORITY_DUMMY;
-
 
 @Component
 @Provides(properties = {
@@ -41,6 +42,7 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
     private static final Logger LOGGER = LoggerFactory.getLogger(ApiRequestDispatcher.class);
 
     private static final Set<String> NOCONTENT_METHODS = ImmutableSet.of("POST", "PUT", "DELETE");
+    private static final Set<String> CACHEABLE_METHODS = ImmutableSet.of("GET", "HEAD");
     private static final ApiMediaType DEFAULT_MEDIA_TYPE = new ImmutableApiMediaType.Builder()
             .type(new MediaType("application", "json"))
             .label("JSON")
@@ -51,6 +53,7 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
     private final RequestInjectableContext ogcApiInjectableContext;
     private final XtraPlatform xtraPlatform;
     private final ContentNegotiation contentNegotiation;
+    private final Map<String, ApiRoutingTable> routingTables;
 
     ApiRequestDispatcher(@Requires ExtensionRegistry extensionRegistry,
                          @Requires RequestInjectableContext ogcApiInjectableContext,
@@ -59,6 +62,7 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
         this.ogcApiInjectableContext = ogcApiInjectableContext;
         this.xtraPlatform = xtraPlatform;
         this.contentNegotiation = new ContentNegotiation();
+        this.routingTables = new ConcurrentHashMap<>();
     }
 
     @Path("")
@@ -75,34 +79,44 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
         String subPath = ((UriRoutingContext) requestContext.getUriInfo()).getFinalMatchingGroup();
         String method = requestContext.getMethod();
 
-        EndpointExtension ogcApiEndpoint = findEndpoint(service.getData(), entrypoint, subPath, method).orElse(null);
-
-        if (ogcApiEndpoint==null) {
-            throwNotAllowedOrNotFound(getMethods(service.getData(), entrypoint, subPath));
-            /* TODO should this belong here or should this be done by the resources?
-            // check, if this may be an issue of special characters in the path, replace all non-Word characters with an underscore and test the sub path again
-            String subPathReduced = subPath.replaceAll("\\W","_");
-            if (findEndpoint(service.getData(), entrypoint, subPathReduced, null).isPresent())
-                throw new BadRequestException("The sub path '"+subPath+"' includes characters that are not supported for a resource. Resource ids typically only support word characters (ASCII letters, digits, underscore) for the resource names.");
-            throw new NotFoundException();
-             */
-        }
+        ApiRoutingTable routingTable = getRoutingTable(service.getData());
+        String path = "/" + entrypoint + subPath;
 
-        Set<String> parameters = requestContext.getUriInfo().getQueryParameters().keySet();
-        List<OgcApiQueryParameter> knownParameters = ogcApiEndpoint.getParameters(service.getData(), subPath);
-        Set<String> unknownParameters = parameters.stream()
-                .filter(parameter -> !knownParameters.stream().filter(param -> param.getName().equalsIgnoreCase(parameter)).findAny().isPresent())
-                .collect(Collectors.toSet());
-        if (!unknownParameters.isEmpty()) {
-            throw new BadRequestException("The following query parameters are rejected: " +
-                    String.join(", ", unknownParameters) +
-                    ". Valid parameters for this request are: " +
-                    String.join(", ", knownParameters.stream().map(ParameterExtension::getName).collect(Collectors.toList())));
-        }
+        Optional<ApiRoutingTable.Route> route = Optional.empty();
+        EndpointExtension ogcApiEndpoint;
+        ImmutableSet<ApiMediaType> supportedMediaTypes;
+        if (method.equals("OPTIONS")) {
+            // special treatment for OPTIONS
+            // check that the resource exists and in that case use the general endpoint for all OPTIONS requests
+            if (routingTable.getMethods(entrypoint, path).isEmpty())
+                throw new NotFoundException("The requested path is not a resource in this API.");
 
-        ImmutableSet<ApiMediaType> supportedMediaTypes = method.equals("GET") || method.equals("HEAD") ?
-                ogcApiEndpoint.getMediaTypes(service.getData(), subPath):
-                ogcApiEndpoint.getMediaTypes(service.getData(), subPath, method);
+            ogcApiEndpoint = getEndpoints().stream()
+                    .filter(endpoint -> endpoint.getClass()== OptionsEndpoint.class)
+                    .findAny()
+                    .orElseThrow(NotFoundException::new);
+            supportedMediaTypes = ogcApiEndpoint.getMediaTypes(service.getData(), subPath, method);
+        } else {
+            route = routingTable.find(entrypoint, path, method);
+            if (!route.isPresent()) {
+                throwNotAllowedOrNotFound(routingTable.getMethods(entrypoint, path));
+            }
+            ogcApiEndpoint = route.get().endpoint;
+
+            Set<String> parameters = requestContext.getUriInfo().getQueryParameters().keySet();
+            Set<String> knownParameterNames = route.get().knownParameterNames;
+            Set<String> unknownParameters = parameters.stream()
+                    .filter(parameter -> !knownParameterNames.contains(parameter.toLowerCase()))
+                    .collect(Collectors.toSet());
+            if (!unknownParameters.isEmpty()) {
+                throw new BadRequestException("The following query parameters are rejected: " +
+                        String.join(", ", unknownParameters) +
+                        ". Valid parameters for this request are: " +
+                        String.join(", ", route.get().knownParameters.stream().map(ParameterExtension::getName).collect(Collectors.toList())));
+            }
+
+            supportedMediaTypes = route.get().mediaTypes;
+        }
 
         ApiMediaType selectedMediaType;
         Set<ApiMediaType> alternateMediaTypes;
@@ -120,6 +134,10 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
         Locale selectedLanguage = contentNegotiation.negotiate(requestContext)
                                                     .orElse(Locale.ENGLISH);
 
+        // the content version is determined once per request, the endpoint may reuse it to build the response
+        boolean isCacheable = route.isPresent() && route.get().cachePolicy == CachePolicy.API_REVISION && CACHEABLE_METHODS.contains(method);
+        OptionalLong contentVersion = isCacheable ? OptionalLong.of(route.get().endpoint.getContentVersion(service.getData(), path)) : OptionalLong.empty();
+
         ApiRequestContext apiRequestContext = new ImmutableRequestContext.Builder()
                 .requestUri(requestContext.getUriInfo()
                                           .getRequestUri())
@@ -128,46 +146,43 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
                 .alternateMediaTypes(alternateMediaTypes)
                 .language(selectedLanguage)
                 .api(service)
+                .contentVersion(contentVersion)
                 .build();
 
         // validate request
-        ApiEndpointDefinition apiDef = ogcApiEndpoint.getDefinition(service.getData());
-        if (!apiDef.getResources().isEmpty()) {
-            // check that the subPath is valid
-            OgcApiResource resource = apiDef.getResource("/" + entrypoint + subPath).orElse(null);
-            if (resource==null)
-                throw new NotFoundException("The requested path is not a resource in this API.");
-
+        if (route.isPresent()) {
             // no need to check the path parameters here, only the parent path parameters (service, endpoint) are available;
             // path parameters in the sub-path have to be checked later
-            ApiOperation operation = apiDef.getOperation(resource, method).orElse(null);
-            if (operation==null) {
-                throwNotAllowedOrNotFound(getMethods(service.getData(),entrypoint,subPath));
-            }
-
-            Optional<String> collectionId = resource.getCollectionId();
+            Optional<String> collectionId = route.get().resource.getCollectionId();
+            ImmutableListMultimap<String, OgcApiQueryParameter> operationParameters = route.get().operationParameters;
 
             // validate query parameters
             requestContext.getUriInfo()
                     .getQueryParameters()
-                    .entrySet()
-                    .stream()
-                    .forEach(p -> {
-                        String name = p.getKey();
-                        List<String> values = p.getValue();
-                        operation.getQueryParameters()
-                                .stream()
-                                .filter(param -> param.getName().equalsIgnoreCase(name))
-                                .forEach(param -> {
-                                    Optional<String> result = param.validate(service.getData(), collectionId, values);
-                                    if (result.isPresent())
-                                        throw new BadRequestException(result.get());
-                                });
-                    });
+                    .forEach((name, values) -> operationParameters.get(name.toLowerCase())
+                            .forEach(param -> {
+                                Optional<String> result = param.validate(service.getData(), collectionId, values);
+                                if (result.isPresent())
+                                    throw new BadRequestException(result.get());
+                            }));
         }
 
         // TODO check lang, too
 
+        if (isCacheable) {
+            Optional<CacheValidators> cacheValidators = getCacheValidators(service.getData(), routingTable, requestContext.getUriInfo()
+                                                                                                                                   .getRequestUri(), selectedMediaType, selectedLanguage, contentVersion.getAsLong());
+            if (cacheValidators.isPresent()) {
+                Optional<Response> notModified = cacheValidators.get()
+                                                                .evaluatePreconditions(requestContext.getRequest());
+                if (notModified.isPresent()) {
+                    // the client has the current representation, the endpoint is not invoked
+                    throw new WebApplicationException(notModified.get());
+                }
+                requestContext.setProperty(CacheValidators.CACHE_VALIDATORS_KEY, cacheValidators.get());
+            }
+        }
+
         ogcApiInjectableContext.inject(requestContext, apiRequestContext);
 
         return ogcApiEndpoint;
@@ -191,57 +206,34 @@ public class ApiRequestDispatcher implements ServiceEndpoint {
                          .collect(ImmutableSet.toImmutableSet());
     }
 
-    private Optional<EndpointExtension> findEndpoint(OgcApiDataV2 dataset,
-                                                     @PathParam("entrypoint") String entrypoint,
-                                                     String subPath, String method) {
-        if (method=="OPTIONS") {
-            // special treatment for OPTIONS
-            // check that the resource exists and in that case use the general endpoint for all OPTIONS requests
-            boolean resourceExists = getEndpoints().stream()
-                    .filter(endpoint -> endpoint.isEnabledForApi(dataset))
-                    .anyMatch(endpoint -> {
-                        ApiEndpointDefinition apiDef = endpoint.getDefinition(dataset);
-                        if (apiDef.getSortPriority()!=SORT_PRIORITY_DUMMY)
-                            return apiDef.matches("/"+entrypoint+subPath, null);
-                        return false;
-                    });
-            if (!resourceExists)
-                throw new NotFoundException("The requested path is not a resource in this API.");
-
-            return getEndpoints().stream()
-                    .filter(endpoint -> endpoint.getClass()== OptionsEndpoint.class)
-                    .findAny();
+    private Optional<CacheValidators> getCacheValidators(OgcApiDataV2 apiData, ApiRoutingTable routingTable,
+                                                         URI requestUri, ApiMediaType mediaType, Locale language,
+                                                         long contentVersion) {
+        Optional<FoundationConfiguration> config = apiData.getExtension(FoundationConfiguration.class);
+        // responses of secured APIs are not shared
+        if (apiData.getSecured() || !config.map(FoundationConfiguration::getConditionalRequests)
+                                           .orElse(false)) {
+            return Optional.empty();
         }
 
-        return getEndpoints().stream()
-                             .filter(endpoint -> endpoint.isEnabledForApi(dataset))
-                             .filter(endpoint -> {
-                                 ApiEndpointDefinition apiDef = endpoint.getDefinition(dataset);
-                                 if (apiDef!=null && apiDef.getSortPriority()!=SORT_PRIORITY_DUMMY)
-                                     return apiDef.matches("/"+entrypoint+subPath, method);
-                                 return false;
-                             })
-                             .filter(endpoint -> endpoint.isEnabledForApi(dataset))
-                             .findFirst();
+        int maxAge = Objects.requireNonNullElse(config.get()
+                                                      .getCacheMaxAge(), 0);
+
+        // if the resource can change within the revision, the modification date is unknown
+        Optional<Date> lastModified = contentVersion == 0L ? Optional.of(routingTable.getLastModified()) : Optional.empty();
+
+        return Optional.of(new CacheValidators(routingTable.getEntityTag(requestUri, getExternalUri(), mediaType, language, contentVersion), lastModified, maxAge));
     }
 
-    private Set<String> getMethods(OgcApiDataV2 dataset,
-                                   @PathParam("entrypoint") String entrypoint,
-                                   String subPath) {
-        return getEndpoints().stream()
-                .map(endpoint -> {
-                    ApiEndpointDefinition apiDef = endpoint.getDefinition(dataset);
-                    if (!apiDef.getResources().isEmpty()) {
-                        Optional<OgcApiResource> resource = apiDef.getResource("/" + entrypoint + subPath);
-                        if (resource.isPresent())
-                            return resource.get().getOperations().keySet();
-                        return null;
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .flatMap(Set::stream)
-                .collect(Collectors.toSet());
+    private ApiRoutingTable getRoutingTable(OgcApiDataV2 apiData) {
+        List<EndpointExtension> endpoints = getEndpoints();
+        ApiRoutingTable routingTable = routingTables.get(apiData.getId());
+        if (Objects.nonNull(routingTable) && routingTable.isValidFor(apiData, endpoints)) {
+            return routingTable;
+        }
+
+        // the API has been reloaded or the endpoints have changed
+        return routingTables.compute(apiData.getId(), (apiId, current) -> Objects.nonNull(current) && current.isValidFor(apiData, endpoints) ? current : new ApiRoutingTable(apiData, endpoints));
     }
 
     private List<EndpointExtension> getEndpoints() {
@@ -0,0 +1,265 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition;
+import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
+import de.ii.ldproxy.ogcapi.domain.ApiOperation;
+import de.ii.ldproxy.ogcapi.domain.CachePolicy;
+import de.ii.ldproxy.ogcapi.domain.EndpointExtension;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.OgcApiQueryParameter;
+import de.ii.ldproxy.ogcapi.domain.OgcApiResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.EntityTag;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static de.ii.ldproxy.ogcapi.domain.ApiEndpointDefinition.SORT_PRIORITY_DUMMY;
+
+/**
+ * The routing table of an API. It is built once from the endpoint definitions of all endpoints that are
+ * enabled for the API and is replaced, if the API configuration or the set of endpoints changes.
+ *
+ * Requests are routed by the first path segment to the candidate endpoints, then the resource is looked up
+ * by its path or, for paths with path parameters, by its precompiled pattern. As before, the first endpoint
+ * in the order of the extension registry wins. The query parameters and media types of each operation are
+ * resolved when the table is built.
+ *
+ * The table also represents the revision of the API that is used to derive the entity tags of responses
+ * with the cache policy {@link CachePolicy#API_REVISION}.
+ */
+class ApiRoutingTable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiRoutingTable.class);
+
+    // the output of the formats may change with a new release, so entity tags are not reused after a restart
+    private static final long STARTUP = System.currentTimeMillis();
+
+    private final OgcApiDataV2 apiData;
+    private final List<EndpointExtension> endpoints;
+    private final ImmutableListMultimap<String, EndpointRoutes> routesByEntrypoint;
+    private final int revision;
+    private final Date lastModified;
+
+    ApiRoutingTable(OgcApiDataV2 apiData, List<EndpointExtension> endpoints) {
+        this.apiData = apiData;
+        this.endpoints = ImmutableList.copyOf(endpoints);
+
+        ImmutableListMultimap.Builder<String, EndpointRoutes> builder = ImmutableListMultimap.builder();
+        for (EndpointExtension endpoint : endpoints) {
+            if (!endpoint.isEnabledForApi(apiData)) {
+                continue;
+            }
+            ApiEndpointDefinition definition = endpoint.getDefinition(apiData);
+            if (Objects.isNull(definition) || definition.getSortPriority() == SORT_PRIORITY_DUMMY || definition.getResources()
+                                                                                                                  .isEmpty()) {
+                continue;
+            }
+            builder.put(definition.getApiEntrypoint(), new EndpointRoutes(endpoint, definition));
+        }
+        this.routesByEntrypoint = builder.build();
+        this.revision = Objects.hash(STARTUP, apiData, this.endpoints);
+        // HTTP dates have a resolution of seconds
+        this.lastModified = new Date(System.currentTimeMillis() / 1000 * 1000);
+
+        LOGGER.debug("Routing table for API '{}' built with {} endpoints.", apiData.getId(), routesByEntrypoint.size());
+    }
+
+    /**
+     * @param apiData the current configuration of the API
+     * @param endpoints the current endpoints
+     * @return {@code true}, if the table has been built for this configuration and these endpoints
+     */
+    boolean isValidFor(OgcApiDataV2 apiData, List<EndpointExtension> endpoints) {
+        return this.apiData == apiData && this.endpoints.equals(endpoints);
+    }
+
+    /**
+     * @param requestUri the request URI including the query
+     * @param externalUri the external URI of the services, if any
+     * @param mediaType the negotiated media type
+     * @param language the negotiated language
+     * @param contentVersion the version of the resource, see {@link EndpointExtension#getContentVersion}
+     * @return the weak entity tag of the representation in the current revision of the API
+     */
+    EntityTag getEntityTag(URI requestUri, Optional<URI> externalUri, ApiMediaType mediaType, Locale language,
+                           long contentVersion) {
+        Hasher hasher = Hashing.murmur3_128()
+                               .newHasher()
+                               .putInt(revision)
+                               .putLong(contentVersion)
+                               .putString(requestUri.toString(), StandardCharsets.UTF_8)
+                               .putString(externalUri.map(URI::toString)
+                                                     .orElse(""), StandardCharsets.UTF_8)
+                               .putString(mediaType.type()
+                                                   .toString(), StandardCharsets.UTF_8)
+                               .putString(language.toLanguageTag(), StandardCharsets.UTF_8);
+
+        // the representation is the same for all content encodings, so the tag is weak
+        return new EntityTag(hasher.hash()
+                                   .toString(), true);
+    }
+
+    /**
+     * @return the time when the current revision of the API was loaded
+     */
+    Date getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @param entrypoint the first path segment
+     * @param path the path of the resource, starting with the entrypoint
+     * @param method the HTTP method
+     * @return the route of the first endpoint that supports the request
+     */
+    Optional<Route> find(String entrypoint, String path, String method) {
+        for (EndpointRoutes endpointRoutes : routesByEntrypoint.get(entrypoint)) {
+            Optional<ResourceRoutes> resourceRoutes = endpointRoutes.getResource(path);
+            if (resourceRoutes.isPresent()) {
+                Optional<Route> route = resourceRoutes.get()
+                                                      .getRoute(method);
+                if (route.isPresent()) {
+                    return route;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @param entrypoint the first path segment
+     * @param path the path of the resource, starting with the entrypoint
+     * @return the HTTP methods supported at the path
+     */
+    Set<String> getMethods(String entrypoint, String path) {
+        ImmutableSet.Builder<String> methods = ImmutableSet.builder();
+        for (EndpointRoutes endpointRoutes : routesByEntrypoint.get(entrypoint)) {
+            endpointRoutes.getResource(path)
+                          .ifPresent(resourceRoutes -> methods.addAll(resourceRoutes.resource.getOperations()
+                                                                                             .keySet()));
+        }
+
+        return methods.build();
+    }
+
+    /**
+     * A resolved route: the endpoint with the resource and operation that serve the request.
+     */
+    static class Route {
+        final EndpointExtension endpoint;
+        final OgcApiResource resource;
+        final ApiOperation operation;
+        final List<OgcApiQueryParameter> knownParameters;
+        final Set<String> knownParameterNames;
+        final ImmutableListMultimap<String, OgcApiQueryParameter> operationParameters;
+        final ImmutableSet<ApiMediaType> mediaTypes;
+        final CachePolicy cachePolicy;
+
+        private Route(EndpointExtension endpoint, OgcApiResource resource, ApiOperation operation,
+                      List<OgcApiQueryParameter> knownParameters, ImmutableSet<ApiMediaType> mediaTypes) {
+            this.endpoint = endpoint;
+            this.resource = resource;
+            this.operation = operation;
+            this.knownParameters = knownParameters;
+            this.knownParameterNames = knownParameters.stream()
+                                                      .map(parameter -> parameter.getName()
+                                                                                 .toLowerCase())
+                                                      .collect(ImmutableSet.toImmutableSet());
+            this.operationParameters = operation.getQueryParameters()
+                                                .stream()
+                                                .collect(ImmutableListMultimap.toImmutableListMultimap(parameter -> parameter.getName()
+                                                                                                                             .toLowerCase(), parameter -> parameter));
+            this.mediaTypes = mediaTypes;
+            this.cachePolicy = endpoint.getCachePolicy();
+        }
+    }
+
+    private static class EndpointRoutes {
+        private final Map<String, ResourceRoutes> resourcesByPath;
+        private final List<ResourceRoutes> resources;
+
+        private EndpointRoutes(EndpointExtension endpoint, ApiEndpointDefinition definition) {
+            this.resourcesByPath = definition.getResources()
+                                             .entrySet()
+                                             .stream()
+                                             .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, entry -> new ResourceRoutes(endpoint, entry.getValue())));
+            this.resources = ImmutableList.copyOf(resourcesByPath.values());
+        }
+
+        // same lookup as ApiEndpointDefinition.getResource()
+        private Optional<ResourceRoutes> getResource(String path) {
+            ResourceRoutes resourceRoutes = resourcesByPath.get(path);
+            if (Objects.nonNull(resourceRoutes)) {
+                return Optional.of(resourceRoutes);
+            }
+
+            return resources.stream()
+                            .filter(candidate -> candidate.pathPattern.matcher(path)
+                                                                      .matches())
+                            .findFirst();
+        }
+    }
+
+    private static class ResourceRoutes {
+        private final OgcApiResource resource;
+        private final Pattern pathPattern;
+        private final Map<String, Route> routes;
+
+        private ResourceRoutes(EndpointExtension endpoint, OgcApiResource resource) {
+            this.resource = resource;
+            this.pathPattern = resource.getPathPatternCompiled();
+
+            // the known query parameters are those of the GET operation, independent of the method
+            List<OgcApiQueryParameter> knownParameters = Optional.ofNullable(resource.getOperations()
+                                                                                     .get("GET"))
+                                                                 .filter(operation -> operation.getSuccess()
+                                                                                               .isPresent())
+                                                                 .map(ApiOperation::getQueryParameters)
+                                                                 .orElse(ImmutableList.of());
+
+            this.routes = resource.getOperations()
+                                  .entrySet()
+                                  .stream()
+                                  .collect(ImmutableMap.toImmutableMap(Map.Entry::getKey, entry -> new Route(endpoint, resource, entry.getValue(), knownParameters, getMediaTypes(entry.getValue()))));
+        }
+
+        private Optional<Route> getRoute(String method) {
+            // support HEAD for all GETs
+            return Optional.ofNullable(routes.get(method.equals("HEAD") ? "GET" : method));
+        }
+
+        private static ImmutableSet<ApiMediaType> getMediaTypes(ApiOperation operation) {
+            return operation.getSuccess()
+                            .map(success -> success.getContent()
+                                                   .values()
+                                                   .stream()
+                                                   .map(content -> content.getOgcApiMediaType())
+                                                   .collect(ImmutableSet.toImmutableSet()))
+                            .orElse(ImmutableSet.of());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Adds the entity tag, the last modification date and the cache control directive to successful responses
+ * of endpoints that support conditional requests. Endpoints that set their own entity tag are not changed.
+ */
+@Component
+@Provides
+@Instantiate
+public class CacheHeadersFilter implements ContainerResponseFilter {
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) throws IOException {
+
+        Object cacheValidators = requestContext.getProperty(CacheValidators.CACHE_VALIDATORS_KEY);
+        if (!(cacheValidators instanceof CacheValidators) ||
+                responseContext.getStatus() != Response.Status.OK.getStatusCode() ||
+                Objects.nonNull(responseContext.getHeaderString(HttpHeaders.ETAG))) {
+            return;
+        }
+
+        ((CacheValidators) cacheValidators).addHeaders(responseContext.getHeaders());
+    }
+}
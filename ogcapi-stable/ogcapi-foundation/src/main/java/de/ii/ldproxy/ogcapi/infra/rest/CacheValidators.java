@@ -0,0 +1,71 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The validators and the cache control directive of a response. They are determined by the request
+ * dispatcher before the endpoint is invoked and added to the response by {@link CacheHeadersFilter}.
+ */
+class CacheValidators {
+
+    static final String CACHE_VALIDATORS_KEY = "OGCAPI_CACHE_VALIDATORS";
+
+    private final EntityTag entityTag;
+    private final Optional<Date> lastModified;
+    private final CacheControl cacheControl;
+
+    CacheValidators(EntityTag entityTag, Optional<Date> lastModified, int maxAge) {
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+        this.cacheControl = new CacheControl();
+        cacheControl.setNoTransform(false);
+        if (maxAge > 0) {
+            cacheControl.setMaxAge(maxAge);
+        } else {
+            // the response may be stored, but has to be revalidated before it is used
+            cacheControl.setNoCache(true);
+        }
+    }
+
+    /**
+     * @param request the request
+     * @return the 304 response, if the client already has the current representation
+     */
+    Optional<Response> evaluatePreconditions(Request request) {
+        Response.ResponseBuilder notModified = lastModified.isPresent() ?
+                request.evaluatePreconditions(lastModified.get(), entityTag) :
+                request.evaluatePreconditions(entityTag);
+        if (Objects.isNull(notModified)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(notModified.tag(entityTag)
+                                      .cacheControl(cacheControl)
+                                      .build());
+    }
+
+    EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    void addHeaders(MultivaluedMap<String, Object> headers) {
+        headers.putSingle(HttpHeaders.ETAG, entityTag);
+        lastModified.ifPresent(date -> headers.putSingle(HttpHeaders.LAST_MODIFIED, date));
+        headers.putSingle(HttpHeaders.CACHE_CONTROL, cacheControl);
+    }
+}
@@ -0,0 +1,339 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.FoundationConfiguration;
+import de.ii.ldproxy.ogcapi.domain.PrecompressedEntity;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses response entities of OGC API requests, if the client supports it according to the
+ * {@code Accept-Encoding} header. The entity stream is compressed on the fly, flushes of the
+ * streaming writers are passed through as sync flushes, so streamed feature responses are not buffered.
+ * Responses that already have a {@code Content-Encoding} are passed through unchanged. For a
+ * {@link PrecompressedEntity}, the matching variant is selected instead of compressing the entity again.
+ */
+@Component
+@Provides
+@Instantiate
+public class CompressionFilter implements ContainerResponseFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressionFilter.class);
+
+    private static final int DEFAULT_MINIMUM_SIZE = 1024;
+    private static final int BUFFER_SIZE = 8192;
+
+    // these formats are already compressed, another compression only costs CPU time
+    private static final List<MediaType> INCOMPRESSIBLE_MEDIA_TYPES = ImmutableList.of(
+            new MediaType("image", "png"),
+            new MediaType("image", "jpeg"),
+            new MediaType("image", "webp"),
+            new MediaType("application", "zip"),
+            new MediaType("application", "gzip"));
+
+    enum ContentEncoding {
+        GZIP("gzip") {
+            @Override
+            OutputStream wrap(OutputStream outputStream) throws IOException {
+                return new GZIPOutputStream(outputStream, BUFFER_SIZE, true);
+            }
+        },
+        DEFLATE("deflate") {
+            @Override
+            OutputStream wrap(OutputStream outputStream) {
+                return new DeflaterOutputStream(outputStream, new Deflater(), BUFFER_SIZE, true);
+            }
+        };
+
+        private final String name;
+
+        ContentEncoding(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        abstract OutputStream wrap(OutputStream outputStream) throws IOException;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) throws IOException {
+
+        Object apiRequestContext = requestContext.getProperty(RequestContextBinder.OGCAPI_REQUEST_CONTEXT_KEY);
+        Optional<FoundationConfiguration> config = apiRequestContext instanceof ApiRequestContext ?
+                ((ApiRequestContext) apiRequestContext).getApi()
+                                                       .getData()
+                                                       .getExtension(FoundationConfiguration.class) :
+                Optional.empty();
+        boolean compressResponses = config.map(FoundationConfiguration::getCompressResponses)
+                                          .orElse(false);
+
+        // there is no writer for the entity itself, so a variant is always selected
+        if (responseContext.getEntity() instanceof PrecompressedEntity) {
+            selectVariant(requestContext, responseContext, (PrecompressedEntity) responseContext.getEntity(), compressResponses);
+            return;
+        }
+
+        if (!compressResponses || !responseContext.hasEntity()) {
+            return;
+        }
+
+        if (!isCompressible(requestContext, responseContext, config.get())) {
+            return;
+        }
+
+        // the representation depends on the header, even if the current client does not support compression
+        responseContext.getHeaders()
+                       .add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        Optional<ContentEncoding> contentEncoding = negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (!contentEncoding.isPresent()) {
+            return;
+        }
+
+        int minimumSize = Optional.ofNullable(config.get()
+                                                    .getCompressionMinimumSize())
+                                  .orElse(DEFAULT_MINIMUM_SIZE);
+
+        LOGGER.debug("content-encoding {}", contentEncoding.get()
+                                                           .getName());
+
+        responseContext.setEntityStream(new CompressingOutputStream(responseContext.getEntityStream(), responseContext.getHeaders(), contentEncoding.get(), minimumSize));
+    }
+
+    private void selectVariant(ContainerRequestContext requestContext,
+                               ContainerResponseContext responseContext,
+                               PrecompressedEntity entity, boolean compressResponses) {
+        if (!compressResponses) {
+            responseContext.setEntity(entity.getEntity());
+            return;
+        }
+
+        responseContext.getHeaders()
+                       .add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        Optional<ContentEncoding> contentEncoding = negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (contentEncoding.isPresent() && contentEncoding.get() == ContentEncoding.GZIP) {
+            responseContext.getHeaders()
+                           .putSingle(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP.getName());
+            responseContext.setEntity(entity.getGzipEntity());
+        } else {
+            responseContext.setEntity(entity.getEntity());
+        }
+    }
+
+    private boolean isCompressible(ContainerRequestContext requestContext,
+                                   ContainerResponseContext responseContext,
+                                   FoundationConfiguration config) {
+        if (requestContext.getMethod()
+                          .equalsIgnoreCase("HEAD")) {
+            return false;
+        }
+
+        // precompressed or partial content is passed through
+        if (Objects.nonNull(responseContext.getHeaderString(HttpHeaders.CONTENT_ENCODING)) ||
+                Objects.nonNull(responseContext.getHeaderString("Content-Range"))) {
+            return false;
+        }
+
+        MediaType mediaType = responseContext.getMediaType();
+        if (Objects.isNull(mediaType)) {
+            return false;
+        }
+
+        boolean incompressible = INCOMPRESSIBLE_MEDIA_TYPES.stream()
+                                                           .anyMatch(type -> type.isCompatible(mediaType));
+        boolean excluded = config.getCompressionExcludedMediaTypes()
+                                 .stream()
+                                 .map(this::parseMediaType)
+                                 .filter(Objects::nonNull)
+                                 .anyMatch(type -> type.isCompatible(mediaType));
+
+        return !incompressible && !excluded;
+    }
+
+    /**
+     * Select the content coding with the highest quality value (RFC 7231, section 5.3.4). The wildcard
+     * only applies to codings that are not listed explicitly, so {@code gzip;q=0, *} does not select
+     * gzip. If the client does not express a preference, gzip is preferred over deflate.
+     *
+     * @param acceptEncoding the value of the {@code Accept-Encoding} header
+     * @return the selected content coding, if the client accepts any of the supported codings
+     */
+    static Optional<ContentEncoding> negotiate(String acceptEncoding) {
+        if (Objects.isNull(acceptEncoding) || acceptEncoding.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<ContentEncoding, Double> listedQualities = new EnumMap<>(ContentEncoding.class);
+        Double wildcardQuality = null;
+
+        for (String coding : Splitter.on(',')
+                                     .trimResults()
+                                     .omitEmptyStrings()
+                                     .split(acceptEncoding)) {
+            List<String> parts = Splitter.on(';')
+                                         .trimResults()
+                                         .splitToList(coding);
+            String name = parts.get(0)
+                               .toLowerCase();
+            double quality = parts.stream()
+                                  .skip(1)
+                                  .filter(param -> param.startsWith("q="))
+                                  .findFirst()
+                                  .map(param -> parseQuality(param.substring(2)))
+                                  .orElse(1.0);
+
+            if (name.equals("*")) {
+                wildcardQuality = quality;
+                continue;
+            }
+
+            for (ContentEncoding contentEncoding : ContentEncoding.values()) {
+                if (contentEncoding.getName()
+                                   .equals(name) || name.equals("x-" + contentEncoding.getName())) {
+                    listedQualities.put(contentEncoding, quality);
+                }
+            }
+        }
+
+        ContentEncoding selected = null;
+        double selectedQuality = 0.0;
+
+        // the values are in the order of preference, so a coding only wins with a higher quality
+        for (ContentEncoding contentEncoding : ContentEncoding.values()) {
+            Double quality = listedQualities.containsKey(contentEncoding) ? listedQualities.get(contentEncoding) : wildcardQuality;
+            if (Objects.nonNull(quality) && quality > selectedQuality) {
+                selected = contentEncoding;
+                selectedQuality = quality;
+            }
+        }
+
+        return Optional.ofNullable(selected);
+    }
+
+    private static double parseQuality(String quality) {
+        try {
+            return Double.parseDouble(quality);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private MediaType parseMediaType(String mediaType) {
+        try {
+            return MediaType.valueOf(mediaType);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid media type '{}' in configuration option 'compressionExcludedMediaTypes', the value is ignored.", mediaType);
+            return null;
+        }
+    }
+
+    /**
+     * Buffers the entity until the minimum size is reached. Smaller entities are written uncompressed,
+     * otherwise the {@code Content-Encoding} header is set before the first byte is written to the
+     * underlying stream, i.e. before the headers are committed.
+     */
+    static class CompressingOutputStream extends OutputStream {
+
+        private final OutputStream outputStream;
+        private final MultivaluedMap<String, Object> headers;
+        private final ContentEncoding contentEncoding;
+        private final int minimumSize;
+        private ByteArrayOutputStream buffer;
+        private OutputStream compressingStream;
+        private boolean closed;
+
+        CompressingOutputStream(OutputStream outputStream, MultivaluedMap<String, Object> headers,
+                                ContentEncoding contentEncoding, int minimumSize) {
+            this.outputStream = outputStream;
+            this.headers = headers;
+            this.contentEncoding = contentEncoding;
+            this.minimumSize = minimumSize;
+            this.buffer = new ByteArrayOutputStream(Math.min(Math.max(minimumSize, 0), BUFFER_SIZE));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (Objects.isNull(compressingStream)) {
+                if (buffer.size() + length < minimumSize) {
+                    buffer.write(bytes, offset, length);
+                    return;
+                }
+                startCompression();
+            }
+            compressingStream.write(bytes, offset, length);
+        }
+
+        // flushes before the minimum size is reached are deferred, the decision whether to compress is still open
+        @Override
+        public void flush() throws IOException {
+            if (Objects.nonNull(compressingStream)) {
+                compressingStream.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (Objects.isNull(compressingStream)) {
+                buffer.writeTo(outputStream);
+                buffer = null;
+                outputStream.close();
+            } else {
+                compressingStream.close();
+            }
+        }
+
+        private void startCompression() throws IOException {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, contentEncoding.getName());
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+            compressingStream = contentEncoding.wrap(outputStream);
+            buffer.writeTo(compressingStream);
+            buffer = null;
+        }
+    }
+}
@@ -7,6 +7,7 @@
  */
 package de.ii.ldproxy.ogcapi.infra.rest;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import de.ii.ldproxy.ogcapi.domain.I18n;
 import de.ii.ldproxy.ogcapi.domain.ApiMediaType;
@@ -16,10 +17,14 @@ import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.*;
+import java.util.AbstractMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 public class ContentNegotiation {
@@ -29,6 +34,12 @@ public class ContentNegotiation {
     private static final String ACCEPT_HEADER = "Accept";
     private static final String LANGUAGE_PARAMETER = "lang";
     private static final String ACCEPT_LANGUAGE_HEADER = "Accept-Language";
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    // clients send only a few distinct Accept headers and each resource has a fixed set of media types,
+    // so the selected media type is memoized for each combination; the cache is shared by all instances
+    private static final Map<Map.Entry<String, ImmutableSet<ApiMediaType>>, Optional<ApiMediaType>> NEGOTIATED_MEDIA_TYPES = new ConcurrentHashMap<>();
+    private static final Map<ImmutableSet<ApiMediaType>, List<Variant>> VARIANTS = new ConcurrentHashMap<>();
 
     public ContentNegotiation() {
     }
@@ -41,7 +52,7 @@ public class ContentNegotiation {
 
         LOGGER.debug("accept {}", requestContext.getHeaderString(ACCEPT_HEADER));
 
-        Optional<ApiMediaType> ogcApiMediaType = negotiateMediaType(supportedMediaTypes, requestContext.getRequest());
+        Optional<ApiMediaType> ogcApiMediaType = negotiateMediaType(supportedMediaTypes, requestContext.getRequest(), requestContext.getHeaderString(ACCEPT_HEADER));
 
         LOGGER.debug("content-type {}", ogcApiMediaType);
 
@@ -55,7 +66,7 @@ public class ContentNegotiation {
 
         LOGGER.debug("accept {}", httpHeaders.getHeaderString(ACCEPT_HEADER));
 
-        Optional<ApiMediaType> ogcApiMediaType = negotiateMediaType(supportedMediaTypes, request);
+        Optional<ApiMediaType> ogcApiMediaType = negotiateMediaType(supportedMediaTypes, request, httpHeaders.getHeaderString(ACCEPT_HEADER));
 
         LOGGER.debug("content-type {}", ogcApiMediaType);
 
@@ -112,21 +123,49 @@ public class ContentNegotiation {
 
     private Optional<ApiMediaType> negotiateMediaType(
             ImmutableSet<ApiMediaType> supportedMediaTypes,
-            Request request) {
-        MediaType[] supportedMediaTypesArray = supportedMediaTypes.stream()
-                                                                  .flatMap(this::toTypes)
-                                                                  .distinct()
-                                                                  .toArray(MediaType[]::new);
+            Request request, String acceptHeader) {
+        if (supportedMediaTypes.isEmpty()) {
+            return Optional.empty();
+        }
 
-        Variant variant = null;
-        if (supportedMediaTypesArray.length > 0) {
-            variant = request.selectVariant(Variant.mediaTypes(supportedMediaTypesArray)
-                                         .build());
+        Map.Entry<String, ImmutableSet<ApiMediaType>> key = new AbstractMap.SimpleImmutableEntry<>(Objects.toString(acceptHeader, ""), supportedMediaTypes);
+        Optional<ApiMediaType> ogcApiMediaType = NEGOTIATED_MEDIA_TYPES.get(key);
+        if (Objects.nonNull(ogcApiMediaType)) {
+            return ogcApiMediaType;
         }
 
-        return Optional.ofNullable(variant)
-                       .map(Variant::getMediaType)
-                       .flatMap(mediaType -> findMatchingOgcApiMediaType(mediaType, supportedMediaTypes));
+        Variant variant = request.selectVariant(getVariants(supportedMediaTypes));
+
+        ogcApiMediaType = Optional.ofNullable(variant)
+                                  .map(Variant::getMediaType)
+                                  .flatMap(mediaType -> findMatchingOgcApiMediaType(mediaType, supportedMediaTypes));
+
+        putBounded(NEGOTIATED_MEDIA_TYPES, key, ogcApiMediaType);
+
+        return ogcApiMediaType;
+    }
+
+    private List<Variant> getVariants(ImmutableSet<ApiMediaType> supportedMediaTypes) {
+        List<Variant> variants = VARIANTS.get(supportedMediaTypes);
+        if (Objects.isNull(variants)) {
+            MediaType[] supportedMediaTypesArray = supportedMediaTypes.stream()
+                                                                      .flatMap(this::toTypes)
+                                                                      .distinct()
+                                                                      .toArray(MediaType[]::new);
+            variants = ImmutableList.copyOf(Variant.mediaTypes(supportedMediaTypesArray)
+                                                   .build());
+            putBounded(VARIANTS, supportedMediaTypes, variants);
+        }
+
+        return variants;
+    }
+
+    // the caches only grow with the number of distinct Accept headers, if that is unexpectedly large, start over
+    private static <K, V> void putBounded(Map<K, V> cache, K key, V value) {
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(key, value);
     }
 
     private Optional<ApiMediaType> findMatchingOgcApiMediaType(MediaType mediaType,
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import de.ii.ldproxy.ogcapi.domain.PrecompressedEntity;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes the uncompressed variant of a {@link PrecompressedEntity}. Usually the {@link CompressionFilter}
+ * replaces the entity with one of its variants, this writer covers responses that bypass the filter.
+ */
+@Component
+@Provides
+@Instantiate
+@Provider
+@Produces(MediaType.WILDCARD)
+public class PrecompressedEntityWriter implements MessageBodyWriter<PrecompressedEntity> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return PrecompressedEntity.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(PrecompressedEntity entity, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType) {
+        return entity.getEntity().length;
+    }
+
+    @Override
+    public void writeTo(PrecompressedEntity entity, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+                        OutputStream entityStream) throws IOException {
+        entityStream.write(entity.getEntity());
+    }
+}
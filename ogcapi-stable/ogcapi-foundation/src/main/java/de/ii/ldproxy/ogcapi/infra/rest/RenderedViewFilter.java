@@ -0,0 +1,173 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import de.ii.ldproxy.ogcapi.domain.ApiRequestContext;
+import de.ii.ldproxy.ogcapi.domain.ApiRevisionCache;
+import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
+import de.ii.ldproxy.ogcapi.domain.PrecompressedEntity;
+import de.ii.xtraplatform.dropwizard.domain.Dropwizard;
+import io.dropwizard.views.View;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Caches the rendered HTML pages of endpoints with the cache policy
+ * {@link de.ii.ldproxy.ogcapi.domain.CachePolicy#API_REVISION}. The entity tag of the response already
+ * identifies the revision of the API, the request URI, the media type, the language and the content version,
+ * so it is used as the key. The page is rendered once per key and kept uncompressed and gzip-compressed,
+ * the variant is selected by the {@link CompressionFilter}.
+ *
+ * The cache is looked up after the request has been dispatched to the endpoint, but before the endpoint is
+ * invoked, so a cached page is served without building the view. The headers of the original response are
+ * kept with the page, the validators are added again by the {@link CacheHeadersFilter}.
+ *
+ * Only responses with validators are cached, i.e. pages of secured APIs or of APIs with disabled conditional
+ * requests are rendered on every request.
+ */
+@Component
+@Provides
+@Instantiate
+// response filters with a higher priority are executed first, the compression filter has to see the cached entity
+@Priority(Priorities.USER + 100)
+public class RenderedViewFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenderedViewFilter.class);
+
+    // the keys are too diverse, e.g. because of arbitrary query parameters
+    private static final int MAX_VIEWS_PER_API = 1000;
+    // set again by the cache headers filter and the compression filter
+    private static final Set<String> EXCLUDED_HEADERS = caseInsensitive(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL,
+                                                                        HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_ENCODING, HttpHeaders.VARY);
+
+    private final Dropwizard dropwizard;
+    private final ApiRevisionCache<String, RenderedView> renderedViews;
+
+    public RenderedViewFilter(@Requires Dropwizard dropwizard) {
+        this.dropwizard = dropwizard;
+        this.renderedViews = new ApiRevisionCache<>(MAX_VIEWS_PER_API);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+
+        Object cacheValidators = requestContext.getProperty(CacheValidators.CACHE_VALIDATORS_KEY);
+        Object apiRequestContext = requestContext.getProperty(RequestContextBinder.OGCAPI_REQUEST_CONTEXT_KEY);
+        if (!(cacheValidators instanceof CacheValidators) ||
+                !(apiRequestContext instanceof ApiRequestContext)) {
+            return;
+        }
+
+        OgcApiDataV2 apiData = ((ApiRequestContext) apiRequestContext).getApi()
+                                                                      .getData();
+        String key = ((CacheValidators) cacheValidators).getEntityTag()
+                                                        .getValue();
+
+        // the key includes the media type, so only HTML pages are found
+        RenderedView view = renderedViews.get(apiData, key);
+        if (Objects.isNull(view)) {
+            return;
+        }
+
+        LOGGER.debug("Serving rendered page '{}' of API '{}' from the cache.", requestContext.getUriInfo()
+                                                                                             .getPath(), apiData.getId());
+
+        Response.ResponseBuilder response = Response.ok(view.entity);
+        view.headers.forEach((name, values) -> values.forEach(value -> response.header(name, value)));
+        requestContext.abortWith(response.build());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext,
+                       ContainerResponseContext responseContext) throws IOException {
+
+        Object cacheValidators = requestContext.getProperty(CacheValidators.CACHE_VALIDATORS_KEY);
+        Object apiRequestContext = requestContext.getProperty(RequestContextBinder.OGCAPI_REQUEST_CONTEXT_KEY);
+        if (!(cacheValidators instanceof CacheValidators) ||
+                !(apiRequestContext instanceof ApiRequestContext) ||
+                !(responseContext.getEntity() instanceof View) ||
+                responseContext.getStatus() != Response.Status.OK.getStatusCode() ||
+                !MediaType.TEXT_HTML_TYPE.isCompatible(responseContext.getMediaType())) {
+            return;
+        }
+
+        ApiRequestContext context = (ApiRequestContext) apiRequestContext;
+        OgcApiDataV2 apiData = context.getApi()
+                                      .getData();
+        String key = ((CacheValidators) cacheValidators).getEntityTag()
+                                                        .getValue();
+        View view = (View) responseContext.getEntity();
+        Locale language = context.getLanguage()
+                                 .orElse(Locale.ENGLISH);
+
+        PrecompressedEntity entity = render(view, language);
+        renderedViews.put(apiData, key, new RenderedView(entity, getHeaders(responseContext)));
+
+        responseContext.setEntity(entity);
+    }
+
+    private static MultivaluedMap<String, Object> getHeaders(ContainerResponseContext responseContext) {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        responseContext.getHeaders()
+                       .forEach((name, values) -> {
+                           if (!EXCLUDED_HEADERS.contains(name)) {
+                               headers.addAll(name, values);
+                           }
+                       });
+
+        return headers;
+    }
+
+    private static Set<String> caseInsensitive(String... headers) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Collections.addAll(set, headers);
+
+        return set;
+    }
+
+    private PrecompressedEntity render(View view, Locale language) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16384);
+        dropwizard.getMustacheRenderer()
+                  .render(view, language, buffer);
+
+        return PrecompressedEntity.of(buffer.toByteArray());
+    }
+
+    private static class RenderedView {
+        private final PrecompressedEntity entity;
+        private final MultivaluedMap<String, Object> headers;
+
+        private RenderedView(PrecompressedEntity entity, MultivaluedMap<String, Object> headers) {
+            this.entity = entity;
+            this.headers = headers;
+        }
+    }
+}
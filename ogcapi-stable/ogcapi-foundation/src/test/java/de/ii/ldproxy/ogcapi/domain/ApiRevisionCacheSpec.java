@@ -0,0 +1,137 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.domain;
+
+import com.greghaskins.spectrum.Spectrum;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.beforeEach;
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@RunWith(Spectrum.class)
+public class ApiRevisionCacheSpec {
+
+    ApiRevisionCache<String, String> cache;
+    AtomicInteger computations;
+
+    {
+
+        beforeEach(() -> {
+            cache = new ApiRevisionCache<>(2);
+            computations = new AtomicInteger();
+        });
+
+        describe("revisions", () -> {
+
+            it("it should compute a value once per revision", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+
+                assertEquals(compute(apiData, "k"), "k-1");
+                assertEquals(compute(apiData, "k"), "k-1");
+                assertEquals(computations.get(), 1);
+            });
+
+            it("it should share the values between equal copies of the configuration", () -> {
+                compute(apiData("a", "A"), "k");
+
+                assertEquals(cache.get(apiData("a", "A"), "k"), "k-1");
+            });
+
+            it("it should drop the values of the previous revision", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+                compute(apiData, "k");
+
+                assertNull(cache.get(apiData("a", "B"), "k"));
+                assertNull(cache.get(apiData, "k"));
+            });
+
+            it("it should keep the values of other APIs", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+                compute(apiData, "k");
+                compute(apiData("b", "A"), "k");
+
+                assertEquals(cache.get(apiData, "k"), "k-1");
+            });
+
+            it("it should drop the values of an evicted API", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+                compute(apiData, "k");
+                cache.evict("a");
+
+                assertNull(cache.get(apiData, "k"));
+            });
+
+            it("it should drop the values of all APIs on clear", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+                compute(apiData, "k");
+                cache.clear();
+
+                assertNull(cache.get(apiData, "k"));
+            });
+
+        });
+
+        describe("values", () -> {
+
+            it("it should not cache a missing value", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+
+                assertNull(cache.computeIfAbsent(apiData, "k", key -> null));
+                assertEquals(compute(apiData, "k"), "k-1");
+            });
+
+            it("it should drop the values of an API when the maximum number is reached", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+                compute(apiData, "k1");
+                compute(apiData, "k2");
+                compute(apiData, "k3");
+
+                assertNull(cache.get(apiData, "k1"));
+                assertEquals(cache.get(apiData, "k3"), "k3-3");
+            });
+
+            it("it should keep the first of two values", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+
+                assertNull(cache.putIfAbsent(apiData, "k", "first"));
+                assertEquals(cache.putIfAbsent(apiData, "k", "second"), "first");
+                assertEquals(cache.computeIfAbsent(apiData, "k", key -> "third"), "first");
+            });
+
+            it("it should only remove the given value", () -> {
+                OgcApiDataV2 apiData = apiData("a", "A");
+                cache.put(apiData, "k", "first");
+
+                cache.remove(apiData, "k", "other");
+                assertEquals(cache.get(apiData, "k"), "first");
+
+                cache.remove(apiData, "k", "first");
+                assertNull(cache.get(apiData, "k"));
+            });
+
+        });
+
+    }
+
+    String compute(OgcApiDataV2 apiData, String key) {
+        return cache.computeIfAbsent(apiData, key, k -> k + "-" + computations.incrementAndGet());
+    }
+
+    static OgcApiDataV2 apiData(String id, String label) {
+        return new ImmutableOgcApiDataV2.Builder()
+                .id(id)
+                .serviceType("OGC_API")
+                .label(label)
+                .build();
+    }
+}
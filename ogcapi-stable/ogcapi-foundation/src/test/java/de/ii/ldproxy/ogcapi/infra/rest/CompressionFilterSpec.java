@@ -0,0 +1,164 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.infra.rest;
+
+import com.google.common.io.ByteStreams;
+import com.greghaskins.spectrum.Spectrum;
+import de.ii.ldproxy.ogcapi.infra.rest.CompressionFilter.CompressingOutputStream;
+import de.ii.ldproxy.ogcapi.infra.rest.CompressionFilter.ContentEncoding;
+import org.junit.runner.RunWith;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static com.greghaskins.spectrum.dsl.specification.Specification.beforeEach;
+import static com.greghaskins.spectrum.dsl.specification.Specification.context;
+import static com.greghaskins.spectrum.dsl.specification.Specification.describe;
+import static com.greghaskins.spectrum.dsl.specification.Specification.it;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@RunWith(Spectrum.class)
+public class CompressionFilterSpec {
+
+    static final int MINIMUM_SIZE = 16;
+
+    {
+
+        describe("Accept-Encoding negotiation", () -> {
+
+            it("it should select nothing without a header", () -> {
+                assertEquals(CompressionFilter.negotiate(null), Optional.empty());
+                assertEquals(CompressionFilter.negotiate(""), Optional.empty());
+            });
+
+            it("it should prefer gzip if the client does not express a preference", () -> {
+                assertEquals(CompressionFilter.negotiate("deflate, gzip"), Optional.of(ContentEncoding.GZIP));
+                assertEquals(CompressionFilter.negotiate("*"), Optional.of(ContentEncoding.GZIP));
+            });
+
+            it("it should select the coding with the highest quality", () -> {
+                assertEquals(CompressionFilter.negotiate("gzip;q=0.5, deflate;q=0.8"), Optional.of(ContentEncoding.DEFLATE));
+                assertEquals(CompressionFilter.negotiate("x-gzip, br"), Optional.of(ContentEncoding.GZIP));
+            });
+
+            it("it should not select a coding with quality 0", () -> {
+                assertEquals(CompressionFilter.negotiate("gzip;q=0"), Optional.empty());
+                assertEquals(CompressionFilter.negotiate("br, identity"), Optional.empty());
+            });
+
+            it("it should apply the wildcard only to codings that are not listed", () -> {
+                assertEquals(CompressionFilter.negotiate("gzip;q=0, *"), Optional.of(ContentEncoding.DEFLATE));
+                assertEquals(CompressionFilter.negotiate("gzip;q=0, deflate;q=0, *"), Optional.empty());
+                assertEquals(CompressionFilter.negotiate("gzip;q=0.2, *;q=0.5"), Optional.of(ContentEncoding.DEFLATE));
+                assertEquals(CompressionFilter.negotiate("*;q=0"), Optional.empty());
+            });
+
+        });
+
+        describe("CompressingOutputStream", () -> {
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+            beforeEach(() -> {
+                outputStream.reset();
+                headers.clear();
+                headers.putSingle(HttpHeaders.CONTENT_LENGTH, 42);
+            });
+
+            context("given an entity below the minimum size", () -> {
+
+                it("it should write the entity uncompressed", () -> {
+
+                    CompressingOutputStream compressingStream = new CompressingOutputStream(outputStream, headers, ContentEncoding.GZIP, MINIMUM_SIZE);
+                    compressingStream.write(bytes("small"));
+                    compressingStream.close();
+
+                    assertEquals(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), "small");
+                    assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+                    assertTrue(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+
+                });
+
+                it("it should defer flushes", () -> {
+
+                    CompressingOutputStream compressingStream = new CompressingOutputStream(outputStream, headers, ContentEncoding.GZIP, MINIMUM_SIZE);
+                    compressingStream.write(bytes("small"));
+                    compressingStream.flush();
+
+                    assertEquals(outputStream.size(), 0);
+                    assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+
+                });
+
+            });
+
+            context("given an entity that reaches the minimum size", () -> {
+
+                it("it should compress the entity and set the headers", () -> {
+
+                    String entity = "first chunk, second chunk, third chunk";
+                    CompressingOutputStream compressingStream = new CompressingOutputStream(outputStream, headers, ContentEncoding.GZIP, MINIMUM_SIZE);
+                    compressingStream.write(bytes("first chunk, "));
+                    compressingStream.write(bytes("second chunk, third chunk"));
+                    compressingStream.close();
+
+                    assertEquals(headers.getFirst(HttpHeaders.CONTENT_ENCODING), "gzip");
+                    assertNull(headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+                    assertEquals(gunzip(outputStream.toByteArray()), entity);
+
+                });
+
+                it("it should pass flushes through as sync flushes", () -> {
+
+                    String entity = "a chunk that is above the minimum size";
+                    CompressingOutputStream compressingStream = new CompressingOutputStream(outputStream, headers, ContentEncoding.GZIP, MINIMUM_SIZE);
+                    compressingStream.write(bytes(entity));
+                    compressingStream.flush();
+
+                    // the stream is not finished, but everything written so far can be decompressed
+                    assertEquals(gunzipAvailable(outputStream.toByteArray(), entity.length()), entity);
+
+                });
+
+            });
+
+        });
+
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(ByteStreams.toByteArray(inputStream), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String gunzipAvailable(byte[] compressed, int length) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] bytes = new byte[length];
+            int read = ByteStreams.read(inputStream, bytes, 0, length);
+            return new String(Arrays.copyOf(bytes, read), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -8,10 +8,14 @@
 package de.ii.ldproxy.ogcapi.oas30.app;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Resources;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.ii.ldproxy.ogcapi.domain.ApiRevisionCache;
 import de.ii.ldproxy.ogcapi.domain.OgcApiDataV2;
 import de.ii.ldproxy.ogcapi.domain.Metadata;
 import de.ii.ldproxy.ogcapi.domain.ExternalDocumentation;
+import de.ii.ldproxy.ogcapi.domain.PrecompressedEntity;
 import de.ii.ldproxy.ogcapi.domain.URICustomizer;
 import de.ii.ldproxy.ogcapi.oas30.domain.OpenApiExtension;
 import de.ii.xtraplatform.runtime.domain.AuthConfig;
@@ -35,10 +39,26 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Builds the OpenAPI definition of an API from the bundled template and the {@link OpenApiExtension}s.
+ *
+ * The definition is built once per revision of the API configuration and server URL and is kept as
+ * serialized JSON and YAML, each uncompressed and gzip-compressed. Concurrent requests for a definition
+ * that is not yet available wait for the first build. If the configuration of an API changes, the
+ * definitions for the server URLs that were requested before are rebuilt in the background, see
+ * {@link OpenApiDefinitionRefresher}. A change of the extensions discards all definitions.
+ */
 @Component
 @Provides(specifications = {ExtendableOpenApiDefinition.class})
 @Instantiate
@@ -50,14 +70,35 @@ public class ExtendableOpenApiDefinition {
 
     private static Logger LOGGER = LoggerFactory.getLogger(ExtendableOpenApiDefinition.class);
 
+    // the server URL is derived from the request, limit the number of variants per API
+    private static final int MAX_SERVER_URLS = 8;
+
     @Context
     private BundleContext bundleContext;
 
     private final AuthConfig authConfig;
+    private final ApiRevisionCache<String, CompletableFuture<SerializedDefinition>> definitions;
+    private final ConcurrentMap<String, Set<String>> serverUrls;
+    private ExecutorService executorService;
     private Set<OpenApiExtension> openApiExtensions;
 
     public ExtendableOpenApiDefinition(@Requires XtraPlatform xtraPlatform) {
         this.authConfig = xtraPlatform.getConfiguration().auth;
+        this.definitions = new ApiRevisionCache<>(MAX_SERVER_URLS);
+        this.serverUrls = new ConcurrentHashMap<>();
+    }
+
+    // the executor is created on every start of the component, it is shut down when the component is stopped
+    @Validate
+    private void onStart() {
+        this.executorService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("openapi-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+    }
+
+    @Invalidate
+    private void onStop() {
+        executorService.shutdownNow();
     }
 
     private Set<OpenApiExtension> getOpenApiExtensions() {
@@ -67,10 +108,128 @@ public class ExtendableOpenApiDefinition {
         return openApiExtensions;
     }
 
+    private synchronized List<OpenApiExtension> getOpenApiExtensionsSnapshot() {
+        return ImmutableList.copyOf(getOpenApiExtensions());
+    }
+
     public Response getOpenApi(String type, URICustomizer requestUriCustomizer, OgcApiDataV2 apiData) {
 
-        boolean pretty = true;
+        String serverUrl = requestUriCustomizer.copy()
+                                               .clearParameters()
+                                               .ensureNoTrailingSlash()
+                                               .removeLastPathSegment("api")
+                                               .toString();
+
+        SerializedDefinition definition = getDefinition(apiData, serverUrl);
+
+        if (StringUtils.isNotBlank(type) && type.trim()
+                .equalsIgnoreCase("yaml")) {
+            return Response.status(Response.Status.OK)
+                    .entity(definition.yaml)
+                    .type("application/vnd.oai.openapi;version=3.0")
+                    .build();
+        } else {
+            return Response.status(Response.Status.OK)
+                    .entity(definition.json)
+                    .type("application/vnd.oai.openapi+json;version=3.0")
+                    .build();
+        }
+    }
+
+    /**
+     * Builds the definitions of the API in the background for all server URLs that have been requested
+     * before, unless they are already available for the configuration.
+     *
+     * @param apiData the current configuration of the API
+     */
+    public void refresh(OgcApiDataV2 apiData) {
+        Set<String> knownServerUrls = ImmutableSet.copyOf(serverUrls.getOrDefault(apiData.getId(), ImmutableSet.of()));
+        if (knownServerUrls.isEmpty()) {
+            return;
+        }
+
+        for (String serverUrl : knownServerUrls) {
+            executorService.execute(() -> {
+                try {
+                    getDefinition(apiData, serverUrl);
+                } catch (Throwable e) {
+                    LOGGER.warn("OpenAPI definition of API '{}' could not be rebuilt: {}", apiData.getId(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Discards the definitions of the API. The server URLs are kept for the next start of the API.
+     *
+     * @param apiId the API
+     */
+    public void evict(String apiId) {
+        definitions.evict(apiId);
+    }
+
+    private SerializedDefinition getDefinition(OgcApiDataV2 apiData, String serverUrl) {
+        CompletableFuture<SerializedDefinition> definition = definitions.get(apiData, serverUrl);
+        if (Objects.nonNull(definition)) {
+            return join(definition);
+        }
+
+        Set<String> apiServerUrls = serverUrls.computeIfAbsent(apiData.getId(), apiId -> ConcurrentHashMap.newKeySet());
+        if (apiServerUrls.size() < MAX_SERVER_URLS) {
+            apiServerUrls.add(serverUrl);
+        }
+
+        CompletableFuture<SerializedDefinition> newDefinition = new CompletableFuture<>();
+        definition = definitions.putIfAbsent(apiData, serverUrl, newDefinition);
+        if (Objects.nonNull(definition)) {
+            return join(definition);
+        }
+
+        try {
+            SerializedDefinition builtDefinition = buildDefinition(apiData, serverUrl);
+            newDefinition.complete(builtDefinition);
+            return builtDefinition;
+        } catch (RuntimeException e) {
+            // do not cache the failure, the next request tries again
+            definitions.remove(apiData, serverUrl, newDefinition);
+            newDefinition.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static SerializedDefinition join(CompletableFuture<SerializedDefinition> definition) {
+        try {
+            return definition.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private SerializedDefinition buildDefinition(OgcApiDataV2 apiData, String serverUrl) {
+        long startTime = System.nanoTime();
+
+        OpenAPI openAPI = buildOpenApi(apiData, serverUrl);
 
+        try {
+            SerializedDefinition definition = new SerializedDefinition(PrecompressedEntity.of(Json.pretty()
+                                                                                              .writeValueAsBytes(openAPI)),
+                                                                       PrecompressedEntity.of(Yaml.pretty()
+                                                                                              .writeValueAsBytes(openAPI)));
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("OpenAPI definition of API '{}' for '{}' built in {}ms.", apiData.getId(), serverUrl, (System.nanoTime() - startTime) / 1000000);
+            }
+
+            return definition;
+        } catch (IOException e) {
+            throw new RuntimeException("OpenAPI document could not be created", e);
+        }
+    }
+
+    private OpenAPI buildOpenApi(OgcApiDataV2 apiData, String serverUrl) {
         try {
             OpenAPI openAPI = Json.mapper()
                     .readerFor(OpenAPI.class)
@@ -86,11 +245,7 @@ public class ExtendableOpenApiDefinition {
                 openAPI.addSecurityItem(new SecurityRequirement().addList("JWT"));
             }
 
-            openAPI.servers(ImmutableList.of(new Server().url(requestUriCustomizer.copy()
-                    .clearParameters()
-                    .ensureNoTrailingSlash()
-                    .removeLastPathSegment("api")
-                    .toString())));
+            openAPI.servers(ImmutableList.of(new Server().url(serverUrl)));
 
             if (apiData != null) {
 
@@ -130,25 +285,11 @@ public class ExtendableOpenApiDefinition {
 
             // TODO update with examples and details (f enums, lang enums, etc.)
 
-            getOpenApiExtensions().stream()
+            getOpenApiExtensionsSnapshot().stream()
                     .sorted(Comparator.comparing(OpenApiExtension::getSortPriority))
                     .forEachOrdered(openApiExtension -> openApiExtension.process(openAPI, apiData));
 
-
-            if (StringUtils.isNotBlank(type) && type.trim()
-                    .equalsIgnoreCase("yaml")) {
-                return Response.status(Response.Status.OK)
-                        .entity(pretty ? Yaml.pretty(openAPI) : Yaml.mapper()
-                                .writeValueAsString(openAPI))
-                        .type("application/vnd.oai.openapi;version=3.0")
-                        .build();
-            } else {
-                return Response.status(Response.Status.OK)
-                        .entity(pretty ? Json.pretty(openAPI) : Json.mapper()
-                                .writeValueAsString(openAPI))
-                        .type("application/vnd.oai.openapi+json;version=3.0")
-                        .build();
-            }
+            return openAPI;
         } catch (IOException e) {
             throw new RuntimeException("OpenAPI document could not be created", e);
         }
@@ -158,6 +299,7 @@ public class ExtendableOpenApiDefinition {
         final OpenApiExtension openApiExtension = bundleContext.getService(ref);
 
         getOpenApiExtensions().add(openApiExtension);
+        definitions.clear();
     }
 
     private synchronized void onDeparture(ServiceReference<OpenApiExtension> ref) {
@@ -165,8 +307,17 @@ public class ExtendableOpenApiDefinition {
 
         if (Objects.nonNull(openApiExtension)) {
             getOpenApiExtensions().remove(openApiExtension);
+            definitions.clear();
         }
     }
 
+    private static class SerializedDefinition {
+        private final PrecompressedEntity json;
+        private final PrecompressedEntity yaml;
 
+        private SerializedDefinition(PrecompressedEntity json, PrecompressedEntity yaml) {
+            this.json = json;
+            this.yaml = yaml;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2020 interactive instruments GmbH
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package de.ii.ldproxy.ogcapi.oas30.app;
+
+import de.ii.ldproxy.ogcapi.domain.OgcApi;
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Context;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.whiteboard.Wbp;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+import java.util.Objects;
+
+/**
+ * Discards the OpenAPI definitions of an API, when the API is stopped, and rebuilds them in the background,
+ * when the API is started or its configuration is changed.
+ */
+@Component
+@Instantiate
+@Wbp(
+        filter = "(objectClass=de.ii.ldproxy.ogcapi.domain.OgcApi)",
+        onArrival = "onArrival",
+        onModification = "onModification",
+        onDeparture = "onDeparture")
+public class OpenApiDefinitionRefresher {
+
+    @Context
+    private BundleContext bundleContext;
+
+    private final ExtendableOpenApiDefinition openApiDefinition;
+
+    public OpenApiDefinitionRefresher(@Requires ExtendableOpenApiDefinition openApiDefinition) {
+        this.openApiDefinition = openApiDefinition;
+    }
+
+    private synchronized void onArrival(ServiceReference<OgcApi> ref) {
+        refresh(ref);
+    }
+
+    private synchronized void onModification(ServiceReference<OgcApi> ref) {
+        refresh(ref);
+    }
+
+    private synchronized void onDeparture(ServiceReference<OgcApi> ref) {
+        final OgcApi api = bundleContext.getService(ref);
+
+        if (Objects.nonNull(api)) {
+            openApiDefinition.evict(api.getId());
+        }
+    }
+
+    private void refresh(ServiceReference<OgcApi> ref) {
+        final OgcApi api = bundleContext.getService(ref);
+
+        if (Objects.nonNull(api)) {
+            openApiDefinition.refresh(api.getData());
+        }
+    }
+}